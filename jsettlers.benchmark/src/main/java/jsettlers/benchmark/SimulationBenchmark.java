@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.integration.replay.AutoReplaySetting;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.map.loading.list.DirectoryMapLister;
+import jsettlers.logic.map.loading.newmap.MapFileHeader;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.ReplayStartInformation;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+
+/**
+ * Command line tool measuring the throughput of the simulation. It plays maps, savegames or replays headless as fast as possible and reports the
+ * simulated game time per wall time, the time split of the subsystems, the allocation rate, the peak heap usage and a determinism hash for every
+ * game minute.
+ * <p />
+ * Usage: <code>SimulationBenchmark [--minutes=10] [--random=0] [--output=results.csv] [--map=file]... [--replay=replayFile[,mapFile]]...</code>
+ * <br>
+ * Without a map or replay, the replays of the {@link AutoReplaySetting}s are used. The output of the games is written to their log files.
+ */
+public class SimulationBenchmark {
+	private static final int DEFAULT_MINUTES = 10;
+	private static final double BYTES_PER_MB = 1024 * 1024;
+
+	private final PrintStream out = System.out; // the games redirect System.out into their log files
+	private final Map<String, SimulationRun.IGameFactory> games = new LinkedHashMap<>();
+	private final List<SimulationRun> runs = new ArrayList<>();
+	private int minutes = DEFAULT_MINUTES;
+	private long randomSeed = 0;
+	private File outputFile;
+
+	public static void main(String[] args) throws IOException, MapLoadException {
+		CommonConstants.ENABLE_CONSOLE_LOGGING = false;
+		CommonConstants.CONTROL_ALL = true;
+		CommonConstants.USE_SAVEGAME_COMPRESSION = true;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+		TestUtils.setupTempResourceManager();
+
+		SimulationBenchmark benchmark = new SimulationBenchmark();
+		benchmark.parseArguments(args);
+		benchmark.run();
+		System.exit(0); // some game threads are no daemons
+	}
+
+	private void parseArguments(String[] args) throws MapLoadException {
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Unknown argument: " + arg);
+			}
+			String key = arg.substring(2, arg.indexOf('='));
+			String value = arg.substring(arg.indexOf('=') + 1);
+
+			switch (key) {
+			case "minutes":
+				minutes = Integer.parseInt(value);
+				break;
+			case "random":
+				randomSeed = Long.parseLong(value);
+				break;
+			case "output":
+				outputFile = new File(value);
+				break;
+			case "map":
+				addMap(new File(value));
+				break;
+			case "replay":
+				String[] files = value.split(",");
+				addReplay(new File(files[0]), files.length > 1 ? loadMap(new File(files[1])) : null);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown argument: " + arg);
+			}
+		}
+
+		if (games.isEmpty()) {
+			for (AutoReplaySetting setting : AutoReplaySetting.getDefaultSettings()) {
+				ReplayUtils.IReplayStreamProvider replay = setting.getReplayFile();
+				games.put(setting.getMap().getMapName() + " (replay)",
+						networkConnector -> JSettlersGame.loadFromReplayFile(replay, networkConnector, new ReplayStartInformation()));
+			}
+		}
+	}
+
+	private void addMap(File file) throws MapLoadException {
+		MapLoader map = loadMap(file);
+		MapFileHeader header = map.getFileHeader();
+		if (header.getType() == MapFileHeader.MapType.NORMAL) {
+			byte playerId = 0;
+			PlayerSetting[] playerSettings = PlayerSetting.createDefaultSettings(playerId, (byte) map.getMaxPlayers());
+			games.put(file.getName(), networkConnector -> new JSettlersGame(map, randomSeed, networkConnector, playerId, playerSettings));
+		} else {
+			games.put(file.getName(), networkConnector -> new JSettlersGame(map, randomSeed, networkConnector, header.getPlayerId(), header.getPlayerSettings()));
+		}
+	}
+
+	private void addReplay(File file, MapLoader map) {
+		ReplayUtils.IReplayStreamProvider replay = new ReplayUtils.ReplayFile(file) {
+			@Override
+			public MapLoader getMap(ReplayStartInformation replayStartInformation) {
+				return map != null ? map : super.getMap(replayStartInformation);
+			}
+		};
+		games.put(file.getName(), networkConnector -> JSettlersGame.loadFromReplayFile(replay, networkConnector, new ReplayStartInformation()));
+	}
+
+	private static MapLoader loadMap(File file) throws MapLoadException {
+		if (!file.isFile()) {
+			throw new MapLoadException("Map file not found: " + file);
+		}
+		return MapLoader.getLoaderForListedMap(new DirectoryMapLister.ListedMapFile(file));
+	}
+
+	private void run() throws IOException, MapLoadException {
+		for (Map.Entry<String, SimulationRun.IGameFactory> game : games.entrySet()) {
+			out.println("Running " + game.getKey() + " for " + minutes + " game minutes...");
+			SimulationRun run = SimulationRun.run(game.getKey(), game.getValue(), minutes);
+			runs.add(run);
+			printRun(run);
+		}
+
+		if (outputFile != null) {
+			try (Writer writer = new FileWriter(outputFile)) {
+				writeCsv(writer);
+			}
+			out.println("Results written to " + outputFile);
+		}
+	}
+
+	private void printRun(SimulationRun run) {
+		out.println(String.format(Locale.ENGLISH, "%6s %9s %9s %8s %11s  %s", "minute", "game-ms", "wall-ms", "speed", "alloc-MB/s", "hash"));
+		for (SimulationRun.MinuteResult result : run.getMinuteResults()) {
+			out.println(String.format(Locale.ENGLISH, "%6d %9d %9.1f %8.1f %11.1f  %s", result.minute, result.gameMs, result.wallNanos / 1e6,
+					result.getSpeed(), getAllocationRate(result.allocatedBytes, result.wallNanos), result.determinismHash));
+		}
+
+		long wallNanos = run.getWallNanos();
+		out.println(String.format(Locale.ENGLISH, "total: speed %.1fx, allocation rate %.1f MB/s, peak heap %.1f MB", run.getGameMs() / (wallNanos / 1e6),
+				getAllocationRate(run.getAllocatedBytes(), wallNanos), run.getPeakHeapBytes() / BYTES_PER_MB));
+
+		out.println("time split (nested subsystems are included in their parents):");
+		for (Map.Entry<String, Long> subsystem : run.getSubsystemNanos().entrySet()) {
+			out.println(String.format(Locale.ENGLISH, "  %-32s %10.1f ms %5.1f%%", subsystem.getKey(), subsystem.getValue() / 1e6,
+					100.0 * subsystem.getValue() / wallNanos));
+		}
+		out.println();
+	}
+
+	private void writeCsv(Writer writer) throws IOException {
+		List<String> subsystems = new ArrayList<>();
+		for (SimulationRun run : runs) {
+			for (String subsystem : run.getSubsystemNanos().keySet()) {
+				if (!subsystems.contains(subsystem)) {
+					subsystems.add(subsystem);
+				}
+			}
+		}
+
+		writer.write("input,minute,game_ms,wall_ms,speed,allocated_bytes,peak_heap_bytes,hash");
+		for (String subsystem : subsystems) {
+			writer.write("," + subsystem + "_ms");
+		}
+		writer.write("\n");
+
+		for (SimulationRun run : runs) {
+			List<SimulationRun.MinuteResult> results = run.getMinuteResults();
+			for (SimulationRun.MinuteResult result : results) {
+				writeCsvLine(writer, run.getName(), Integer.toString(result.minute), result.gameMs, result.wallNanos, result.allocatedBytes, "",
+						result.determinismHash, subsystems, result.subsystemNanos);
+			}
+			String lastHash = results.isEmpty() ? "" : results.get(results.size() - 1).determinismHash;
+			writeCsvLine(writer, run.getName(), "total", run.getGameMs(), run.getWallNanos(), run.getAllocatedBytes(),
+					Long.toString(run.getPeakHeapBytes()), lastHash, subsystems, run.getSubsystemNanos());
+		}
+	}
+
+	private static void writeCsvLine(Writer writer, String input, String minute, long gameMs, long wallNanos, long allocatedBytes, String peakHeapBytes,
+			String hash, List<String> subsystems, Map<String, Long> subsystemNanos) throws IOException {
+		writer.write(String.format(Locale.ENGLISH, "%s,%s,%d,%.1f,%.2f,%d,%s,%s", input.replace(',', ' '), minute, gameMs, wallNanos / 1e6,
+				gameMs / (wallNanos / 1e6), allocatedBytes, peakHeapBytes, hash));
+		for (String subsystem : subsystems) {
+			Long nanos = subsystemNanos.get(subsystem);
+			writer.write(String.format(Locale.ENGLISH, ",%.1f", nanos != null ? nanos / 1e6 : 0));
+		}
+		writer.write("\n");
+	}
+
+	private static double getAllocationRate(long allocatedBytes, long wallNanos) {
+		return allocatedBytes / BYTES_PER_MB / (wallNanos / 1e9);
+	}
+}
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.metrics.Histogram;
+import jsettlers.common.metrics.MetricsRegistry;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.network.client.OfflineNetworkConnector;
+import jsettlers.network.client.interfaces.IGameClock;
+import jsettlers.network.client.interfaces.INetworkConnector;
+
+/**
+ * Runs a game headless as fast as possible, one game minute after the other, and measures every minute.
+ * <p />
+ * The time needed by the subsystems is taken from the histograms of the {@link MetricsRegistry}. The allocated bytes are summed up over all living
+ * threads, so allocations of threads that ended during a minute are missing.
+ */
+final class SimulationRun {
+	private static final int MINUTE_MS = 60 * 1000;
+
+	/**
+	 * Creates the game to be benchmarked.
+	 */
+	interface IGameFactory {
+		JSettlersGame createGame(INetworkConnector networkConnector) throws MapLoadException;
+	}
+
+	/**
+	 * The measurements of one game minute.
+	 */
+	static final class MinuteResult {
+		final int minute;
+		final long gameMs;
+		final long wallNanos;
+		final long allocatedBytes;
+		final Map<String, Long> subsystemNanos;
+		final String determinismHash;
+
+		MinuteResult(int minute, long gameMs, long wallNanos, long allocatedBytes, Map<String, Long> subsystemNanos, String determinismHash) {
+			this.minute = minute;
+			this.gameMs = gameMs;
+			this.wallNanos = wallNanos;
+			this.allocatedBytes = allocatedBytes;
+			this.subsystemNanos = subsystemNanos;
+			this.determinismHash = determinismHash;
+		}
+
+		double getSpeed() {
+			return gameMs / (wallNanos / 1e6);
+		}
+	}
+
+	private final String name;
+	private final List<MinuteResult> minuteResults = new ArrayList<>();
+	private long peakHeapBytes;
+
+	private SimulationRun(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Starts the game created by the given factory and plays the given number of game minutes.
+	 *
+	 * @param name
+	 *            The name of the run used in the reports.
+	 * @param gameFactory
+	 *            The factory creating the game.
+	 * @param minutes
+	 *            The number of game minutes to play.
+	 * @return The results of the run.
+	 * @throws MapLoadException
+	 *             If the game cannot be loaded.
+	 */
+	static SimulationRun run(String name, IGameFactory gameFactory, int minutes) throws MapLoadException {
+		SimulationRun run = new SimulationRun(name);
+
+		OfflineNetworkConnector networkConnector = new OfflineNetworkConnector();
+		networkConnector.getGameClock().setPausing(true);
+		IStartedGame startedGame = ReplayUtils.waitForGameStartup(gameFactory.createGame(networkConnector).start());
+		IGameClock clock = MatchConstants.clock();
+
+		resetPeakHeapUsage();
+		int startTime = clock.getTime();
+		for (int minute = 1; minute <= minutes; minute++) {
+			Map<String, Long> subsystemNanosBefore = readSubsystemNanos();
+			long allocatedBytesBefore = readAllocatedBytes();
+			int gameTimeBefore = clock.getTime();
+
+			long wallStart = System.nanoTime();
+			clock.fastForwardTo(startTime + minute * MINUTE_MS);
+			long wallNanos = System.nanoTime() - wallStart;
+
+			Map<String, Long> subsystemNanos = readSubsystemNanos();
+			for (Map.Entry<String, Long> entry : subsystemNanos.entrySet()) {
+				Long before = subsystemNanosBefore.get(entry.getKey());
+				entry.setValue(entry.getValue() - (before != null ? before : 0));
+			}
+
+			long allocatedBytes = Math.max(0, readAllocatedBytes() - allocatedBytesBefore);
+			run.minuteResults.add(new MinuteResult(minute, clock.getTime() - gameTimeBefore, wallNanos, allocatedBytes, subsystemNanos, getDeterminismHash()));
+		}
+		run.peakHeapBytes = getPeakHeapUsage();
+
+		ReplayUtils.awaitShutdown(startedGame);
+		return run;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	List<MinuteResult> getMinuteResults() {
+		return minuteResults;
+	}
+
+	long getPeakHeapBytes() {
+		return peakHeapBytes;
+	}
+
+	long getGameMs() {
+		long gameMs = 0;
+		for (MinuteResult result : minuteResults) {
+			gameMs += result.gameMs;
+		}
+		return gameMs;
+	}
+
+	long getWallNanos() {
+		long wallNanos = 0;
+		for (MinuteResult result : minuteResults) {
+			wallNanos += result.wallNanos;
+		}
+		return wallNanos;
+	}
+
+	long getAllocatedBytes() {
+		long allocatedBytes = 0;
+		for (MinuteResult result : minuteResults) {
+			allocatedBytes += result.allocatedBytes;
+		}
+		return allocatedBytes;
+	}
+
+	Map<String, Long> getSubsystemNanos() {
+		Map<String, Long> subsystemNanos = new TreeMap<>();
+		for (MinuteResult result : minuteResults) {
+			for (Map.Entry<String, Long> entry : result.subsystemNanos.entrySet()) {
+				Long sum = subsystemNanos.get(entry.getKey());
+				subsystemNanos.put(entry.getKey(), entry.getValue() + (sum != null ? sum : 0));
+			}
+		}
+		return subsystemNanos;
+	}
+
+	private static Map<String, Long> readSubsystemNanos() {
+		Map<String, Long> subsystemNanos = new TreeMap<>();
+		for (Map.Entry<String, Histogram> entry : MetricsRegistry.getInstance().getHistograms().entrySet()) {
+			subsystemNanos.put(entry.getKey(), entry.getValue().getSum());
+		}
+		return subsystemNanos;
+	}
+
+	/**
+	 * Hashes the game time and the state of the random number generators. As almost every decision of the game uses them, the hash differs as soon
+	 * as the simulation differs.
+	 */
+	private static String getDeterminismHash() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+			MatchConstants.serialize(oos);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray());
+		return String.format("%08x", crc.getValue());
+	}
+
+	private static long readAllocatedBytes() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+			return 0;
+		}
+
+		long allocatedBytes = 0;
+		for (long threadAllocatedBytes : ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+			allocatedBytes += Math.max(0, threadAllocatedBytes); // -1 for threads that ended in the meantime
+		}
+		return allocatedBytes;
+	}
+
+	private static void resetPeakHeapUsage() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	private static long getPeakHeapUsage() {
+		long peakHeapBytes = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peakHeapBytes += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peakHeapBytes;
+	}
+}
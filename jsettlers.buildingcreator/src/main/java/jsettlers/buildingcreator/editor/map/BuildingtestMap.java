@@ -19,6 +19,7 @@ import jsettlers.common.CommonConstants;
 import jsettlers.common.buildings.IBuilding;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.partition.IPartitionData;
@@ -104,6 +105,11 @@ public class BuildingtestMap implements IGraphicsGrid {
 		return CommonConstants.FOG_OF_WAR_VISIBLE;
 	}
 
+	@Override
+	public IFogOfWarChangeFeed getFogOfWarChangeFeed() {
+		return null;
+	}
+
 	@Override
 	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 	}
@@ -73,4 +73,14 @@ public abstract class CommonConstants {
 	 * Disables the checksum test for original maps.
 	 */
 	public static boolean DISABLE_ORIGINAL_MAPS_CHECKSUM = false;
+
+	/**
+	 * If set, the metrics of a running game are periodically written to this file. It is overwritten by every game.
+	 */
+	public static String METRICS_FILE = null;
+
+	/**
+	 * If true, the network timer logs every scheduled and executed task packet. This produces a lot of output and slows the game down.
+	 */
+	public static boolean ENABLE_NETWORK_DEBUG_LOGGING = false;
 }
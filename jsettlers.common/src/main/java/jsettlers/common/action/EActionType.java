@@ -84,6 +84,10 @@ public enum EActionType {
 	 * Sets the game speed to fast.
 	 */
 	SPEED_FAST,
+	/**
+	 * Toggles playing the game as fast as possible.
+	 */
+	SPEED_MAX,
 
 	// - - - - - - SELECTION - - - - - - -
 	/**
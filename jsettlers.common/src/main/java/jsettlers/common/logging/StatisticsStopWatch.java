@@ -14,23 +14,39 @@
  *******************************************************************************/
 package jsettlers.common.logging;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Vector;
+import jsettlers.common.metrics.Histogram;
 
 /**
- * This class implements a simple stop watch that records the time in milliseconds and prints
- * the average, mean, min and max of all measured measurements.
+ * This class implements a simple stop watch that records the time and prints the average, mean, min and max of all measured measurements.
+ * <p />
+ * The measurements are taken in nanoseconds and recorded in a {@link Histogram}, so the memory needed does not grow with the number of
+ * measurements. The reported values are in milliseconds.
  *
  * @author codingberlin
  */
 public class StatisticsStopWatch extends StopWatch {
+	private static final long NANOS_PER_MILLI = 1000000;
 
-	private final List<Long> measurements = new Vector<>();
+	private final Histogram measurements;
+
+	public StatisticsStopWatch() {
+		this(new Histogram());
+	}
+
+	/**
+	 * Creates a stop watch recording into the given histogram. This way, the measurements can be shared with a
+	 * {@link jsettlers.common.metrics.MetricsRegistry}.
+	 *
+	 * @param measurements
+	 *            The histogram to record the measured durations in nanoseconds.
+	 */
+	public StatisticsStopWatch(Histogram measurements) {
+		this.measurements = measurements;
+	}
 
 	@Override
 	public long now() {
-		return System.currentTimeMillis();
+		return System.nanoTime();
 	}
 
 	@Override
@@ -40,38 +56,26 @@ public class StatisticsStopWatch extends StopWatch {
 
 	@Override
 	public void stop(String leadingText) {
-		measurements.add(getDiff());
-		Collections.sort(measurements);
+		measurements.record(getDiff());
 	}
 
 	@Override
 	public String toString() {
-		if (measurements.isEmpty()) {
+		if (measurements.getCount() == 0) {
 			return " -> no measurements taken yet";
 		}
-		return " -> number of measurements: " + measurements.size()
-				+ ", min: " + measurements.get(0) + " " + getUnit()
-				+ ", average: " + calculateAverage(measurements) + " " + getUnit()
+		return " -> number of measurements: " + measurements.getCount()
+				+ ", min: " + measurements.getMin() / NANOS_PER_MILLI + " " + getUnit()
+				+ ", average: " + (long) (measurements.getMean() / NANOS_PER_MILLI) + " " + getUnit()
 				+ ", median: " + getMedian() + " " + getUnit()
 				+ ", max: " + getMax() + " " + getUnit();
 	}
 
 	public long getMedian() {
-		return measurements.get((int) Math.floor(measurements.size() / 2));
+		return measurements.getValueAtPercentile(50) / NANOS_PER_MILLI;
 	}
 
 	public long getMax() {
-		return measurements.get(measurements.size() - 1);
-	}
-
-	private double calculateAverage(List<Long> measurements) {
-		long sum = 0;
-		if(!measurements.isEmpty()) {
-			for (Long measurement : measurements) {
-				sum += measurement;
-			}
-			return sum / measurements.size();
-		}
-		return sum;
+		return measurements.getMax() / NANOS_PER_MILLI;
 	}
 }
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.map;
+
+/**
+ * Tells the renderer which parts of the map changed their visible status, so it does not need to compare the status of every position on the screen each
+ * frame. The map is split into square tiles of {@link #TILE_SIZE} positions. Each tile remembers the version at which its visible status last changed.
+ *
+ * @see IGraphicsGrid#getFogOfWarChangeFeed()
+ */
+public interface IFogOfWarChangeFeed {
+	int TILE_SHIFT = 4;
+	int TILE_SIZE = 1 << TILE_SHIFT;
+
+	/**
+	 * @return The version of the latest change. It increases every time the visible status of any tile changes.
+	 */
+	int getVersion();
+
+	/**
+	 * @param x
+	 *            x coordinate of a position in the tile
+	 * @param y
+	 *            y coordinate of a position in the tile
+	 * @return The version at which the visible status of the tile containing the given position changed the last time.
+	 */
+	int getTileVersion(int x, int y);
+}
@@ -116,6 +116,13 @@ public interface IGraphicsGrid {
 	 */
 	byte getVisibleStatus(int x, int y);
 
+	/**
+	 * Gets the feed telling which parts of the map changed their visible status.
+	 * 
+	 * @return The feed or <code>null</code> if the visible status may change anywhere at any time and needs to be checked for every position.
+	 */
+	IFogOfWarChangeFeed getFogOfWarChangeFeed();
+
 	/**
 	 * This method can be used to set a {@link IGraphicsBackgroundListener} to this {@link IGraphicsGrid}. <br>
 	 * 
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.metrics;
+
+/**
+ * A histogram of non negative long values (e.g. durations in nanoseconds) with a fixed memory footprint.
+ * <p />
+ * Values below {@link #SUB_BUCKETS} are counted exactly. Above that, every power of two is split into {@link #SUB_BUCKETS} buckets of equal
+ * size. So the values reported by {@link #getValueAtPercentile(double)} are at most about 3% higher than the recorded ones. The count, the
+ * minimum, the maximum and the mean are exact.
+ */
+public final class Histogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int NUMBER_OF_BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final long[] buckets = new long[NUMBER_OF_BUCKETS];
+	private long count;
+	private long sum;
+	private long min = Long.MAX_VALUE;
+	private long max;
+
+	/**
+	 * Records the given value. Negative values are recorded as 0.
+	 *
+	 * @param value
+	 *            The value to record.
+	 */
+	public synchronized void record(long value) {
+		value = Math.max(0, value);
+		buckets[getBucketIndex(value)]++;
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Records the time passed since the given start time.
+	 *
+	 * @param startNanos
+	 *            The start time as returned by {@link System#nanoTime()}.
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	public synchronized long getCount() {
+		return count;
+	}
+
+	public synchronized long getMin() {
+		return count > 0 ? min : 0;
+	}
+
+	public synchronized long getMax() {
+		return max;
+	}
+
+	/**
+	 * @return The sum of all recorded values.
+	 */
+	public synchronized long getSum() {
+		return sum;
+	}
+
+	public synchronized double getMean() {
+		return count > 0 ? (double) sum / count : 0;
+	}
+
+	/**
+	 * @param percentile
+	 *            The percentile in the range of 0 to 100.
+	 * @return The highest value that is equivalent to the value at the given percentile or 0 if nothing has been recorded.
+	 */
+	public synchronized long getValueAtPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+
+		long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int index = 0; index < NUMBER_OF_BUCKETS; index++) {
+			seen += buckets[index];
+			if (seen >= countAtPercentile) {
+				return Math.max(min, Math.min(max, getHighestValueOfBucket(index)));
+			}
+		}
+		return max;
+	}
+
+	public synchronized void reset() {
+		for (int index = 0; index < NUMBER_OF_BUCKETS; index++) {
+			buckets[index] = 0;
+		}
+		count = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+
+	static int getBucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	static long getHighestValueOfBucket(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+		long subBucket = SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "count: " + count + ", min: " + getMin() + ", mean: " + (long) getMean() + ", median: " + getValueAtPercentile(50)
+				+ ", 99%: " + getValueAtPercentile(99) + ", max: " + max;
+	}
+}
@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.metrics;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeMap;
+
+/**
+ * This registry holds the {@link Histogram}s, {@link Counter}s and {@link IGauge}s used to profile the game. The metrics are identified by their
+ * names. They can be written as CSV or as JSON, once or periodically.
+ * <p />
+ * Durations are recorded in nanoseconds.
+ */
+public final class MetricsRegistry {
+	/**
+	 * Period used to dump the metrics if no other period is configured.
+	 */
+	public static final long DEFAULT_DUMP_PERIOD_MS = 10000;
+
+	private static final String CSV_HEADER = "time,name,count,min,mean,p50,p90,p99,max,value";
+	private static final double[] PERCENTILES = { 50, 90, 99 };
+
+	private static final MetricsRegistry instance = new MetricsRegistry();
+
+	private final Map<String, Histogram> histograms = new TreeMap<>();
+	private final Map<String, Counter> counters = new TreeMap<>();
+	private final Map<String, IGauge> gauges = new TreeMap<>();
+
+	private Timer dumpTimer;
+	private DumpTask dumpTask;
+
+	public static MetricsRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * @param name
+	 *            The name of the histogram.
+	 * @return The histogram with the given name. It is created if it does not exist yet.
+	 */
+	public synchronized Histogram histogram(String name) {
+		Histogram histogram = histograms.get(name);
+		if (histogram == null) {
+			histogram = new Histogram();
+			histograms.put(name, histogram);
+		}
+		return histogram;
+	}
+
+	/**
+	 * @param name
+	 *            The name of the counter.
+	 * @return The counter with the given name. It is created if it does not exist yet.
+	 */
+	public synchronized Counter counter(String name) {
+		Counter counter = counters.get(name);
+		if (counter == null) {
+			counter = new Counter();
+			counters.put(name, counter);
+		}
+		return counter;
+	}
+
+	/**
+	 * @return A copy of the map of all histograms, sorted by their names.
+	 */
+	public synchronized Map<String, Histogram> getHistograms() {
+		return new TreeMap<>(histograms);
+	}
+
+	/**
+	 * Registers the given gauge. A gauge already registered with this name is replaced.
+	 *
+	 * @param name
+	 *            The name of the gauge.
+	 * @param gauge
+	 *            The gauge.
+	 */
+	public synchronized void gauge(String name, IGauge gauge) {
+		gauges.put(name, gauge);
+	}
+
+	/**
+	 * Resets the values of all histograms and counters, e.g. when a new game is started. They stay registered, so the instances held by the
+	 * profiled classes stay valid. The gauges are kept as they read their values from their sources.
+	 */
+	public synchronized void reset() {
+		for (Histogram histogram : histograms.values()) {
+			histogram.reset();
+		}
+		for (Counter counter : counters.values()) {
+			counter.reset();
+		}
+	}
+
+	/**
+	 * Writes the current values of all metrics as CSV. Every metric is written as one line.
+	 *
+	 * @param writer
+	 *            The writer to write to.
+	 * @param writeHeader
+	 *            If true, the header line is written first.
+	 * @throws IOException
+	 */
+	public synchronized void writeCsv(Writer writer, boolean writeHeader) throws IOException {
+		long time = System.currentTimeMillis();
+		if (writeHeader) {
+			writer.write(CSV_HEADER + "\n");
+		}
+
+		for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+			Histogram histogram = entry.getValue();
+			writer.write(time + "," + entry.getKey() + "," + histogram.getCount() + "," + histogram.getMin() + ","
+					+ String.format(Locale.ENGLISH, "%.1f", histogram.getMean()));
+			for (double percentile : PERCENTILES) {
+				writer.write("," + histogram.getValueAtPercentile(percentile));
+			}
+			writer.write("," + histogram.getMax() + ",\n");
+		}
+		for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+			writer.write(time + "," + entry.getKey() + ",,,,,,,," + entry.getValue().get() + "\n");
+		}
+		for (Map.Entry<String, IGauge> entry : gauges.entrySet()) {
+			writer.write(time + "," + entry.getKey() + ",,,,,,,," + entry.getValue().getValue() + "\n");
+		}
+	}
+
+	/**
+	 * Writes the current values of all metrics as one JSON object in a single line.
+	 *
+	 * @param writer
+	 *            The writer to write to.
+	 * @throws IOException
+	 */
+	public synchronized void writeJson(Writer writer) throws IOException {
+		StringBuilder json = new StringBuilder();
+		json.append("{\"time\":").append(System.currentTimeMillis()).append(",\"histograms\":{");
+
+		String separator = "";
+		for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+			Histogram histogram = entry.getValue();
+			json.append(separator).append('"').append(entry.getKey()).append("\":{\"count\":").append(histogram.getCount())
+					.append(",\"min\":").append(histogram.getMin())
+					.append(",\"mean\":").append(String.format(Locale.ENGLISH, "%.1f", histogram.getMean()));
+			for (double percentile : PERCENTILES) {
+				json.append(",\"p").append((int) percentile).append("\":").append(histogram.getValueAtPercentile(percentile));
+			}
+			json.append(",\"max\":").append(histogram.getMax()).append('}');
+			separator = ",";
+		}
+
+		json.append("},\"counters\":{");
+		separator = "";
+		for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+			json.append(separator).append('"').append(entry.getKey()).append("\":").append(entry.getValue().get());
+			separator = ",";
+		}
+
+		json.append("},\"gauges\":{");
+		separator = "";
+		for (Map.Entry<String, IGauge> entry : gauges.entrySet()) {
+			json.append(separator).append('"').append(entry.getKey()).append("\":").append(entry.getValue().getValue());
+			separator = ",";
+		}
+		json.append("}}\n");
+
+		writer.write(json.toString());
+	}
+
+	/**
+	 * Starts to append the values of all metrics to the given file periodically. If the name of the file ends with ".json", every dump is
+	 * written as one line of JSON, otherwise CSV is written. A previously started dump is stopped.
+	 *
+	 * @param file
+	 *            The file to write to. It is overwritten.
+	 * @param periodMs
+	 *            The period in milliseconds.
+	 * @throws IOException
+	 *             If the file cannot be created.
+	 */
+	public void startPeriodicDump(File file, long periodMs) throws IOException {
+		stopPeriodicDump();
+
+		boolean json = file.getName().toLowerCase(Locale.ENGLISH).endsWith(".json");
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+
+		synchronized (this) {
+			dumpTask = new DumpTask(writer, json);
+			dumpTimer = new Timer("MetricsDump", true);
+			dumpTimer.schedule(dumpTask, periodMs, periodMs);
+		}
+	}
+
+	/**
+	 * Stops the periodic dump started with {@link #startPeriodicDump(File, long)}, writes the final values and closes the file.
+	 */
+	public void stopPeriodicDump() {
+		Timer timer;
+		DumpTask task;
+		synchronized (this) { // the task must not be cancelled while holding the lock, as it locks this registry when it writes
+			timer = dumpTimer;
+			task = dumpTask;
+			dumpTimer = null;
+			dumpTask = null;
+		}
+
+		if (timer != null) {
+			timer.cancel();
+			task.run();
+			task.cancel();
+		}
+	}
+
+	private class DumpTask extends TimerTask {
+		private final Writer writer;
+		private final boolean json;
+		private boolean headerWritten;
+		private boolean closed;
+
+		DumpTask(Writer writer, boolean json) {
+			this.writer = writer;
+			this.json = json;
+		}
+
+		@Override
+		public synchronized void run() {
+			if (closed) {
+				return;
+			}
+
+			try {
+				if (json) {
+					writeJson(writer);
+				} else {
+					writeCsv(writer, !headerWritten);
+					headerWritten = true;
+				}
+				writer.flush();
+			} catch (IOException e) {
+				e.printStackTrace();
+				cancel();
+			}
+		}
+
+		@Override
+		public synchronized boolean cancel() {
+			if (!closed) {
+				closed = true;
+				try {
+					writer.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+			return super.cancel();
+		}
+	}
+}
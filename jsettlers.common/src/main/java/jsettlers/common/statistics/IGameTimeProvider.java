@@ -31,6 +31,11 @@ public interface IGameTimeProvider {
 		public boolean isGamePausing() {
 			return false;
 		}
+
+		@Override
+		public float getGameSpeed() {
+			return 1;
+		}
 	};
 
 	/**
@@ -46,4 +51,11 @@ public interface IGameTimeProvider {
 	 * @return true if the game is pausing, false if not.
 	 */
 	boolean isGamePausing();
+
+	/**
+	 * Gets the speed the game is actually played with. This is the game time passed per real time.
+	 * 
+	 * @return The speed, 1 for real time.
+	 */
+	float getGameSpeed();
 }
\ No newline at end of file
@@ -14,11 +14,15 @@
  *******************************************************************************/
 package jsettlers.common.utils.collections;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  * This class implements the {@link IChangingList} interface and represents a list that can change and will inform it's listener of this change.
+ * <p />
+ * The changes are synchronized on this list and the listener is called on the changing thread. Other threads should only work on copies of the
+ * items made with {@link #copyItems()} or while being notified.
  * 
  * @author Andreas Eberle
  * 
@@ -37,11 +41,23 @@ public class ChangingList<T> {
 		this.items = items;
 	}
 
-	public void setListener(IChangingListListener<? super T> listener) {
+	public synchronized void setListener(IChangingListListener<? super T> listener) {
 		this.listener = listener;
 	}
 
-	public void removeListener(IChangingListListener<? super T> listener) {
+	/**
+	 * Sets the listener and copies the current items at once, so that no change is missed between both.
+	 * 
+	 * @param listener
+	 *            The listener to be informed of all changes after the copy.
+	 * @return A copy of the current items.
+	 */
+	public synchronized List<T> setListenerAndCopyItems(IChangingListListener<? super T> listener) {
+		this.listener = listener;
+		return copyItems();
+	}
+
+	public synchronized void removeListener(IChangingListListener<? super T> listener) {
 		if (this.listener == listener) {
 			this.listener = null;
 		}
@@ -51,12 +67,19 @@ public class ChangingList<T> {
 		return items;
 	}
 
-	public void stop() {
+	/**
+	 * @return A copy of the current items that is not changed with this list.
+	 */
+	public synchronized List<T> copyItems() {
+		return new ArrayList<>(items);
+	}
+
+	public synchronized void stop() {
 		listener = null;
 		items = new LinkedList<>();
 	}
 
-	public void setList(List<T> items) {
+	public synchronized void setList(List<T> items) {
 		if (items == null) {
 			throw new NullPointerException();
 		}
@@ -70,19 +93,19 @@ public class ChangingList<T> {
 		}
 	}
 
-	public void clear() {
+	public synchronized void clear() {
 		if (items != null) {
 			items.clear();
 			notifyListener();
 		}
 	}
 
-	public void add(T item) {
+	public synchronized void add(T item) {
 		items.add(item);
 		notifyListener();
 	}
 
-	public void remove(T item) {
+	public synchronized void remove(T item) {
 		items.remove(item);
 		notifyListener();
 	}
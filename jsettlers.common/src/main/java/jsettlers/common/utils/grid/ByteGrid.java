@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.utils.grid;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link PrimitiveGrid} storing a byte per position.
+ */
+public final class ByteGrid extends PrimitiveGrid {
+	private static final long serialVersionUID = 3471935126591837658L;
+
+	private transient byte[] values;
+	private transient ByteBuffer buffer;
+
+	public ByteGrid(int width, int height) {
+		this(width, height, false);
+	}
+
+	public ByteGrid(int width, int height, boolean offHeap) {
+		super(width, height, offHeap);
+		allocate();
+	}
+
+	/**
+	 * Creates a grid with the values of a column-major array as it was used before the grids were introduced.
+	 *
+	 * @param columns
+	 *            The values indexed by [x][y].
+	 */
+	public static ByteGrid fromColumns(byte[][] columns) {
+		int width = columns.length;
+		int height = width > 0 ? columns[0].length : 0;
+		ByteGrid grid = new ByteGrid(width, height);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				grid.values[x + y * width] = columns[x][y];
+			}
+		}
+		return grid;
+	}
+
+	private void allocate() {
+		if (offHeap) {
+			buffer = ByteBuffer.allocateDirect(size());
+		} else {
+			values = new byte[size()];
+		}
+	}
+
+	public byte get(int x, int y) {
+		return get(x + y * width);
+	}
+
+	public byte get(int index) {
+		return offHeap ? buffer.get(index) : values[index];
+	}
+
+	public void set(int x, int y, byte value) {
+		set(x + y * width, value);
+	}
+
+	public void set(int index, byte value) {
+		if (offHeap) {
+			buffer.put(index, value);
+		} else {
+			values[index] = value;
+		}
+	}
+
+	public void fill(byte value) {
+		if (offHeap) {
+			for (int i = 0; i < size(); i++) {
+				buffer.put(i, value);
+			}
+		} else {
+			Arrays.fill(values, value);
+		}
+	}
+
+	private byte[] toArray() {
+		if (offHeap) {
+			byte[] array = new byte[size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = buffer.get(i);
+			}
+			return array;
+		} else {
+			return values;
+		}
+	}
+
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		oos.defaultWriteObject();
+		oos.writeObject(toArray());
+	}
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		byte[] array = (byte[]) ois.readObject();
+		if (offHeap) {
+			allocate();
+			buffer.put(array);
+			buffer.clear();
+		} else {
+			values = array;
+		}
+	}
+}
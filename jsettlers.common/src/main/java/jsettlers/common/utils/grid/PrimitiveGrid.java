@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.utils.grid;
+
+import java.io.Serializable;
+
+/**
+ * Base class of the grids storing one primitive value per map position. The values are stored in a single flat array in row-major order (index x + y *
+ * width), so scanning a line walks through consecutive memory. Optionally, the values can be stored off-heap in a direct buffer that can be handed to
+ * native code (e.g. OpenGL) without copying.
+ */
+public abstract class PrimitiveGrid implements Serializable {
+	private static final long serialVersionUID = -5489815463046557416L;
+
+	protected final int width;
+	protected final int height;
+	protected final boolean offHeap;
+
+	protected PrimitiveGrid(int width, int height, boolean offHeap) {
+		this.width = width;
+		this.height = height;
+		this.offHeap = offHeap;
+	}
+
+	public final int getWidth() {
+		return width;
+	}
+
+	public final int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return true if the values are stored in a direct buffer outside of the Java heap.
+	 */
+	public final boolean isOffHeap() {
+		return offHeap;
+	}
+
+	/**
+	 * @return The index of the given position in the flat storage.
+	 */
+	public final int getIndex(int x, int y) {
+		return x + y * width;
+	}
+
+	public final boolean isInBounds(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height;
+	}
+
+	protected final int size() {
+		return width * height;
+	}
+}
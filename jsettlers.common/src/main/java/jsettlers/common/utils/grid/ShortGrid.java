@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.utils.grid;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link PrimitiveGrid} storing a short per position.
+ */
+public final class ShortGrid extends PrimitiveGrid {
+	private static final long serialVersionUID = -2247719461062519032L;
+
+	private transient short[] values;
+	private transient ShortBuffer buffer;
+
+	public ShortGrid(int width, int height) {
+		this(width, height, false);
+	}
+
+	public ShortGrid(int width, int height, boolean offHeap) {
+		super(width, height, offHeap);
+		allocate();
+	}
+
+	private void allocate() {
+		if (offHeap) {
+			buffer = ByteBuffer.allocateDirect(size() * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+		} else {
+			values = new short[size()];
+		}
+	}
+
+	public short get(int x, int y) {
+		return get(x + y * width);
+	}
+
+	public short get(int index) {
+		return offHeap ? buffer.get(index) : values[index];
+	}
+
+	public void set(int x, int y, short value) {
+		set(x + y * width, value);
+	}
+
+	public void set(int index, short value) {
+		if (offHeap) {
+			buffer.put(index, value);
+		} else {
+			values[index] = value;
+		}
+	}
+
+	/**
+	 * Gets a line of the grid without copying it. For an off-heap grid, the returned buffer is direct and in native byte order, so it can be passed to
+	 * native code like a texture upload.
+	 *
+	 * @param y
+	 *            The line to get.
+	 * @return A buffer containing the values of the line from x = 0 to x = width - 1. Changes of the grid are visible in the buffer.
+	 */
+	public ShortBuffer getLine(int y) {
+		ShortBuffer line = offHeap ? buffer.duplicate() : ShortBuffer.wrap(values);
+		line.position(y * width);
+		line.limit(y * width + width);
+		return line.slice();
+	}
+
+	public void fill(short value) {
+		if (offHeap) {
+			for (int i = 0; i < size(); i++) {
+				buffer.put(i, value);
+			}
+		} else {
+			Arrays.fill(values, value);
+		}
+	}
+
+	private short[] toArray() {
+		if (offHeap) {
+			short[] array = new short[size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = buffer.get(i);
+			}
+			return array;
+		} else {
+			return values;
+		}
+	}
+
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		oos.defaultWriteObject();
+		oos.writeObject(toArray());
+	}
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		short[] array = (short[]) ois.readObject();
+		if (offHeap) {
+			allocate();
+			buffer.put(array);
+			buffer.clear();
+		} else {
+			values = array;
+		}
+	}
+}
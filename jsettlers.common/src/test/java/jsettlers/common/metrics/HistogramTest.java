@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+	@Test
+	public void testEveryValueIsInItsBucket() {
+		long[] values = { 0, 1, 31, 32, 33, 63, 64, 65, 127, 128, 1000, 1000000, 123456789, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+		for (long value : values) {
+			int index = Histogram.getBucketIndex(value);
+			assertTrue(value <= Histogram.getHighestValueOfBucket(index));
+			if (index > 0) {
+				assertTrue(value > Histogram.getHighestValueOfBucket(index - 1));
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyHistogram() {
+		Histogram histogram = new Histogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMin());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		Histogram histogram = new Histogram();
+		for (int value = 1; value <= 10; value++) {
+			histogram.record(value);
+		}
+
+		assertEquals(10, histogram.getCount());
+		assertEquals(1, histogram.getMin());
+		assertEquals(10, histogram.getMax());
+		assertEquals(5.5, histogram.getMean(), 0.001);
+		assertEquals(55, histogram.getSum());
+		assertEquals(5, histogram.getValueAtPercentile(50));
+		assertEquals(9, histogram.getValueAtPercentile(90));
+		assertEquals(10, histogram.getValueAtPercentile(100));
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+	}
+
+	@Test
+	public void testPercentilesOfRandomValuesAreAccurate() {
+		Random random = new Random(3);
+		Histogram histogram = new Histogram();
+		long[] values = new long[10000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) (Math.exp(random.nextDouble() * 25));
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double percentile : new double[] { 1, 50, 90, 99, 99.9 }) {
+			long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+			long actual = histogram.getValueAtPercentile(percentile);
+			assertTrue(actual >= expected);
+			assertTrue(actual <= expected + expected / 16);
+		}
+		assertEquals(values[0], histogram.getMin());
+		assertEquals(values[values.length - 1], histogram.getMax());
+	}
+
+	@Test
+	public void testRegistryWritesAllMetrics() throws IOException {
+		MetricsRegistry registry = MetricsRegistry.getInstance();
+		registry.reset();
+		registry.histogram("test.histogram").record(42);
+		registry.counter("test.counter").add(3);
+		registry.gauge("test.gauge", () -> 7);
+
+		StringWriter csv = new StringWriter();
+		registry.writeCsv(csv, true);
+		assertTrue(csv.toString().startsWith("time,name,"));
+		assertTrue(csv.toString().contains(",test.histogram,1,42,42.0,42,42,42,42,\n"));
+		assertTrue(csv.toString().contains(",test.counter,,,,,,,,3\n"));
+		assertTrue(csv.toString().contains(",test.gauge,,,,,,,,7\n"));
+
+		StringWriter json = new StringWriter();
+		registry.writeJson(json);
+		assertTrue(json.toString().contains("\"test.histogram\":{\"count\":1,\"min\":42,\"mean\":42.0,\"p50\":42,\"p90\":42,\"p99\":42,\"max\":42}"));
+		assertTrue(json.toString().contains("\"test.counter\":3"));
+		assertTrue(json.toString().contains("\"test.gauge\":7"));
+	}
+
+	@Test
+	public void testRegistryResetKeepsTheMetrics() {
+		MetricsRegistry registry = MetricsRegistry.getInstance();
+		Histogram histogram = registry.histogram("test.reset.histogram");
+		Counter counter = registry.counter("test.reset.counter");
+		histogram.record(42);
+		counter.add(3);
+
+		registry.reset();
+
+		assertSame(histogram, registry.histogram("test.reset.histogram"));
+		assertSame(counter, registry.counter("test.reset.counter"));
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, counter.get());
+	}
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.utils.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ChangingListTest {
+
+	@Test
+	public void testCopiesAreNotChanged() {
+		ChangingList<Integer> list = new ChangingList<>();
+		list.add(1);
+
+		List<Integer> copy = list.copyItems();
+		list.add(2);
+
+		assertEquals(Collections.singletonList(1), copy);
+		assertEquals(Arrays.asList(1, 2), list.getItems());
+	}
+
+	@Test
+	public void testNoChangeIsMissedWhenChangedConcurrently() throws InterruptedException {
+		ChangingList<Integer> list = new ChangingList<>();
+		List<List<? extends Integer>> notifiedCopies = new ArrayList<>();
+
+		Thread changingThread = new Thread(() -> {
+			for (int i = 0; i < 10000; i++) {
+				list.add(i);
+			}
+		});
+		changingThread.start();
+
+		List<Integer> initialCopy = list.setListenerAndCopyItems(changedList -> notifiedCopies.add(changedList.copyItems()));
+		changingThread.join();
+
+		List<? extends Integer> lastCopy = notifiedCopies.isEmpty() ? initialCopy : notifiedCopies.get(notifiedCopies.size() - 1);
+		assertEquals(10000, lastCopy.size());
+		assertEquals(10000 - initialCopy.size(), notifiedCopies.size());
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.utils.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ShortBuffer;
+
+import org.junit.Test;
+
+public class PrimitiveGridTest {
+
+	@Test
+	public void testRowMajorLayout() {
+		ByteGrid grid = new ByteGrid(7, 5);
+		grid.set(3, 2, (byte) 42);
+
+		assertEquals(3 + 2 * 7, grid.getIndex(3, 2));
+		assertEquals(42, grid.get(3 + 2 * 7));
+		assertEquals(0, grid.get(2, 3));
+	}
+
+	@Test
+	public void testOnAndOffHeapGridsBehaveTheSame() {
+		for (boolean offHeap : new boolean[] { false, true }) {
+			IntGrid ints = new IntGrid(10, 4, offHeap);
+			ShortGrid shorts = new ShortGrid(10, 4, offHeap);
+			ints.fill(-1);
+			shorts.fill((short) 7);
+			ints.set(9, 3, 123456);
+			shorts.set(9, 3, (short) -300);
+
+			assertEquals(offHeap, ints.isOffHeap());
+			assertEquals(-1, ints.get(0, 0));
+			assertEquals(123456, ints.get(9, 3));
+			assertEquals(7, shorts.get(0, 0));
+			assertEquals(-300, shorts.get(9, 3));
+		}
+	}
+
+	@Test
+	public void testLineIsViewOfGrid() {
+		ShortGrid grid = new ShortGrid(6, 3, true);
+		grid.set(2, 1, (short) 5);
+
+		ShortBuffer line = grid.getLine(1);
+		assertTrue(line.isDirect());
+		assertEquals(6, line.remaining());
+		assertEquals(5, line.get(2));
+
+		grid.set(4, 1, (short) 9);
+		assertEquals(9, line.get(4));
+	}
+
+	@Test
+	public void testFromColumns() {
+		byte[][] columns = new byte[4][3];
+		columns[3][1] = 17;
+
+		ByteGrid grid = ByteGrid.fromColumns(columns);
+
+		assertEquals(4, grid.getWidth());
+		assertEquals(3, grid.getHeight());
+		assertEquals(17, grid.get(3, 1));
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		for (boolean offHeap : new boolean[] { false, true }) {
+			ShortGrid grid = new ShortGrid(5, 5, offHeap);
+			grid.set(4, 4, (short) 1000);
+
+			ShortGrid loaded = serializeAndDeserialize(grid);
+
+			assertEquals(offHeap, loaded.isOffHeap());
+			assertEquals(1000, loaded.get(4, 4));
+			assertEquals(0, loaded.get(0, 4));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+			oos.writeObject(object);
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (T) ois.readObject();
+		}
+	}
+}
@@ -51,6 +51,8 @@ import jsettlers.common.menu.UIState;
 import jsettlers.common.action.EActionType;
 import jsettlers.common.action.IAction;
 import jsettlers.common.menu.messages.IMessage;
+import jsettlers.common.metrics.Histogram;
+import jsettlers.common.metrics.MetricsRegistry;
 import jsettlers.common.movable.IMovable;
 import jsettlers.common.position.FloatRectangle;
 import jsettlers.common.position.ShortPoint2D;
@@ -106,6 +108,7 @@ import jsettlers.graphics.sound.SoundManager;
 public final class MapContent implements RegionContent, IMapInterfaceListener, ActionFireable, ActionThreadBlockingListener {
 	private static final AnimationSequence GOTO_ANIMATION = new AnimationSequence(new OriginalImageLink(EImageLinkType.SETTLER, 3, 1).getName(), 0, 2);
 	private static final float UI_OVERLAY_Z = .95f;
+	private static final Histogram frameDurations = MetricsRegistry.getInstance().histogram("graphics.frame");
 
 	private final class ZoomEventHandler implements GOModalEventHandler {
 		float startZoom = context.getScreen().getZoom();
@@ -142,6 +145,7 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 	private static final int MESSAGE_LINE_HEIGHT = 18;
 	private static final long GOTO_MARK_TIME = 1500;
 	private static final long DOUBLE_CLICK_TIME = 500;
+	private static final float SHOWN_GAME_SPEED_DEVIATION = 0.1f;
 	/**
 	 * Sound ID when we are attacked.
 	 */
@@ -270,6 +274,7 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 
 	@Override
 	public void drawContent(GLDrawContext gl, int newWidth, int newHeight) {
+		long frameStart = System.nanoTime();
 		try {
 			framerate.nextFrame();
 
@@ -322,6 +327,7 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 			if (CommonConstants.ENABLE_GRAPHICS_TIMES_DEBUG_OUTPUT) {
 				System.out.println("Background: " + backgroundDuration + "ms, Foreground: " + foregroundDuration + "ms, UI: " + uiTime + "ms");
 			}
+			frameDurations.recordSince(frameStart);
 		} catch (Throwable t) {
 			System.err.println("Main draw handler cought throwable:");
 			t.printStackTrace(System.err);
@@ -435,6 +441,12 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		drawer.drawString(getConfiguredX(sideXOffset, windowWidth, 7 * letterWidth), yFirstLine, fps);
 		drawer.drawString(getConfiguredX(sideXOffset + 9 * letterWidth, windowWidth, 9 * letterWidth), yFirstLine, timeString);
 		drawer.drawString(getConfiguredX(sideXOffset, windowWidth, 7 * letterWidth), ySecondLine, CommitInfo.COMMIT_HASH_SHORT);
+
+		float gameSpeed = gameTimeProvider.getGameSpeed();
+		if (!gameTimeProvider.isGamePausing() && Math.abs(gameSpeed - 1) > SHOWN_GAME_SPEED_DEVIATION) {
+			String speedString = Labels.getString("map-speed", gameSpeed);
+			drawer.drawString(getConfiguredX(sideXOffset + 9 * letterWidth, windowWidth, 9 * letterWidth), ySecondLine, speedString);
+		}
 	}
 
 	private float getConfiguredX(float borderDistance, int windowWidth, float fixedTextLength) {
@@ -678,6 +690,8 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		System.out.println(keyCode);
 		if ("F12".equalsIgnoreCase(keyCode)) {
 			return new Action(EActionType.FAST_FORWARD);
+		} else if ("F11".equalsIgnoreCase(keyCode)) {
+			return new Action(EActionType.SPEED_MAX);
 		} else if ("P".equalsIgnoreCase(keyCode)
 				|| "PAUSE".equalsIgnoreCase(keyCode)) {
 			return new Action(EActionType.SPEED_TOGGLE_PAUSE);
@@ -27,6 +27,7 @@ import go.graphics.TextureHandle;
 
 import jsettlers.common.CommonConstants;
 import jsettlers.common.landscape.ELandscapeType;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.shapes.MapRectangle;
 import jsettlers.common.position.FloatRectangle;
@@ -835,6 +836,14 @@ public class Background implements IGraphicsBackgroundListener {
 	};
 
 	private final BitSet fowDimmed = new BitSet();
+	/**
+	 * Buffer positions whose fog of war is still dimming towards the visible status.
+	 */
+	private BitSet fowDimming = new BitSet();
+	/**
+	 * Version of the {@link IFogOfWarChangeFeed} that has been fully drawn.
+	 */
+	private int drawnFogOfWarVersion;
 
 	private static final short FLOAT_SIZE = 4;
 	/**
@@ -1225,6 +1234,7 @@ public class Background implements IGraphicsBackgroundListener {
 		bufferHeight = niceRoundUp(screenArea.getHeight());
 		int count = bufferHeight * bufferWidth;
 		fogOfWarStatus = new byte[count * 4];
+		fowDimming = new BitSet(count);
 		geometryInvalid = new BitSet(count);
 		geometrytirs = count * 2;
 
@@ -1247,6 +1257,15 @@ public class Background implements IGraphicsBackgroundListener {
 	private void reloadGeometry(GLBuffer boundBuffer, MapRectangle area, MapDrawContext context) {
 		boolean hasInvalidFields = hasInvalidFields();
 
+		IFogOfWarChangeFeed fogOfWarFeed = context.getMap().getFogOfWarChangeFeed();
+		int fogOfWarVersion = fogOfWarFeed != null ? fogOfWarFeed.getVersion() : 0;
+		boolean fogOfWarChanged = fogOfWarFeed == null || fogOfWarVersion != drawnFogOfWarVersion || !fowDimming.isEmpty();
+
+		if (!mapViewResized && !hasInvalidFields && !fogOfWarChanged && area.getLineY(0) == oldBufferPosition.getLineY(0)
+				&& area.getLineStartX(0) == oldBufferPosition.getLineStartX(0)) {
+			return; // nothing to redraw
+		}
+
 		int width = context.getMap().getWidth();
 		int height = context.getMap().getHeight();
 		int oldBufferTop = oldBufferPosition.getLineY(0);
@@ -1272,7 +1291,8 @@ public class Background implements IGraphicsBackgroundListener {
 				} else if (lineIsInMap && x >= 0 && x < width) {
 					if (hasInvalidFields && getAndResetInvalid(bufferPosition)) {
 						redrawPoint(boundBuffer, context, x, y, true, bufferPosition);
-					} else if (context.getVisibleStatus(x, y) != fogOfWarStatus[bufferPosition * 4]) {
+					} else if (fogOfWarChanged && needsFogOfWarCheck(fogOfWarFeed, x, y, bufferPosition)
+							&& context.getVisibleStatus(x, y) != fogOfWarStatus[bufferPosition * 4]) {
 						redrawPoint(boundBuffer, context, x, y, true, bufferPosition);
 						invalidatePoint(x - 1, y); // only for next pass
 						invalidatePoint(x - 1, y - 1);
@@ -1283,6 +1303,14 @@ public class Background implements IGraphicsBackgroundListener {
 		}
 
 		oldBufferPosition = area;
+		drawnFogOfWarVersion = fogOfWarVersion;
+	}
+
+	/**
+	 * Checks if the fog of war of a position drawn in the last frame may differ from its visible status.
+	 */
+	private boolean needsFogOfWarCheck(IFogOfWarChangeFeed fogOfWarFeed, int x, int y, int bufferPosition) {
+		return fogOfWarFeed == null || fowDimming.get(bufferPosition) || fogOfWarFeed.getTileVersion(x, y) > drawnFogOfWarVersion;
 	}
 
 	private synchronized boolean getAndResetInvalid(int bufferPosition) {
@@ -1324,8 +1352,10 @@ public class Background implements IGraphicsBackgroundListener {
 				addFogOfWarBuffer(context, (pointOffset * 4) + 2, x, y + 1);
 				addFogOfWarBuffer(context, (pointOffset * 4) + 3, x + 1, y + 1);
 			}
+			fowDimming.set(pointOffset, fogOfWarStatus[pointOffset * 4] != context.getVisibleStatus(x, y));
 			addTrianglesToGeometry(context, boundBuffer, x, y, pointOffset * 4);
 		} else {
+			fowDimming.clear(pointOffset);
 			addPseudoTrianglesToGeometry(context, boundBuffer, x, y);
 		}
 	}
@@ -16,6 +16,8 @@ package jsettlers.graphics.map.draw;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 
 import go.graphics.IllegalBufferException;
 import go.graphics.TextureHandle;
@@ -23,16 +25,16 @@ import jsettlers.graphics.map.IGLProvider;
 
 /**
  * This class buffers triangle draw calls and sends them to opengl in bratches. It should only be used during one frame.
+ * <p>
+ * The triangles are collected per texture for the whole frame. So every texture used in a frame normally results in only one draw call when
+ * {@link #flush()} is called. The order in which things are drawn is given by the z coordinate of the triangles, so they do not need to be
+ * drawn in the order they have been added.
  *
  * @author Michael Zangl
  */
 public class DrawBuffer {
 
 	private static final float Z_OFFSET_PER_ITEM = .00001f;
-	/**
-	 * Number of buffers to hold. So many textures may be used simultaneously.
-	 */
-	private static final int BUFFERS = 5;
 	private final IGLProvider context;
 	private float z;
 
@@ -47,7 +49,11 @@ public class DrawBuffer {
 		 */
 		private static final int VERTEX_LENGTH = 5 * 4 + 4;
 		private static final int TRIAMGLE_LENGTH = 3 * VERTEX_LENGTH;
-		private static final int BUFFER_TRIANGLES = 1000;
+		private static final int INITIAL_BUFFER_TRIANGLES = 1000;
+		/**
+		 * The buffer does not grow beyond this size. If it is full, its content is drawn before the frame ends.
+		 */
+		private static final int MAX_BUFFER_TRIANGLES = 16000;
 
 		/**
 		 * The last texture we set.
@@ -55,32 +61,31 @@ public class DrawBuffer {
 		private TextureHandle currentTexture = null;
 
 		private int currentTriangles = 0;
+		private int bufferTriangles = INITIAL_BUFFER_TRIANGLES;
 
-		protected final ByteBuffer byteBuffer;
+		protected ByteBuffer byteBuffer;
 
 		protected Buffer() {
-			byteBuffer =
-					ByteBuffer.allocateDirect(BUFFER_TRIANGLES * TRIAMGLE_LENGTH);
-			byteBuffer.order(ByteOrder.nativeOrder());
+			byteBuffer = allocateBuffer(bufferTriangles);
 		}
 
 		protected void setForTexture(TextureHandle texture) throws IllegalBufferException {
-			if (currentTexture != texture) {
-				if (texture != null && !texture.isValid()) {
-					throw new IllegalBufferException("The texture " + texture + " is not valid.");
-				}
-
-				if (currentTriangles != 0) {
-					draw();
-				}
-				currentTexture = texture;
+			if (texture != null && !texture.isValid()) {
+				throw new IllegalBufferException("The texture " + texture + " is not valid.");
 			}
+			currentTexture = texture;
 		}
 
 		protected void draw() {
+			if (currentTriangles == 0) {
+				return;
+			}
+
 			try {
 				byteBuffer.rewind();
 				context.getGl().drawTrianglesWithTextureColored(currentTexture, byteBuffer, currentTriangles);
+				drawCalls++;
+				uploadedBytes += currentTriangles * TRIAMGLE_LENGTH;
 			} catch (IllegalBufferException e) {
 				// TODO: Crash report. Should not happen since we check texture in advance.
 				e.printStackTrace();
@@ -89,10 +94,24 @@ public class DrawBuffer {
 			currentTriangles = 0;
 		}
 
-		protected void addImage(float x1, float y1, float x2, float y2, float u1, float v1, float u2, float v2, int activeColor) {
-			if (currentTriangles >= BUFFER_TRIANGLES - 2) {
+		private void ensureCapacity(int triangles) {
+			if (currentTriangles + triangles <= bufferTriangles) {
+				return;
+			}
+
+			if (bufferTriangles < MAX_BUFFER_TRIANGLES) {
+				bufferTriangles = Math.min(bufferTriangles * 2, MAX_BUFFER_TRIANGLES);
+				ByteBuffer newBuffer = allocateBuffer(bufferTriangles);
+				byteBuffer.flip();
+				newBuffer.put(byteBuffer);
+				byteBuffer = newBuffer;
+			} else {
 				draw();
 			}
+		}
+
+		protected void addImage(float x1, float y1, float x2, float y2, float u1, float v1, float u2, float v2, int activeColor) {
+			ensureCapacity(2);
 			addPointPrimitive(x1, y1, u1, v1, activeColor);
 			addPointPrimitive(x1, y2, u1, v2, activeColor);
 			addPointPrimitive(x2, y1, u2, v1, activeColor);
@@ -104,9 +123,7 @@ public class DrawBuffer {
 
 		public void addTriangle(float x1, float y1, float x2, float y2, float x3, float y3,
 				float u1, float v1, float u2, float v2, float u3, float v3, int activeColor) {
-			if (currentTriangles >= BUFFER_TRIANGLES - 1) {
-				draw();
-			}
+			ensureCapacity(1);
 			addPointPrimitive(x1, y1, u1, v1, activeColor);
 			addPointPrimitive(x2, y2, u2, v2, activeColor);
 			addPointPrimitive(x3, y3, u3, v3, activeColor);
@@ -123,15 +140,20 @@ public class DrawBuffer {
 		}
 	}
 
-	private int lastFreedBuffer = 0;
-	private final Buffer[] drawBuffers;
+	/**
+	 * The buffers used in the current frame, in the order they have been used first.
+	 */
+	private final ArrayList<Buffer> usedBuffers = new ArrayList<>();
+	private final ArrayList<Buffer> freeBuffers = new ArrayList<>();
+	private final IdentityHashMap<TextureHandle, Buffer> buffersByTexture = new IdentityHashMap<>();
+
+	private int drawCalls;
+	private int uploadedBytes;
+	private int lastFrameDrawCalls;
+	private int lastFrameUploadedBytes;
 
 	public DrawBuffer(IGLProvider context) {
 		this.context = context;
-		drawBuffers = new Buffer[BUFFERS];
-		for (int i = 0; i < BUFFERS; i++) {
-			drawBuffers[i] = new Buffer();
-		}
 	}
 
 	/**
@@ -176,30 +198,55 @@ public class DrawBuffer {
 	 * 		If the texture could not be used.
 	 */
 	public Buffer getBuffer(TextureHandle texture) throws IllegalBufferException {
-		for (int i = 0; i < BUFFERS; i++) {
-			if (drawBuffers[i].currentTexture == texture) {
-				return drawBuffers[i];
-			}
-		}
-
-		lastFreedBuffer++;
-		if (lastFreedBuffer >= BUFFERS) {
-			lastFreedBuffer = 0;
+		Buffer buffer = buffersByTexture.get(texture);
+		if (buffer != null) {
+			return buffer;
 		}
 
-		Buffer buffer = drawBuffers[lastFreedBuffer];
+		buffer = freeBuffers.isEmpty() ? new Buffer() : freeBuffers.remove(freeBuffers.size() - 1);
 		buffer.setForTexture(texture);
+		buffersByTexture.put(texture, buffer);
+		usedBuffers.add(buffer);
 		return buffer;
 	}
 
+	private static ByteBuffer allocateBuffer(int triangles) {
+		ByteBuffer byteBuffer = ByteBuffer.allocateDirect(triangles * Buffer.TRIAMGLE_LENGTH);
+		byteBuffer.order(ByteOrder.nativeOrder());
+		return byteBuffer;
+	}
+
 	/**
 	 * Draw all pending buffers to the screen.
 	 */
 	public void flush() {
-		for (int i = 0; i < BUFFERS; i++) {
-			drawBuffers[i].draw();
+		for (Buffer buffer : usedBuffers) {
+			buffer.draw();
+			buffer.currentTexture = null;
 		}
+		freeBuffers.addAll(usedBuffers);
+		usedBuffers.clear();
+		buffersByTexture.clear();
 		setZ(0);
+
+		lastFrameDrawCalls = drawCalls;
+		lastFrameUploadedBytes = uploadedBytes;
+		drawCalls = 0;
+		uploadedBytes = 0;
+	}
+
+	/**
+	 * @return The number of draw calls issued for the content of this buffer between the last two calls of {@link #flush()}.
+	 */
+	public int getLastFrameDrawCalls() {
+		return lastFrameDrawCalls;
+	}
+
+	/**
+	 * @return The number of vertex bytes sent to opengl between the last two calls of {@link #flush()}.
+	 */
+	public int getLastFrameUploadedBytes() {
+		return lastFrameUploadedBytes;
 	}
 
 	/**
@@ -243,7 +243,7 @@ public class MapObjectDrawer {
 			return;
 		}
 		float color = getColor(fogStatus);
-		Image image = imageProvider.getImage(new OriginalImageLink(EImageLinkType.SETTLER, 1, 112, 0));
+		Image image = imageProvider.getSettlerSequence(1, 112).getImageSafe(0);
 		draw(image, x, y, getColor(object), color);
 	}
 
@@ -287,8 +287,7 @@ public class MapObjectDrawer {
 		float shade = getColor(fogOfWarVisibleStatus);
 		float state = ship.getStateProgress();
 		int baseSequence = (shipType == EMapObjectType.FERRY) ? FERRY_BASE_SEQUENCE : CARGO_SHIP_BASE_SEQUENCE;
-		ImageLink shipLink = new OriginalImageLink(EImageLinkType.SETTLER, SHIP_IMAGE_FILE, baseSequence + 3, shipImageDirection.ordinal);
-		Image image = imageProvider.getImage(shipLink);
+		Image image = imageProvider.getSettlerSequence(SHIP_IMAGE_FILE, baseSequence + 3).getImageSafe(shipImageDirection.ordinal);
 		drawWithConstructionMask(x, y, state, image, shade);
 	}
 
@@ -446,8 +445,7 @@ public class MapObjectDrawer {
 	}
 
 	private void drawShipLink(int imageFile, int sequence, EDirection direction, GLDrawContext gl, DrawBuffer db, float viewX, float viewY, Color color, float shade) {
-		ImageLink shipLink = new OriginalImageLink(EImageLinkType.SETTLER, imageFile, sequence, direction.ordinal);
-		Image image = imageProvider.getImage(shipLink);
+		Image image = imageProvider.getSettlerSequence(imageFile, sequence).getImageSafe(direction.ordinal);
 		image.drawAt(gl, db, viewX, viewY, color, shade);
 	}
 
@@ -669,7 +667,7 @@ public class MapObjectDrawer {
 
 	private void drawDonkey(int x, int y, IMapObject object, float color) {
 		int i = (getAnimationStep(x, y) / 20) % 6;
-		Image image = imageProvider.getImage(new OriginalImageLink(EImageLinkType.SETTLER, 6, 17, 72 + i));
+		Image image = imageProvider.getSettlerSequence(6, 17).getImageSafe(72 + i);
 		draw(image, x, y, getColor(object), color);
 	}
 
@@ -880,8 +878,7 @@ public class MapObjectDrawer {
 			}
 			viewX = context.getConverter().getViewX(smokeX, smokeY, height);
 			viewY = context.getConverter().getViewY(smokeX, smokeY, height);
-			ImageLink link = new OriginalImageLink(EImageLinkType.SETTLER, 13, 43, (int) (moveProgress * 40));
-			image = imageProvider.getImage(link);
+			image = imageProvider.getSettlerSequence(13, 43).getImageSafe((int) (moveProgress * 40));
 			image.drawAt(context.getGl(), context.getDrawBuffer(), viewX, viewY, color, shade);
 		}
 
@@ -894,16 +891,14 @@ public class MapObjectDrawer {
 			viewX = context.getConverter().getViewX(metalX, metalY, height);
 			viewY = context.getConverter().getViewY(metalX, metalY, height);
 			int metal = (movable.getGarrisonedBuildingType() == EBuildingType.IRONMELT) ? 37 : 36;
-			ImageLink link = new OriginalImageLink(EImageLinkType.SETTLER, 13, metal, number > 24 ? 24 : number);
-			image = imageProvider.getImage(link);
+			image = imageProvider.getSettlerSequence(13, metal).getImageSafe(number > 24 ? 24 : number);
 			image.drawAt(context.getGl(), context.getDrawBuffer(), viewX, viewY, color, shade);
 			// draw smoke
 			int smokeX = x - 9;
 			int smokeY = y - 14;
 			viewX = context.getConverter().getViewX(smokeX, smokeY, height);
 			viewY = context.getConverter().getViewY(smokeX, smokeY, height);
-			link = new OriginalImageLink(EImageLinkType.SETTLER, 13, 42, number > 35 ? 35 : number);
-			image = imageProvider.getImage(link);
+			image = imageProvider.getSettlerSequence(13, 42).getImageSafe(number > 35 ? 35 : number);
 			float z = context.getDrawBuffer().getZ();
 			context.getDrawBuffer().setZ(SMOKE_Z);
 			image.drawAt(context.getGl(), context.getDrawBuffer(), viewX, viewY, color, shade);
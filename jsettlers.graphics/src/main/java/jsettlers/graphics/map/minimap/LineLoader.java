@@ -14,7 +14,7 @@
  *******************************************************************************/
 package jsettlers.graphics.map.minimap;
 
-import java.util.Arrays;
+import jsettlers.common.utils.grid.ShortGrid;
 
 /**
  * This class runs as background thread and updates the lines in the original ui.
@@ -29,9 +29,9 @@ class LineLoader extends AbstractLineLoader {
 	private final Minimap minimap;
 
 	/**
-	 * The minimap image, including settlers.
+	 * The minimap image, including settlers. It is stored off-heap, so its lines can be uploaded to the texture without copying.
 	 */
-	private short[][] buffer = new short[1][1];
+	private ShortGrid buffer = new ShortGrid(1, 1, true);
 
 	/**
 	 * Create a new LineLoader for the original ui mini map.
@@ -48,11 +48,9 @@ class LineLoader extends AbstractLineLoader {
 
 	@Override
 	protected void resizeBuffer(int width, int height) {
-		buffer = new short[height][width];
-		for (short[] line : buffer) {
-			Arrays.fill(line, BLACK);
-		}
-		minimap.setBufferArray(buffer);
+		buffer = new ShortGrid(width, height, true);
+		buffer.fill(BLACK);
+		minimap.setBuffer(buffer);
 	}
 
 	@Override
@@ -62,6 +60,6 @@ class LineLoader extends AbstractLineLoader {
 
 	@Override
 	protected void setBuffer(int currentline, int x, short color) {
-		buffer[currentline][x] = color;
+		buffer.set(x, currentline, color);
 	}
 }
@@ -25,6 +25,7 @@ import go.graphics.TextureHandle;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.shapes.MapRectangle;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.grid.ShortGrid;
 import jsettlers.graphics.map.MapDrawContext;
 import jsettlers.graphics.map.controls.original.MiniMapLayoutProperties;
 import jsettlers.graphics.map.geometry.MapCoordinateConverter;
@@ -61,7 +62,7 @@ public final class Minimap implements IMinimapData {
 	private TextureHandle texture      = null;
 	private boolean       imageIsValid = false;
 
-	private short[][] buffer;
+	private ShortGrid buffer;
 	private boolean   stopped = false;
 
 	public Minimap(MapDrawContext context, MinimapMode modeSettings) {
@@ -109,15 +110,9 @@ public final class Minimap implements IMinimapData {
 				}
 
 				if (!updatedLines.isEmpty()) {
-					ShortBuffer currData = ByteBuffer.allocateDirect(width * 2)
-													 .order(ByteOrder.nativeOrder()).asShortBuffer();
 					for (Integer currLine : updatedLines) {
-						currData.position(0);
-						currData.put(buffer[currLine]);
-						currData.position(0);
-
 						context.updateTexture(texture, 0, currLine, width, 1,
-							currData
+							buffer.getLine(currLine)
 						);
 					}
 					updatedLines.clear();
@@ -227,7 +222,7 @@ public final class Minimap implements IMinimapData {
 		}
 	}
 
-	public void setBufferArray(short[][] buffer) {
+	public void setBuffer(ShortGrid buffer) {
 		this.buffer = buffer;
 	}
 
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import go.graphics.GLDrawContext;
+import go.graphics.IllegalBufferException;
+import go.graphics.TextureHandle;
+
+public class DrawBufferTest {
+	private static final int BYTES_PER_TRIANGLE = 3 * (5 * 4 + 4);
+
+	private final DrawRecorder recorder = new DrawRecorder();
+	private final DrawBuffer drawBuffer = new DrawBuffer(recorder::createContext);
+
+	@Test
+	public void testOneDrawCallPerTextureAndFrame() throws IllegalBufferException {
+		TestTexture[] textures = { new TestTexture(), new TestTexture(), new TestTexture() };
+
+		for (int frame = 0; frame < 10; frame++) { // move the camera over a crowded area
+			recorder.drawCalls.clear();
+			int sprites = 200 + frame * 50;
+			for (int i = 0; i < sprites; i++) {
+				drawBuffer.addImage(textures[(i * 7 + frame) % textures.length], i, frame, i + 10, frame + 10, 0, 0, 1, 1, 0xffffffff);
+			}
+			drawBuffer.flush();
+
+			assertEquals(textures.length, recorder.drawCalls.size());
+			assertEquals(textures.length, drawBuffer.getLastFrameDrawCalls());
+			assertEquals(sprites * 2 * BYTES_PER_TRIANGLE, drawBuffer.getLastFrameUploadedBytes());
+			for (DrawCall drawCall : recorder.drawCalls) {
+				assertTrue(drawCall.zValuesAreIncreasing);
+			}
+		}
+	}
+
+	@Test
+	public void testFullBufferIsDrawnEarly() throws IllegalBufferException {
+		TestTexture texture = new TestTexture();
+		for (int i = 0; i < 10000; i++) {
+			drawBuffer.addImage(texture, 0, 0, 1, 1, 0, 0, 1, 1, 0xffffffff);
+		}
+		drawBuffer.flush();
+
+		assertEquals(2, recorder.drawCalls.size());
+		assertEquals(16000, recorder.drawCalls.get(0).triangles);
+		assertEquals(4000, recorder.drawCalls.get(1).triangles);
+		assertEquals(20000 * BYTES_PER_TRIANGLE, drawBuffer.getLastFrameUploadedBytes());
+	}
+
+	@Test(expected = IllegalBufferException.class)
+	public void testInvalidTexture() throws IllegalBufferException {
+		TestTexture texture = new TestTexture();
+		texture.valid = false;
+		drawBuffer.addImage(texture, 0, 0, 1, 1, 0, 0, 1, 1, 0xffffffff);
+	}
+
+	private static class DrawCall {
+		final int triangles;
+		final boolean zValuesAreIncreasing;
+
+		DrawCall(ByteBuffer buffer, int triangles) {
+			this.triangles = triangles;
+
+			boolean increasing = true;
+			float lastZ = -1;
+			for (int vertex = 0; vertex < triangles * 3; vertex++) {
+				float z = buffer.getFloat(vertex * BYTES_PER_TRIANGLE / 3 + 8);
+				increasing &= lastZ <= z;
+				lastZ = z;
+			}
+			this.zValuesAreIncreasing = increasing;
+		}
+	}
+
+	/**
+	 * Records the draw calls of a headless {@link GLDrawContext}.
+	 */
+	private static class DrawRecorder {
+		final List<DrawCall> drawCalls = new ArrayList<>();
+
+		GLDrawContext createContext() {
+			return (GLDrawContext) Proxy.newProxyInstance(GLDrawContext.class.getClassLoader(), new Class<?>[] { GLDrawContext.class },
+					(proxy, method, args) -> {
+						if (method.getName().equals("drawTrianglesWithTextureColored") && args.length == 3 && args[1] instanceof ByteBuffer) {
+							drawCalls.add(new DrawCall((ByteBuffer) args[1], (Integer) args[2]));
+							return null;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					});
+		}
+	}
+
+	private static class TestTexture implements TextureHandle {
+		boolean valid = true;
+
+		@Override
+		public boolean isValid() {
+			return valid;
+		}
+
+		@Override
+		public void delete() {
+			valid = false;
+		}
+
+		@Override
+		public int getInternalId() {
+			return 0;
+		}
+	}
+}
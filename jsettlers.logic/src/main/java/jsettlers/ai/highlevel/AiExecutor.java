@@ -14,12 +14,17 @@
  *******************************************************************************/
 package jsettlers.ai.highlevel;
 
+import static java8.util.stream.StreamSupport.parallelStream;
 import static java8.util.stream.StreamSupport.stream;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import jsettlers.common.logging.StatisticsStopWatch;
+import jsettlers.common.metrics.Histogram;
+import jsettlers.common.metrics.MetricsRegistry;
+import jsettlers.logic.constants.ExtendedRandom;
+import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.player.PlayerSetting;
 import jsettlers.network.client.interfaces.ITaskScheduler;
@@ -27,44 +32,67 @@ import jsettlers.network.synchronic.timer.INetworkTimerable;
 
 /**
  * The AiExecutor holds all IWhatToDoAi high level KIs and executes them when NetworkTimer notifies it.
+ * <p />
+ * The rules of the AI players only read the {@link AiStatistics}, which are not changed while the rules are applied. Their tasks are collected per
+ * player and scheduled in the order of the player ids afterwards. If {@link MatchConstants#ENABLE_PARALLEL_AI_RULES} is set, the rules of the players
+ * are applied in parallel.
  * 
  * @author codingberlin
  */
 public class AiExecutor implements INetworkTimerable {
+	private static final Histogram updateDurations = MetricsRegistry.getInstance().histogram("ai.update");
 
-	private final List<IWhatToDoAi> whatToDoAis;
+	private final List<AiPlayer> aiPlayers;
 	private final AiStatistics aiStatistics;
+	private final ITaskScheduler taskScheduler;
+	private final boolean parallel;
 	private final StatisticsStopWatch updateStatisticsStopWatch = new StatisticsStopWatch();
 	private final StatisticsStopWatch applyRulesStopWatch = new StatisticsStopWatch();
 
 	public AiExecutor(PlayerSetting[] playerSettings, MainGrid mainGrid, ITaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+		this.parallel = MatchConstants.ENABLE_PARALLEL_AI_RULES;
 		aiStatistics = new AiStatistics(mainGrid);
 		aiStatistics.updateStatistics();
-		this.whatToDoAis = new ArrayList<>();
+		this.aiPlayers = new ArrayList<>();
 		WhatToDoAiFactory aiFactory = new WhatToDoAiFactory();
 		for (byte playerId = 0; playerId < playerSettings.length; playerId++) {
 			PlayerSetting playerSetting = playerSettings[playerId];
 			if (playerSetting.isAvailable() && playerSetting.getPlayerType().isAi()) {
-				whatToDoAis.add(aiFactory.buildWhatToDoAi(
+				// in parallel, a shared random would be used in a nondeterministic order
+				ExtendedRandom random = parallel ? new ExtendedRandom(MatchConstants.aiRandom().nextLong()) : MatchConstants.aiRandom();
+				BufferedTaskScheduler playerTaskScheduler = new BufferedTaskScheduler();
+				IWhatToDoAi whatToDoAi = aiFactory.buildWhatToDoAi(
 						playerSettings[playerId].getPlayerType(),
 						playerSettings[playerId].getCivilisation(),
 						aiStatistics,
 						mainGrid.getPartitionsGrid().getPlayer(playerId),
 						mainGrid,
 						mainGrid.getMovableGrid(),
-						taskScheduler));
+						playerTaskScheduler,
+						random);
+				aiPlayers.add(new AiPlayer(playerId, whatToDoAi, playerTaskScheduler));
 			}
 		}
 	}
 
 	@Override
 	public void timerEvent() {
+		long startTime = System.nanoTime();
 		updateStatisticsStopWatch.restart();
 		aiStatistics.updateStatistics();
 		updateStatisticsStopWatch.stop("computerplayer:updateStatistics()");
 		applyRulesStopWatch.restart();
-		stream(whatToDoAis).forEach(IWhatToDoAi::applyRules);
+		if (parallel) {
+			parallelStream(aiPlayers).forEach(AiPlayer::applyRules);
+		} else {
+			stream(aiPlayers).forEach(AiPlayer::applyRules);
+		}
+		for (AiPlayer aiPlayer : aiPlayers) {
+			aiPlayer.taskScheduler.flushTo(taskScheduler);
+		}
 		applyRulesStopWatch.stop("computerplayer:applyRules()");
+		updateDurations.recordSince(startTime);
 	}
 
 	public StatisticsStopWatch getUpdateStatisticsStopWatch() {
@@ -74,4 +102,39 @@ public class AiExecutor implements INetworkTimerable {
 	public StatisticsStopWatch getApplyRulesStopWatch() {
 		return applyRulesStopWatch;
 	}
+
+	/**
+	 * Gets the stop watch measuring the time the given AI player needs to apply its rules.
+	 * 
+	 * @param playerId
+	 *            The id of the AI player.
+	 * @return The stop watch of the player or null if the player is not controlled by the AI.
+	 */
+	public StatisticsStopWatch getApplyRulesStopWatch(byte playerId) {
+		for (AiPlayer aiPlayer : aiPlayers) {
+			if (aiPlayer.playerId == playerId) {
+				return aiPlayer.applyRulesStopWatch;
+			}
+		}
+		return null;
+	}
+
+	private static class AiPlayer {
+		private final byte playerId;
+		private final IWhatToDoAi whatToDoAi;
+		private final BufferedTaskScheduler taskScheduler;
+		private final StatisticsStopWatch applyRulesStopWatch = new StatisticsStopWatch();
+
+		AiPlayer(byte playerId, IWhatToDoAi whatToDoAi, BufferedTaskScheduler taskScheduler) {
+			this.playerId = playerId;
+			this.whatToDoAi = whatToDoAi;
+			this.taskScheduler = taskScheduler;
+		}
+
+		void applyRules() {
+			applyRulesStopWatch.restart();
+			whatToDoAi.applyRules();
+			applyRulesStopWatch.stop("computerplayer:applyRules() of player " + playerId);
+		}
+	}
 }
@@ -152,6 +152,24 @@ public class AiPositions implements IMapArea {
 		}
 	}
 
+	/**
+	 * Removes all positions accepted by the given filter. The order of the remaining positions is kept.
+	 * 
+	 * @param filter
+	 *            Filter accepting the positions to be removed.
+	 */
+	public void removeAll(AiPositionFilter filter) {
+		int newSize = 0;
+		for (int i = 0; i < size; i++) {
+			int packedCoordinate = points[i];
+			if (!filter.contains(unpackX(packedCoordinate), unpackY(packedCoordinate))) {
+				points[newSize] = packedCoordinate;
+				newSize++;
+			}
+		}
+		size = newSize;
+	}
+
 	@Override
 	public boolean contains(ShortPoint2D position) {
 		return contains(position.x, position.y);
@@ -173,7 +191,10 @@ public class AiPositions implements IMapArea {
 		return new PositionsIterator();
 	}
 
-	private void ensureSorted() {
+	/**
+	 * Sorts the positions by x and then y coordinate. {@link #getBestRatedPoint(PositionRater)} and {@link #stream()} visit them in this order.
+	 */
+	void ensureSorted() {
 		if (!sorted) {
 			Arrays.sort(points, 0, size);
 			sorted = true;
@@ -259,6 +280,39 @@ public class AiPositions implements IMapArea {
 		return size <= 0;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof AiPositions)) {
+			return false;
+		}
+
+		AiPositions other = (AiPositions) obj;
+		if (size != other.size) {
+			return false;
+		}
+		ensureSorted();
+		other.ensureSorted();
+		for (int i = 0; i < size; i++) {
+			if (points[i] != other.points[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		ensureSorted();
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + points[i];
+		}
+		return hash;
+	}
+
 	@Override
 	public String toString() {
 		final int maxLen = 100;
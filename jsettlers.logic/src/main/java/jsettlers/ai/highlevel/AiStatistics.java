@@ -16,6 +16,7 @@ package jsettlers.ai.highlevel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -50,13 +51,14 @@ import jsettlers.common.position.RelativePoint;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.buildings.WorkAreaBuilding;
+import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.map.grid.flags.FlagsGrid;
 import jsettlers.logic.map.grid.landscape.LandscapeGrid;
 import jsettlers.logic.map.grid.movable.MovableGrid;
-import jsettlers.logic.map.grid.objects.AbstractHexMapObject;
 import jsettlers.logic.map.grid.objects.ObjectsGrid;
 import jsettlers.logic.map.grid.partition.PartitionsGrid;
+import jsettlers.logic.movable.Movable;
 import jsettlers.logic.movable.interfaces.ILogicMovable;
 import jsettlers.logic.player.Player;
 
@@ -76,6 +78,9 @@ import static jsettlers.common.movable.EMovableType.SWORDSMAN_L3;
 /**
  * This class calculates statistics based on the grids which are used by highlevel and lowlevel KI. The statistics are calculated once and read multiple times within one AiExecutor step triggerd by
  * the game clock.
+ * <p />
+ * The statistics of the map are updated incrementally: The grids report their changes to the {@link DirtyMapBlocks} and only the blocks of the map
+ * containing changed positions are recalculated. The statistics of the buildings and movables are recalculated completely from their lists.
  *
  * @author codingberlin
  */
@@ -83,6 +88,11 @@ public class AiStatistics {
 
 	private static final EBuildingType[] REFERENCE_POINT_FINDER_BUILDING_ORDER = { LUMBERJACK, TOWER, BIG_TOWER, CASTLE };
 	public static final int NEAR_STONE_DISTANCE = 5;
+	/**
+	 * The statistics of a position depend on the positions in this distance. The biggest distance is the one to near stones, fish uses 3 and
+	 * cuttable objects use 2.
+	 */
+	private static final int DEPENDENCY_RADIUS = NEAR_STONE_DISTANCE;
 
 	private final MainGrid mainGrid;
 	private final Queue<Building> buildings;
@@ -97,8 +107,13 @@ public class AiStatistics {
 	private final FlagsGrid flagsGrid;
 	private final AbstractConstructionMarkableMap constructionMarksGrid;
 	private final AiMapInformation aiMapInformation;
-	private final long[] resourceCountInDefaultPartition;
 	private final List<Player> players;
+	private final DirtyMapBlocks dirtyMapBlocks;
+	private final BitSet updatedBlocks;
+	private final List<AiPositions> mapPositions = new ArrayList<>();
+	private final int resourceAndGrassCountLength;
+	private final int countsPerBlock;
+	private final int[] blockCounts;
 
 	public AiStatistics(MainGrid mainGrid) {
 		this.mainGrid = mainGrid;
@@ -116,12 +131,28 @@ public class AiStatistics {
 		}
 		sortedRiversInDefaultPartition = new AiPositions();
 		sortedCuttableObjectsInDefaultPartition = new HashMap<>();
+		sortedCuttableObjectsInDefaultPartition.put(TREE_ADULT, new AiPositions());
+		sortedCuttableObjectsInDefaultPartition.put(STONE, new AiPositions());
 		sortedResourceTypes = new AiPositions[EResourceType.VALUES.length];
 		for (int i = 0; i < sortedResourceTypes.length; i++) {
 			sortedResourceTypes[i] = new AiPositions();
 		}
-		resourceCountInDefaultPartition = new long[EResourceType.VALUES.length];
 		players = J8Arrays.stream(partitionsGrid.getPlayers()).filter(Objects::nonNull).collect(Collectors.toList());
+
+		mapPositions.add(sortedRiversInDefaultPartition);
+		mapPositions.addAll(sortedCuttableObjectsInDefaultPartition.values());
+		mapPositions.addAll(Arrays.asList(sortedResourceTypes));
+		for (PlayerStatistic playerStatistic : playerStatistics) {
+			mapPositions.addAll(Arrays.asList(playerStatistic.landToBuildOn, playerStatistic.borderIngestibleByPioneers, playerStatistic.otherPartitionBorder,
+					playerStatistic.stones, playerStatistic.stonesNearBy, playerStatistic.trees, playerStatistic.rivers));
+		}
+
+		dirtyMapBlocks = new DirtyMapBlocks(mainGrid.getWidth(), mainGrid.getHeight(), DEPENDENCY_RADIUS);
+		updatedBlocks = new BitSet(dirtyMapBlocks.getNumberOfBlocks());
+		resourceAndGrassCountLength = AiMapInformation.GRASS_INDEX + 1;
+		countsPerBlock = aiMapInformation.resourceAndGrassCount.length * resourceAndGrassCountLength + playerStatistics.length;
+		blockCounts = new int[dirtyMapBlocks.getNumberOfBlocks() * countsPerBlock];
+		mainGrid.addMapChangedListener(dirtyMapBlocks);
 	}
 
 	public byte getFlatternEffortAtPositionForBuilding(final ShortPoint2D position, final EBuildingType buildingType) {
@@ -134,16 +165,16 @@ public class AiStatistics {
 
 	public void updateStatistics() {
 		for (PlayerStatistic playerStatistic : playerStatistics) {
-			playerStatistic.clearAll();
-		}
-		sortedRiversInDefaultPartition.clear();
-		sortedCuttableObjectsInDefaultPartition.clear();
-		for (AiPositions xCoordinatesMap : sortedResourceTypes) {
-			xCoordinatesMap.clear();
+			playerStatistic.clearBuildingAndMovableStatistics();
 		}
 
 		updateBuildingStatistics();
 		updateMapStatistics();
+		updateMovableStatistics();
+
+		if (MatchConstants.ENABLE_AI_STATISTICS_VALIDATION) {
+			validateMapStatistics();
+		}
 	}
 
 	private void updateBuildingStatistics() {
@@ -193,87 +224,191 @@ public class AiStatistics {
 	}
 
 	private void updateMapStatistics() {
+		if (updatePartitionIdsToBuildOn()) {
+			dirtyMapBlocks.mapChanged();
+		}
+
+		if (dirtyMapBlocks.takeDirtyBlocks(updatedBlocks)) {
+			clearMapStatistics();
+		} else {
+			removeMapStatisticsOf(updatedBlocks);
+		}
+
+		for (int block = updatedBlocks.nextSetBit(0); block >= 0; block = updatedBlocks.nextSetBit(block + 1)) {
+			int countsOffset = block * countsPerBlock;
+			int maxX = dirtyMapBlocks.getBlockMaxX(block);
+			int maxY = dirtyMapBlocks.getBlockMaxY(block);
+
+			for (short x = (short) dirtyMapBlocks.getBlockMinX(block); x < maxX; x++) {
+				for (short y = (short) dirtyMapBlocks.getBlockMinY(block); y < maxY; y++) {
+					updateMapStatisticsAt(x, y, countsOffset);
+				}
+			}
+		}
+
+		for (AiPositions positions : mapPositions) {
+			positions.ensureSorted();
+		}
+	}
+
+	private void clearMapStatistics() {
 		aiMapInformation.clear();
-		updatePartitionIdsToBuildOn();
-		short width = mainGrid.getWidth();
-		short height = mainGrid.getHeight();
-		Arrays.fill(resourceCountInDefaultPartition, 0);
-
-		for (short x = 0; x < width; x++) {
-			for (short y = 0; y < height; y++) {
-				Player player = partitionsGrid.getPlayerAt(x, y);
-				int mapInformationPlayerId;
-				if (player != null) {
-					mapInformationPlayerId = player.playerId;
-				} else {
-					mapInformationPlayerId = aiMapInformation.resourceAndGrassCount.length - 1;
+		Arrays.fill(blockCounts, 0);
+		for (AiPositions positions : mapPositions) {
+			positions.clear();
+		}
+		for (PlayerStatistic playerStatistic : playerStatistics) {
+			playerStatistic.wineCount = 0;
+		}
+	}
+
+	private void removeMapStatisticsOf(BitSet blocks) {
+		AiPositionFilter inBlocks = (x, y) -> blocks.get(dirtyMapBlocks.getBlockIndex(x, y));
+		for (AiPositions positions : mapPositions) {
+			positions.removeAll(inBlocks);
+		}
+
+		long[][] resourceAndGrassCount = aiMapInformation.resourceAndGrassCount;
+		for (int block = blocks.nextSetBit(0); block >= 0; block = blocks.nextSetBit(block + 1)) {
+			int countsIndex = block * countsPerBlock;
+			for (int mapInformationPlayerId = 0; mapInformationPlayerId < resourceAndGrassCount.length; mapInformationPlayerId++) {
+				for (int index = 0; index < resourceAndGrassCountLength; index++) {
+					resourceAndGrassCount[mapInformationPlayerId][index] -= blockCounts[countsIndex++];
 				}
-				if (landscapeGrid.getResourceAmountAt(x, y) > 0) {
-					EResourceType resourceType = landscapeGrid.getResourceTypeAt(x, y);
-					sortedResourceTypes[resourceType.ordinal].addNoCollission(x, y);
-					if (resourceType != EResourceType.FISH) {
-						aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][resourceType.ordinal]++;
-						if (player != null) {
-							playerStatistics[player.playerId].resourceCount[resourceType.ordinal]++;
-						} else {
-							resourceCountInDefaultPartition[resourceType.ordinal]++;
-						}
-					} else if (landscapeGrid.getLandscapeTypeAt(x, y) == ELandscapeType.WATER1) {
-						int fishMapInformationPlayerId = mapInformationPlayerId;
-						if (mapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-							fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x + 3), y);
+			}
+			for (PlayerStatistic playerStatistic : playerStatistics) {
+				playerStatistic.wineCount -= blockCounts[countsIndex++];
+			}
+			Arrays.fill(blockCounts, block * countsPerBlock, countsIndex, 0);
+		}
+	}
+
+	private void countResourceOrGrass(int countsOffset, int mapInformationPlayerId, int index) {
+		aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][index]++;
+		blockCounts[countsOffset + mapInformationPlayerId * resourceAndGrassCountLength + index]++;
+	}
+
+	private void countWine(int countsOffset, byte playerId) {
+		playerStatistics[playerId].wineCount++;
+		blockCounts[countsOffset + aiMapInformation.resourceAndGrassCount.length * resourceAndGrassCountLength + playerId]++;
+	}
+
+	private void updateMapStatisticsAt(short x, short y, int countsOffset) {
+		Player player = partitionsGrid.getPlayerAt(x, y);
+		int mapInformationPlayerId;
+		if (player != null) {
+			mapInformationPlayerId = player.playerId;
+		} else {
+			mapInformationPlayerId = aiMapInformation.resourceAndGrassCount.length - 1;
+		}
+		if (landscapeGrid.getResourceAmountAt(x, y) > 0) {
+			EResourceType resourceType = landscapeGrid.getResourceTypeAt(x, y);
+			sortedResourceTypes[resourceType.ordinal].addNoCollission(x, y);
+			if (resourceType != EResourceType.FISH) {
+				countResourceOrGrass(countsOffset, mapInformationPlayerId, resourceType.ordinal);
+			} else if (landscapeGrid.getLandscapeTypeAt(x, y) == ELandscapeType.WATER1) {
+				int fishMapInformationPlayerId = mapInformationPlayerId;
+				if (mapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
+					fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x + 3), y);
+					if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
+						fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x - 3), y);
+						if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
+							fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y + 3));
 							if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-								fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x - 3), y);
-								if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-									fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y + 3));
-									if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-										fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y - 3));
-									}
-								}
+								fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y - 3));
 							}
 						}
-						aiMapInformation.resourceAndGrassCount[fishMapInformationPlayerId][resourceType.ordinal]++;
-						if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-							resourceCountInDefaultPartition[resourceType.ordinal]++;
-						} else {
-							playerStatistics[fishMapInformationPlayerId].resourceCount[resourceType.ordinal]++;
-						}
-					}
-				}
-				if (landscapeGrid.getLandscapeTypeAt(x, y).isGrass()) {
-					aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][AiMapInformation.GRASS_INDEX]++;
-				}
-				ILogicMovable movable = movableGrid.getMovableAt(x, y);
-				if (movable != null) {
-					Player movablePlayer = movable.getPlayer();
-					byte movablePlayerId = movablePlayer.playerId;
-					PlayerStatistic movablePlayerStatistic = playerStatistics[movablePlayerId];
-					EMovableType movableType = movable.getMovableType();
-					Maps.computeIfAbsent(movablePlayerStatistic.movablePositions, movableType, key -> new ArrayList<>()).add(movable.getPosition());
-
-					if (movableType == BEARER && movable.getAction() == EMovableAction.NO_ACTION) {
-						playerStatistics[movablePlayerId].joblessBearerPositions.add(movable.getPosition());
-					}
-					if (player != null && player.playerId != movablePlayerId && movableType.isSoldier() && getEnemiesOf(player).contains(movablePlayer)) {
-						playerStatistics[player.playerId].enemyTroopsInTown.addNoCollission(movable.getPosition().x, movable.getPosition().y);
-					}
-				}
-				if (player == null) {
-					updateFreeLand(x, y);
-				} else if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
-					updatePlayerLand(x, y, player);
-				}
-				if (player != null && hasNeighborIngestibleByPioneersOf(x, y, player)) {
-					if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
-						playerStatistics[player.playerId].borderIngestibleByPioneers.add(x, y);
-					} else {
-						playerStatistics[player.playerId].otherPartitionBorder.add(x, y);
 					}
 				}
+				countResourceOrGrass(countsOffset, fishMapInformationPlayerId, resourceType.ordinal);
+			}
+		}
+		if (landscapeGrid.getLandscapeTypeAt(x, y).isGrass()) {
+			countResourceOrGrass(countsOffset, mapInformationPlayerId, AiMapInformation.GRASS_INDEX);
+		}
+		if (player == null) {
+			updateFreeLand(x, y);
+		} else if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
+			updatePlayerLand(x, y, player, countsOffset);
+		}
+		if (player != null && hasNeighborIngestibleByPioneersOf(x, y, player)) {
+			if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
+				playerStatistics[player.playerId].borderIngestibleByPioneers.add(x, y);
+			} else {
+				playerStatistics[player.playerId].otherPartitionBorder.add(x, y);
 			}
 		}
 	}
 
+	private void updateMovableStatistics() {
+		List<ILogicMovable> movablesOnGrid = new ArrayList<>();
+		for (ILogicMovable movable : Movable.getAllMovables()) {
+			ShortPoint2D position = movable.getPosition();
+			if (movableGrid.getMovableAt(position.x, position.y) == movable) {
+				movablesOnGrid.add(movable);
+			}
+		}
+		// visit the movables in the order of their positions like a scan of the grid would do
+		int height = mainGrid.getHeight();
+		Collections.sort(movablesOnGrid, Comparators.comparingInt(movable -> movable.getPosition().x * height + movable.getPosition().y));
+
+		for (ILogicMovable movable : movablesOnGrid) {
+			ShortPoint2D position = movable.getPosition();
+			Player player = partitionsGrid.getPlayerAt(position.x, position.y);
+			Player movablePlayer = movable.getPlayer();
+			byte movablePlayerId = movablePlayer.playerId;
+			PlayerStatistic movablePlayerStatistic = playerStatistics[movablePlayerId];
+			EMovableType movableType = movable.getMovableType();
+			Maps.computeIfAbsent(movablePlayerStatistic.movablePositions, movableType, key -> new ArrayList<>()).add(position);
+
+			if (movableType == BEARER && movable.getAction() == EMovableAction.NO_ACTION) {
+				playerStatistics[movablePlayerId].joblessBearerPositions.add(position);
+			}
+			if (player != null && player.playerId != movablePlayerId && movableType.isSoldier() && getEnemiesOf(player).contains(movablePlayer)) {
+				playerStatistics[player.playerId].enemyTroopsInTown.addNoCollission(position.x, position.y);
+			}
+		}
+
+		// the positions are already in scan order, sorting them now keeps the statistics unchanged while the rules are applied
+		for (PlayerStatistic playerStatistic : playerStatistics) {
+			playerStatistic.enemyTroopsInTown.ensureSorted();
+		}
+	}
+
+	/**
+	 * Recalculates the statistics of the whole map and reports if they differ from the incrementally updated ones.
+	 */
+	private void validateMapStatistics() {
+		List<AiPositions> incrementalPositions = new ArrayList<>();
+		for (AiPositions positions : mapPositions) {
+			AiPositions copy = new AiPositions();
+			copy.addAllNoCollision(positions);
+			incrementalPositions.add(copy);
+		}
+		long[][] incrementalCounts = new long[aiMapInformation.resourceAndGrassCount.length][];
+		for (int i = 0; i < incrementalCounts.length; i++) {
+			incrementalCounts[i] = aiMapInformation.resourceAndGrassCount[i].clone();
+		}
+		int[] incrementalWineCounts = getWineCounts();
+
+		dirtyMapBlocks.mapChanged();
+		updateMapStatistics();
+
+		if (!incrementalPositions.equals(mapPositions)
+				|| !Arrays.deepEquals(incrementalCounts, aiMapInformation.resourceAndGrassCount)
+				|| !Arrays.equals(incrementalWineCounts, getWineCounts())) {
+			System.err.println("AiStatistics: incrementally updated map statistics differ from the recalculated ones at " + MatchConstants.clock().getTime());
+		}
+	}
+
+	private int[] getWineCounts() {
+		int[] wineCounts = new int[playerStatistics.length];
+		for (int i = 0; i < wineCounts.length; i++) {
+			wineCounts[i] = playerStatistics[i].wineCount;
+		}
+		return wineCounts;
+	}
+
 	private int mapInformationPlayerIdOfPosition(short x, short y) {
 		if (!mainGrid.isInBounds(x, y)) {
 			return aiMapInformation.resourceAndGrassCount.length - 1;
@@ -301,17 +436,14 @@ public class AiStatistics {
 				&& !partitionsGrid.isEnforcedByTower(x, y);
 	}
 
-	private void updatePlayerLand(short x, short y, Player player) {
+	private void updatePlayerLand(short x, short y, Player player, int countsOffset) {
 		byte playerId = player.playerId;
 		PlayerStatistic playerStatistic = playerStatistics[playerId];
 		if (mainGrid.getFlagsGrid().isProtected(x, y)) {
-			AbstractHexMapObject o = objectsGrid.getObjectsAt(x, y);
-			if (o != null) {
-				if (o.hasCuttableObject(STONE) && isCuttableByPlayer(x, y, player.playerId)) {
-					playerStatistic.stones.addNoCollission(x, y);
-				} else if (o.hasMapObjectTypes(TREE_GROWING, TREE_ADULT) && isCuttableByPlayer(x, y, player.playerId)) {
-					playerStatistic.trees.addNoCollission(x, y);
-				}
+			if (objectsGrid.hasCuttableObject(x, y, STONE) && isCuttableByPlayer(x, y, player.playerId)) {
+				playerStatistic.stones.addNoCollission(x, y);
+			} else if (objectsGrid.hasMapObjectType(x, y, TREE_GROWING, TREE_ADULT) && isCuttableByPlayer(x, y, player.playerId)) {
+				playerStatistic.trees.addNoCollission(x, y);
 			}
 		} else {
 			playerStatistic.landToBuildOn.addNoCollission(x, y);
@@ -321,7 +453,7 @@ public class AiStatistics {
 			playerStatistic.rivers.addNoCollission(x, y);
 		}
 		if (objectsGrid.hasMapObjectType(x, y, EMapObjectType.WINE_GROWING, EMapObjectType.WINE_HARVESTABLE)) {
-			playerStatistic.wineCount++;
+			countWine(countsOffset, playerId);
 		}
 	}
 
@@ -341,20 +473,10 @@ public class AiStatistics {
 
 	private void updateFreeLand(short x, short y) {
 		if (objectsGrid.hasCuttableObject(x, y, TREE_ADULT)) {
-			AiPositions trees = sortedCuttableObjectsInDefaultPartition.get(TREE_ADULT);
-			if (trees == null) {
-				trees = new AiPositions();
-				sortedCuttableObjectsInDefaultPartition.put(TREE_ADULT, trees);
-			}
-			trees.addNoCollission(x, y);
+			sortedCuttableObjectsInDefaultPartition.get(TREE_ADULT).addNoCollission(x, y);
 		}
 		if (objectsGrid.hasCuttableObject(x, y, STONE)) {
-			AiPositions stones = sortedCuttableObjectsInDefaultPartition.get(STONE);
-			if (stones == null) {
-				stones = new AiPositions();
-				sortedCuttableObjectsInDefaultPartition.put(STONE, stones);
-			}
-			stones.addNoCollission(x, y);
+			sortedCuttableObjectsInDefaultPartition.get(STONE).addNoCollission(x, y);
 			updateNearStones(x, y);
 		}
 		ELandscapeType landscape = landscapeGrid.getLandscapeTypeAt(x, y);
@@ -376,7 +498,11 @@ public class AiStatistics {
 		}
 	}
 
-	private void updatePartitionIdsToBuildOn() {
+	/**
+	 * @return true if the partition to build on or the blocked partition of a player changed.
+	 */
+	private boolean updatePartitionIdsToBuildOn() {
+		boolean changed = false;
 		for (byte playerId = 0; playerId < playerStatistics.length; playerId++) {
 			ShortPoint2D referencePosition = null;
 			for (EBuildingType referenceFinderBuildingType : REFERENCE_POINT_FINDER_BUILDING_ORDER) {
@@ -386,15 +512,22 @@ public class AiStatistics {
 				}
 			}
 
+			PlayerStatistic playerStatistic = playerStatistics[playerId];
+			short partitionIdToBuildOn = Short.MIN_VALUE;
+			short blockedPartitionId = Short.MIN_VALUE;
 			if (referencePosition != null) {
-				PlayerStatistic playerStatistic = playerStatistics[playerId];
 				playerStatistic.referencePosition = referencePosition;
-				playerStatistic.partitionIdToBuildOn = partitionsGrid.getPartitionIdAt(referencePosition.x, referencePosition.y);
-				playerStatistic.blockedPartitionId = landscapeGrid.getBlockedPartitionAt(referencePosition.x, referencePosition.y);
+				partitionIdToBuildOn = partitionsGrid.getPartitionIdAt(referencePosition.x, referencePosition.y);
+				blockedPartitionId = landscapeGrid.getBlockedPartitionAt(referencePosition.x, referencePosition.y);
 				playerStatistic.materialProduction = partitionsGrid.getMaterialProductionAt(referencePosition.x, referencePosition.y);
 				playerStatistic.materials = partitionsGrid.getPartitionDataForManagerAt(referencePosition.x, referencePosition.y);
 			}
+
+			changed |= partitionIdToBuildOn != playerStatistic.partitionIdToBuildOn || blockedPartitionId != playerStatistic.blockedPartitionId;
+			playerStatistic.partitionIdToBuildOn = partitionIdToBuildOn;
+			playerStatistic.blockedPartitionId = blockedPartitionId;
 		}
+		return changed;
 	}
 
 	public Building getBuildingAt(ShortPoint2D point) {
@@ -665,11 +798,11 @@ public class AiStatistics {
 	}
 
 	public long resourceCountInDefaultPartition(EResourceType resourceType) {
-		return resourceCountInDefaultPartition[resourceType.ordinal];
+		return aiMapInformation.resourceAndGrassCount[aiMapInformation.resourceAndGrassCount.length - 1][resourceType.ordinal];
 	}
 
 	public long resourceCountOfPlayer(EResourceType resourceType, byte playerId) {
-		return playerStatistics[playerId].resourceCount[resourceType.ordinal];
+		return aiMapInformation.resourceAndGrassCount[playerId][resourceType.ordinal];
 	}
 
 	List<ShortPoint2D> threatenedBorderOf(byte playerId) {
@@ -721,7 +854,6 @@ public class AiStatistics {
 		final AiPositions rivers = new AiPositions();
 		final AiPositions enemyTroopsInTown = new AiPositions();
 		List<ShortPoint2D> threatenedBorder;
-		final long[] resourceCount = new long[EResourceType.VALUES.length];
 		int numberOfNotFinishedBuildings;
 		int numberOfTotalBuildings;
 		int numberOfNotOccupiedMilitaryBuildings;
@@ -729,39 +861,28 @@ public class AiStatistics {
 		IMaterialProductionSettings materialProduction;
 
 		PlayerStatistic() {
-			clearIntegers();
+			partitionIdToBuildOn = Short.MIN_VALUE;
+			blockedPartitionId = Short.MIN_VALUE;
 		}
 
-		public void clearAll() {
+		/**
+		 * Clears the statistics that are recalculated completely in every update. The statistics of the map are updated incrementally.
+		 */
+		public void clearBuildingAndMovableStatistics() {
 			isAlive = false;
 			materials = null;
 			buildingPositions.clear();
 			enemyTroopsInTown.clear();
-			stones.clear();
-			stonesNearBy.clear();
-			trees.clear();
-			rivers.clear();
-			landToBuildOn.clear();
-			borderIngestibleByPioneers.clear();
-			otherPartitionBorder.clear();
 			movablePositions.clear();
 			joblessBearerPositions.clear();
 			farmWorkAreas.clear();
 			wineGrowerWorkAreas.clear();
 			threatenedBorder = null;
-			clearIntegers();
-		}
-
-		private void clearIntegers() {
 			Arrays.fill(totalBuildingsNumbers, 0);
 			Arrays.fill(buildingsNumbers, 0);
-			Arrays.fill(resourceCount, 0);
 			numberOfNotFinishedBuildings = 0;
 			numberOfTotalBuildings = 0;
 			numberOfNotOccupiedMilitaryBuildings = 0;
-			wineCount = 0;
-			partitionIdToBuildOn = Short.MIN_VALUE;
-			blockedPartitionId = Short.MIN_VALUE;
 		}
 	}
 
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jsettlers.network.client.interfaces.ITaskScheduler;
+import jsettlers.network.client.task.packets.TaskPacket;
+
+/**
+ * This {@link ITaskScheduler} collects the tasks of an AI player until they are handed to the real scheduler. This allows the AI players to
+ * decide in parallel while their tasks are still scheduled in a deterministic order.
+ */
+class BufferedTaskScheduler implements ITaskScheduler {
+	private final List<TaskPacket> tasks = new ArrayList<>();
+
+	@Override
+	public void scheduleTask(TaskPacket task) {
+		tasks.add(task);
+	}
+
+	/**
+	 * Schedules the collected tasks in the order they have been added and clears the buffer.
+	 *
+	 * @param taskScheduler
+	 *            The scheduler receiving the tasks.
+	 */
+	void flushTo(ITaskScheduler taskScheduler) {
+		for (TaskPacket task : tasks) {
+			taskScheduler.scheduleTask(task);
+		}
+		tasks.clear();
+	}
+}
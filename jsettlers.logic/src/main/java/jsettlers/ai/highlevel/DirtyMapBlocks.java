@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import java.util.BitSet;
+
+import jsettlers.logic.map.grid.IMapChangedListener;
+
+/**
+ * This class collects the blocks of the map containing positions whose statistics may have changed. The map is divided into square blocks. A
+ * change of a position marks all blocks containing positions within the given dependency radius around it.
+ */
+final class DirtyMapBlocks implements IMapChangedListener {
+	static final int BLOCK_SIZE_SHIFT = 4;
+
+	private final int width;
+	private final int height;
+	private final int dependencyRadius;
+	private final int blocksPerRow;
+	private final int numberOfBlocks;
+	private final BitSet dirtyBlocks;
+
+	private boolean allBlocksDirty = true;
+
+	/**
+	 * Creates a new {@link DirtyMapBlocks} object. Initially, all blocks are dirty.
+	 *
+	 * @param width
+	 *            The width of the map.
+	 * @param height
+	 *            The height of the map.
+	 * @param dependencyRadius
+	 *            The maximum distance in x and y direction of a position whose statistics depend on a changed position.
+	 */
+	DirtyMapBlocks(int width, int height, int dependencyRadius) {
+		this.width = width;
+		this.height = height;
+		this.dependencyRadius = dependencyRadius;
+		this.blocksPerRow = (width + (1 << BLOCK_SIZE_SHIFT) - 1) >> BLOCK_SIZE_SHIFT;
+		this.numberOfBlocks = blocksPerRow * ((height + (1 << BLOCK_SIZE_SHIFT) - 1) >> BLOCK_SIZE_SHIFT);
+		this.dirtyBlocks = new BitSet(numberOfBlocks);
+	}
+
+	@Override
+	public synchronized void mapChangedAt(int x, int y) {
+		if (allBlocksDirty) {
+			return;
+		}
+
+		int minBlockX = Math.max(0, x - dependencyRadius) >> BLOCK_SIZE_SHIFT;
+		int maxBlockX = Math.min(width - 1, x + dependencyRadius) >> BLOCK_SIZE_SHIFT;
+		int minBlockY = Math.max(0, y - dependencyRadius) >> BLOCK_SIZE_SHIFT;
+		int maxBlockY = Math.min(height - 1, y + dependencyRadius) >> BLOCK_SIZE_SHIFT;
+
+		for (int blockY = minBlockY; blockY <= maxBlockY; blockY++) {
+			dirtyBlocks.set(blockY * blocksPerRow + minBlockX, blockY * blocksPerRow + maxBlockX + 1);
+		}
+	}
+
+	@Override
+	public synchronized void mapChanged() {
+		allBlocksDirty = true;
+	}
+
+	/**
+	 * Moves the blocks marked dirty since the last call into the given set and resets the marks.
+	 *
+	 * @param blocks
+	 *            The set receiving the indexes of the dirty blocks. Its previous content is cleared.
+	 * @return true if all blocks have been marked dirty.
+	 */
+	synchronized boolean takeDirtyBlocks(BitSet blocks) {
+		blocks.clear();
+		boolean allBlocks = allBlocksDirty;
+		if (allBlocks) {
+			blocks.set(0, numberOfBlocks);
+		} else {
+			blocks.or(dirtyBlocks);
+		}
+
+		dirtyBlocks.clear();
+		allBlocksDirty = false;
+		return allBlocks;
+	}
+
+	int getNumberOfBlocks() {
+		return numberOfBlocks;
+	}
+
+	int getBlockIndex(int x, int y) {
+		return (y >> BLOCK_SIZE_SHIFT) * blocksPerRow + (x >> BLOCK_SIZE_SHIFT);
+	}
+
+	int getBlockMinX(int block) {
+		return (block % blocksPerRow) << BLOCK_SIZE_SHIFT;
+	}
+
+	int getBlockMinY(int block) {
+		return (block / blocksPerRow) << BLOCK_SIZE_SHIFT;
+	}
+
+	/**
+	 * @return The x coordinate following the last column of the given block.
+	 */
+	int getBlockMaxX(int block) {
+		return Math.min(width, getBlockMinX(block) + (1 << BLOCK_SIZE_SHIFT));
+	}
+
+	/**
+	 * @return The y coordinate following the last row of the given block.
+	 */
+	int getBlockMaxY(int block) {
+		return Math.min(height, getBlockMinY(block) + (1 << BLOCK_SIZE_SHIFT));
+	}
+}
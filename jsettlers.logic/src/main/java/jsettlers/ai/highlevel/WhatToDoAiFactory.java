@@ -21,6 +21,7 @@ import jsettlers.ai.economy.EconomyMinister;
 import jsettlers.common.ai.EPlayerType;
 import jsettlers.common.player.ECivilisation;
 import jsettlers.logic.buildings.IBuildingsGrid;
+import jsettlers.logic.constants.ExtendedRandom;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.map.grid.movable.MovableGrid;
 import jsettlers.logic.player.Player;
@@ -31,10 +32,11 @@ import jsettlers.network.client.interfaces.ITaskScheduler;
  */
 class WhatToDoAiFactory {
 
-	IWhatToDoAi buildWhatToDoAi(EPlayerType type, ECivilisation civilisation, AiStatistics aiStatistics, Player player, MainGrid mainGrid, MovableGrid movableGrid, ITaskScheduler taskScheduler) {
+	IWhatToDoAi buildWhatToDoAi(EPlayerType type, ECivilisation civilisation, AiStatistics aiStatistics, Player player, MainGrid mainGrid, MovableGrid movableGrid, ITaskScheduler taskScheduler,
+			ExtendedRandom random) {
 		ArmyGeneral general = determineArmyGeneral(type, civilisation, aiStatistics, player, movableGrid, taskScheduler);
 		EconomyMinister minister = determineMinister(type, civilisation, aiStatistics, player);
-		return new WhatToDoAi(player.playerId, aiStatistics, minister, general, mainGrid, taskScheduler);
+		return new WhatToDoAi(player.playerId, aiStatistics, minister, general, mainGrid, taskScheduler, random);
 	}
 
 	private EconomyMinister determineMinister(EPlayerType type, ECivilisation civilisation, AiStatistics aiStatistics, Player player) {
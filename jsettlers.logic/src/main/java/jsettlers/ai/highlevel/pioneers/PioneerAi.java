@@ -27,7 +27,7 @@ import jsettlers.ai.highlevel.pioneers.target.TreesForLumberJackTargetFinder;
 import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.landscape.EResourceType;
 import jsettlers.common.position.ShortPoint2D;
-import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.constants.ExtendedRandom;
 
 /**
  * @author codingberlin
@@ -38,11 +38,13 @@ public class PioneerAi {
 	private final byte playerId;
 	private final int searchDistance;
 	private final AbstractPioneerTargetFinder[] targetFinders;
+	private final ExtendedRandom random;
 	private ShortPoint2D lastResourceTarget;
 
-	public PioneerAi(AiStatistics aiStatistics, byte playerId) {
+	public PioneerAi(AiStatistics aiStatistics, byte playerId, ExtendedRandom random) {
 		this.aiStatistics = aiStatistics;
 		this.playerId = playerId;
+		this.random = random;
 		this.searchDistance = aiStatistics.getMainGrid().getWidth() / 2;
 		this.lastResourceTarget = aiStatistics.getPositionOfPartition(playerId);
 
@@ -64,7 +66,7 @@ public class PioneerAi {
 		if (newTarget == null) {
 			AiPositions border = aiStatistics.getBorderIngestibleByPioneersOf(playerId);
 			if (border.size() > 1) {
-				lastResourceTarget = border.get(MatchConstants.aiRandom().nextInt(border.size()));
+				lastResourceTarget = border.get(random.nextInt(border.size()));
 			}
 		} else {
 			lastResourceTarget = newTarget;
@@ -14,13 +14,16 @@
  *******************************************************************************/
 package jsettlers.algorithms.borders;
 
+import java.util.BitSet;
+
 import jsettlers.common.movable.EDirection;
 import jsettlers.common.position.ShortPoint2D;
 
-import java.util.concurrent.LinkedBlockingQueue;
-
 /**
  * This thread calculates the positions that represent the border between the areas occupied by different players.
+ * <p />
+ * Changed positions are collected in a bit set, so a position changed several times before it is calculated is only calculated once. The thread
+ * takes all collected positions at once and calculates them and their neighbors as one batch.
  * 
  * @author Andreas Eberle
  * 
@@ -28,19 +31,39 @@ import java.util.concurrent.LinkedBlockingQueue;
 public class BordersThread implements Runnable {
 
 	private final IBordersThreadGrid grid;
-	private final LinkedBlockingQueue<ShortPoint2D> positionsQueue = new LinkedBlockingQueue<>();
+	private final short width;
+	private final short height;
 	private final Thread bordersThread;
 
+	private BitSet changedPositions; // guarded by this
+	private BitSet batchPositions;
+	private final BitSet positionsToCalculate;
+
 	private boolean canceled = false;
+	private boolean started = false;
+	private boolean calculating = false; // guarded by this
+	private int numberOfChangedPositions = 0; // guarded by this
+
+	private volatile int lastBatchSize = 0;
+	private volatile long lastBatchDuration = 0;
 
 	/**
 	 * This constructor creates a new instance of {@link BordersThread} and automatically launches a thread for it called "bordersThread".
 	 * 
 	 * @param grid
 	 *            the grid on that the {@link BordersThread} will be operating
+	 * @param width
+	 *            width of the grid
+	 * @param height
+	 *            height of the grid
 	 */
-	public BordersThread(IBordersThreadGrid grid) {
+	public BordersThread(IBordersThreadGrid grid, short width, short height) {
 		this.grid = grid;
+		this.width = width;
+		this.height = height;
+		this.changedPositions = new BitSet(width * height);
+		this.batchPositions = new BitSet(width * height);
+		this.positionsToCalculate = new BitSet(width * height);
 		this.bordersThread = new Thread(this);
 		this.bordersThread.setName("BordersThread");
 		this.bordersThread.setDaemon(true);
@@ -48,87 +71,168 @@ public class BordersThread implements Runnable {
 
 	@Override
 	public void run() {
-		while (!canceled) {
-			ShortPoint2D position = null;
-			while (position == null && !canceled) {
-				try {
-					position = positionsQueue.take();
-				} catch (InterruptedException e) {
-				}
-			}
-			if (!canceled) {
-				calculateForPosition(position);
-			}
+		while (takeChangedPositions()) {
+			long startTime = System.nanoTime();
+			calculateBatch();
+			lastBatchDuration = System.nanoTime() - startTime;
+			batchCalculated();
 		}
 	}
 
-	private void calculateForPosition(ShortPoint2D position) {
-		short x = position.x;
-		short y = position.y;
+	/**
+	 * Waits for changed positions and swaps them into {@link #batchPositions}.
+	 * 
+	 * @return false if the thread has been canceled.
+	 */
+	private synchronized boolean takeChangedPositions() {
+		while (numberOfChangedPositions == 0 && !canceled) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+			}
+		}
+		if (canceled) {
+			return false;
+		}
 
-		byte player = grid.getPlayerIdAt(x, y);
-		boolean isBorder = false;
+		BitSet positions = changedPositions;
+		changedPositions = batchPositions;
+		batchPositions = positions;
+		lastBatchSize = numberOfChangedPositions;
+		numberOfChangedPositions = 0;
+		calculating = true;
+		return true;
+	}
 
-		if (grid.getBlockedPartition(x, y) > 0) { // the position is not a blocked landscape
-			for (EDirection currDir : EDirection.VALUES) {
-				int currNeighborX = currDir.getNextTileX(x);
-				int currNeighborY = currDir.getNextTileY(y);
+	private synchronized void batchCalculated() {
+		calculating = false;
+		notifyAll();
+	}
 
-				if (!grid.isInBounds(currNeighborX, currNeighborY)) {
-					continue;
+	private void calculateBatch() {
+		for (int index = batchPositions.nextSetBit(0); index >= 0; index = batchPositions.nextSetBit(index + 1)) {
+			int x = index % width;
+			int y = index / width;
+
+			positionsToCalculate.set(index);
+			for (EDirection direction : EDirection.VALUES) {
+				int neighborX = direction.getNextTileX(x);
+				int neighborY = direction.getNextTileY(y);
+				if (grid.isInBounds(neighborX, neighborY)) {
+					positionsToCalculate.set(neighborX + neighborY * width);
 				}
-				if (grid.getBlockedPartition(currNeighborX, currNeighborY) <= 0) {
-					continue; // this neighbor is in the sea => it can never be set.
-				}
-
-				byte neighborPlayer = grid.getPlayerIdAt(currNeighborX, currNeighborY);
-				boolean neighborIsBorder = false;
+			}
+		}
+		batchPositions.clear();
 
-				if (neighborPlayer != player) {
-					isBorder = true;
-				}
+		for (int index = positionsToCalculate.nextSetBit(0); index >= 0; index = positionsToCalculate.nextSetBit(index + 1)) {
+			int x = index % width;
+			int y = index / width;
+			grid.setBorderAt(x, y, isBorder(x, y));
+		}
+		positionsToCalculate.clear();
+	}
 
-				if (neighborPlayer >= 0) { // this position is occupied by a player
-					for (EDirection currNeighborDir : EDirection.VALUES) {
-						int nextX = currNeighborDir.getNextTileX(currNeighborX);
-						int nextY = currNeighborDir.getNextTileY(currNeighborY);
+	/**
+	 * A position is a border if it is occupied by a player, is not blocked landscape and has a neighbor that is not blocked landscape and not
+	 * occupied by the same player.
+	 */
+	private boolean isBorder(int x, int y) {
+		byte player = grid.getPlayerIdAt(x, y);
+		if (player < 0 || grid.getBlockedPartition(x, y) <= 0) {
+			return false;
+		}
 
-						if (grid.isInBounds(nextX, nextY) && grid.getPlayerIdAt(nextX, nextY) != neighborPlayer
-								&& grid.getBlockedPartition(nextX, nextY) > 0) {
-							neighborIsBorder = true;
-							break;
-						}
-					}
-				} // else the position is not occupied -> don't display a border here
+		for (EDirection direction : EDirection.VALUES) {
+			int neighborX = direction.getNextTileX(x);
+			int neighborY = direction.getNextTileY(y);
 
-				grid.setBorderAt(currNeighborX, currNeighborY, neighborIsBorder);
+			if (grid.isInBounds(neighborX, neighborY) && grid.getPlayerIdAt(neighborX, neighborY) != player
+					&& grid.getBlockedPartition(neighborX, neighborY) > 0) {
+				return true;
 			}
 		}
+		return false;
+	}
 
-		grid.setBorderAt(x, y, isBorder && player >= 0);
+	/**
+	 * Blocks until all positions changed so far have been calculated. Returns immediately if the thread is not running.
+	 * 
+	 * @throws InterruptedException
+	 *             If the calling thread has been interrupted while waiting.
+	 */
+	public synchronized void awaitCalculations() throws InterruptedException {
+		while ((numberOfChangedPositions > 0 || calculating) && started && !canceled) {
+			wait();
+		}
 	}
 
 	public void checkPosition(ShortPoint2D position) {
-		this.positionsQueue.offer(position);
+		checkPosition(position.x, position.y);
 	}
 
-	public void checkArea(int x, int y, short width, short height) {
-		int endX = x + width;
-		int endY = y + height;
+	public synchronized void checkPosition(int x, int y) {
+		int index = x + y * width;
+		if (!changedPositions.get(index)) {
+			changedPositions.set(index);
+			positionsChanged(1);
+		}
+	}
 
-		for (; y < endY; y += 2) {
-			for (int currX = x; currX < endX; currX += 2) {
-				this.positionsQueue.offer(new ShortPoint2D(currX, y));
-			}
+	public synchronized void checkArea(int x, int y, short width, short height) {
+		int endX = Math.min(x + width, this.width);
+		int endY = Math.min(y + height, this.height);
+
+		int numberOfPositions = 0;
+		for (; y < endY; y++) {
+			int rowStart = y * this.width;
+			numberOfPositions -= changedPositions.get(rowStart + x, rowStart + endX).cardinality();
+			changedPositions.set(rowStart + x, rowStart + endX);
+			numberOfPositions += endX - x;
+		}
+		positionsChanged(numberOfPositions);
+	}
+
+	private void positionsChanged(int numberOfPositions) {
+		if (numberOfChangedPositions == 0 && numberOfPositions > 0) {
+			notifyAll();
 		}
+		numberOfChangedPositions += numberOfPositions;
+	}
+
+	/**
+	 * @return The number of changed positions waiting to be calculated.
+	 */
+	public synchronized int getNumberOfChangedPositions() {
+		return numberOfChangedPositions;
+	}
+
+	/**
+	 * @return The number of changed positions of the last calculated batch.
+	 */
+	public int getLastBatchSize() {
+		return lastBatchSize;
+	}
+
+	/**
+	 * @return The time in nanoseconds needed to calculate the last batch.
+	 */
+	public long getLastBatchDuration() {
+		return lastBatchDuration;
 	}
 
 	public void cancel() {
-		this.canceled = true;
+		synchronized (this) {
+			this.canceled = true;
+			notifyAll();
+		}
 		bordersThread.interrupt();
 	}
 
 	public void start() {
+		synchronized (this) {
+			started = true;
+		}
 		bordersThread.start();
 	}
 
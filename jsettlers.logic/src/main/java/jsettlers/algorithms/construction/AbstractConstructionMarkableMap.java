@@ -17,6 +17,7 @@ package jsettlers.algorithms.construction;
 import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.position.RelativePoint;
+import jsettlers.logic.map.grid.IMapChangedListener;
 
 import java.util.Set;
 
@@ -80,4 +81,14 @@ public abstract class AbstractConstructionMarkableMap {
 	public abstract boolean canConstructAt(int x, int y, EBuildingType type, byte playerId);
 
 	public abstract byte calculateConstructionMarkValue(int mapX, int mapY, final RelativePoint[] flattenPositions);
+
+	/**
+	 * Adds a listener that is informed about the changes of the map that can change the construction marks. Maps that never change don't need to
+	 * inform anybody.
+	 * 
+	 * @param listener
+	 *            The listener to be added.
+	 */
+	public void addMapChangedListener(IMapChangedListener listener) {
+	}
 }
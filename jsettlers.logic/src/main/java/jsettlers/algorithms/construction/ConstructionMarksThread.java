@@ -30,6 +30,7 @@ import jsettlers.network.client.interfaces.IPausingSupplier;
  */
 public final class ConstructionMarksThread implements Runnable {
 
+	private final AbstractConstructionMarkableMap map;
 	private final NewConstructionMarksAlgorithm algorithm;
 	private final IPausingSupplier pausingSupplier;
 	private final Thread thread;
@@ -43,6 +44,7 @@ public final class ConstructionMarksThread implements Runnable {
 	private EBuildingType buildingType = null;
 
 	public ConstructionMarksThread(AbstractConstructionMarkableMap map, IPausingSupplier pausingSupplier, byte player) {
+		this.map = map;
 		this.algorithm = new NewConstructionMarksAlgorithm(map, player);
 		this.pausingSupplier = pausingSupplier;
 
@@ -68,7 +70,9 @@ public final class ConstructionMarksThread implements Runnable {
 
 						EBuildingType buildingType = this.buildingType;
 						if (buildingType != null && mapArea != null) { // if the task has already been canceled
-							algorithm.calculateConstructMarks(mapArea, buildingType);
+							synchronized (map) { // the marks must not change while a savegame is captured
+								algorithm.calculateConstructMarks(mapArea, buildingType);
+							}
 						}
 
 						watch.stop("calculation of construction marks");
@@ -77,7 +81,9 @@ public final class ConstructionMarksThread implements Runnable {
 						wait(AlgorithmConstants.CONSTRUCT_MARKS_MAX_REFRESH_TIME);
 					}
 				}
-				algorithm.removeConstructionMarks();
+				synchronized (map) {
+					algorithm.removeConstructionMarks();
+				}
 			} catch (InterruptedException e) {
 				// do nothing
 			} catch (Throwable t) { // this thread must never be destroyed due to errors
@@ -19,11 +19,16 @@ import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.map.shapes.IMapArea;
 import jsettlers.common.map.shapes.MapRectangle;
 import jsettlers.common.position.RelativePoint;
+import jsettlers.logic.map.grid.IMapChangedListener;
 
 import java.util.BitSet;
 
 /**
  * Algorithm to calculate the construction marks for the user.
+ * <p />
+ * The results are cached for the current building type. Changes of the map reported by the {@link AbstractConstructionMarkableMap} invalidate
+ * the results of all positions whose building area contains the changed position. So only positions that have been invalidated or were not
+ * calculated yet need to be calculated. Positions that become visible again get their marks from the cache.
  * 
  * @author Andreas Eberle
  * 
@@ -31,23 +36,47 @@ import java.util.BitSet;
 public final class NewConstructionMarksAlgorithm {
 	private final AbstractConstructionMarkableMap map;
 	private final byte playerId;
+	private final short width;
+	private final ChangedPositions changedPositions;
+	private final BitSet changes;
+	private final BitSet calculatedPositions;
+	private final BitSet constructablePositions;
 
 	private MapRectangle lastArea = null;
+	private EBuildingType cachedBuildingType = null;
 
 	public NewConstructionMarksAlgorithm(AbstractConstructionMarkableMap map, byte player) {
 		this.map = map;
 		this.playerId = player;
+		this.width = map.getWidth();
+
+		int size = map.getWidth() * map.getHeight();
+		this.changedPositions = new ChangedPositions(width, size);
+		this.changes = new BitSet(size);
+		this.calculatedPositions = new BitSet(size);
+		this.constructablePositions = new BitSet(size);
+		map.addMapChangedListener(changedPositions);
 	}
 
 	public void calculateConstructMarks(final MapRectangle mapArea, EBuildingType buildingType) {
-		if (lastArea != null) {
-			removeConstructionMarks(lastArea, mapArea);
-		}
-
 		BuildingAreaBitSet buildingArea = buildingType.getBuildingAreaBitSet();
 		boolean binaryConstructionMarkValues = !buildingType.needsFlattenedGround();
 		RelativePoint[] positionsToBeFlattened = buildingType.getBuildingArea();
 
+		boolean allPositionsChanged = changedPositions.takeChanges(changes);
+		if (allPositionsChanged || buildingType != cachedBuildingType) {
+			calculatedPositions.clear();
+			cachedBuildingType = buildingType;
+		} else if (changes.isEmpty() && isSameArea(lastArea, mapArea)) {
+			return; // nothing changed
+		} else {
+			invalidatePositions(changes, buildingArea);
+		}
+
+		if (lastArea != null) {
+			removeConstructionMarks(lastArea, mapArea);
+		}
+
 		// declare local variables
 		final short[] xJumps = buildingArea.xJumps;
 		final short[] yJumps = buildingArea.yJumps;
@@ -69,7 +98,14 @@ public final class NewConstructionMarksAlgorithm {
 				final int x = xLineOffset + dx;
 				final short partitionId;
 
-				if (!mapArea.contains(x, y) || doneSet.get(dx + line * lineLength)) { // if this position has already been pruned.
+				if (!mapArea.contains(x, y) || doneSet.get(dx + line * lineLength) || !map.isInBounds(x, y)) { // if this position has already been pruned.
+					continue;
+				}
+
+				if (calculatedPositions.get(x + y * width)) { // the result is cached
+					if (lastArea == null || !lastArea.contains(x, y)) { // the position became visible
+						map.setConstructMarking(x, y, constructablePositions.get(x + y * width), binaryConstructionMarkValues, positionsToBeFlattened);
+					}
 					continue;
 				}
 
@@ -78,12 +114,14 @@ public final class NewConstructionMarksAlgorithm {
 					int firstPosY = buildingArea.aPosition.calculateY(y);
 
 					if (!map.isInBounds(firstPosX, firstPosY)) {
+						setConstructMarking(x, y, false, binaryConstructionMarkValues, null);
 						continue;
 					}
 
 					partitionId = map.getPartitionIdAt(firstPosX, firstPosY);
 
 					if (!map.canPlayerConstructOnPartition(playerId, partitionId)) {
+						setConstructMarking(x, y, false, binaryConstructionMarkValues, null);
 						continue;
 					}
 				}
@@ -102,7 +140,7 @@ public final class NewConstructionMarksAlgorithm {
 								&& !map.canUsePositionForConstruction(x + buildingPositionX, y + buildingPositionY,
 										buildingType.getRequiredGroundTypeAt(buildingPositionX, buildingPositionY), partitionId)) {
 
-							map.setConstructMarking(x, y, false, binaryConstructionMarkValues, null);
+							setConstructMarking(x, y, false, binaryConstructionMarkValues, null);
 
 							// prune the positions we already know that they are invalid.
 							for (int pruneX = 0; pruneX < xJumps[index]; pruneX++) {
@@ -113,7 +151,7 @@ public final class NewConstructionMarksAlgorithm {
 									}
 
 									doneSet.set((dx + pruneX) + (line + pruneY) * lineLength);
-									map.setConstructMarking(x + pruneX, y + pruneY, false, binaryConstructionMarkValues, null);
+									setConstructMarking(x + pruneX, y + pruneY, false, binaryConstructionMarkValues, null);
 								}
 							}
 
@@ -123,7 +161,7 @@ public final class NewConstructionMarksAlgorithm {
 				}
 
 				// no bad position found, so set the construction mark
-				map.setConstructMarking(x, y, true, binaryConstructionMarkValues, positionsToBeFlattened);
+				setConstructMarking(x, y, true, binaryConstructionMarkValues, positionsToBeFlattened);
 			}
 		}
 
@@ -131,6 +169,42 @@ public final class NewConstructionMarksAlgorithm {
 		lastArea = mapArea;
 	}
 
+	private void setConstructMarking(int x, int y, boolean set, boolean binaryConstructionMarkValues, RelativePoint[] flattenPositions) {
+		if (map.isInBounds(x, y)) {
+			calculatedPositions.set(x + y * width);
+			constructablePositions.set(x + y * width, set);
+			map.setConstructMarking(x, y, set, binaryConstructionMarkValues, flattenPositions);
+		}
+	}
+
+	/**
+	 * Invalidates the cached results of all positions whose building area contains one of the changed positions.
+	 */
+	private void invalidatePositions(BitSet changes, BuildingAreaBitSet buildingArea) {
+		int height = map.getHeight();
+
+		for (int index = changes.nextSetBit(0); index >= 0; index = changes.nextSetBit(index + 1)) {
+			int changedX = index % width;
+			int changedY = index / width;
+
+			int minX = Math.max(0, changedX - buildingArea.maxX);
+			int maxX = Math.min(width - 1, changedX - buildingArea.minX);
+			int minY = Math.max(0, changedY - buildingArea.maxY);
+			int maxY = Math.min(height - 1, changedY - buildingArea.minY);
+
+			for (int y = minY; y <= maxY; y++) {
+				if (minX <= maxX) {
+					calculatedPositions.clear(minX + y * width, maxX + y * width + 1);
+				}
+			}
+		}
+	}
+
+	private static boolean isSameArea(MapRectangle area, MapRectangle otherArea) {
+		return area != null && area.getMinX() == otherArea.getMinX() && area.getMinY() == otherArea.getMinY()
+				&& area.getWidth() == otherArea.getWidth() && area.getHeight() == otherArea.getHeight();
+	}
+
 	/**
 	 * Removes all construction marks on the screen.
 	 */
@@ -141,6 +215,8 @@ public final class NewConstructionMarksAlgorithm {
 					.forEach((x, y) -> map.setConstructMarking(x, y, false, false, null));
 			lastArea = null;
 		}
+		cachedBuildingType = null;
+		changedPositions.setRecording(false);
 	}
 
 	/**
@@ -157,4 +233,51 @@ public final class NewConstructionMarksAlgorithm {
 				.filter((x, y) -> !notIn.contains(x, y))
 				.forEach((x, y) -> map.setConstructMarking(x, y, false, false, null));
 	}
+
+	/**
+	 * Collects the positions changed by the game while the construction marks are calculated by another thread.
+	 */
+	private static final class ChangedPositions implements IMapChangedListener {
+		private final short width;
+		private final BitSet positions;
+		private boolean allPositionsChanged = true;
+		private boolean recording = false;
+
+		ChangedPositions(short width, int size) {
+			this.width = width;
+			this.positions = new BitSet(size);
+		}
+
+		@Override
+		public synchronized void mapChangedAt(int x, int y) {
+			if (recording && !allPositionsChanged) {
+				positions.set(x + y * width);
+			}
+		}
+
+		@Override
+		public synchronized void mapChanged() {
+			allPositionsChanged = true;
+		}
+
+		synchronized void setRecording(boolean recording) {
+			this.recording = recording;
+		}
+
+		/**
+		 * Moves the changed positions into the given set and starts recording changes if this has not been done so far.
+		 * 
+		 * @return true if all positions need to be considered as changed.
+		 */
+		synchronized boolean takeChanges(BitSet changes) {
+			changes.clear();
+			changes.or(positions);
+			positions.clear();
+
+			boolean allChanged = allPositionsChanged || !recording;
+			allPositionsChanged = false;
+			recording = true;
+			return allChanged;
+		}
+	}
 }
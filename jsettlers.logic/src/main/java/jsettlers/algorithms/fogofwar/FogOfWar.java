@@ -16,49 +16,92 @@ package jsettlers.algorithms.fogofwar;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import jsettlers.algorithms.fogofwar.CachedViewCircle.CachedViewCircleIterator;
 import jsettlers.common.CommonConstants;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.player.IPlayer;
 import jsettlers.common.player.IPlayerable;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.grid.ByteGrid;
 import jsettlers.logic.constants.Constants;
 import jsettlers.logic.constants.MatchConstants;
 
 /**
  * This class holds the fog of war for a given map and team.
+ * <p>
+ * The sight is updated incrementally: The map is split into tiles of {@link IFogOfWarChangeFeed#TILE_SIZE} positions. Only the tiles touched by a viewer
+ * that appeared, vanished or moved and the tiles that still contain dimming positions are recalculated. Tiles whose visible status changed are reported
+ * to the renderer by the {@link IFogOfWarChangeFeed}.
  * 
  * @author Andreas Eberle
  */
-public final class FogOfWar implements Serializable {
+public final class FogOfWar implements Serializable, IFogOfWarChangeFeed {
 	private static final long serialVersionUID = 1877994785778678510L;
+
 	/**
 	 * Longest distance any unit may look
 	 */
 	private static final byte MAX_VIEW_DISTANCE = 65;
 	static final int PADDING = 10;
+	private static final byte DIM_DOWN_SPEED = 10;
 
-	private final byte team;
+	private byte team;
 
-	private final short width;
-	private final short height;
-	private byte[][] sight;
+	private short width;
+	private short height;
+	private ByteGrid sight;
 
 	private transient boolean enabled = Constants.FOG_OF_WAR_DEFAULT_ENABLED;
 	private transient IFogOfWarGrid grid;
 	private transient boolean canceled;
 
+	private transient int tilesX;
+	private transient int tilesY;
+	private transient int[] tileVersions;
+	private transient volatile int version;
+	private transient SightUpdater sightUpdater;
+
 	public FogOfWar(short width, short height, IPlayer player) {
 		this.width = width;
 		this.height = height;
 		this.team = player.getTeamId();
-		this.sight = new byte[width][height];
+		this.sight = new ByteGrid(width, height);
+		initTiles();
+	}
+
+	private void initTiles() {
+		tilesX = (width + TILE_SIZE - 1) >> TILE_SHIFT;
+		tilesY = (height + TILE_SIZE - 1) >> TILE_SHIFT;
+		tileVersions = new int[tilesX * tilesY];
+	}
+
+	private synchronized void writeObject(ObjectOutputStream oos) throws IOException {
+		oos.defaultWriteObject(); // synchronized with updateSight() to store a consistent sight
 	}
 
 	private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
-		ois.defaultReadObject();
+		ObjectInputStream.GetField fields = ois.readFields();
+		team = fields.get("team", (byte) 0);
+		width = fields.get("width", (short) 0);
+		height = fields.get("height", (short) 0);
+
+		Object storedSight = fields.get("sight", null);
+		if (storedSight instanceof byte[][]) { // savegames created before the sight was stored in a ByteGrid
+			sight = ByteGrid.fromColumns((byte[][]) storedSight);
+		} else {
+			sight = (ByteGrid) storedSight;
+		}
+
+		initTiles();
 		enabled = true;
 	}
 
@@ -79,29 +122,48 @@ public final class FogOfWar implements Serializable {
 	 */
 	public final byte getVisibleStatus(int x, int y) {
 		if (enabled) {
-			return (byte) Math.min(sight[x][y], CommonConstants.FOG_OF_WAR_VISIBLE);
+			return (byte) Math.min(sight.get(x, y), CommonConstants.FOG_OF_WAR_VISIBLE);
 		} else {
 			return CommonConstants.FOG_OF_WAR_VISIBLE;
 		}
 	}
 
+	@Override
+	public int getVersion() {
+		return version;
+	}
+
+	@Override
+	public int getTileVersion(int x, int y) {
+		return tileVersions[(x >> TILE_SHIFT) + (y >> TILE_SHIFT) * tilesX];
+	}
+
 	private boolean isPlayerOK(IPlayerable playerable) {
 		return (MatchConstants.ENABLE_ALL_PLAYER_FOG_OF_WAR || (playerable.getPlayer().getTeamId() == team));
 	}
 
-	public final void toggleEnabled() {
-		enabled = !enabled;
+	public final synchronized void toggleEnabled() {
+		setEnabled(!enabled);
 	}
 
-	public void setEnabled(boolean enabled) {
+	public synchronized void setEnabled(boolean enabled) {
 		this.enabled = enabled;
+		int newVersion = version + 1;
+		Arrays.fill(tileVersions, newVersion);
+		version = newVersion;
 	}
 
-	final class NewFoWThread extends Thread {
-		private static final byte DIM_DOWN_SPEED = 10;
-		private final CircleDrawer drawer = new CircleDrawer();
-		private byte[][] buffer = new byte[width][height];
+	/**
+	 * Brings the sight up to date with the current positions of the viewers of the grid.
+	 */
+	synchronized void updateSight(IFogOfWarGrid grid) {
+		if (sightUpdater == null) {
+			sightUpdater = new SightUpdater();
+		}
+		sightUpdater.update(grid);
+	}
 
+	final class NewFoWThread extends Thread {
 		NewFoWThread() {
 			super("FoWThread");
 			super.setDaemon(true);
@@ -115,7 +177,7 @@ public final class FogOfWar implements Serializable {
 				// StopWatch watch = new MilliStopWatch();
 				// watch.restart();
 				if (enabled) {
-					rebuildSight();
+					updateSight(grid);
 				}
 				// watch.stop("NewFoWThread needed: ");
 
@@ -123,98 +185,250 @@ public final class FogOfWar implements Serializable {
 			}
 		}
 
-		private void rebuildSight() {
-			drawer.setBuffer(buffer);
-
-			for (short x = 0; x < width; x++) {
-				for (short y = 0; y < height; y++) {
-					byte currSight = sight[x][y];
+		private void mySleep(long ms) {
+			try {
+				Thread.sleep(ms);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+	}
 
-					if (currSight >= CommonConstants.FOG_OF_WAR_EXPLORED) {
-						byte newSight = (byte) (currSight - DIM_DOWN_SPEED);
-						if (newSight < CommonConstants.FOG_OF_WAR_EXPLORED) {
-							buffer[x][y] = CommonConstants.FOG_OF_WAR_EXPLORED;
-						} else {
-							buffer[x][y] = newSight;
-						}
-					} else {
-						buffer[x][y] = sight[x][y];
-					}
-				}
+	/**
+	 * Keeps the sight every viewer currently contributes and recalculates the tiles affected by changes.
+	 * <p>
+	 * The target sight of a position is the best sight any viewer provides for it. Every update dims the sight of all positions above
+	 * {@link CommonConstants#FOG_OF_WAR_EXPLORED} and raises them to the target sight again. As this only changes positions whose sight is above their
+	 * target, only tiles with changed viewers or with such dimming positions need to be visited.
+	 */
+	final class SightUpdater {
+		private final byte[] targetSight = new byte[width * height];
+		private final ViewArea[] viewAreas = new ViewArea[MAX_VIEW_DISTANCE];
+		private final IdentityHashMap<IViewDistancable, Viewer> viewers = new IdentityHashMap<>();
+		private final ArrayList<ArrayList<Viewer>> tileViewers = new ArrayList<>(tilesX * tilesY);
+		private final BitSet dirtyTiles = new BitSet(tilesX * tilesY);
+		private final BitSet dimmingTiles = new BitSet(tilesX * tilesY);
+		private int tick;
+
+		SightUpdater() {
+			for (int i = 0; i < tilesX * tilesY; i++) {
+				tileViewers.add(new ArrayList<Viewer>());
 			}
+			dimmingTiles.set(0, tilesX * tilesY); // the loaded sight may still need to be dimmed everywhere
+		}
 
-			ConcurrentLinkedQueue<? extends IViewDistancable> buildings = grid.getBuildingViewDistancables();
-			applyViewDistances(buildings);
+		void update(IFogOfWarGrid grid) {
+			tick++;
 
-			ConcurrentLinkedQueue<? extends IViewDistancable> movables = grid.getMovableViewDistancables();
-			applyViewDistances(movables);
+			updateViewers(grid.getBuildingViewDistancables());
+			updateViewers(grid.getMovableViewDistancables());
+			removeVanishedViewers();
 
-			byte[][] temp = sight;
-			sight = buffer;
-			buffer = temp;
+			updateTiles();
 		}
 
-		private void applyViewDistances(ConcurrentLinkedQueue<? extends IViewDistancable> objects) {
+		private void updateViewers(ConcurrentLinkedQueue<? extends IViewDistancable> objects) {
 			for (IViewDistancable curr : objects) {
-				if (isPlayerOK(curr)) {
-					short distance = curr.getViewDistance();
-					if (distance > 0) {
-						ShortPoint2D pos = curr.getPosition();
-						if (pos != null)
-							drawer.drawCircleToBuffer(pos.x, pos.y, distance);
-					}
+				if (!isPlayerOK(curr)) {
+					continue;
+				}
+				short distance = curr.getViewDistance();
+				ShortPoint2D pos = curr.getPosition();
+				if (distance <= 0 || pos == null) {
+					continue;
+				}
+
+				ViewArea area = getViewArea(distance);
+				Viewer viewer = viewers.get(curr);
+				if (viewer == null) {
+					viewer = new Viewer();
+					viewers.put(curr, viewer);
+					viewer.set(pos.x, pos.y, area);
+					addToTiles(viewer);
+				} else if (viewer.lastSeenTick != tick && (viewer.x != pos.x || viewer.y != pos.y || viewer.area != area)) {
+					removeFromTiles(viewer);
+					viewer.set(pos.x, pos.y, area);
+					addToTiles(viewer);
 				}
+				viewer.lastSeenTick = tick;
 			}
 		}
 
-		private void mySleep(long ms) {
-			try {
-				Thread.sleep(ms);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+		private void removeVanishedViewers() {
+			Iterator<Viewer> iterator = viewers.values().iterator();
+			while (iterator.hasNext()) {
+				Viewer viewer = iterator.next();
+				if (viewer.lastSeenTick != tick) {
+					removeFromTiles(viewer);
+					iterator.remove();
+				}
 			}
 		}
 
-	}
+		private void addToTiles(Viewer viewer) {
+			for (int tileY = viewer.minTileY; tileY <= viewer.maxTileY; tileY++) {
+				for (int tileX = viewer.minTileX; tileX <= viewer.maxTileX; tileX++) {
+					int tile = tileX + tileY * tilesX;
+					tileViewers.get(tile).add(viewer);
+					dirtyTiles.set(tile);
+				}
+			}
+		}
+
+		private void removeFromTiles(Viewer viewer) {
+			for (int tileY = viewer.minTileY; tileY <= viewer.maxTileY; tileY++) {
+				for (int tileX = viewer.minTileX; tileX <= viewer.maxTileX; tileX++) {
+					int tile = tileX + tileY * tilesX;
+					tileViewers.get(tile).remove(viewer);
+					dirtyTiles.set(tile);
+				}
+			}
+		}
 
-	final class CircleDrawer {
-		private byte[][] buffer;
-		private final CachedViewCircle[] cachedCircles = new CachedViewCircle[MAX_VIEW_DISTANCE];
+		private void updateTiles() {
+			BitSet tiles = (BitSet) dirtyTiles.clone();
+			tiles.or(dimmingTiles);
 
-		public final void setBuffer(byte[][] buffer) {
-			this.buffer = buffer;
+			int newVersion = version + 1;
+			boolean changed = false;
+
+			for (int tile = tiles.nextSetBit(0); tile >= 0; tile = tiles.nextSetBit(tile + 1)) {
+				int tileX = tile % tilesX;
+				int tileY = tile / tilesX;
+				int minX = tileX << TILE_SHIFT;
+				int minY = tileY << TILE_SHIFT;
+				int maxX = Math.min(minX + TILE_SIZE, width); // excluding
+				int maxY = Math.min(minY + TILE_SIZE, height); // excluding
+
+				if (dirtyTiles.get(tile)) {
+					updateTargetSight(tile, minX, minY, maxX, maxY);
+				}
+
+				boolean tileChanged = false;
+				boolean tileDimming = false;
+				for (int y = minY; y < maxY; y++) {
+					for (int index = minX + y * width, end = maxX + y * width; index < end; index++) {
+						byte currSight = sight.get(index);
+						byte target = targetSight[index];
+
+						byte newSight = currSight;
+						if (currSight >= CommonConstants.FOG_OF_WAR_EXPLORED) {
+							newSight = (byte) Math.max(currSight - DIM_DOWN_SPEED, CommonConstants.FOG_OF_WAR_EXPLORED);
+						}
+						if (newSight < target) {
+							newSight = target;
+						}
+
+						if (newSight != currSight) {
+							sight.set(index, newSight);
+							tileChanged = true;
+						}
+						if (newSight > CommonConstants.FOG_OF_WAR_EXPLORED && newSight > target) {
+							tileDimming = true;
+						}
+					}
+				}
+
+				dimmingTiles.set(tile, tileDimming);
+				if (tileChanged) {
+					tileVersions[tile] = newVersion;
+					changed = true;
+				}
+			}
+
+			dirtyTiles.clear();
+			if (changed) {
+				version = newVersion;
+			}
 		}
 
-		/**
-		 * Draws a circle to the buffer line. Each point is only brightened and onlydrawn if its x coordinate is in [0, mapWidth - 1] and its computed y coordinate is bigger than 0.
-		 */
-		final void drawCircleToBuffer(int bufferX, int bufferY, int viewDistance) {
-			CachedViewCircle circle = getCachedCircle(viewDistance);
-			CachedViewCircleIterator iterator = circle.iterator(bufferX, bufferY);
+		private void updateTargetSight(int tile, int minX, int minY, int maxX, int maxY) {
+			for (int y = minY; y < maxY; y++) {
+				Arrays.fill(targetSight, minX + y * width, maxX + y * width, (byte) 0);
+			}
 
-			while (iterator.hasNext()) {
-				final int x = iterator.getCurrX();
-				final int y = iterator.getCurrY();
-
-				if (x >= 0 && x < width && y > 0 && y < height) {
-					byte oldSight = buffer[x][y];
-					if (oldSight < CommonConstants.FOG_OF_WAR_VISIBLE) {
-						byte newSight = iterator.getCurrSight();
-						if (oldSight < newSight) {
-							buffer[x][y] = newSight;
+			for (Viewer viewer : tileViewers.get(tile)) {
+				ViewArea area = viewer.area;
+				int fromX = Math.max(minX, viewer.x + area.minX);
+				int toX = Math.min(maxX - 1, viewer.x + area.maxX);
+				int fromY = Math.max(Math.max(minY, 1), viewer.y + area.minY); // the first line is never drawn
+				int toY = Math.min(maxY - 1, viewer.y + area.maxY);
+
+				for (int y = fromY; y <= toY; y++) {
+					int areaIndex = (fromX - viewer.x - area.minX) + (y - viewer.y - area.minY) * area.width;
+					for (int index = fromX + y * width, end = toX + y * width; index <= end; index++, areaIndex++) {
+						byte viewerSight = area.sight[areaIndex];
+						if (targetSight[index] < viewerSight) {
+							targetSight[index] = viewerSight;
 						}
 					}
 				}
 			}
 		}
 
-		private CachedViewCircle getCachedCircle(int viewDistance) {
+		private ViewArea getViewArea(int viewDistance) {
 			int radius = Math.min(viewDistance + PADDING, MAX_VIEW_DISTANCE - 1);
-			if (cachedCircles[radius] == null) {
-				cachedCircles[radius] = new CachedViewCircle(radius);
+			if (viewAreas[radius] == null) {
+				viewAreas[radius] = new ViewArea(new CachedViewCircle(radius));
+			}
+			return viewAreas[radius];
+		}
+
+		private final class Viewer {
+			short x;
+			short y;
+			ViewArea area;
+			int minTileX;
+			int minTileY;
+			int maxTileX;
+			int maxTileY;
+			int lastSeenTick;
+
+			void set(short x, short y, ViewArea area) {
+				this.x = x;
+				this.y = y;
+				this.area = area;
+
+				minTileX = Math.max(x + area.minX, 0) >> TILE_SHIFT;
+				minTileY = Math.max(y + area.minY, 0) >> TILE_SHIFT;
+				maxTileX = Math.min(x + area.maxX, width - 1) >> TILE_SHIFT;
+				maxTileY = Math.min(y + area.maxY, height - 1) >> TILE_SHIFT;
 			}
+		}
+	}
 
-			return cachedCircles[radius];
+	/**
+	 * The sight of a {@link CachedViewCircle} as a rectangle around its center. Positions outside of the circle have a sight of 0.
+	 */
+	static final class ViewArea {
+		final int minX;
+		final int minY;
+		final int maxX;
+		final int maxY;
+		final int width;
+		final byte[] sight;
+
+		ViewArea(CachedViewCircle circle) {
+			int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+			CachedViewCircleIterator iterator = circle.iterator(0, 0);
+			while (iterator.hasNext()) {
+				minX = Math.min(minX, iterator.getCurrX());
+				minY = Math.min(minY, iterator.getCurrY());
+				maxX = Math.max(maxX, iterator.getCurrX());
+				maxY = Math.max(maxY, iterator.getCurrY());
+			}
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.width = maxX - minX + 1;
+			this.sight = new byte[width * (maxY - minY + 1)];
+
+			iterator = circle.iterator(0, 0);
+			while (iterator.hasNext()) {
+				int index = (iterator.getCurrX() - minX) + (iterator.getCurrY() - minY) * width;
+				sight[index] = (byte) Math.max(sight[index], iterator.getCurrSight());
+			}
 		}
 	}
 
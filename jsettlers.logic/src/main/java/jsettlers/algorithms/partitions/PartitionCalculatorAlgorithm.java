@@ -14,6 +14,8 @@
  *******************************************************************************/
 package jsettlers.algorithms.partitions;
 
+import jsettlers.common.metrics.Histogram;
+import jsettlers.common.metrics.MetricsRegistry;
 import jsettlers.common.movable.EDirection;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.coordinates.CoordinateStream;
@@ -35,6 +37,7 @@ public final class PartitionCalculatorAlgorithm {
 	private static final int[] neighborX = { EDirection.WEST.gridDeltaX, EDirection.NORTH_WEST.gridDeltaX, EDirection.NORTH_EAST.gridDeltaX };
 	private static final int[] neighborY = { EDirection.WEST.gridDeltaY, EDirection.NORTH_WEST.gridDeltaY, EDirection.NORTH_EAST.gridDeltaY };
 	private static final int INCREASE_FACTOR = 2;
+	private static final Histogram calculationDurations = MetricsRegistry.getInstance().histogram("logic.partition-calculation");
 
 	private final int minX;
 	private final int minY;
@@ -119,6 +122,7 @@ public final class PartitionCalculatorAlgorithm {
 	 * The results can be accessed with the supplied getter methods.
 	 */
 	public void calculatePartitions() {
+		long startTime = System.nanoTime();
 		for (int y = 0; y < height; y++) {
 			for (int x = 0; x < width; x++) {
 				int index = x + y * width;
@@ -182,6 +186,7 @@ public final class PartitionCalculatorAlgorithm {
 
 		// post processing
 		normalizePartitions();
+		calculationDurations.recordSince(startTime);
 	}
 
 	private short createNewPartition(int y, int x) {
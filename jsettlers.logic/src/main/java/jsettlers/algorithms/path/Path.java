@@ -61,6 +61,17 @@ public class Path implements Serializable {
 		}
 	}
 
+	/**
+	 * Creates a copy of the steps of the given path. The new path starts at the beginning, independent of the progress of the given path.
+	 *
+	 * @param path
+	 *            The path to be copied.
+	 */
+	Path(Path path) {
+		pathX = path.pathX.clone();
+		pathY = path.pathY.clone();
+	}
+
 	/**
 	 * Creates a path of length 1 with that's just containing to the given position.<br>
 	 * 
@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Bounded LRU cache of calculated paths.
+ * <p />
+ * An A* search for a path of length L only looks at positions p with dist(start, p) + dist(p, target) <= L + 2. Therefore a cached path stays
+ * exactly the path the search would calculate, as long as the blocking of these positions does not change. Every change must be reported with
+ * {@link #invalidate(int, int)} (or {@link #invalidatePlayerGround(int, int)} for changes of the owning player), which removes the paths whose region
+ * contains the position. To find these paths quickly, every path is registered in the tiles of {@value #TILE_SIZE}x{@value #TILE_SIZE} positions
+ * overlapped by its region.
+ * <p />
+ * The cached steps are never handed out. Every hit returns a new copy, as {@link Path}s are progressed by their users and stored in savegames.
+ */
+public final class PathCache {
+	private static final int SEARCHED_AREA_TOLERANCE = 2;
+	private static final int TILE_SHIFT = 5;
+	private static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+	private final int capacity;
+	private final LinkedHashMap<Key, CachedPath> entries;
+
+	private final int tilesX;
+	private final int tilesY;
+	private final ArrayList<ArrayList<CachedPath>> tiles;
+	private int tileRegistrations;
+	private int removedTileRegistrations;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+
+	public PathCache(final int capacity, short width, short height) {
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<Key, CachedPath>(capacity * 4 / 3 + 1, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CachedPath> eldest) {
+				if (size() > PathCache.this.capacity) {
+					evictions++;
+					markRemoved(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+
+		this.tilesX = (width + TILE_SIZE - 1) >> TILE_SHIFT;
+		this.tilesY = (height + TILE_SIZE - 1) >> TILE_SHIFT;
+		this.tiles = new ArrayList<>(Collections.<ArrayList<CachedPath>> nCopies(tilesX * tilesY, null));
+	}
+
+	/**
+	 * Checks if the path of the given requester can be cached. Paths of ships depend on the water of the whole area, so they are not cached.
+	 */
+	public static boolean isCacheable(IPathCalculatable requester) {
+		return !requester.isShip();
+	}
+
+	/**
+	 * Gets the cached path between the given positions.
+	 *
+	 * @param requester
+	 *            The requester of the path. Only its blocking relevant properties are used.
+	 * @param blockedPartition
+	 *            The blocked partition of start and target.
+	 * @return A new copy of the cached path or null if there is no path cached.
+	 */
+	public synchronized Path get(IPathCalculatable requester, int sx, int sy, int tx, int ty, short blockedPartition) {
+		CachedPath cachedPath = entries.get(new Key(requester, sx, sy, tx, ty, blockedPartition));
+		if (cachedPath == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return new Path(cachedPath.path);
+	}
+
+	/**
+	 * Adds the given path to the cache. The path must not have been progressed yet.
+	 *
+	 * @see #get(IPathCalculatable, int, int, int, int, short)
+	 */
+	public synchronized void put(IPathCalculatable requester, int sx, int sy, int tx, int ty, short blockedPartition, Path path) {
+		Key key = new Key(requester, sx, sy, tx, ty, blockedPartition);
+		CachedPath cachedPath = new CachedPath(key, new Path(path), sx, sy, tx, ty, requester.needsPlayersGround());
+
+		CachedPath replacedPath = entries.put(key, cachedPath);
+		if (replacedPath != null) {
+			markRemoved(replacedPath);
+		}
+
+		int minTileX = Math.max(0, cachedPath.minX >> TILE_SHIFT);
+		int maxTileX = Math.min(tilesX - 1, cachedPath.maxX >> TILE_SHIFT);
+		int minTileY = Math.max(0, cachedPath.minY >> TILE_SHIFT);
+		int maxTileY = Math.min(tilesY - 1, cachedPath.maxY >> TILE_SHIFT);
+		for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+			for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+				int tileIdx = tileY * tilesX + tileX;
+				ArrayList<CachedPath> tile = tiles.get(tileIdx);
+				if (tile == null) {
+					tile = new ArrayList<>();
+					tiles.set(tileIdx, tile);
+				}
+				tile.add(cachedPath);
+			}
+		}
+		cachedPath.tileRegistrations = (maxTileX - minTileX + 1) * (maxTileY - minTileY + 1);
+		tileRegistrations += cachedPath.tileRegistrations;
+	}
+
+	/**
+	 * Removes all paths that could change due to a changed blocking at the given position.
+	 */
+	public synchronized void invalidate(int x, int y) {
+		invalidate(x, y, false);
+	}
+
+	/**
+	 * Removes all paths of requesters needing their player's ground that could change due to a new owner of the given position.
+	 */
+	public synchronized void invalidatePlayerGround(int x, int y) {
+		invalidate(x, y, true);
+	}
+
+	private void invalidate(int x, int y, boolean onlyPlayerGround) {
+		ArrayList<CachedPath> tile = tiles.get((y >> TILE_SHIFT) * tilesX + (x >> TILE_SHIFT));
+		if (tile == null) {
+			return;
+		}
+
+		for (CachedPath cachedPath : tile) {
+			if (!cachedPath.removed && cachedPath.isInSearchedArea(x, y) && (!onlyPlayerGround || cachedPath.needsPlayersGround)) {
+				entries.remove(cachedPath.key);
+				markRemoved(cachedPath);
+				invalidations++;
+			}
+		}
+		removeMarkedPaths(tile);
+
+		if (removedTileRegistrations > tileRegistrations / 2 && removedTileRegistrations > capacity) {
+			for (ArrayList<CachedPath> currTile : tiles) {
+				if (currTile != null) {
+					removeMarkedPaths(currTile);
+				}
+			}
+		}
+	}
+
+	private void markRemoved(CachedPath cachedPath) {
+		cachedPath.removed = true;
+		removedTileRegistrations += cachedPath.tileRegistrations;
+	}
+
+	private void removeMarkedPaths(ArrayList<CachedPath> tile) {
+		int newSize = 0;
+		for (int i = 0; i < tile.size(); i++) {
+			CachedPath cachedPath = tile.get(i);
+			if (!cachedPath.removed) {
+				tile.set(newSize++, cachedPath);
+			}
+		}
+		int removed = tile.size() - newSize;
+		tileRegistrations -= removed;
+		removedTileRegistrations -= removed;
+		while (tile.size() > newSize) {
+			tile.remove(tile.size() - 1);
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		Collections.fill(tiles, null);
+		tileRegistrations = 0;
+		removedTileRegistrations = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * @return The share of lookups that could be answered from the cache.
+	 */
+	public synchronized float getHitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (float) hits / lookups;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "PathCache [size=" + entries.size() + ", hits=" + hits + ", misses=" + misses + ", hitRate=" + getHitRate() + ", evictions=" + evictions
+				+ ", invalidations=" + invalidations + "]";
+	}
+
+	private static final class Key {
+		private final short sx;
+		private final short sy;
+		private final short tx;
+		private final short ty;
+		private final short blockedPartition;
+		private final byte playerId;
+
+		Key(IPathCalculatable requester, int sx, int sy, int tx, int ty, short blockedPartition) {
+			this.sx = (short) sx;
+			this.sy = (short) sy;
+			this.tx = (short) tx;
+			this.ty = (short) ty;
+			this.blockedPartition = blockedPartition;
+			this.playerId = requester.needsPlayersGround() ? requester.getPlayer().getPlayerId() : -1;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = sx;
+			result = 31 * result + sy;
+			result = 31 * result + tx;
+			result = 31 * result + ty;
+			result = 31 * result + blockedPartition;
+			return 31 * result + playerId;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return sx == other.sx && sy == other.sy && tx == other.tx && ty == other.ty && blockedPartition == other.blockedPartition
+					&& playerId == other.playerId;
+		}
+	}
+
+	private static final class CachedPath {
+		final Key key;
+		final Path path;
+		final boolean needsPlayersGround;
+		final int sx;
+		final int sy;
+		final int tx;
+		final int ty;
+		final int searchedDistance;
+		final int minX;
+		final int maxX;
+		final int minY;
+		final int maxY;
+
+		int tileRegistrations;
+		boolean removed;
+
+		CachedPath(Key key, Path path, int sx, int sy, int tx, int ty, boolean needsPlayersGround) {
+			this.key = key;
+			this.path = path;
+			this.needsPlayersGround = needsPlayersGround;
+			this.sx = sx;
+			this.sy = sy;
+			this.tx = tx;
+			this.ty = ty;
+			this.searchedDistance = path.getLength() + SEARCHED_AREA_TOLERANCE;
+
+			// the on grid distance is at least the distance of the x and the y coordinates
+			this.minX = (sx + tx - searchedDistance) / 2 - 1;
+			this.maxX = (sx + tx + searchedDistance) / 2 + 1;
+			this.minY = (sy + ty - searchedDistance) / 2 - 1;
+			this.maxY = (sy + ty + searchedDistance) / 2 + 1;
+		}
+
+		boolean isInSearchedArea(int x, int y) {
+			return minX <= x && x <= maxX && minY <= y && y <= maxY
+					&& ShortPoint2D.getOnGridDist(x - sx, y - sy) + ShortPoint2D.getOnGridDist(tx - x, ty - y) <= searchedDistance;
+		}
+	}
+}
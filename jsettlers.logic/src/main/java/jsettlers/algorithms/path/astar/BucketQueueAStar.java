@@ -47,6 +47,8 @@ public final class BucketQueueAStar extends AbstractAStar {
 
 	private final AbstractBucketQueue open;
 
+	private int expandedNodes;
+
 	public BucketQueueAStar(IAStarPathMap map, short width, short height) {
 		this.map = map;
 		this.width = width;
@@ -69,6 +71,8 @@ public final class BucketQueueAStar extends AbstractAStar {
 
 	@Override
 	public final Path findPath(IPathCalculatable requester, final short sx, final short sy, final short tx, final short ty) {
+		expandedNodes = 0;
+
 		final short blockedAtStartPartition;
 		if (!isInBounds(sx, sy)) {
 			throw new InvalidStartPositionException("Start position is out of bounds!", sx, sy);
@@ -98,6 +102,7 @@ public final class BucketQueueAStar extends AbstractAStar {
 			final int y = getY(currFlatIdx);
 
 			setClosed(x, y);
+			expandedNodes++;
 
 			if (targetFlatIdx == currFlatIdx) {
 				found = true;
@@ -161,6 +166,13 @@ public final class BucketQueueAStar extends AbstractAStar {
 		return null;
 	}
 
+	/**
+	 * @return The number of nodes expanded by the last search.
+	 */
+	public int getExpandedNodes() {
+		return expandedNodes;
+	}
+
 	private static int getDepthIdx(int flatIdx) {
 		return 2 * flatIdx;
 	}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.PathCache;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * {@link AbstractAStar} answering path requests from a {@link PathCache} and calculating missing paths with the given A*. The given A* must calculate
+ * its paths independent of previous searches, so that cached and calculated paths are identical.
+ */
+public final class CachingAStar extends AbstractAStar {
+	private final PathCache pathCache;
+	private final AbstractAStar aStar;
+	private final IAStarPathMap map;
+	private final short width;
+	private final short height;
+
+	public CachingAStar(PathCache pathCache, AbstractAStar aStar, IAStarPathMap map, short width, short height) {
+		this.pathCache = pathCache;
+		this.aStar = aStar;
+		this.map = map;
+		this.width = width;
+		this.height = height;
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, ShortPoint2D target) {
+		ShortPoint2D pos = requester.getPosition();
+		return findPath(requester, pos.x, pos.y, target.x, target.y);
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, short sx, short sy, short tx, short ty) {
+		if (!PathCache.isCacheable(requester) || !isInBounds(sx, sy) || !isInBounds(tx, ty) || map.isBlocked(requester, sx, sy)) {
+			return aStar.findPath(requester, sx, sy, tx, ty);
+		}
+
+		short blockedPartition = map.getBlockedPartition(sx, sy);
+		if (blockedPartition != map.getBlockedPartition(tx, ty)) {
+			return null; // target can not be reached
+		}
+
+		Path path = pathCache.get(requester, sx, sy, tx, ty, blockedPartition);
+		if (path == null) {
+			path = aStar.findPath(requester, sx, sy, tx, ty);
+			if (path != null) {
+				pathCache.put(requester, sx, sy, tx, ty, blockedPartition, path);
+			}
+		}
+		return path;
+	}
+
+	private boolean isInBounds(int x, int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Arrays;
+
+import jsettlers.algorithms.partitions.IBlockingProvider;
+import jsettlers.common.movable.EDirection;
+
+/**
+ * Breadth first search that is limited to the area of a single cluster. As all steps of the map have the same costs, the found paths are shortest paths
+ * inside of the cluster.
+ */
+final class ClusterBreadthFirstSearch {
+	private static final byte[] xDeltaArray = EDirection.getXDeltaArray();
+	private static final byte[] yDeltaArray = EDirection.getYDeltaArray();
+
+	private final int[] distances = new int[ClusterGraph.CLUSTER_SIZE * ClusterGraph.CLUSTER_SIZE];
+	private final int[] parents = new int[ClusterGraph.CLUSTER_SIZE * ClusterGraph.CLUSTER_SIZE];
+	private final int[] queue = new int[ClusterGraph.CLUSTER_SIZE * ClusterGraph.CLUSTER_SIZE];
+
+	private int minX;
+	private int minY;
+	private int maxX;
+	private int maxY;
+
+	private int expandedNodes;
+
+	/**
+	 * Calculates the distances of all positions of the given area that can be reached from the start position.
+	 *
+	 * @param minX
+	 *            The minimum x coordinate of the area.
+	 * @param minY
+	 *            The minimum y coordinate of the area.
+	 * @param maxX
+	 *            The maximum x coordinate of the area (exclusive). The area must not be wider than {@link ClusterGraph#CLUSTER_SIZE}.
+	 * @param maxY
+	 *            The maximum y coordinate of the area (exclusive). The area must not be higher than {@link ClusterGraph#CLUSTER_SIZE}.
+	 * @param startX
+	 *            x coordinate of the start. The start is always seen as reachable, even if it is blocked.
+	 * @param startY
+	 *            y coordinate of the start.
+	 * @param blockingProvider
+	 *            Defines the blocked positions.
+	 */
+	void search(int minX, int minY, int maxX, int maxY, int startX, int startY, IBlockingProvider blockingProvider) {
+		search(minX, minY, maxX, maxY, startX, startY, -1, -1, blockingProvider);
+	}
+
+	/**
+	 * Like {@link #search(int, int, int, int, int, int, IBlockingProvider)}, but the search stops as soon as the given target has been reached.
+	 */
+	void search(int minX, int minY, int maxX, int maxY, int startX, int startY, int targetX, int targetY, IBlockingProvider blockingProvider) {
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+
+		Arrays.fill(distances, -1);
+
+		int startIdx = getLocalIdx(startX, startY);
+		distances[startIdx] = 0;
+		parents[startIdx] = -1;
+		queue[0] = startIdx;
+		int queueHead = 0;
+		int queueTail = 1;
+
+		while (queueHead < queueTail) {
+			int currIdx = queue[queueHead++];
+			int x = minX + currIdx % ClusterGraph.CLUSTER_SIZE;
+			int y = minY + currIdx / ClusterGraph.CLUSTER_SIZE;
+			if (x == targetX && y == targetY) {
+				break;
+			}
+			expandedNodes++;
+
+			for (int i = 0; i < EDirection.NUMBER_OF_DIRECTIONS; i++) {
+				int neighborX = x + xDeltaArray[i];
+				int neighborY = y + yDeltaArray[i];
+
+				if (isInArea(neighborX, neighborY)) {
+					int neighborIdx = getLocalIdx(neighborX, neighborY);
+					if (distances[neighborIdx] < 0 && !blockingProvider.isBlocked(neighborX, neighborY)) {
+						distances[neighborIdx] = distances[currIdx] + 1;
+						parents[neighborIdx] = currIdx;
+						queue[queueTail++] = neighborIdx;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The distance of the given position to the start of the last search or -1 if it couldn't be reached.
+	 */
+	int getDistance(int x, int y) {
+		return isInArea(x, y) ? distances[getLocalIdx(x, y)] : -1;
+	}
+
+	/**
+	 * Writes the path from the start of the last search to the given position into the given arrays. The start itself is not part of the path.
+	 *
+	 * @return The number of written steps or -1 if the position couldn't be reached.
+	 */
+	int writePath(int x, int y, short[] pathX, short[] pathY, int offset) {
+		int distance = getDistance(x, y);
+		if (distance < 0) {
+			return -1;
+		}
+
+		int currIdx = getLocalIdx(x, y);
+		for (int i = offset + distance - 1; i >= offset; i--) {
+			pathX[i] = (short) (minX + currIdx % ClusterGraph.CLUSTER_SIZE);
+			pathY[i] = (short) (minY + currIdx / ClusterGraph.CLUSTER_SIZE);
+			currIdx = parents[currIdx];
+		}
+		return distance;
+	}
+
+	int getExpandedNodes() {
+		return expandedNodes;
+	}
+
+	void resetExpandedNodes() {
+		expandedNodes = 0;
+	}
+
+	private boolean isInArea(int x, int y) {
+		return minX <= x && x < maxX && minY <= y && y < maxY;
+	}
+
+	private int getLocalIdx(int x, int y) {
+		return (y - minY) * ClusterGraph.CLUSTER_SIZE + x - minX;
+	}
+}
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import jsettlers.algorithms.partitions.IBlockingProvider;
+
+/**
+ * Abstract graph of the map used by the {@link HierarchicalAStar}. The map is divided into square clusters of {@link #CLUSTER_SIZE} positions. For
+ * every free segment of the border between two neighboring clusters, entrances are created, consisting of one {@link ClusterNode} on each side of the
+ * border. Nodes of the same cluster are connected with their distance inside the cluster.
+ * <p />
+ * Changes of the blocking must be reported with {@link #markDirty(int, int)}. The affected clusters are rebuilt with the next call to {@link #update()}.
+ * Updates are synchronized, so the graph can be shared by {@link HierarchicalAStar} instances of different threads, as long as the blocking isn't
+ * changed while they are searching.
+ */
+public final class ClusterGraph {
+	public static final int CLUSTER_SIZE = 16;
+
+	/**
+	 * Free border segments longer than this get an entrance at each end instead of one in the middle.
+	 */
+	private static final int MAX_SINGLE_ENTRANCE_LENGTH = 6;
+
+	private final IBlockingProvider blockingProvider;
+	private final short width;
+	private final short height;
+	private final int clustersX;
+	private final int clustersY;
+
+	/**
+	 * Orders the nodes of a cluster only by their positions, so that the graph doesn't depend on the order of the updates.
+	 */
+	private static final Comparator<ClusterNode> NODE_ORDER = new Comparator<ClusterNode>() {
+		@Override
+		public int compare(ClusterNode first, ClusterNode second) {
+			int result = compare(first.y, first.x, second.y, second.x);
+			return result != 0 ? result : compare(first.partner.y, first.partner.x, second.partner.y, second.partner.x);
+		}
+
+		private int compare(int firstY, int firstX, int secondY, int secondX) {
+			return firstY != secondY ? Integer.compare(firstY, secondY) : Integer.compare(firstX, secondX);
+		}
+	};
+
+	private final ArrayList<List<ClusterNode>> clusterNodes;
+	private final BitSet dirtyClusters;
+	private final BitSet usedNodeIds = new BitSet();
+
+	private final ClusterBreadthFirstSearch breadthFirstSearch = new ClusterBreadthFirstSearch();
+
+	public ClusterGraph(IBlockingProvider blockingProvider, short width, short height) {
+		this.blockingProvider = blockingProvider;
+		this.width = width;
+		this.height = height;
+		this.clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		this.clustersY = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+
+		int numberOfClusters = clustersX * clustersY;
+		this.clusterNodes = new ArrayList<>(numberOfClusters);
+		for (int i = 0; i < numberOfClusters; i++) {
+			clusterNodes.add(new ArrayList<>());
+		}
+
+		this.dirtyClusters = new BitSet(clusterNodes.size());
+		this.dirtyClusters.set(0, clusterNodes.size());
+	}
+
+	/**
+	 * Marks the cluster of the given position to be rebuilt with the next {@link #update()}. This must be called whenever the blocking of the position
+	 * changes.
+	 */
+	public synchronized void markDirty(int x, int y) {
+		dirtyClusters.set(getCluster(x, y));
+	}
+
+	/**
+	 * Rebuilds all clusters that have been marked dirty since the last update.
+	 */
+	public synchronized void update() {
+		if (dirtyClusters.isEmpty()) {
+			return;
+		}
+
+		BitSet rebuiltBorders = new BitSet(2 * clusterNodes.size());
+		BitSet changedClusters = new BitSet(clusterNodes.size());
+
+		for (int cluster = dirtyClusters.nextSetBit(0); cluster >= 0; cluster = dirtyClusters.nextSetBit(cluster + 1)) {
+			int clusterX = cluster % clustersX;
+			int clusterY = cluster / clustersX;
+
+			changedClusters.set(cluster);
+			if (clusterX + 1 < clustersX) {
+				rebuildBorder(cluster, cluster + 1, true, rebuiltBorders, changedClusters);
+			}
+			if (clusterX > 0) {
+				rebuildBorder(cluster - 1, cluster, true, rebuiltBorders, changedClusters);
+			}
+			if (clusterY + 1 < clustersY) {
+				rebuildBorder(cluster, cluster + clustersX, false, rebuiltBorders, changedClusters);
+			}
+			if (clusterY > 0) {
+				rebuildBorder(cluster - clustersX, cluster, false, rebuiltBorders, changedClusters);
+			}
+		}
+
+		for (int cluster = changedClusters.nextSetBit(0); cluster >= 0; cluster = changedClusters.nextSetBit(cluster + 1)) {
+			connectNodesOfCluster(cluster);
+		}
+
+		dirtyClusters.clear();
+	}
+
+	private void rebuildBorder(int firstCluster, int secondCluster, boolean vertical, BitSet rebuiltBorders, BitSet changedClusters) {
+		int borderIdx = 2 * firstCluster + (vertical ? 0 : 1);
+		if (rebuiltBorders.get(borderIdx)) {
+			return;
+		}
+		rebuiltBorders.set(borderIdx);
+		changedClusters.set(firstCluster);
+		changedClusters.set(secondCluster);
+
+		removeBorderNodes(firstCluster, secondCluster);
+		removeBorderNodes(secondCluster, firstCluster);
+
+		// vertical borders are crossed by steps from (x, y) to (x + 1, y), horizontal ones by steps from (x, y) to (x, y + 1)
+		int borderLength;
+		int firstX;
+		int firstY;
+		int stepX;
+		int stepY;
+		if (vertical) {
+			firstX = getClusterMinX(firstCluster) + CLUSTER_SIZE - 1;
+			firstY = getClusterMinY(firstCluster);
+			borderLength = getClusterMaxY(firstCluster) - firstY;
+			stepX = 0;
+			stepY = 1;
+		} else {
+			firstX = getClusterMinX(firstCluster);
+			firstY = getClusterMinY(firstCluster) + CLUSTER_SIZE - 1;
+			borderLength = getClusterMaxX(firstCluster) - firstX;
+			stepX = 1;
+			stepY = 0;
+		}
+		int crossX = vertical ? 1 : 0;
+		int crossY = vertical ? 0 : 1;
+
+		int segmentStart = -1;
+		for (int i = 0; i <= borderLength; i++) {
+			int x = firstX + i * stepX;
+			int y = firstY + i * stepY;
+			boolean free = i < borderLength && !blockingProvider.isBlocked(x, y) && !blockingProvider.isBlocked(x + crossX, y + crossY);
+
+			if (free && segmentStart < 0) {
+				segmentStart = i;
+			} else if (!free && segmentStart >= 0) {
+				int segmentLength = i - segmentStart;
+				if (segmentLength > MAX_SINGLE_ENTRANCE_LENGTH) {
+					addEntrance(firstX + segmentStart * stepX, firstY + segmentStart * stepY, crossX, crossY, firstCluster, secondCluster);
+					addEntrance(firstX + (i - 1) * stepX, firstY + (i - 1) * stepY, crossX, crossY, firstCluster, secondCluster);
+				} else {
+					int middle = segmentStart + segmentLength / 2;
+					addEntrance(firstX + middle * stepX, firstY + middle * stepY, crossX, crossY, firstCluster, secondCluster);
+				}
+				segmentStart = -1;
+			}
+		}
+	}
+
+	private void removeBorderNodes(int cluster, int otherCluster) {
+		Iterator<ClusterNode> iterator = clusterNodes.get(cluster).iterator();
+		while (iterator.hasNext()) {
+			ClusterNode node = iterator.next();
+			if (node.partner.cluster == otherCluster) {
+				iterator.remove();
+				usedNodeIds.clear(node.id);
+			}
+		}
+	}
+
+	private void addEntrance(int x, int y, int crossX, int crossY, int firstCluster, int secondCluster) {
+		ClusterNode first = new ClusterNode(allocateNodeId(), x, y, firstCluster);
+		ClusterNode second = new ClusterNode(allocateNodeId(), x + crossX, y + crossY, secondCluster);
+		first.partner = second;
+		second.partner = first;
+		clusterNodes.get(firstCluster).add(first);
+		clusterNodes.get(secondCluster).add(second);
+	}
+
+	private int allocateNodeId() {
+		int id = usedNodeIds.nextClearBit(0);
+		usedNodeIds.set(id);
+		return id;
+	}
+
+	private void connectNodesOfCluster(int cluster) {
+		List<ClusterNode> nodes = clusterNodes.get(cluster);
+		Collections.sort(nodes, NODE_ORDER);
+
+		for (ClusterNode node : nodes) {
+			breadthFirstSearch.search(getClusterMinX(cluster), getClusterMinY(cluster), getClusterMaxX(cluster), getClusterMaxY(cluster), node.x, node.y,
+					blockingProvider);
+
+			int reachable = 0;
+			for (ClusterNode other : nodes) {
+				if (other != node && breadthFirstSearch.getDistance(other.x, other.y) >= 0) {
+					reachable++;
+				}
+			}
+
+			if (reachable == 0) {
+				node.clearNeighbors();
+				continue;
+			}
+
+			ClusterNode[] neighbors = new ClusterNode[reachable];
+			int[] costs = new int[reachable];
+			int i = 0;
+			for (ClusterNode other : nodes) {
+				int distance = breadthFirstSearch.getDistance(other.x, other.y);
+				if (other != node && distance >= 0) {
+					neighbors[i] = other;
+					costs[i] = distance;
+					i++;
+				}
+			}
+			node.neighbors = neighbors;
+			node.costs = costs;
+		}
+	}
+
+	int getCluster(int x, int y) {
+		return (y / CLUSTER_SIZE) * clustersX + x / CLUSTER_SIZE;
+	}
+
+	List<ClusterNode> getNodes(int cluster) {
+		return clusterNodes.get(cluster);
+	}
+
+	int getClusterMinX(int cluster) {
+		return (cluster % clustersX) * CLUSTER_SIZE;
+	}
+
+	int getClusterMinY(int cluster) {
+		return (cluster / clustersX) * CLUSTER_SIZE;
+	}
+
+	int getClusterMaxX(int cluster) {
+		return Math.min(getClusterMinX(cluster) + CLUSTER_SIZE, width);
+	}
+
+	int getClusterMaxY(int cluster) {
+		return Math.min(getClusterMinY(cluster) + CLUSTER_SIZE, height);
+	}
+
+	/**
+	 * @return An upper bound for the ids of the nodes.
+	 */
+	int getNodeIdLimit() {
+		return usedNodeIds.length();
+	}
+
+	/**
+	 * @return The number of nodes of the abstract graph.
+	 */
+	public synchronized int getNumberOfNodes() {
+		int nodes = 0;
+		for (List<ClusterNode> currNodes : clusterNodes) {
+			nodes += currNodes.size();
+		}
+		return nodes;
+	}
+}
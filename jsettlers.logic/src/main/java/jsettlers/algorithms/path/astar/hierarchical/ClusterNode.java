@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+/**
+ * Node of the abstract graph of a {@link ClusterGraph}. Every node lies directly at the border of its cluster and is connected to its partner node
+ * on the other side of the border and to all nodes of the same cluster that can be reached inside of the cluster.
+ */
+final class ClusterNode {
+	private static final ClusterNode[] NO_NEIGHBORS = new ClusterNode[0];
+	private static final int[] NO_COSTS = new int[0];
+
+	final int id;
+	final short x;
+	final short y;
+	final int cluster;
+
+	ClusterNode partner;
+
+	ClusterNode[] neighbors = NO_NEIGHBORS;
+	int[] costs = NO_COSTS;
+
+	ClusterNode(int id, int x, int y, int cluster) {
+		this.id = id;
+		this.x = (short) x;
+		this.y = (short) y;
+		this.cluster = cluster;
+	}
+
+	void clearNeighbors() {
+		neighbors = NO_NEIGHBORS;
+		costs = NO_COSTS;
+	}
+
+	@Override
+	public String toString() {
+		return "ClusterNode(" + x + "|" + y + ")";
+	}
+}
@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import jsettlers.algorithms.partitions.IBlockingProvider;
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.AbstractAStar;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Hierarchical path finding (HPA*) on top of the {@link BucketQueueAStar}.
+ * <p />
+ * Long paths are first searched on the abstract graph of a {@link ClusterGraph} and then refined cluster by cluster. Short paths, paths of ships
+ * and paths starting on blocked positions are calculated by the {@link BucketQueueAStar}. The same happens if no path can be found on the abstract
+ * graph or it can't be refined, e.g. because the requester needs its player's ground. Therefore a path is found whenever the {@link BucketQueueAStar}
+ * finds one, but it may be slightly longer.
+ * <p />
+ * The map must have the same costs for all steps and its blocking must be the one of the {@link ClusterGraph}, optionally restricted further by the
+ * requester.
+ */
+public final class HierarchicalAStar extends AbstractAStar {
+	/**
+	 * Paths with a shorter on grid distance are calculated by the {@link BucketQueueAStar}. The distance ensures start and target are in different
+	 * clusters.
+	 */
+	public static final int MIN_HIERARCHICAL_DISTANCE = 2 * ClusterGraph.CLUSTER_SIZE;
+
+	private final IAStarPathMap map;
+	private final ClusterGraph clusterGraph;
+	private final BucketQueueAStar aStar;
+	private final short width;
+	private final short height;
+
+	private final ClusterBreadthFirstSearch breadthFirstSearch = new ClusterBreadthFirstSearch();
+
+	private SearchEntry[] entries = new SearchEntry[0];
+	private int[] entrySearchIds = new int[0];
+	private int searchId;
+
+	private int expandedNodes;
+
+	public HierarchicalAStar(IAStarPathMap map, ClusterGraph clusterGraph, short width, short height) {
+		this.map = map;
+		this.clusterGraph = clusterGraph;
+		this.aStar = new BucketQueueAStar(map, width, height);
+		this.width = width;
+		this.height = height;
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, ShortPoint2D target) {
+		ShortPoint2D pos = requester.getPosition();
+		return findPath(requester, pos.x, pos.y, target.x, target.y);
+	}
+
+	@Override
+	public Path findPath(final IPathCalculatable requester, short sx, short sy, short tx, short ty) {
+		if (requester.isShip()
+				|| ShortPoint2D.getOnGridDist(tx - sx, ty - sy) < MIN_HIERARCHICAL_DISTANCE
+				|| !isInBounds(sx, sy) || !isInBounds(tx, ty)
+				|| map.isBlocked(requester, sx, sy) || map.isBlocked(requester, tx, ty)
+				|| map.getBlockedPartition(sx, sy) != map.getBlockedPartition(tx, ty)) {
+			return findPathWithAStar(requester, sx, sy, tx, ty);
+		}
+
+		clusterGraph.update();
+		expandedNodes = 0;
+		breadthFirstSearch.resetExpandedNodes();
+
+		IBlockingProvider blockingProvider = (x, y) -> map.isBlocked(requester, x, y);
+		List<ClusterNode> abstractPath = findAbstractPath(blockingProvider, sx, sy, tx, ty);
+		Path path = abstractPath == null ? null : refinePath(blockingProvider, sx, sy, tx, ty, abstractPath);
+
+		expandedNodes += breadthFirstSearch.getExpandedNodes();
+
+		if (path == null) {
+			int hierarchicalExpandedNodes = expandedNodes;
+			path = aStar.findPath(requester, sx, sy, tx, ty);
+			expandedNodes = hierarchicalExpandedNodes + aStar.getExpandedNodes();
+		}
+		return path;
+	}
+
+	private Path findPathWithAStar(IPathCalculatable requester, short sx, short sy, short tx, short ty) {
+		Path path = aStar.findPath(requester, sx, sy, tx, ty);
+		expandedNodes = aStar.getExpandedNodes();
+		return path;
+	}
+
+	private List<ClusterNode> findAbstractPath(IBlockingProvider blockingProvider, int sx, int sy, int tx, int ty) {
+		int targetCluster = clusterGraph.getCluster(tx, ty);
+		List<ClusterNode> targetNodes = clusterGraph.getNodes(targetCluster);
+		int[] targetDistances = new int[targetNodes.size()];
+		searchInCluster(targetCluster, tx, ty, blockingProvider);
+		for (int i = 0; i < targetDistances.length; i++) {
+			ClusterNode node = targetNodes.get(i);
+			targetDistances[i] = breadthFirstSearch.getDistance(node.x, node.y);
+		}
+
+		startAbstractSearch();
+		PriorityQueue<SearchEntry> open = new PriorityQueue<>();
+		int sequence = 0;
+
+		int startCluster = clusterGraph.getCluster(sx, sy);
+		searchInCluster(startCluster, sx, sy, blockingProvider);
+		for (ClusterNode node : clusterGraph.getNodes(startCluster)) {
+			int distance = breadthFirstSearch.getDistance(node.x, node.y);
+			if (distance >= 0) {
+				SearchEntry entry = new SearchEntry(node, null, distance, distance + getHeuristicCost(node, tx, ty), sequence++);
+				setEntry(node, entry);
+				open.add(entry);
+			}
+		}
+
+		while (!open.isEmpty()) {
+			SearchEntry current = open.poll();
+			if (current.closed) {
+				continue;
+			}
+			current.closed = true;
+			expandedNodes++;
+
+			if (current.node == null) { // the virtual target entry
+				return toNodeList(current.parent);
+			}
+
+			ClusterNode node = current.node;
+			if (node.cluster == targetCluster) {
+				int targetDistance = targetDistances[targetNodes.indexOf(node)];
+				if (targetDistance >= 0) {
+					open.add(new SearchEntry(null, current, current.costs + targetDistance, current.costs + targetDistance, sequence++));
+				}
+			}
+
+			// the graph only knows the general blocking, the requester may not be allowed to enter the partner
+			if (!blockingProvider.isBlocked(node.partner.x, node.partner.y)) {
+				sequence = relax(open, current, node.partner, 1, tx, ty, sequence);
+			}
+			for (int i = 0; i < node.neighbors.length; i++) {
+				sequence = relax(open, current, node.neighbors[i], node.costs[i], tx, ty, sequence);
+			}
+		}
+		return null;
+	}
+
+	private int relax(PriorityQueue<SearchEntry> open, SearchEntry current, ClusterNode neighbor, int stepCosts, int tx, int ty, int sequence) {
+		int newCosts = current.costs + stepCosts;
+		SearchEntry neighborEntry = getEntry(neighbor);
+
+		if (neighborEntry == null || (!neighborEntry.closed && newCosts < neighborEntry.costs)) {
+			if (neighborEntry != null) {
+				neighborEntry.closed = true; // outdated entries are skipped when they are polled
+			}
+			neighborEntry = new SearchEntry(neighbor, current, newCosts, newCosts + getHeuristicCost(neighbor, tx, ty), sequence);
+			setEntry(neighbor, neighborEntry);
+			open.add(neighborEntry);
+			return sequence + 1;
+		}
+		return sequence;
+	}
+
+	private void startAbstractSearch() {
+		int idLimit = clusterGraph.getNodeIdLimit();
+		if (entries.length < idLimit) {
+			entries = new SearchEntry[idLimit];
+			entrySearchIds = new int[idLimit];
+			searchId = 0;
+		}
+		searchId++;
+	}
+
+	private SearchEntry getEntry(ClusterNode node) {
+		return entrySearchIds[node.id] == searchId ? entries[node.id] : null;
+	}
+
+	private void setEntry(ClusterNode node, SearchEntry entry) {
+		entries[node.id] = entry;
+		entrySearchIds[node.id] = searchId;
+	}
+
+	private static List<ClusterNode> toNodeList(SearchEntry last) {
+		ArrayList<ClusterNode> nodes = new ArrayList<>();
+		for (SearchEntry entry = last; entry != null; entry = entry.parent) {
+			nodes.add(entry.node);
+		}
+		Collections.reverse(nodes);
+		return nodes;
+	}
+
+	private Path refinePath(IBlockingProvider blockingProvider, int sx, int sy, int tx, int ty, List<ClusterNode> abstractPath) {
+		// every refined part of the path stays inside a single cluster, so it can't be longer than the cluster's number of positions
+		int maxLength = (abstractPath.size() + 1) * ClusterGraph.CLUSTER_SIZE * ClusterGraph.CLUSTER_SIZE;
+
+		short[] pathX = new short[maxLength];
+		short[] pathY = new short[maxLength];
+		int length = 0;
+
+		int currX = sx;
+		int currY = sy;
+		int currCluster = clusterGraph.getCluster(sx, sy);
+
+		for (ClusterNode node : abstractPath) {
+			if (node.cluster == currCluster) {
+				int steps = refineInCluster(blockingProvider, currCluster, currX, currY, node.x, node.y, pathX, pathY, length);
+				if (steps < 0) {
+					return null;
+				}
+				length += steps;
+			} else { // step over the border to the partner node
+				if (blockingProvider.isBlocked(node.x, node.y)) {
+					return null;
+				}
+				pathX[length] = node.x;
+				pathY[length] = node.y;
+				length++;
+			}
+			currX = node.x;
+			currY = node.y;
+			currCluster = node.cluster;
+		}
+
+		int steps = refineInCluster(blockingProvider, currCluster, currX, currY, tx, ty, pathX, pathY, length);
+		if (steps < 0) {
+			return null;
+		}
+		length += steps;
+
+		Path path = new Path(length);
+		for (int i = 0; i < length; i++) {
+			path.insertAt(i, pathX[i], pathY[i]);
+		}
+		return path;
+	}
+
+	private int refineInCluster(IBlockingProvider blockingProvider, int cluster, int fromX, int fromY, int toX, int toY, short[] pathX, short[] pathY,
+			int offset) {
+		if (fromX == toX && fromY == toY) {
+			return 0;
+		}
+		breadthFirstSearch.search(clusterGraph.getClusterMinX(cluster), clusterGraph.getClusterMinY(cluster), clusterGraph.getClusterMaxX(cluster),
+				clusterGraph.getClusterMaxY(cluster), fromX, fromY, toX, toY, blockingProvider);
+		return breadthFirstSearch.writePath(toX, toY, pathX, pathY, offset);
+	}
+
+	private void searchInCluster(int cluster, int x, int y, IBlockingProvider blockingProvider) {
+		breadthFirstSearch.search(clusterGraph.getClusterMinX(cluster), clusterGraph.getClusterMinY(cluster), clusterGraph.getClusterMaxX(cluster),
+				clusterGraph.getClusterMaxY(cluster), x, y, blockingProvider);
+	}
+
+	private static int getHeuristicCost(ClusterNode node, int tx, int ty) {
+		return ShortPoint2D.getOnGridDist(tx - node.x, ty - node.y);
+	}
+
+	private boolean isInBounds(int x, int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+
+	/**
+	 * @return The number of nodes expanded by the last search. This includes the nodes of the abstract graph as well as the positions expanded while
+	 *         connecting start and target to it and refining the path.
+	 */
+	public int getExpandedNodes() {
+		return expandedNodes;
+	}
+
+	private static final class SearchEntry implements Comparable<SearchEntry> {
+		final ClusterNode node;
+		final SearchEntry parent;
+		final int costs;
+		final int estimatedCosts;
+		final int sequence;
+		boolean closed;
+
+		SearchEntry(ClusterNode node, SearchEntry parent, int costs, int estimatedCosts, int sequence) {
+			this.node = node;
+			this.parent = parent;
+			this.costs = costs;
+			this.estimatedCosts = estimatedCosts;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(SearchEntry other) {
+			if (estimatedCosts != other.estimatedCosts) {
+				return estimatedCosts < other.estimatedCosts ? -1 : 1;
+			}
+			return Integer.compare(sequence, other.sequence);
+		}
+	}
+}
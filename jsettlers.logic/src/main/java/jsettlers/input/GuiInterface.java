@@ -201,6 +201,11 @@ public class GuiInterface implements IMapInterfaceListener, ITaskExecutorGuiInte
 					clock.setGameSpeed(1.0f);
 				}
 				break;
+			case SPEED_MAX:
+				if (!multiplayer) {
+					clock.setMaxSpeed(!clock.isMaxSpeed());
+				}
+				break;
 
 			case FAST_FORWARD:
 				if (!multiplayer) {
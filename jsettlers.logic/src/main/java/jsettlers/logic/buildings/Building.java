@@ -56,6 +56,7 @@ import jsettlers.logic.movable.interfaces.IDebugable;
 import jsettlers.logic.player.Player;
 import jsettlers.logic.timer.IScheduledTimerable;
 import jsettlers.logic.timer.RescheduleTimer;
+import jsettlers.logic.timer.TimerableHandle;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -97,6 +98,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 
 	private short remainingMaterialActions = 0;
 	private List<? extends IRequestStack> stacks;
+	private TimerableHandle timerHandle;
 
 	private transient boolean selected;
 
@@ -176,7 +178,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 		placeAdditionalMapObjects(grid, pos, true);
 
 		this.state = EBuildingState.CREATED;
-		RescheduleTimer.add(this, IS_UNSTOPPED_RECHECK_PERIOD);
+		timerHandle = RescheduleTimer.add(this, IS_UNSTOPPED_RECHECK_PERIOD);
 	}
 
 	private List<IRequestStack> createConstructionStacks() {
@@ -370,7 +372,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 					finishConstruction();
 				} else {
 					state = EBuildingState.WAITING_FOR_MATERIAL;
-					RescheduleTimer.add(this, WAITING_FOR_MATERIAL_PERIOD);
+					timerHandle = RescheduleTimer.add(this, WAITING_FOR_MATERIAL_PERIOD);
 				}
 				return false;
 			}
@@ -406,7 +408,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 			stacks = new LinkedList<>(); // create a new stacks list
 		}
 		int timerPeriod = constructionFinishedEvent();
-		RescheduleTimer.add(this, timerPeriod);
+		timerHandle = RescheduleTimer.add(this, timerPeriod);
 	}
 
 	protected abstract int constructionFinishedEvent();
@@ -463,6 +465,9 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 		releaseRequestStacks();
 		allBuildings.remove(this);
 		this.state = EBuildingState.DESTROYED;
+		if (timerHandle != null) {
+			timerHandle.cancel();
+		}
 		this.selected = false;
 	}
 
@@ -632,7 +637,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 
 			case BRICKLAYERS_REQUESTED:
 				state = EBuildingState.WAITING_FOR_MATERIAL;
-				RescheduleTimer.add(this, WAITING_FOR_MATERIAL_PERIOD); // we're not scheduled atm => reschedule!
+				timerHandle = RescheduleTimer.add(this, WAITING_FOR_MATERIAL_PERIOD); // we're not scheduled atm => reschedule!
 				break;
 			}
 		}
@@ -108,4 +108,9 @@ public final class Constants {
 	public static final short MOVABLE_FLEEING_MAX_RADIUS      = TOWER_ATTACKABLE_SEARCH_RADIUS;
 
 	public static int BUILDING_PLACEMENT_MAX_SEARCH_RADIUS = 3;
+
+	/**
+	 * Maximum number of paths kept in the path cache of a map.
+	 */
+	public static final int PATH_CACHE_SIZE = 4096;
 }
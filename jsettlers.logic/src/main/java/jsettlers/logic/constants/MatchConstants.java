@@ -45,6 +45,32 @@ public final class MatchConstants {
 	 */
 	public static boolean ENABLE_DEBUG_COLORS = true;
 
+	/**
+	 * if true, the timerables of a time slot prepare their events (e.g. path calculations of movables) in parallel before the slot is executed.<br>
+	 * The game state is exactly the same as without preparation, so this may differ between the clients of a multiplayer game.
+	 */
+	public static boolean ENABLE_PARALLEL_TIMERABLE_PREPARATION = false;
+
+	/**
+	 * NOTE: this value has only an effect if it's changed before the MainGrid is created or loaded!<br>
+	 * if true, long paths are calculated with hierarchical path finding. This is faster but the paths may be slightly longer, so the value must be the
+	 * same for all clients of a multiplayer game.
+	 */
+	public static boolean ENABLE_HIERARCHICAL_PATHFINDING = false;
+
+	/**
+	 * if true, the incrementally updated statistics of the AI are compared with completely recalculated ones after every update. This is very slow
+	 * and only meant for debugging.
+	 */
+	public static boolean ENABLE_AI_STATISTICS_VALIDATION = false;
+
+	/**
+	 * NOTE: this value has only an effect if it's changed before the game is started or loaded!<br>
+	 * if true, the rules of the AI players are applied in parallel. Every AI player then uses its own random number generator, so the value must
+	 * be the same for all clients of a multiplayer game.
+	 */
+	public static boolean ENABLE_PARALLEL_AI_RULES = false;
+
 	private MatchConstants() {
 	}
 
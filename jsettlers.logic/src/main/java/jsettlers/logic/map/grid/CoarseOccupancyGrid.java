@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid;
+
+import jsettlers.common.CommonConstants;
+
+/**
+ * Counts the occupants of square tiles of the map per group, e.g. per player. For every tile a bit mask of the groups with occupants is kept. This
+ * way, searches can skip the positions of tiles that cannot contain anything of interest.
+ */
+public final class CoarseOccupancyGrid {
+	public static final int TILE_SIZE_SHIFT = 3;
+	public static final int MAX_GROUPS = CommonConstants.MAX_PLAYERS;
+
+	private final int width;
+	private final int height;
+	private final int tilesWidth;
+	private final short[] counts;
+	private final int[] groupMasks;
+
+	/**
+	 * @param width
+	 *            Width of the map.
+	 * @param height
+	 *            Height of the map.
+	 */
+	public CoarseOccupancyGrid(int width, int height) {
+		assert MAX_GROUPS <= Integer.SIZE;
+
+		this.width = width;
+		this.height = height;
+		this.tilesWidth = ((width - 1) >> TILE_SIZE_SHIFT) + 1;
+		int tilesHeight = ((height - 1) >> TILE_SIZE_SHIFT) + 1;
+
+		this.counts = new short[tilesWidth * tilesHeight * MAX_GROUPS];
+		this.groupMasks = new int[tilesWidth * tilesHeight];
+	}
+
+	public void increment(int x, int y, int group) {
+		int tile = getTileIndex(x, y);
+		counts[tile * MAX_GROUPS + group]++;
+		groupMasks[tile] |= 1 << group;
+	}
+
+	public void decrement(int x, int y, int group) {
+		int tile = getTileIndex(x, y);
+		int countIndex = tile * MAX_GROUPS + group;
+		assert counts[countIndex] > 0;
+
+		if (--counts[countIndex] == 0) {
+			groupMasks[tile] &= ~(1 << group);
+		}
+	}
+
+	/**
+	 * @return The bit mask of the groups having occupants in the tile of the given position.
+	 */
+	public int getGroupsAt(int x, int y) {
+		return groupMasks[getTileIndex(x, y)];
+	}
+
+	/**
+	 * Gets the groups having occupants in the tiles overlapping the given rectangle. The rectangle is clipped to the map.
+	 * 
+	 * @param minX
+	 *            Inclusive minimal x coordinate.
+	 * @param minY
+	 *            Inclusive minimal y coordinate.
+	 * @param maxX
+	 *            Inclusive maximal x coordinate.
+	 * @param maxY
+	 *            Inclusive maximal y coordinate.
+	 * @return The bit mask of the found groups.
+	 */
+	public int getGroupsInArea(int minX, int minY, int maxX, int maxY) {
+		int minTileX = Math.max(0, minX) >> TILE_SIZE_SHIFT;
+		int minTileY = Math.max(0, minY) >> TILE_SIZE_SHIFT;
+		int maxTileX = Math.min(width - 1, maxX) >> TILE_SIZE_SHIFT;
+		int maxTileY = Math.min(height - 1, maxY) >> TILE_SIZE_SHIFT;
+
+		int groups = 0;
+		for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+			for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+				groups |= groupMasks[tileX + tileY * tilesWidth];
+			}
+		}
+		return groups;
+	}
+
+	private int getTileIndex(int x, int y) {
+		return (x >> TILE_SIZE_SHIFT) + (y >> TILE_SIZE_SHIFT) * tilesWidth;
+	}
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid;
+
+/**
+ * An implementor of this interface is informed by the grids of the {@link MainGrid} whenever the landscape, the resources, the blocking, the map
+ * objects or the partitions of a position changed.
+ */
+public interface IMapChangedListener {
+	/**
+	 * This is a default implementation doing nothing on calls to the methods of {@link IMapChangedListener}.
+	 */
+	IMapChangedListener DEFAULT_IMPLEMENTATION = new IMapChangedListener() {
+		@Override
+		public void mapChangedAt(int x, int y) {
+		}
+
+		@Override
+		public void mapChanged() {
+		}
+	};
+
+	/**
+	 * This method is called when something changed at the given position.
+	 * 
+	 * @param x
+	 *            x coordinate of the position.
+	 * @param y
+	 *            y coordinate of the position.
+	 */
+	void mapChangedAt(int x, int y);
+
+	/**
+	 * This method is called when a change affected positions that can not be named cheaply, e.g. when two partitions have been merged. The
+	 * listener needs to assume that every position may have changed.
+	 */
+	void mapChanged();
+}
@@ -17,6 +17,7 @@ package jsettlers.logic.map.grid;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Date;
 import java.util.Set;
@@ -33,11 +34,15 @@ import jsettlers.algorithms.landmarks.EnclosedBlockedAreaFinderAlgorithm;
 import jsettlers.algorithms.landmarks.IEnclosedBlockedAreaFinderGrid;
 import jsettlers.algorithms.path.IPathCalculatable;
 import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.PathCache;
 import jsettlers.algorithms.path.area.IInAreaFinderMap;
 import jsettlers.algorithms.path.area.InAreaFinder;
 import jsettlers.algorithms.path.astar.AbstractAStar;
 import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.CachingAStar;
 import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.algorithms.path.astar.hierarchical.ClusterGraph;
+import jsettlers.algorithms.path.astar.hierarchical.HierarchicalAStar;
 import jsettlers.algorithms.path.dijkstra.DijkstraAlgorithm;
 import jsettlers.algorithms.path.dijkstra.IDijkstraPathMap;
 import jsettlers.algorithms.previewimage.PreviewImageCreator;
@@ -49,6 +54,7 @@ import jsettlers.common.buildings.IBuilding;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.landscape.EResourceType;
 import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.partition.IPartitionData;
@@ -62,6 +68,8 @@ import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.material.ESearchType;
 import jsettlers.common.menu.UIState;
+import jsettlers.common.metrics.Histogram;
+import jsettlers.common.metrics.MetricsRegistry;
 import jsettlers.common.movable.EDirection;
 import jsettlers.common.movable.EMovableType;
 import jsettlers.common.movable.IMovable;
@@ -94,6 +102,7 @@ import jsettlers.logic.map.grid.objects.ObjectsGrid;
 import jsettlers.logic.map.grid.partition.IPlayerChangedListener;
 import jsettlers.logic.map.grid.partition.PartitionsGrid;
 import jsettlers.logic.map.grid.partition.manager.PartitionManager;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageable;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBearer;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBricklayer;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableDigger;
@@ -131,6 +140,7 @@ import jsettlers.logic.player.PlayerSetting;
  */
 public final class MainGrid implements Serializable {
 	private static final long serialVersionUID = 3824511313693431423L;
+	private static final Histogram pathSearchDurations = MetricsRegistry.getInstance().histogram("logic.path-search");
 
 	final String mapId;
 	final String mapName;
@@ -154,6 +164,8 @@ public final class MainGrid implements Serializable {
 	transient         BordersThread                  bordersThread;
 	transient         IGuiInputGrid                  guiInputGrid;
 	private transient IEnclosedBlockedAreaFinderGrid enclosedBlockedAreaFinderGrid;
+	private transient MapChangedListeners            mapChangedListeners;
+	private transient MapChangedListeners            groundChangedListeners;
 
 	public MainGrid(String mapId, String mapName, short width, short height, PlayerSetting[] playerSettings) {
 		this.mapId = mapId;
@@ -187,17 +199,58 @@ public final class MainGrid implements Serializable {
 	private void initAdditional() {
 		this.graphicsGrid = new GraphicsGrid();
 		this.constructionMarksGrid = new ConstructionMarksGrid();
-		this.bordersThread = new BordersThread(new BordersThreadGrid());
+		this.bordersThread = new BordersThread(new BordersThreadGrid(), width, height);
 		this.guiInputGrid = new GuiInputGrid();
 
 		this.partitionsGrid.setPlayerChangedListener(new PlayerChangedListener());
+		if (movablePathfinderGrid.clusterGraph != null) {
+			this.flagsGrid.setBlockedChangedListener(movablePathfinderGrid.clusterGraph::markDirty);
+		} else {
+			this.flagsGrid.setBlockedChangedListener(movablePathfinderGrid.pathCache::invalidate);
+		}
 		this.enclosedBlockedAreaFinderGrid = new EnclosedBlockedAreaFinderGrid();
+
+		this.mapChangedListeners = new MapChangedListeners();
+		this.groundChangedListeners = new MapChangedListeners();
+		this.groundChangedListeners.add(mapChangedListeners);
+		this.landscapeGrid.setMapChangedListener(groundChangedListeners);
+		this.flagsGrid.setMapChangedListener(groundChangedListeners);
+		this.objectsGrid.setMapChangedListener(mapChangedListeners);
+		this.partitionsGrid.setMapChangedListener(groundChangedListeners);
+	}
+
+	/**
+	 * Adds a listener that is informed about all changes of the landscape, the resources, the blocking, the map objects and the partitions.
+	 *
+	 * @param listener
+	 *            The listener to be added.
+	 */
+	public void addMapChangedListener(IMapChangedListener listener) {
+		mapChangedListeners.add(listener);
+	}
+
+	/**
+	 * Adds a listener that is only informed about changes of the landscape, the resources, the blocking and the partitions. In contrast to
+	 * {@link #addMapChangedListener(IMapChangedListener)}, changes of the map objects are not reported.
+	 *
+	 * @param listener
+	 *            The listener to be added.
+	 */
+	public void addGroundChangedListener(IMapChangedListener listener) {
+		groundChangedListeners.add(listener);
 	}
 
 	public final short getHeight() {
 		return height;
 	}
 
+	/**
+	 * @return The cache of the calculated paths or null if hierarchical path finding is used.
+	 */
+	public PathCache getPathCache() {
+		return movablePathfinderGrid.pathCache;
+	}
+
 	public final short getWidth() {
 		return width;
 	}
@@ -327,21 +380,30 @@ public final class MainGrid implements Serializable {
 		}
 	}
 
+	/**
+	 * Saves the game. This must be called by the game clock between two ticks. The game state is captured before this method returns, the
+	 * savegame file is written in the background.
+	 *
+	 * @param playerId
+	 * 		The player saving the game or <code>null</code>.
+	 * @param uiState
+	 * 		The {@link UIState} of the player or <code>null</code>.
+	 * @throws IOException
+	 * 		If the game state could not be captured.
+	 */
 	public void save(Byte playerId, UIState uiState) throws IOException {
-		boolean savedPausingState = MatchConstants.clock().isPausing();
-		MatchConstants.clock().setPausing(true);
 		try {
-			Thread.sleep(300L); // FIXME @Andreas serializer should wait until threads did their work!
+			bordersThread.awaitCalculations();
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			throw new IOException(e);
 		}
 
 		PlayerState[] playerStates = calculatePlayerStates(playerId, uiState);
 		MapFileHeader header = generateSaveHeader(playerId);
 		MapList list = MapList.getDefaultList();
-		list.saveMap(playerStates, header, MainGrid.this);
-
-		MatchConstants.clock().setPausing(savedPausingState);
+		synchronized (constructionMarksGrid) { // the construction marks thread changes map objects while holding this lock
+			list.saveMap(playerStates, header, MainGrid.this);
+		}
 	}
 
 	private PlayerState[] calculatePlayerStates(Byte playerId, UIState uiState) {
@@ -845,6 +907,11 @@ public final class MainGrid implements Serializable {
 			return fogOfWar.getVisibleStatus(x, y);
 		}
 
+		@Override
+		public final IFogOfWarChangeFeed getFogOfWarChangeFeed() {
+			return fogOfWar;
+		}
+
 		@Override
 		public final void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 			landscapeGrid.setBackgroundListener(backgroundListener);
@@ -894,6 +961,11 @@ public final class MainGrid implements Serializable {
 			return objectsGrid.removeMapObject(x, y, mapObject);
 		}
 
+		@Override
+		public final void mapObjectChangedAt(int x, int y) {
+			objectsGrid.mapObjectChangedAt(x, y);
+		}
+
 		@Override
 		public final AbstractHexMapObject getMapObject(int x, int y, EMapObjectType mapObjectType) {
 			return objectsGrid.getMapObjectAt(x, y, mapObjectType);
@@ -1011,6 +1083,11 @@ public final class MainGrid implements Serializable {
 	}
 
 	final class ConstructionMarksGrid extends AbstractConstructionMarkableMap {
+		@Override
+		public void addMapChangedListener(IMapChangedListener listener) {
+			addGroundChangedListener(listener); // the construction marks are map objects themselves
+		}
+
 		@Override
 		public final void setConstructMarking(int x, int y, boolean set, boolean binaryConstructionMarkValues, RelativePoint[] flattenPositions) {
 			if (isInBounds(x, y)) {
@@ -1115,6 +1192,10 @@ public final class MainGrid implements Serializable {
 		private transient AbstractAStar     aStar;
 		transient         DijkstraAlgorithm dijkstra; // not private, because it's used by BuildingsGrid
 		private transient InAreaFinder      inAreaFinder;
+		private transient ClusterGraph      clusterGraph;
+		private transient PathCache         pathCache;
+
+		private transient ThreadLocal<AbstractAStar> concurrentAStars;
 
 		public MovablePathfinderGrid() {
 			initPathfinders();
@@ -1128,9 +1209,30 @@ public final class MainGrid implements Serializable {
 		private void initPathfinders() {
 			pathfinderGrid = new PathfinderGrid();
 
-			aStar = new BucketQueueAStar(pathfinderGrid, width, height);
+			if (MatchConstants.ENABLE_HIERARCHICAL_PATHFINDING) {
+				clusterGraph = new ClusterGraph((x, y) -> flagsGrid.isBlocked(x, y), width, height); // flagsGrid may not be deserialized yet
+			} else {
+				pathCache = new PathCache(Constants.PATH_CACHE_SIZE, width, height);
+			}
+
+			aStar = createAStar();
 			dijkstra = new DijkstraAlgorithm(pathfinderGrid, aStar, width, height);
 			inAreaFinder = new InAreaFinder(pathfinderGrid, width, height);
+
+			concurrentAStars = new ThreadLocal<AbstractAStar>() {
+				@Override
+				protected AbstractAStar initialValue() {
+					return createAStar();
+				}
+			};
+		}
+
+		private AbstractAStar createAStar() {
+			if (clusterGraph != null) {
+				return new HierarchicalAStar(pathfinderGrid, clusterGraph, width, height);
+			} else {
+				return new CachingAStar(pathCache, new BucketQueueAStar(pathfinderGrid, width, height), pathfinderGrid, width, height);
+			}
 		}
 
 		@Override
@@ -1192,7 +1294,9 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public void removeJobless(IManageableBearer bearer) {
-			partitionsGrid.getPartitionAt(bearer).removeJobless(bearer);
+			if (!partitionsGrid.getPartitionAt(bearer).removeJobless(bearer)) {
+				partitionsGrid.stopJoblessPositionTracking(bearer);
+			}
 		}
 
 		@Override
@@ -1202,7 +1306,9 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public void removeJobless(IManageableWorker worker) {
-			partitionsGrid.getPartitionAt(worker).removeJobless(worker);
+			if (!partitionsGrid.getPartitionAt(worker).removeJobless(worker)) {
+				partitionsGrid.stopJoblessPositionTracking(worker);
+			}
 		}
 
 		@Override
@@ -1212,7 +1318,9 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public void removeJobless(IManageableDigger digger) {
-			partitionsGrid.getPartitionAt(digger).removeJobless(digger);
+			if (!partitionsGrid.getPartitionAt(digger).removeJobless(digger)) {
+				partitionsGrid.stopJoblessPositionTracking(digger);
+			}
 		}
 
 		@Override
@@ -1222,7 +1330,14 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public void removeJobless(IManageableBricklayer bricklayer) {
-			partitionsGrid.getPartitionAt(bricklayer).removeJobless(bricklayer);
+			if (!partitionsGrid.getPartitionAt(bricklayer).removeJobless(bricklayer)) {
+				partitionsGrid.stopJoblessPositionTracking(bricklayer);
+			}
+		}
+
+		@Override
+		public void joblessPositionChanged(IManageable jobless, ShortPoint2D oldPosition) {
+			partitionsGrid.joblessPositionChanged(jobless, oldPosition);
 		}
 
 		@Override
@@ -1338,7 +1453,23 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public Path calculatePathTo(IPathCalculatable pathRequester, ShortPoint2D targetPos) {
-			return aStar.findPath(pathRequester, targetPos);
+			long startTime = System.nanoTime();
+			Path path = aStar.findPath(pathRequester, targetPos);
+			pathSearchDurations.recordSince(startTime);
+			return path;
+		}
+
+		@Override
+		public Path calculatePathConcurrently(IPathCalculatable pathRequester, ShortPoint2D targetPos) {
+			long startTime = System.nanoTime();
+			Path path = concurrentAStars.get().findPath(pathRequester, targetPos);
+			pathSearchDurations.recordSince(startTime);
+			return path;
+		}
+
+		@Override
+		public long getPathfindingVersion() {
+			return (long) flagsGrid.getBlockedModificationCount() + landscapeGrid.getPathingModificationCount() + partitionsGrid.getPartitionsModificationCount();
 		}
 
 		@Override
@@ -1395,20 +1526,41 @@ public final class MainGrid implements Serializable {
 												final short maxSearchRadius, final boolean includeTowers) {
 			boolean isBowman = searchingAttackable.getMovableType().isBowman();
 
-			IAttackable enemy = getEnemyInSearchArea(searchingAttackable.getPlayer(), new HexGridArea(position.x, position.y, minSearchRadius,
-				maxSearchRadius
-			), isBowman, includeTowers);
+			IAttackable enemy = getEnemyInSearchArea(searchingAttackable.getPlayer(), position, minSearchRadius, maxSearchRadius, isBowman, includeTowers);
 			if (includeTowers && !isBowman && enemy == null) {
-				enemy = getEnemyInSearchArea(searchingAttackable.getPlayer(), new HexGridArea(position.x, position.y, maxSearchRadius, Constants.TOWER_ATTACKABLE_SEARCH_RADIUS), false, true);
+				enemy = getEnemyInSearchArea(searchingAttackable.getPlayer(), position, maxSearchRadius, Constants.TOWER_ATTACKABLE_SEARCH_RADIUS, false, true);
 			}
 
 			return enemy;
 		}
 
-		private IAttackable getEnemyInSearchArea(IPlayer searchingPlayer, HexGridArea area, boolean isBowman, boolean includeTowers) {
-			return area.stream().filterBounds(width, height).iterateForResult((x, y) -> {
+		/**
+		 * Searches the {@link HexGridArea} between the given radiuses for the enemy closest to the given position. Tiles without enemy movables or
+		 * attackable towers are skipped with the help of the {@link jsettlers.logic.map.grid.CoarseOccupancyGrid}s of the {@link MovableGrid} and
+		 * the {@link ObjectsGrid}. The remaining positions are visited in the order of the {@link HexGridArea}, so the same enemy is found as if all
+		 * positions were checked.
+		 */
+		private IAttackable getEnemyInSearchArea(IPlayer searchingPlayer, ShortPoint2D position, int startRadius, int maxRadius, boolean isBowman,
+				boolean includeTowers) {
+			boolean searchTowers = includeTowers && !isBowman;
+			int minX = position.x - maxRadius;
+			int minY = position.y - maxRadius;
+			int maxX = position.x + maxRadius;
+			int maxY = position.y + maxRadius;
+
+			int enemyPlayers = movableGrid.getEnemyPlayersInArea(searchingPlayer, minX, minY, maxX, maxY);
+			boolean towersInArea = searchTowers && objectsGrid.hasAttackableTowersInArea(minX, minY, maxX, maxY);
+			if (enemyPlayers == 0 && !towersInArea) {
+				return null;
+			}
+
+			return HexGridArea.stream(position.x, position.y, startRadius, maxRadius).filterBounds(width, height).iterateForResult((x, y) -> {
+				if ((movableGrid.getPlayersNear(x, y) & enemyPlayers) == 0 && !(towersInArea && objectsGrid.hasAttackableTowersNear(x, y))) {
+					return Optional.empty();
+				}
+
 				IAttackable currAttackable = movableGrid.getMovableAt(x, y);
-				if (includeTowers && !isBowman && currAttackable == null) {
+				if (searchTowers && currAttackable == null) {
 					currAttackable = (IAttackable) objectsGrid.getMapObjectAt(x, y, EMapObjectType.ATTACKABLE_TOWER);
 				}
 
@@ -2030,8 +2182,10 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public void playerChangedAt(int x, int y, byte newPlayerId) {
-			final ShortPoint2D position = new ShortPoint2D(x, y);
-			bordersThread.checkPosition(position);
+			bordersThread.checkPosition(x, y);
+			if (movablePathfinderGrid.pathCache != null) {
+				movablePathfinderGrid.pathCache.invalidatePlayerGround(x, y);
+			}
 
 			Building building = objectsGrid.getBuildingAt(x, y);
 			if (building != null && building.getPlayer().getPlayerId() != newPlayerId) {
@@ -2040,6 +2194,35 @@ public final class MainGrid implements Serializable {
 		}
 	}
 
+	/**
+	 * This class forwards the changes reported by the grids to all {@link IMapChangedListener}s added to the {@link MainGrid}.
+	 */
+	static final class MapChangedListeners implements IMapChangedListener {
+		private volatile IMapChangedListener[] listeners = new IMapChangedListener[0];
+
+		synchronized void add(IMapChangedListener listener) {
+			IMapChangedListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+			newListeners[listeners.length] = listener;
+			listeners = newListeners;
+		}
+
+		@Override
+		public void mapChangedAt(int x, int y) {
+			IMapChangedListener[] currentListeners = listeners;
+			for (int i = 0; i < currentListeners.length; i++) {
+				currentListeners[i].mapChangedAt(x, y);
+			}
+		}
+
+		@Override
+		public void mapChanged() {
+			IMapChangedListener[] currentListeners = listeners;
+			for (int i = 0; i < currentListeners.length; i++) {
+				currentListeners[i].mapChanged();
+			}
+		}
+	}
+
 	final class FogOfWarGrid implements IFogOfWarGrid {
 		@Override
 		public final IMovable getMovableAt(short x, short y) {
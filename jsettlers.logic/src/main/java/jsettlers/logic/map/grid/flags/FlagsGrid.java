@@ -18,6 +18,7 @@ import java.io.Serializable;
 import java.util.BitSet;
 
 import jsettlers.algorithms.partitions.IBlockingProvider;
+import jsettlers.logic.map.grid.IMapChangedListener;
 
 /**
  * Grid that's storing the blocked information for fast access.
@@ -36,6 +37,10 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 
 	private IProtectedChangedListener protectedChangedListener = null;
 
+	private transient IBlockedChangedListener blockedChangedListener = null;
+	private transient IMapChangedListener mapChangedListener = null;
+	private transient int blockedModificationCount;
+
 	public FlagsGrid(final short width, final short height) {
 		this.width = width;
 
@@ -78,14 +83,31 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 	 */
 	public void setBlockedAndProtected(int x, int y, boolean newBlocked, boolean newProtected) {
 		final int idx = x + y * width;
+		boolean oldBlocked = this.blockedGrid.get(idx);
 		boolean oldProtected = this.protectedGrid.get(idx);
 
 		this.blockedGrid.set(idx, newBlocked);
 		this.protectedGrid.set(idx, newProtected);
+		blockedModificationCount++;
+
+		if (blockedChangedListener != null && oldBlocked != newBlocked) {
+			this.blockedChangedListener.blockedChanged(x, y);
+		}
 
 		if (protectedChangedListener != null && oldProtected != newProtected) {
 			this.protectedChangedListener.protectedChanged(x, y, newProtected);
 		}
+
+		if (mapChangedListener != null && (oldBlocked != newBlocked || oldProtected != newProtected)) {
+			this.mapChangedListener.mapChangedAt(x, y);
+		}
+	}
+
+	/**
+	 * @return A counter that changes whenever the blocked state of a position may have changed.
+	 */
+	public int getBlockedModificationCount() {
+		return blockedModificationCount;
 	}
 
 	public boolean isMarked(int x, int y) {
@@ -107,6 +129,10 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		if (protectedChangedListener != null) {
 			this.protectedChangedListener.protectedChanged(x, y, newProtected);
 		}
+
+		if (mapChangedListener != null) {
+			this.mapChangedListener.mapChangedAt(x, y);
+		}
 	}
 
 	public boolean isPioneerBlocked(int x, int y) {
@@ -114,6 +140,18 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		return blockedGrid.get(index) || protectedGrid.get(index);
 	}
 
+	/**
+	 * Sets the listener informed about changes of the blocking. As the blocking of the landscape and the map objects is stored here, too, this covers
+	 * all blocking changes relevant for path finding.
+	 */
+	public void setBlockedChangedListener(IBlockedChangedListener blockedChangedListener) {
+		this.blockedChangedListener = blockedChangedListener;
+	}
+
+	public void setMapChangedListener(IMapChangedListener mapChangedListener) {
+		this.mapChangedListener = mapChangedListener;
+	}
+
 	@Override
 	public void setProtectedChangedListener(IProtectedChangedListener protectedChangedListener) {
 		this.protectedChangedListener = protectedChangedListener;
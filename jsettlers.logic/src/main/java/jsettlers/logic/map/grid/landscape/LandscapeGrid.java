@@ -29,6 +29,7 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.constants.Constants;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.flags.IProtectedProvider;
+import jsettlers.logic.map.grid.IMapChangedListener;
 import jsettlers.logic.map.grid.flags.IProtectedProvider.IProtectedChangedListener;
 
 /**
@@ -68,7 +69,9 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 	private final FlattenedResetter flattenedResetter;
 
 	private transient int[] debugColors;
+	private transient int pathingModificationCount;
 	private transient IGraphicsBackgroundListener backgroundListener;
+	private transient IMapChangedListener mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
 
 	public LandscapeGrid(short width, short height, IProtectedProvider protectedProvider) {
 		this.width = width;
@@ -93,6 +96,7 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
 		setBackgroundListener(null);
+		setMapChangedListener(null);
 
 		initDebugColors();
 	}
@@ -158,7 +162,9 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		}
 
 		this.landscapeGrid[x + y * width] = landscapeType.ordinal;
+		pathingModificationCount++;
 		backgroundListener.backgroundChangedAt(x, y);
+		mapChangedListener.mapChangedAt(x, y);
 	}
 
 	public final void setHeightAt(short x, short y, byte height) {
@@ -172,8 +178,10 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		this.heightGrid[index] += Math.signum(targetHeight - this.heightGrid[index]);
 		this.landscapeGrid[index] = ELandscapeType.FLATTENED.ordinal;
 		this.temporaryFlatened[index] = Byte.MAX_VALUE; // cancel the flattening
+		pathingModificationCount++;
 
 		backgroundListener.backgroundChangedAt(x, y);
+		mapChangedListener.mapChangedAt(x, y);
 	}
 
 	public final void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
@@ -184,9 +192,24 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		}
 	}
 
+	/**
+	 * Sets the given listener. The listener will then be informed of any positions that change their landscape type, resources or blocked partition.
+	 * 
+	 * @param mapChangedListener
+	 *            The listener to be set or null if no listener should be set.
+	 */
+	public final void setMapChangedListener(IMapChangedListener mapChangedListener) {
+		if (mapChangedListener != null) {
+			this.mapChangedListener = mapChangedListener;
+		} else {
+			this.mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
+		}
+	}
+
 	public final void setResourceAt(short x, short y, EResourceType resourceType, byte amount) {
 		this.resourceType[x + y * width] = resourceType.ordinal;
 		this.resourceAmount[x + y * width] = (byte) Math.min(amount, Constants.MAX_RESOURCE_AMOUNT_PER_POSITION);
+		mapChangedListener.mapChangedAt(x, y);
 	}
 
 	/**
@@ -221,6 +244,7 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		int idx = position.x + position.y * width;
 		if (resourceType[idx] == resource.ordinal && resourceAmount[idx] > 0) {
 			resourceAmount[idx]--;
+			mapChangedListener.mapChangedAt(position.x, position.y);
 			return true;
 		} else {
 			return false;
@@ -280,6 +304,15 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 
 	public void setBlockedPartition(short x, short y, short blockedPartition) {
 		this.blockedPartitions[x + y * width] = blockedPartition;
+		pathingModificationCount++;
+		mapChangedListener.mapChangedAt(x, y);
+	}
+
+	/**
+	 * @return A counter that changes whenever a landscape type or blocked partition may have changed.
+	 */
+	public int getPathingModificationCount() {
+		return pathingModificationCount;
 	}
 
 	public short getBlockedPartitionAt(int x, int y) {
@@ -28,6 +28,7 @@ import jsettlers.common.utils.coordinates.CoordinateStream;
 import jsettlers.common.utils.mutables.MutableBoolean;
 import jsettlers.logic.SerializationUtils;
 import jsettlers.logic.constants.Constants;
+import jsettlers.logic.map.grid.CoarseOccupancyGrid;
 import jsettlers.logic.map.grid.landscape.IWalkableGround;
 import jsettlers.logic.movable.interfaces.IAttackable;
 import jsettlers.logic.movable.interfaces.ILogicMovable;
@@ -41,6 +42,8 @@ public final class MovableGrid implements Serializable {
 	private static final long serialVersionUID = 7003522358013103962L;
 
 	private transient ILogicMovable[] movableGrid;
+	private transient CoarseOccupancyGrid playersOccupancy;
+	private transient IPlayer[] occupyingPlayers;
 	private final IWalkableGround ground;
 	private final short width;
 
@@ -63,13 +66,40 @@ public final class MovableGrid implements Serializable {
 		movableGrid = SerializationUtils.readSparseArray(ois, ILogicMovable.class);
 	}
 
+	/**
+	 * The occupancy is created lazily, because the players of the movables may not be available while they are deserialized.
+	 */
+	private CoarseOccupancyGrid getPlayersOccupancy() {
+		if (playersOccupancy == null) {
+			playersOccupancy = new CoarseOccupancyGrid(width, height);
+			occupyingPlayers = new IPlayer[CoarseOccupancyGrid.MAX_GROUPS];
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					ILogicMovable movable = movableGrid[x + y * width];
+					if (movable != null) {
+						occupy(x, y, movable);
+					}
+				}
+			}
+		}
+		return playersOccupancy;
+	}
+
+	private void occupy(int x, int y, ILogicMovable movable) {
+		IPlayer player = movable.getPlayer();
+		getPlayersOccupancy().increment(x, y, player.getPlayerId());
+		occupyingPlayers[player.getPlayerId()] = player;
+	}
+
 	public final ILogicMovable getMovableAt(int x, int y) {
 		return this.movableGrid[x + y * width];
 	}
 
 	public final void movableLeft(ShortPoint2D position, ILogicMovable movable) {
 		int idx = position.x + position.y * width;
-		if (this.movableGrid[idx] == movable) {
+		if (movable != null && this.movableGrid[idx] == movable) {
+			getPlayersOccupancy().decrement(position.x, position.y, movable.getPlayer().getPlayerId());
 			this.movableGrid[idx] = null;
 		}
 	}
@@ -86,6 +116,16 @@ public final class MovableGrid implements Serializable {
 		final short x = position.x;
 		final short y = position.y;
 
+		ILogicMovable oldMovable = this.movableGrid[x + y * width];
+		if (oldMovable != movable) {
+			if (oldMovable != null) {
+				getPlayersOccupancy().decrement(x, y, oldMovable.getPlayer().getPlayerId());
+			}
+			if (movable != null) {
+				occupy(x, y, movable);
+			}
+		}
+
 		this.movableGrid[x + y * width] = movable;
 		if (movable != null && movable.getMovableType() == EMovableType.BEARER) {
 			ground.walkOn(x, y);
@@ -142,6 +182,42 @@ public final class MovableGrid implements Serializable {
 		return otherAttackable.getPlayer().getTeamId() != player.getTeamId() && otherAttackable.isAttackable();
 	}
 
+	/**
+	 * Gets the players having a movable in the given area that are enemies of the given player. The movables are counted per tile of the
+	 * {@link CoarseOccupancyGrid}, therefore the result may contain players having movables close to, but outside of the area. Whether the movables are attackable is not checked.
+	 * 
+	 * @param player
+	 *            The searching player.
+	 * @param minX
+	 *            Inclusive minimal x coordinate of the area.
+	 * @param minY
+	 *            Inclusive minimal y coordinate of the area.
+	 * @param maxX
+	 *            Inclusive maximal x coordinate of the area.
+	 * @param maxY
+	 *            Inclusive maximal y coordinate of the area.
+	 * @return A bit mask of the player ids.
+	 */
+	public int getEnemyPlayersInArea(IPlayer player, int minX, int minY, int maxX, int maxY) {
+		int players = getPlayersOccupancy().getGroupsInArea(minX, minY, maxX, maxY);
+
+		int enemyPlayers = 0;
+		for (int playerId = 0; players != 0; playerId++, players >>>= 1) {
+			if ((players & 1) != 0 && occupyingPlayers[playerId].getTeamId() != player.getTeamId()) {
+				enemyPlayers |= 1 << playerId;
+			}
+		}
+		return enemyPlayers;
+	}
+
+	/**
+	 * @return The bit mask of the players having a movable in the tile of the given position.
+	 * @see #getEnemyPlayersInArea(IPlayer, int, int, int, int)
+	 */
+	public int getPlayersNear(int x, int y) {
+		return getPlayersOccupancy().getGroupsAt(x, y);
+	}
+
 	public boolean hasNoMovableAt(int x, int y) {
 		return getMovableAt(x, y) == null;
 	}
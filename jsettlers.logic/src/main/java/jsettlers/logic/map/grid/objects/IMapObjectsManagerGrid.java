@@ -40,6 +40,16 @@ public interface IMapObjectsManagerGrid extends Serializable, IArrowAttackableGr
 
 	boolean removeMapObject(int x, int y, AbstractHexMapObject mapObject);
 
+	/**
+	 * Informs the grid that the state of a map object at the given position changed, e.g. a tree has grown or has been cut.
+	 * 
+	 * @param x
+	 *            x coordinate of the position.
+	 * @param y
+	 *            y coordinate of the position.
+	 */
+	void mapObjectChangedAt(int x, int y);
+
 	short getWidth();
 
 	short getHeight();
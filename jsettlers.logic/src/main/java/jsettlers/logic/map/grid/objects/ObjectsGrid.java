@@ -29,28 +29,40 @@ import jsettlers.common.utils.coordinates.CoordinateStream;
 import jsettlers.logic.SerializationUtils;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.constants.Constants;
+import jsettlers.logic.map.grid.CoarseOccupancyGrid;
+import jsettlers.logic.map.grid.IMapChangedListener;
 import jsettlers.logic.movable.interfaces.IAttackable;
 import jsettlers.logic.movable.interfaces.IInformable;
 
 /**
  * This grid stores the objects located at each position.
+ * <p />
+ * Additionally to the lists of objects, a bit mask of the types of the objects is stored for every position. This way, it can be checked
+ * without walking the list whether a position contains an object of a certain type, which is the result of most lookups. The attackable towers
+ * are also counted per tile of a {@link CoarseOccupancyGrid} to allow searches to skip areas without towers.
  * 
  * @author Andreas Eberle
  * 
  */
 public final class ObjectsGrid implements Serializable {
 	private static final long serialVersionUID = 2919416226544282748L;
+	private static final long ATTACKABLE_TOWER_BIT = getTypeBit(EMapObjectType.ATTACKABLE_TOWER);
 
 	private final short width;
 	private final short height;
 
 	private transient AbstractHexMapObject[] objectsGrid;
+	private transient long[] objectTypesGrid;
+	private transient CoarseOccupancyGrid attackableTowers;
 	private transient Building[] buildingsGrid;
+	private transient IMapChangedListener mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
 
 	public ObjectsGrid(short width, short height) {
 		this.width = width;
 		this.height = height;
 		this.objectsGrid = new AbstractHexMapObject[width * height];
+		this.objectTypesGrid = new long[width * height];
+		this.attackableTowers = new CoarseOccupancyGrid(width, height);
 		this.buildingsGrid = new Building[width * height];
 	}
 
@@ -81,11 +93,14 @@ public final class ObjectsGrid implements Serializable {
 
 	private final void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
+		mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
 
 		buildingsGrid = SerializationUtils.readSparseArray(ois, Building.class);
 
 		int length = ois.readInt();
 		objectsGrid = new AbstractHexMapObject[length];
+		objectTypesGrid = new long[length];
+		attackableTowers = new CoarseOccupancyGrid(width, height);
 
 		int index = ois.readInt();
 		while (index >= 0) {
@@ -97,6 +112,7 @@ public final class ObjectsGrid implements Serializable {
 				currObject.addMapObject(newObject);
 				currObject = newObject;
 			}
+			updateObjectTypes(index);
 
 			index = ois.readInt();
 		}
@@ -107,9 +123,11 @@ public final class ObjectsGrid implements Serializable {
 	}
 
 	public final AbstractHexMapObject getMapObjectAt(int x, int y, EMapObjectType mapObjectType) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
-
-		return mapObjectHead != null ? mapObjectHead.getMapObject(mapObjectType) : null;
+		final int idx = x + y * width;
+		if ((objectTypesGrid[idx] & getTypeBit(mapObjectType)) == 0) {
+			return null;
+		}
+		return objectsGrid[idx].getMapObject(mapObjectType);
 	}
 
 	public final void removeMapObjectTypes(int x, int y, Set<EMapObjectType> mapObjectTypes) {
@@ -124,6 +142,8 @@ public final class ObjectsGrid implements Serializable {
 		if (mapObjectHead != null) {
 			mapObjectHead.removeMapObjectTypes(mapObjectTypes);
 		}
+		updateObjectTypes(idx);
+		mapChangedListener.mapChangedAt(x, y);
 	}
 
 	public final boolean removeMapObject(int x, int y, AbstractHexMapObject mapObject) {
@@ -138,6 +158,10 @@ public final class ObjectsGrid implements Serializable {
 				removed = mapObjectHead.removeMapObject(mapObject);
 			}
 
+			if (removed) {
+				updateObjectTypes(idx);
+				mapChangedListener.mapChangedAt(x, y);
+			}
 			return removed;
 		} else
 			return false;
@@ -153,18 +177,106 @@ public final class ObjectsGrid implements Serializable {
 		} else {
 			mapObjectHead.addMapObject(mapObject);
 		}
+		setObjectTypes(idx, objectTypesGrid[idx] | getTypeBit(mapObject.getObjectType()));
+		mapChangedListener.mapChangedAt(x, y);
+	}
+
+	/**
+	 * Informs the {@link IMapChangedListener} that the state of a map object at the given position changed without the object being added or
+	 * removed, e.g. when a tree has grown.
+	 * 
+	 * @param x
+	 *            x coordinate of the position.
+	 * @param y
+	 *            y coordinate of the position.
+	 */
+	public final void mapObjectChangedAt(int x, int y) {
+		updateObjectTypes(x + y * width);
+		mapChangedListener.mapChangedAt(x, y);
+	}
+
+	private void updateObjectTypes(int idx) {
+		long objectTypes = 0;
+		for (AbstractHexMapObject curr = objectsGrid[idx]; curr != null; curr = curr.getNextObject()) {
+			objectTypes |= getTypeBit(curr.getObjectType());
+		}
+		setObjectTypes(idx, objectTypes);
+	}
+
+	private void setObjectTypes(int idx, long objectTypes) {
+		long changedTypes = objectTypesGrid[idx] ^ objectTypes;
+		if ((changedTypes & ATTACKABLE_TOWER_BIT) != 0) {
+			if ((objectTypes & ATTACKABLE_TOWER_BIT) != 0) {
+				attackableTowers.increment(idx % width, idx / width, 0);
+			} else {
+				attackableTowers.decrement(idx % width, idx / width, 0);
+			}
+		}
+		objectTypesGrid[idx] = objectTypes;
+	}
+
+	/**
+	 * NOTE: This requires {@link EMapObjectType} to have at most 64 values.
+	 */
+	private static long getTypeBit(EMapObjectType mapObjectType) {
+		return 1L << mapObjectType.ordinal;
+	}
+
+	/**
+	 * Sets the given listener. The listener will then be informed of any positions that get map objects added or removed.
+	 * 
+	 * @param listener
+	 *            The listener to be set or null if no listener should be set.
+	 */
+	public void setMapChangedListener(IMapChangedListener listener) {
+		if (listener == null) {
+			this.mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
+		} else {
+			this.mapChangedListener = listener;
+		}
+	}
+
+	/**
+	 * Checks if the area might contain an {@link EMapObjectType#ATTACKABLE_TOWER}. The towers are counted per tile of a {@link CoarseOccupancyGrid},
+	 * therefore the result may also be true for towers close to, but outside of the area.
+	 * 
+	 * @param minX
+	 *            Inclusive minimal x coordinate of the area.
+	 * @param minY
+	 *            Inclusive minimal y coordinate of the area.
+	 * @param maxX
+	 *            Inclusive maximal x coordinate of the area.
+	 * @param maxY
+	 *            Inclusive maximal y coordinate of the area.
+	 * @return false if there is no attackable tower in the area.
+	 */
+	public boolean hasAttackableTowersInArea(int minX, int minY, int maxX, int maxY) {
+		return attackableTowers.getGroupsInArea(minX, minY, maxX, maxY) != 0;
+	}
+
+	/**
+	 * @return false if there is no attackable tower in the tile of the given position.
+	 * @see #hasAttackableTowersInArea(int, int, int, int)
+	 */
+	public boolean hasAttackableTowersNear(int x, int y) {
+		return attackableTowers.getGroupsAt(x, y) != 0;
 	}
 
 	public final boolean hasCuttableObject(int x, int y, EMapObjectType mapObjectType) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
+		final int idx = x + y * width;
 
-		return mapObjectHead != null && mapObjectHead.hasCuttableObject(mapObjectType);
+		return (objectTypesGrid[idx] & getTypeBit(mapObjectType)) != 0 && objectsGrid[idx].hasCuttableObject(mapObjectType);
 	}
 
 	public final boolean hasMapObjectType(int x, int y, EMapObjectType... mapObjectTypes) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
+		long objectTypes = objectTypesGrid[x + y * width];
 
-		return mapObjectHead != null && mapObjectHead.hasMapObjectTypes(mapObjectTypes);
+		for (EMapObjectType mapObjectType : mapObjectTypes) {
+			if ((objectTypes & getTypeBit(mapObjectType)) != 0) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	public final boolean hasNeighborObjectType(int x, int y, EMapObjectType... mapObjectTypes) {
@@ -16,8 +16,10 @@ package jsettlers.logic.map.grid.partition;
 
 import java.io.Serializable;
 
+import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.map.grid.partition.data.PartitionDataSupplier;
 import jsettlers.logic.map.grid.partition.manager.PartitionManager;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.IOffersCountListener;
 
 /**
@@ -82,6 +84,28 @@ public final class Partition extends PartitionManager implements Serializable {
 		if (isEmpty()) { super.stopManager(); }
 	}
 
+	/**
+	 * Moves all positions of the given area to the given partition with a single pass over the offers and requests.
+	 *
+	 * @param area
+	 * 		The positions to be moved. All of them must belong to this partition.
+	 * @param newPartitionObject
+	 * 		The new partition of the positions.
+	 */
+	public void removeAreaTo(OrderedArea area, Partition newPartitionObject) {
+		if (this == newPartitionObject) {
+			System.err.println("ERROR: newManager can not be the same as this manager.");
+		}
+
+		for (ShortPoint2D position : area.getPositions()) {
+			this.decrement(position.x, position.y);
+			newPartitionObject.increment(position.x, position.y);
+		}
+		super.removeAreaTo(area, newPartitionObject, newPartitionObject.playerId == this.playerId);
+
+		if (isEmpty()) { super.stopManager(); }
+	}
+
 	public boolean isEmpty() {
 		return counter <= 0;
 	}
@@ -94,6 +118,13 @@ public final class Partition extends PartitionManager implements Serializable {
 		return counter;
 	}
 
+	/**
+	 * @return The only position of this partition or null if the partition does not consist of exactly one position.
+	 */
+	ShortPoint2D getSinglePosition() {
+		return counter == 1 ? new ShortPoint2D(xSum, ySum) : null;
+	}
+
 	public PartitionDataSupplier getPartitionData() {
 		return new PartitionDataSupplier(playerId, partitionId, getPartitionSettings(), getMaterialCounts());
 	}
@@ -15,6 +15,8 @@
 package jsettlers.logic.map.grid.partition;
 
 import jsettlers.algorithms.traversing.borders.BorderTraversingAlgorithm;
+import jsettlers.common.movable.EDirection;
+import jsettlers.common.position.SRectangle;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.mutables.MutableInt;
 import jsettlers.logic.map.grid.partition.PartitionsListingBorderVisitor.BorderPartitionInfo;
@@ -57,6 +59,60 @@ final class PartitionsDividedTester {
 						partition2.insideNeighborPosition, partition1.positionOfPartition, partition1.partitionId, partition2Size);
 	}
 
+	/**
+	 * Searches a path between the given positions that only uses positions of the given partition inside of the given area. Such a path certifies that
+	 * the partition is not divided between the positions without traversing its whole border. If no path is found, the positions may still be
+	 * connected outside of the area.
+	 * 
+	 * @param partitionObjects
+	 * @param partitions
+	 * @param width
+	 *            The width of the grid.
+	 * @param partitionId
+	 *            The partition both positions belong to.
+	 * @param start
+	 * @param target
+	 * @param area
+	 *            The area the search is limited to. It must contain both positions.
+	 * @return true if the positions are connected inside of the area.<br>
+	 *         false if they are not connected inside of the area.
+	 */
+	public static boolean isConnectedInArea(Partition[] partitionObjects, short[] partitions, short width, short partitionId, ShortPoint2D start,
+			ShortPoint2D target, SRectangle area) {
+		final int areaWidth = area.getWidth();
+		final int areaSize = areaWidth * area.getHeight();
+		boolean[] visited = new boolean[areaSize];
+		int[] queue = new int[areaSize];
+
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = (start.x - area.xMin) + (start.y - area.yMin) * areaWidth;
+		visited[queue[0]] = true;
+		final int targetIndex = (target.x - area.xMin) + (target.y - area.yMin) * areaWidth;
+
+		while (head < tail) {
+			int index = queue[head++];
+			if (index == targetIndex) {
+				return true;
+			}
+
+			int x = index % areaWidth + area.xMin;
+			int y = index / areaWidth + area.yMin;
+			for (EDirection direction : EDirection.VALUES) {
+				int neighborX = x + direction.gridDeltaX;
+				int neighborY = y + direction.gridDeltaY;
+				if (area.xMin <= neighborX && neighborX <= area.xMax && area.yMin <= neighborY && neighborY <= area.yMax) {
+					int neighborIndex = (neighborX - area.xMin) + (neighborY - area.yMin) * areaWidth;
+					if (!visited[neighborIndex] && partitionObjects[partitions[neighborX + neighborY * width]].partitionId == partitionId) {
+						visited[neighborIndex] = true;
+						queue[tail++] = neighborIndex;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * NOTE: The call to this method is different if the given positions are swapped!
 	 *
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -44,9 +45,12 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.Tuple;
 import jsettlers.common.utils.coordinates.CoordinateStream;
 import jsettlers.common.utils.mutables.MutableInt;
+import jsettlers.logic.map.grid.IMapChangedListener;
 import jsettlers.logic.map.grid.partition.manager.settings.MaterialProductionSettings;
 import jsettlers.logic.map.grid.partition.PartitionsListingBorderVisitor.BorderPartitionInfo;
 import jsettlers.logic.map.grid.partition.manager.PartitionManager;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageable;
 import jsettlers.logic.map.grid.partition.manager.settings.PartitionManagerSettings;
 import jsettlers.logic.player.Player;
 import jsettlers.logic.player.PlayerSetting;
@@ -67,6 +71,10 @@ public final class PartitionsGrid implements Serializable {
 	private static final float PARTITIONS_EXPAND_FACTOR = 1.5f;
 
 	private static final short NO_PLAYER_PARTITION_ID = 0;
+	/**
+	 * Number of positions the area around a changed border is extended by when looking for a local connection of a possibly divided partition.
+	 */
+	private static final int LOCAL_CONNECTIVITY_MARGIN = 5;
 
 	private final PartitionOccupyingTowerList occupyingTowers = new PartitionOccupyingTowerList();
 
@@ -82,6 +90,8 @@ public final class PartitionsGrid implements Serializable {
 	Partition[] partitionObjects = new Partition[NUMBER_OF_START_PARTITION_OBJECTS];
 
 	private transient IPlayerChangedListener playerChangedListener = IPlayerChangedListener.DEFAULT_IMPLEMENTATION;
+	private transient IMapChangedListener mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
+	private transient int partitionsModificationCount;
 
 	public PartitionsGrid(short width, short height, PlayerSetting[] playerSettings, IBlockingProvider blockingProvider) {
 		this.width = width;
@@ -135,6 +145,7 @@ public final class PartitionsGrid implements Serializable {
 
 	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
+		mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
 	}
 
 	public boolean isDefaultPartition(short partitionId) {
@@ -171,6 +182,40 @@ public final class PartitionsGrid implements Serializable {
 		return getPartitionAt(pos.x, pos.y);
 	}
 
+	/**
+	 * Informs the partition the given jobless is registered at about the change of its position.
+	 *
+	 * @param jobless
+	 * 		The jobless bearer, worker, digger or bricklayer that moved.
+	 * @param oldPosition
+	 * 		The position of the jobless before it moved.
+	 */
+	public void joblessPositionChanged(IManageable jobless, ShortPoint2D oldPosition) {
+		if (!getPartitionAt(oldPosition.x, oldPosition.y).joblessPositionChanged(jobless)) {
+			// the jobless may have been registered at a neighboring partition of the same player before it walked over the border
+			for (Partition partition : partitionObjects) {
+				if (partition != null && partition.joblessPositionChanged(jobless)) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Informs all partitions that the given jobless won't report its position changes anymore. This is needed if the jobless could not be removed from
+	 * the partition at its position, because the player of that position changed while it was registered.
+	 *
+	 * @param jobless
+	 * 		The jobless bearer, worker, digger or bricklayer.
+	 */
+	public void stopJoblessPositionTracking(IManageable jobless) {
+		for (Partition partition : partitionObjects) {
+			if (partition != null) {
+				partition.stopJoblessPositionTracking(jobless);
+			}
+		}
+	}
+
 	public byte getPlayerIdAt(int x, int y) {
 		return getPartitionAt(x, y).playerId;
 	}
@@ -268,7 +313,7 @@ public final class PartitionsGrid implements Serializable {
 
 	private void occupyAreaOfTower(PartitionOccupyingTower tower) {
 		// set the tower counter of the groundArea to 0 => the ground area will be occupied
-		tower.groundArea.stream().forEach((x, y) -> towers[x + y * width] = 0);
+		tower.groundArea.stream().forEach((x, y) -> setTowerCountAt(x, y, 0));
 
 		// occupy the area for the new player
 		occupyAreaByTower(tower.playerId, tower.area.stream(), tower.areaBorders);
@@ -308,13 +353,13 @@ public final class PartitionsGrid implements Serializable {
 	 * @param area
 	 */
 	private void recalculateTowerCounter(PartitionOccupyingTower tower, IMapArea area) {
-		area.stream().forEach((x, y) -> towers[x + y * width] = 0);
+		area.stream().forEach((x, y) -> setTowerCountAt(x, y, 0));
 
 		List<Tuple<Integer, PartitionOccupyingTower>> towersInRange = occupyingTowers.getTowersInRange(tower.position, tower.radius, currTower -> currTower.playerId == tower.playerId);
 		stream(towersInRange)
 				.forEach(currTower -> area.stream()
 						.filter(currTower.e2.area::contains)
-						.forEach((x, y) -> towers[x + y * width]++));
+						.forEach((x, y) -> setTowerCountAt(x, y, towers[x + y * width] + 1)));
 	}
 
 	/**
@@ -404,13 +449,14 @@ public final class PartitionsGrid implements Serializable {
 		}
 
 		// check for divides
+		SRectangle localArea = getLocalConnectivityArea(partitionsList);
 		HashMap<Short, BorderPartitionInfo> foundPartitionsSet = new HashMap<>();
 		for (BorderPartitionInfo currPartitionInfo : partitionsList) {
 			Short currPartitionId = currPartitionInfo.partitionId;
 			BorderPartitionInfo existingPartitionInfo = foundPartitionsSet.get(currPartitionId);
 			if (existingPartitionInfo != null) {
 				if (partitionObjects[currPartitionId].playerId != playerId) { // the player cannot divide its own partitions => only check other player's positions
-					checkIfDividePartition(currPartitionInfo, existingPartitionInfo);
+					checkIfDividePartition(currPartitionInfo, existingPartitionInfo, localArea);
 
 					// if the entry of the set changed its partition, replace that entry with the one of the old partition. Further divides can only
 					// happen with partitions which also have currPartitionId.
@@ -437,12 +483,35 @@ public final class PartitionsGrid implements Serializable {
 	}
 
 	/**
-	 * Checks if the given partitions is divided and the both given positions are on separated parts of the partition.
+	 * @return The bounding box of the positions found along a changed border extended by {@link #LOCAL_CONNECTIVITY_MARGIN}.
+	 */
+	private SRectangle getLocalConnectivityArea(List<BorderPartitionInfo> partitionsList) {
+		int minX = width;
+		int minY = height;
+		int maxX = 0;
+		int maxY = 0;
+		for (BorderPartitionInfo partitionInfo : partitionsList) {
+			ShortPoint2D position = partitionInfo.positionOfPartition;
+			minX = Math.min(minX, position.x);
+			minY = Math.min(minY, position.y);
+			maxX = Math.max(maxX, position.x);
+			maxY = Math.max(maxY, position.y);
+		}
+
+		return new SRectangle((short) Math.max(0, minX - LOCAL_CONNECTIVITY_MARGIN), (short) Math.max(0, minY - LOCAL_CONNECTIVITY_MARGIN),
+				(short) Math.min(width - 1, maxX + LOCAL_CONNECTIVITY_MARGIN), (short) Math.min(height - 1, maxY + LOCAL_CONNECTIVITY_MARGIN));
+	}
+
+	/**
+	 * Checks if the given partitions is divided and the both given positions are on separated parts of the partition. If the positions are connected
+	 * inside of the given local area, the border of the partition does not need to be traversed.
 	 * 
 	 * @param partitionInfo1
 	 * @param partitionInfo2
+	 * @param localArea
+	 *            Area around the changed border containing both positions.
 	 */
-	private void checkIfDividePartition(BorderPartitionInfo partitionInfo1, BorderPartitionInfo partitionInfo2) {
+	private void checkIfDividePartition(BorderPartitionInfo partitionInfo1, BorderPartitionInfo partitionInfo2, SRectangle localArea) {
 		assert partitionInfo1.partitionId == partitionInfo2.partitionId;
 
 		final short partition = partitionInfo1.partitionId;
@@ -451,6 +520,8 @@ public final class PartitionsGrid implements Serializable {
 		MutableInt partition2Size = new MutableInt();
 
 		if (partition != NO_PLAYER_PARTITION_ID
+				&& !PartitionsDividedTester.isConnectedInArea(partitionObjects, partitions, width, partition, partitionInfo1.positionOfPartition,
+						partitionInfo2.positionOfPartition, localArea)
 				&& PartitionsDividedTester.isPartitionDivided(partitionObjects, partitions, width, partitionInfo1, partition1Size, partitionInfo2, partition2Size)) {
 			if (partition1Size.value < partition2Size.value) {
 				dividePartition(partition, partitionInfo1.positionOfPartition, partitionInfo2.positionOfPartition);
@@ -494,7 +565,12 @@ public final class PartitionsGrid implements Serializable {
 	private void changeTowerCounter(final byte playerId, CoordinateStream influencingArea, int delta) {
 		influencingArea
 				.filter((x, y) -> partitionObjects[partitions[x + y * width]].playerId == playerId)
-				.forEach((x, y) -> towers[x + y * width] += delta);
+				.forEach((x, y) -> setTowerCountAt(x, y, towers[x + y * width] + delta));
+	}
+
+	private void setTowerCountAt(int x, int y, int towerCount) {
+		towers[x + y * width] = (byte) towerCount;
+		mapChangedListener.mapChangedAt(x, y);
 	}
 
 	/**
@@ -530,10 +606,18 @@ public final class PartitionsGrid implements Serializable {
 			System.err.println("ERROR: Merging blocked partition!!!");
 		}
 
+		ShortPoint2D singlePosition = smallerPartitionObject.getSinglePosition();
+		if (singlePosition != null) {
+			mapChangedListener.mapChangedAt(singlePosition.x, singlePosition.y);
+		} else if (!smallerPartitionObject.isEmpty()) {
+			mapChangedListener.mapChanged();
+		}
+
 		smallerPartitionObject.mergeInto(biggerPartitionObject);
 		smallerPartitionObject.stopManager();
 
 		partitionObjects[smallerPartition] = biggerPartitionObject;
+		partitionsModificationCount++;
 
 		/**
 		 * Flatten all hierarchies: <br>
@@ -592,11 +676,27 @@ public final class PartitionsGrid implements Serializable {
 		// relabel the partition
 		IContainingProvider containingProvider = (x, y) -> partitionObjects[partitions[x + y * width]].partitionId == oldPartition;
 
+		Partition oldPartitionObject = partitionObjects[oldPartition];
+		List<ShortPoint2D> relabeledPositions = new ArrayList<>();
 		IAreaVisitor relabelAreaVisitor = (x, y) -> {
-			changePartitionUncheckedAt(x, y, newPartition);
+			if (partitionObjects[partitions[x + y * width]] != oldPartitionObject) {
+				// the start position is visited in any case and may already have been relabeled by a previous divide
+				changePartitionUncheckedAt(x, y, newPartition);
+				return true;
+			}
+
+			synchronized (this) {
+				partitions[x + y * width] = newPartition;
+			}
+			partitionsModificationCount++;
+			mapChangedListener.mapChangedAt(x, y);
+			relabeledPositions.add(new ShortPoint2D(x, y));
 			return true;
 		};
 		AreaTraversingAlgorithm.traverseArea(containingProvider, relabelAreaVisitor, relabelStartPos, width, height);
+
+		// take over the offers, requests and jobless of the whole area at once
+		oldPartitionObject.removeAreaTo(new OrderedArea(relabeledPositions), partitionObjects[newPartition]);
 	}
 
 	/**
@@ -620,6 +720,8 @@ public final class PartitionsGrid implements Serializable {
 		synchronized (this) {
 			partitions[idx] = newPartition;
 		}
+		partitionsModificationCount++;
+		mapChangedListener.mapChangedAt(x, y);
 
 		return newPartitionObject.playerId;
 	}
@@ -657,6 +759,13 @@ public final class PartitionsGrid implements Serializable {
 		return newPartitionId;
 	}
 
+	/**
+	 * @return A counter that changes whenever the partition (and therefore maybe the player) of a position may have changed.
+	 */
+	public int getPartitionsModificationCount() {
+		return partitionsModificationCount;
+	}
+
 	public void setPartitionAt(int x, int y, short newPartition) {
 		if (getPartitionAt(x, y) != partitionObjects[newPartition]) {
 			byte playerId = changePartitionUncheckedAt(x, y, newPartition);
@@ -678,6 +787,21 @@ public final class PartitionsGrid implements Serializable {
 		}
 	}
 
+	/**
+	 * Sets the given listener. The listener will then be informed of any positions that change their partition or tower counter. If partitions are
+	 * merged, the listener may be told that every position might have changed.
+	 * 
+	 * @param listener
+	 *            The listener to be set or null if no listener should be set.
+	 */
+	public void setMapChangedListener(IMapChangedListener listener) {
+		if (listener == null) {
+			this.mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
+		} else {
+			this.mapChangedListener = listener;
+		}
+	}
+
 	public byte getNumberOfPlayers() {
 		return (byte) players.length;
 	}
@@ -17,6 +17,7 @@ package jsettlers.logic.map.grid.partition.manager;
 import java.io.Serializable;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.movable.EDirection;
@@ -27,8 +28,10 @@ import jsettlers.logic.buildings.Building;
 import jsettlers.logic.map.grid.partition.manager.settings.MaterialProductionSettings;
 import jsettlers.logic.buildings.workers.WorkerBuilding;
 import jsettlers.logic.map.grid.partition.data.MaterialCounts;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
 import jsettlers.logic.map.grid.partition.manager.datastructures.PositionableList;
 import jsettlers.logic.map.grid.partition.manager.datastructures.PredicatedPositionableList;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageable;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBearer;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBearer.IWorkerRequester;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBricklayer;
@@ -167,32 +170,57 @@ public class PartitionManager implements IScheduledTimerable, Serializable, IWor
 		this.joblessBearer.insert(bearer);
 	}
 
-	public void removeJobless(IManageableBearer bearer) {
-		this.joblessBearer.remove(bearer);
+	public boolean removeJobless(IManageableBearer bearer) {
+		return this.joblessBearer.remove(bearer);
 	}
 
 	public void addJobless(IManageableDigger digger) {
 		joblessDiggers.insert(digger);
 	}
 
-	public void removeJobless(IManageableDigger digger) {
-		joblessDiggers.remove(digger);
+	public boolean removeJobless(IManageableDigger digger) {
+		return joblessDiggers.remove(digger);
 	}
 
 	public void addJobless(IManageableBricklayer bricklayer) {
 		joblessBricklayers.insert(bricklayer);
 	}
 
-	public void removeJobless(IManageableBricklayer bricklayer) {
-		joblessBricklayers.remove(bricklayer);
+	public boolean removeJobless(IManageableBricklayer bricklayer) {
+		return joblessBricklayers.remove(bricklayer);
 	}
 
 	public void addJobless(IManageableWorker worker) {
 		joblessWorkers.insert(worker);
 	}
 
-	public void removeJobless(IManageableWorker worker) {
-		joblessWorkers.remove(worker);
+	public boolean removeJobless(IManageableWorker worker) {
+		return joblessWorkers.remove(worker);
+	}
+
+	/**
+	 * Updates the position of the given jobless in the lists of this partition.
+	 *
+	 * @param jobless
+	 * 		The jobless bearer, worker, digger or bricklayer that moved.
+	 * @return true if the jobless is registered at this partition.
+	 */
+	public boolean joblessPositionChanged(IManageable jobless) {
+		return joblessBearer.positionChanged(jobless) || joblessWorkers.positionChanged(jobless) || joblessDiggers.positionChanged(jobless)
+				|| joblessBricklayers.positionChanged(jobless);
+	}
+
+	/**
+	 * Stops the position tracking of a jobless that is no longer informing this partition about its position changes.
+	 *
+	 * @param jobless
+	 * 		The jobless bearer, worker, digger or bricklayer.
+	 */
+	public void stopJoblessPositionTracking(IManageable jobless) {
+		joblessBearer.stopPositionTracking(jobless);
+		joblessWorkers.stopPositionTracking(jobless);
+		joblessDiggers.stopPositionTracking(jobless);
+		joblessBricklayers.stopPositionTracking(jobless);
 	}
 
 	/**
@@ -252,6 +280,63 @@ public class PartitionManager implements IScheduledTimerable, Serializable, IWor
 		}
 	}
 
+	/**
+	 * Removes all positions of the given area from this manager and adds them to the given manager. The result is the same as calling
+	 * {@link #removePositionTo(int, int, PartitionManager, boolean)} for every position of the area in its order, but the offers and requests are
+	 * only iterated once.
+	 *
+	 * @param area
+	 * 		the positions to be removed from this manager and added to the given manager
+	 * @param newManager
+	 * 		new manager of the given area <br>
+	 * 		NOTE: the new manager MUST NOT be null!
+	 * @param newHasSamePlayer
+	 * 		Specifies if the new manager has the same player. If so, requests also need to be moved.
+	 */
+	public void removeAreaTo(OrderedArea area, PartitionManager newManager, boolean newHasSamePlayer) {
+		materialOffers.moveOffersInAreaTo(area, newManager.materialOffers);
+
+		if (newHasSamePlayer) {
+			materialsManager.moveAreaTo(area, newManager.materialsManager);
+
+			for (ShortPoint2D position : area.getPositions()) { // only the first jobless of each position is moved
+				IManageableBearer bearer = joblessBearer.removeObjectAt(position);
+				if (bearer != null) {
+					newManager.addJobless(bearer);
+				}
+				IManageableBricklayer bricklayer = joblessBricklayers.removeObjectAt(position);
+				if (bricklayer != null) {
+					newManager.addJobless(bricklayer);
+				}
+				IManageableDigger digger = joblessDiggers.removeObjectAt(position);
+				if (digger != null) {
+					newManager.addJobless(digger);
+				}
+				IManageableWorker worker = joblessWorkers.removeObjectAt(position);
+				if (worker != null) {
+					newManager.addJobless(worker);
+				}
+			}
+		}
+
+		removeAreaTo(area, this.workerCreationRequests, newManager.workerCreationRequests, newHasSamePlayer);
+		removeAreaTo(area, this.bricklayerRequests, newManager.bricklayerRequests, newHasSamePlayer);
+		removeAreaTo(area, this.diggerRequests, newManager.diggerRequests, newHasSamePlayer);
+		removeAreaTo(area, this.workerRequests, newManager.workerRequests, newHasSamePlayer);
+		removeAreaTo(area, this.soldierCreationRequests, newManager.soldierCreationRequests, newHasSamePlayer);
+	}
+
+	private <T extends ILocatable> void removeAreaTo(OrderedArea area, LinkedList<T> fromList, LinkedList<T> toList, boolean newHasSamePlayer) {
+		if (fromList.isEmpty()) {
+			return;
+		}
+
+		List<T> removed = area.removeObjects(fromList.iterator());
+		if (newHasSamePlayer) {
+			toList.addAll(removed);
+		}
+	}
+
 	public final void mergeInto(PartitionManager newManager) {
 		newManager.bricklayerRequests.addAll(this.bricklayerRequests);
 		newManager.diggerRequests.addAll(this.diggerRequests);
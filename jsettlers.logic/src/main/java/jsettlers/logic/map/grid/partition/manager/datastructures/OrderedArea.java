@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.partition.manager.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import jsettlers.common.position.ILocatable;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * A connected area of positions in the order they have been visited. It is used to move the contents of an area from one partition manager to
+ * another one with a single pass over each list. The moved objects are sorted by the order of their positions, so the result is the same as when
+ * moving the positions one after another.
+ */
+public final class OrderedArea {
+	private final List<ShortPoint2D> positions;
+	private final int minX;
+	private final int minY;
+	private final int width;
+	private final int height;
+	/**
+	 * Index of each position of the bounding box in {@link #positions} plus one or 0 if the position is not part of the area.
+	 */
+	private final int[] orderIndexes;
+
+	/**
+	 * Creates an area of the given positions.
+	 *
+	 * @param positions
+	 * 		The positions of the area in the order they shall be moved. Every position may only be contained once.
+	 */
+	public OrderedArea(List<ShortPoint2D> positions) {
+		this.positions = positions;
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (ShortPoint2D position : positions) {
+			minX = Math.min(minX, position.x);
+			minY = Math.min(minY, position.y);
+			maxX = Math.max(maxX, position.x);
+			maxY = Math.max(maxY, position.y);
+		}
+
+		this.minX = minX;
+		this.minY = minY;
+		this.width = positions.isEmpty() ? 0 : maxX - minX + 1;
+		this.height = positions.isEmpty() ? 0 : maxY - minY + 1;
+		this.orderIndexes = new int[width * height];
+
+		int index = 0;
+		for (ShortPoint2D position : positions) {
+			orderIndexes[position.x - minX + (position.y - minY) * width] = ++index;
+		}
+	}
+
+	public List<ShortPoint2D> getPositions() {
+		return positions;
+	}
+
+	public boolean contains(ShortPoint2D position) {
+		return indexOf(position) >= 0;
+	}
+
+	/**
+	 * @param position
+	 * 		The position to look up.
+	 * @return The index of the given position in the order of this area or -1 if the position is not part of the area.
+	 */
+	public int indexOf(ShortPoint2D position) {
+		int dx = position.x - minX;
+		int dy = position.y - minY;
+		if (dx < 0 || dx >= width || dy < 0 || dy >= height) {
+			return -1;
+		}
+		return orderIndexes[dx + dy * width] - 1;
+	}
+
+	/**
+	 * Removes all objects located in this area with the given iterator.
+	 *
+	 * @param iterator
+	 * 		An iterator supporting {@link Iterator#remove()}.
+	 * @return The removed objects sorted by the order of their positions. Objects at the same position keep the order of the iterator.
+	 */
+	public <T extends ILocatable> List<T> removeObjects(Iterator<T> iterator) {
+		List<T> removed = new ArrayList<>();
+		while (iterator.hasNext()) {
+			T object = iterator.next();
+			if (contains(object.getPosition())) {
+				iterator.remove();
+				removed.add(object);
+			}
+		}
+		sortByOrder(removed);
+		return removed;
+	}
+
+	/**
+	 * Sorts the given objects by the order of their positions. The sort is stable.
+	 *
+	 * @param objects
+	 * 		Objects located in this area.
+	 */
+	public <T extends ILocatable> void sortByOrder(List<T> objects) {
+		if (objects.size() > 1) {
+			Collections.sort(objects, (object1, object2) -> Integer.compare(indexOf(object1.getPosition()), indexOf(object2.getPosition())));
+		}
+	}
+}
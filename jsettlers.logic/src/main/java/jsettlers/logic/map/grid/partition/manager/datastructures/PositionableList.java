@@ -14,11 +14,21 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition.manager.datastructures;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 import java8.util.function.Consumer;
+import java8.util.function.Predicate;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.MathUtils;
@@ -26,32 +36,164 @@ import jsettlers.common.utils.MathUtils;
 /**
  * This is a data structure for storing and retrieving objects at given positions.<br>
  * It is also possible to find the nearest object around a given position.
+ * <p>
+ * The objects are kept in insertion order and additionally sorted into buckets of {@link #BUCKET_SIZE} x {@link #BUCKET_SIZE} positions. Objects at a
+ * position are found by looking at a single bucket, the nearest object is found by searching the buckets in rings around the given position. Ties are
+ * always broken by the insertion order, so the results are the same as when scanning the objects in insertion order.
+ * <p>
+ * If the position of a stored object changes, {@link #positionChanged(ILocatable)} needs to be called. If that is no longer possible for an object,
+ * {@link #stopPositionTracking(ILocatable)} makes the list read its position on every lookup.
+ * <p>
+ * Only the objects are stored in savegames. Their positions are read on every lookup after loading, until they are tracked again with their next
+ * call to {@link #positionChanged(ILocatable)}.
  *
  * @param <T>
  * @author Andreas Eberle
  */
 public class PositionableList<T extends ILocatable> implements Serializable {
 	private static final long serialVersionUID = 414099060331344505L;
+	/**
+	 * The objects are serialized as LinkedList in insertion order to stay compatible with existing savegames.
+	 */
+	private static final ObjectStreamField[] serialPersistentFields = { new ObjectStreamField("data", LinkedList.class) };
+
+	private static final int BUCKET_SHIFT = 3;
+	private static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+	/**
+	 * Lists up to this size are searched linearly, because that is faster than searching the buckets.
+	 */
+	private static final int LINEAR_SEARCH_SIZE = 16;
+
+	private transient Entry<T> first;
+	private transient Entry<T> last;
+	private transient int size;
+	private transient long nextOrder;
+	private transient IdentityHashMap<T, Entry<T>> entriesByObject;
+	private transient BucketTable<T> buckets;
+	private transient Entry<T> firstUntracked;
+	private transient int minBucketX;
+	private transient int maxBucketX;
+	private transient int minBucketY;
+	private transient int maxBucketY;
 
-	protected final LinkedList<T> data;
+	/**
+	 * Objects read from a savegame. They are inserted on first use, because their positions may not be available while deserializing.
+	 */
+	private transient LinkedList<T> loadedData;
 
 	public PositionableList() {
-		data = new LinkedList<>();
+		initialize();
+	}
+
+	private void initialize() {
+		first = null;
+		last = null;
+		size = 0;
+		nextOrder = 0;
+		entriesByObject = new IdentityHashMap<>();
+		buckets = new BucketTable<>();
+		firstUntracked = null;
+		minBucketX = Integer.MAX_VALUE;
+		maxBucketX = Integer.MIN_VALUE;
+		minBucketY = Integer.MAX_VALUE;
+		maxBucketY = Integer.MIN_VALUE;
+	}
+
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		LinkedList<T> data = loadedData;
+		if (data == null) {
+			data = new LinkedList<>();
+			for (Entry<T> entry = first; entry != null; entry = entry.next) {
+				data.add(entry.object);
+			}
+		}
+
+		ObjectOutputStream.PutField fields = oos.putFields();
+		fields.put("data", data);
+		oos.writeFields();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = ois.readFields();
+		loadedData = (LinkedList<T>) fields.get("data", null);
+	}
+
+	/**
+	 * Inserts the objects read from a savegame, if that has not been done yet. It is not known which of them still report their position changes, so
+	 * all of them are untracked.
+	 *
+	 * @return true if objects read from a savegame have been inserted by this call.
+	 */
+	protected final boolean insertLoadedData() {
+		if (loadedData != null) {
+			LinkedList<T> data = loadedData;
+			loadedData = null;
+			initialize();
+			for (T object : data) {
+				append(object, false);
+			}
+			return true;
+		}
+		return false;
 	}
 
 	public void insert(T object) {
-		data.add(object);
+		insertLoadedData();
+		append(object, true);
 	}
 
-	public T removeObjectAt(ShortPoint2D position) {
-		Iterator<T> iterator = data.iterator();
-		while (iterator.hasNext()) {
-			T curr = iterator.next();
-			if (curr.getPosition().equals(position)) {
-				iterator.remove();
-				return curr;
+	/**
+	 * Updates the index after the position of the given object changed. Untracked entries of the object are tracked again. Objects not contained in
+	 * this list are ignored.
+	 *
+	 * @param object
+	 * 		The object that moved.
+	 * @return true if the object is contained in this list.
+	 */
+	public boolean positionChanged(ILocatable object) {
+		insertLoadedData();
+		Entry<T> firstEntry = entriesByObject.get(object);
+		for (Entry<T> entry = firstEntry; entry != null; entry = entry.nextOfSameObject) {
+			ShortPoint2D newPosition = object.getPosition();
+			if (!entry.tracked) {
+				removeFromBucket(entry);
+				entry.tracked = true;
+				addToBucket(entry, newPosition);
+			} else if (getBucketKey(newPosition) == getBucketKey(entry.position)) {
+				entry.position = newPosition;
+			} else {
+				removeFromBucket(entry);
+				addToBucket(entry, newPosition);
+			}
+		}
+		return firstEntry != null;
+	}
+
+	/**
+	 * Stops indexing the position of the given object, because {@link #positionChanged(ILocatable)} will not be called for it anymore. The position
+	 * of the object is read on every lookup instead.
+	 *
+	 * @param object
+	 * 		The object that is no longer tracked. Objects not contained in this list are ignored.
+	 */
+	public void stopPositionTracking(ILocatable object) {
+		insertLoadedData();
+		for (Entry<T> entry = entriesByObject.get(object); entry != null; entry = entry.nextOfSameObject) {
+			if (entry.tracked) {
+				removeFromBucket(entry);
+				addToUntracked(entry);
 			}
 		}
+	}
+
+	public T removeObjectAt(ShortPoint2D position) {
+		insertLoadedData();
+		Entry<T> entry = findFirstAt(position);
+		if (entry != null) {
+			unlink(entry);
+			return entry.object;
+		}
 		return null;
 	}
 
@@ -63,12 +205,9 @@ public class PositionableList<T extends ILocatable> implements Serializable {
 	 * @return Returns the found object at the given position or null if no object has been found.
 	 */
 	public T getObjectAt(ShortPoint2D position) {
-		for (T curr : data) {
-			if (curr.getPosition().equals(position)) {
-				return curr;
-			}
-		}
-		return null;
+		insertLoadedData();
+		Entry<T> entry = findFirstAt(position);
+		return entry != null ? entry.object : null;
 	}
 
 	/**
@@ -82,68 +221,493 @@ public class PositionableList<T extends ILocatable> implements Serializable {
 		T currBest = getObjectCloseTo(position);
 
 		if (currBest != null) {
-			data.remove(currBest);
+			remove(currBest);
 		}
 
 		return currBest;
 	}
 
 	protected T getObjectCloseTo(ShortPoint2D position) {
+		return getObjectCloseTo(position, null);
+	}
+
+	/**
+	 * Finds the object closest to the given position. If several objects have the same distance, the one inserted first is returned.
+	 *
+	 * @param position
+	 * 		position to be used to find the nearest accepted neighbor around it.
+	 * @param acceptor
+	 * 		if acceptor != null => the result is accepted by the acceptor. <br>
+	 * 		if acceptor == null every entry is accepted.
+	 * @return accepted object that's nearest to position or null if there is none.
+	 */
+	protected final T getObjectCloseTo(ShortPoint2D position, Predicate<T> acceptor) {
+		insertLoadedData();
+		Entry<T> best = size <= LINEAR_SEARCH_SIZE ? findClosestLinear(position, acceptor) : findClosestInBuckets(position, acceptor);
+		return best != null ? best.object : null;
+	}
+
+	private Entry<T> findClosestLinear(ShortPoint2D position, Predicate<T> acceptor) {
 		int bestDistance = Integer.MAX_VALUE;
-		T currBest = null;
+		Entry<T> currBest = null;
 
-		for (T currEntry : data) {
-			int currDist = MathUtils.squareHypot(position, currEntry.getPosition());
+		for (Entry<T> entry = first; entry != null; entry = entry.next) {
+			if (acceptor != null && !acceptor.test(entry.object)) {
+				continue;
+			}
 
+			int currDist = MathUtils.squareHypot(position, entry.getPosition());
 			if (bestDistance > currDist) {
 				bestDistance = currDist;
-				currBest = currEntry;
+				currBest = entry;
 			}
 		}
 		return currBest;
 	}
 
+	private Entry<T> findClosestInBuckets(ShortPoint2D position, Predicate<T> acceptor) {
+		int centerX = position.x >> BUCKET_SHIFT;
+		int centerY = position.y >> BUCKET_SHIFT;
+		int maxRing = Math.max(Math.max(centerX - minBucketX, maxBucketX - centerX), Math.max(centerY - minBucketY, maxBucketY - centerY));
+
+		Entry<T> currBest = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (Entry<T> entry = firstUntracked; entry != null; entry = entry.nextInBucket) {
+			if (acceptor != null && !acceptor.test(entry.object)) {
+				continue;
+			}
+
+			int currDist = MathUtils.squareHypot(position, entry.getPosition());
+			if (currDist < bestDistance || currDist == bestDistance && entry.order < currBest.order) {
+				bestDistance = currDist;
+				currBest = entry;
+			}
+		}
+
+		int visitedBuckets = 0;
+
+		for (int ring = 0; ring <= maxRing; ring++) {
+			if (ring > 0) {
+				int minRingDistance = (ring - 1) * BUCKET_SIZE + 1; // every position of this ring is at least this far away in x or y direction
+				if (minRingDistance * minRingDistance > bestDistance) {
+					break;
+				}
+			}
+			if (visitedBuckets > size) { // the objects are spread too sparse for the rings to pay off
+				return findClosestLinear(position, acceptor);
+			}
+
+			for (int bucketY = Math.max(centerY - ring, minBucketY); bucketY <= Math.min(centerY + ring, maxBucketY); bucketY++) {
+				boolean fullLine = bucketY == centerY - ring || bucketY == centerY + ring;
+				int step = fullLine ? 1 : 2 * ring;
+
+				for (int bucketX = centerX - ring; bucketX <= centerX + ring; bucketX += step) {
+					if (bucketX < minBucketX || bucketX > maxBucketX) {
+						continue;
+					}
+					visitedBuckets++;
+
+					for (Entry<T> entry = buckets.get(getBucketKey(bucketX, bucketY)); entry != null; entry = entry.nextInBucket) {
+						if (acceptor != null && !acceptor.test(entry.object)) {
+							continue;
+						}
+
+						int currDist = MathUtils.squareHypot(position, entry.position);
+						if (currDist < bestDistance || currDist == bestDistance && entry.order < currBest.order) {
+							bestDistance = currDist;
+							currBest = entry;
+						}
+					}
+				}
+			}
+		}
+		return currBest;
+	}
+
+	private Entry<T> findFirstAt(ShortPoint2D position) {
+		Entry<T> found = findFirstAt(buckets.get(getBucketKey(position)), position, null);
+		return findFirstAt(firstUntracked, position, found);
+	}
+
+	private static <T extends ILocatable> Entry<T> findFirstAt(Entry<T> bucket, ShortPoint2D position, Entry<T> found) {
+		for (Entry<T> entry = bucket; entry != null; entry = entry.nextInBucket) {
+			if (entry.getPosition().equals(position) && (found == null || entry.order < found.order)) {
+				found = entry;
+			}
+		}
+		return found;
+	}
+
 	@Override
 	public String toString() {
-		return data.toString();
+		insertLoadedData();
+		StringBuilder builder = new StringBuilder("[");
+		for (Entry<T> entry = first; entry != null; entry = entry.next) {
+			builder.append(entry.object);
+			if (entry.next != null) {
+				builder.append(", ");
+			}
+		}
+		return builder.append(']').toString();
 	}
 
 	public void moveAll(PositionableList<T> otherList) {
-		LinkedList<T> othersData = otherList.data;
-		data.addAll(othersData);
-		othersData.clear();
+		moveAll(otherList, null);
 	}
 
 	public void moveAll(PositionableList<T> otherList, Consumer<T> movedVisitor) {
-		LinkedList<T> othersData = otherList.data;
-		for (T othersDatum : othersData) {
-			movedVisitor.accept(othersDatum);
-			data.add(othersDatum);
+		insertLoadedData();
+		otherList.insertLoadedData();
+
+		for (Entry<T> entry = otherList.first; entry != null; entry = entry.next) {
+			otherList.objectRemoved(entry.object);
+			if (movedVisitor != null) {
+				movedVisitor.accept(entry.object);
+			}
+			append(entry.object, entry.tracked);
 		}
-		othersData.clear();
+		otherList.initialize();
 	}
 
-	public void remove(T object) {
-		this.data.remove(object);
+	/**
+	 * Removes the first occurrence of the given object.
+	 *
+	 * @param object
+	 * 		The object to remove.
+	 * @return true if the object has been found and removed.
+	 */
+	public boolean remove(T object) {
+		insertLoadedData();
+		Entry<T> entry = entriesByObject.get(object);
+		if (entry != null) {
+			unlink(entry);
+			return true;
+		}
+		return false;
 	}
 
 	public boolean isEmpty() {
-		return data.isEmpty();
+		insertLoadedData();
+		return size == 0;
 	}
 
 	public void moveObjectsAtPositionTo(ShortPoint2D position, PositionableList<T> newList, Consumer<T> movedVisitor) {
-		Iterator<T> iterator = data.iterator();
-		while (iterator.hasNext()) {
-			T curr = iterator.next();
-			if (curr.getPosition().equals(position)) {
-				iterator.remove();
-				movedVisitor.accept(curr);
-				newList.data.add(curr);
+		insertLoadedData();
+
+		ArrayList<Entry<T>> entriesAtPosition = new ArrayList<>();
+		collectEntriesAt(buckets.get(getBucketKey(position)), position, entriesAtPosition);
+		collectEntriesAt(firstUntracked, position, entriesAtPosition);
+		if (entriesAtPosition.size() > 1) {
+			Entry<?>[] sorted = entriesAtPosition.toArray(new Entry<?>[entriesAtPosition.size()]);
+			Arrays.sort(sorted, (entry1, entry2) -> Long.compare(entry1.order, entry2.order));
+			entriesAtPosition.clear();
+			for (Entry<?> entry : sorted) {
+				entriesAtPosition.add(castEntry(entry));
+			}
+		}
+
+		for (Entry<T> entry : entriesAtPosition) {
+			unlink(entry);
+			movedVisitor.accept(entry.object);
+			newList.insertLoadedData();
+			newList.append(entry.object, entry.tracked);
+		}
+	}
+
+	/**
+	 * Moves all objects located in the given area to the given list. The result is the same as calling
+	 * {@link #moveObjectsAtPositionTo(ShortPoint2D, PositionableList, Consumer)} for each position of the area in its order, but the objects are only
+	 * iterated once.
+	 *
+	 * @param area
+	 * 		The area whose objects are moved.
+	 * @param newList
+	 * 		The list receiving the objects.
+	 * @param movedVisitor
+	 * 		Visitor called for every moved object.
+	 */
+	public void moveObjectsInAreaTo(OrderedArea area, PositionableList<T> newList, Consumer<T> movedVisitor) {
+		insertLoadedData();
+
+		ArrayList<Entry<T>> entriesInArea = new ArrayList<>();
+		for (Entry<T> entry = first; entry != null; entry = entry.next) {
+			if (area.contains(entry.getPosition())) {
+				entriesInArea.add(entry);
+			}
+		}
+		// the entries are in insertion order, the stable sort keeps it for entries at the same position
+		Collections.sort(entriesInArea, (entry1, entry2) -> Integer.compare(area.indexOf(entry1.getPosition()), area.indexOf(entry2.getPosition())));
+
+		for (Entry<T> entry : entriesInArea) {
+			unlink(entry);
+			movedVisitor.accept(entry.object);
+			newList.insertLoadedData();
+			newList.append(entry.object, entry.tracked);
+		}
+	}
+
+	private static <T extends ILocatable> void collectEntriesAt(Entry<T> bucket, ShortPoint2D position, ArrayList<Entry<T>> entries) {
+		for (Entry<T> entry = bucket; entry != null; entry = entry.nextInBucket) {
+			if (entry.getPosition().equals(position)) {
+				entries.add(entry);
 			}
 		}
 	}
 
 	public int size() {
-		return data.size();
+		insertLoadedData();
+		return size;
+	}
+
+	/**
+	 * @return An iterator over the objects in insertion order. It supports removing objects.
+	 */
+	protected Iterator<T> iterator() {
+		insertLoadedData();
+		return new Iterator<T>() {
+			private Entry<T> nextEntry = first;
+			private Entry<T> lastReturned;
+
+			@Override
+			public boolean hasNext() {
+				return nextEntry != null;
+			}
+
+			@Override
+			public T next() {
+				if (nextEntry == null) {
+					throw new NoSuchElementException();
+				}
+				lastReturned = nextEntry;
+				nextEntry = nextEntry.next;
+				return lastReturned.object;
+			}
+
+			@Override
+			public void remove() {
+				if (lastReturned == null) {
+					throw new IllegalStateException();
+				}
+				unlink(lastReturned);
+				lastReturned = null;
+			}
+		};
+	}
+
+	private void append(T object, boolean tracked) {
+		Entry<T> entry = new Entry<>(object, nextOrder++);
+		entry.previous = last;
+		if (last != null) {
+			last.next = entry;
+		} else {
+			first = entry;
+		}
+		last = entry;
+		size++;
+
+		Entry<T> sameObject = entriesByObject.get(object);
+		if (sameObject == null) {
+			entriesByObject.put(object, entry);
+		} else {
+			while (sameObject.nextOfSameObject != null) {
+				sameObject = sameObject.nextOfSameObject;
+			}
+			sameObject.nextOfSameObject = entry;
+		}
+
+		if (tracked) {
+			addToBucket(entry, object.getPosition());
+		} else {
+			addToUntracked(entry);
+		}
+		objectInserted(object);
+	}
+
+	private void unlink(Entry<T> entry) {
+		if (entry.previous != null) {
+			entry.previous.next = entry.next;
+		} else {
+			first = entry.next;
+		}
+		if (entry.next != null) {
+			entry.next.previous = entry.previous;
+		} else {
+			last = entry.previous;
+		}
+		size--;
+
+		Entry<T> sameObject = entriesByObject.get(entry.object);
+		if (sameObject == entry) {
+			if (entry.nextOfSameObject != null) {
+				entriesByObject.put(entry.object, entry.nextOfSameObject);
+			} else {
+				entriesByObject.remove(entry.object);
+			}
+		} else {
+			while (sameObject.nextOfSameObject != entry) {
+				sameObject = sameObject.nextOfSameObject;
+			}
+			sameObject.nextOfSameObject = entry.nextOfSameObject;
+		}
+
+		removeFromBucket(entry);
+		objectRemoved(entry.object);
+	}
+
+	/**
+	 * This method is called after an object has been added to this list.
+	 *
+	 * @param object
+	 * 		The added object.
+	 */
+	protected void objectInserted(T object) {
+	}
+
+	/**
+	 * This method is called after an object has been removed from this list.
+	 *
+	 * @param object
+	 * 		The removed object.
+	 */
+	protected void objectRemoved(T object) {
+	}
+
+	private void addToBucket(Entry<T> entry, ShortPoint2D position) {
+		entry.position = position;
+		int key = getBucketKey(position);
+		Entry<T> head = buckets.get(key);
+		entry.previousInBucket = null;
+		entry.nextInBucket = head;
+		if (head != null) {
+			head.previousInBucket = entry;
+		}
+		buckets.put(key, entry);
+
+		int bucketX = position.x >> BUCKET_SHIFT;
+		int bucketY = position.y >> BUCKET_SHIFT;
+		minBucketX = Math.min(minBucketX, bucketX);
+		maxBucketX = Math.max(maxBucketX, bucketX);
+		minBucketY = Math.min(minBucketY, bucketY);
+		maxBucketY = Math.max(maxBucketY, bucketY);
+	}
+
+	private void addToUntracked(Entry<T> entry) {
+		entry.tracked = false;
+		entry.previousInBucket = null;
+		entry.nextInBucket = firstUntracked;
+		if (firstUntracked != null) {
+			firstUntracked.previousInBucket = entry;
+		}
+		firstUntracked = entry;
+	}
+
+	private void removeFromBucket(Entry<T> entry) {
+		if (entry.previousInBucket != null) {
+			entry.previousInBucket.nextInBucket = entry.nextInBucket;
+		} else if (entry.tracked) {
+			buckets.put(getBucketKey(entry.position), entry.nextInBucket);
+		} else {
+			firstUntracked = entry.nextInBucket;
+		}
+		if (entry.nextInBucket != null) {
+			entry.nextInBucket.previousInBucket = entry.previousInBucket;
+		}
+		entry.previousInBucket = null;
+		entry.nextInBucket = null;
+	}
+
+	private static int getBucketKey(ShortPoint2D position) {
+		return getBucketKey(position.x >> BUCKET_SHIFT, position.y >> BUCKET_SHIFT);
+	}
+
+	private static int getBucketKey(int bucketX, int bucketY) {
+		return bucketX | bucketY << 16;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends ILocatable> Entry<T> castEntry(Entry<?> entry) {
+		return (Entry<T>) entry;
+	}
+
+	private static final class Entry<T extends ILocatable> {
+		final T object;
+		final long order;
+		ShortPoint2D position;
+		boolean tracked = true;
+
+		Entry<T> previous;
+		Entry<T> next;
+		Entry<T> previousInBucket;
+		Entry<T> nextInBucket;
+		Entry<T> nextOfSameObject;
+
+		Entry(T object, long order) {
+			this.object = object;
+			this.order = order;
+		}
+
+		ShortPoint2D getPosition() {
+			return tracked ? position : object.getPosition();
+		}
+	}
+
+	/**
+	 * Open addressing hash table mapping the bucket keys to the first entry of the bucket. Keys are never removed, as the number of buckets is limited by
+	 * the map size.
+	 */
+	private static final class BucketTable<T extends ILocatable> {
+		private static final int EMPTY = -1;
+
+		private int[] keys = createKeys(16);
+		private Object[] heads = new Object[16];
+		private int used;
+
+		@SuppressWarnings("unchecked")
+		Entry<T> get(int key) {
+			int index = find(key);
+			return keys[index] == key ? (Entry<T>) heads[index] : null;
+		}
+
+		void put(int key, Entry<T> head) {
+			int index = find(key);
+			if (keys[index] == EMPTY) {
+				if ((used + 1) * 4 > keys.length * 3) {
+					grow();
+					index = find(key);
+				}
+				keys[index] = key;
+				used++;
+			}
+			heads[index] = head;
+		}
+
+		private int find(int key) {
+			int mask = keys.length - 1;
+			int index = (key * 0x9E3779B9) >>> 16 & mask;
+			while (keys[index] != EMPTY && keys[index] != key) {
+				index = (index + 1) & mask;
+			}
+			return index;
+		}
+
+		private void grow() {
+			int[] oldKeys = keys;
+			Object[] oldHeads = heads;
+			keys = createKeys(oldKeys.length * 2);
+			heads = new Object[oldKeys.length * 2];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != EMPTY) {
+					int index = find(oldKeys[i]);
+					keys[index] = oldKeys[i];
+					heads[index] = oldHeads[i];
+				}
+			}
+		}
+
+		private static int[] createKeys(int length) {
+			int[] keys = new int[length];
+			Arrays.fill(keys, EMPTY);
+			return keys;
+		}
 	}
 }
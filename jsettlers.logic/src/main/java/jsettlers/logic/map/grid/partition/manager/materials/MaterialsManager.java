@@ -19,6 +19,7 @@ import java.io.Serializable;
 import jsettlers.common.map.partition.IPartitionSettings;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IJoblessSupplier;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IManagerBearer;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
@@ -125,6 +126,12 @@ public final class MaterialsManager implements Serializable {
 		}
 	}
 
+	public void moveAreaTo(OrderedArea area, MaterialsManager newManager) {
+		for (int i = 0; i < EMaterialType.NUMBER_OF_MATERIALS; i++) {
+			requestQueues[i].moveObjectsInAreaTo(area, newManager.requestQueues[i]);
+		}
+	}
+
 	public void mergeInto(MaterialsManager newManager) {
 		for (int i = 0; i < EMaterialType.NUMBER_OF_MATERIALS; i++) {
 			requestQueues[i].mergeInto(newManager.requestQueues[i]);
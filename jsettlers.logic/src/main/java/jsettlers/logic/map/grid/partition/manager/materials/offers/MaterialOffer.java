@@ -22,6 +22,7 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.map.grid.partition.manager.materials.MaterialsManager;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IMaterialOffer;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.list.IListManageable;
+import jsettlers.logic.map.grid.partition.manager.materials.offers.list.IListManageableListener;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.list.IPrioritizable;
 
 /**
@@ -30,6 +31,8 @@ import jsettlers.logic.map.grid.partition.manager.materials.offers.list.IPriorit
  * @author Andreas Eberle
  */
 public class MaterialOffer implements Serializable, ILocatable, IPrioritizable<EOfferPriority>, IListManageable, IMaterialOffer {
+	private static final long serialVersionUID = -8205797836220090667L;
+
 	private final ShortPoint2D position;
 	private final EMaterialType materialType;
 
@@ -37,6 +40,10 @@ public class MaterialOffer implements Serializable, ILocatable, IPrioritizable<E
 	private EOfferPriority priority;
 	private byte amount = 0;
 	private byte inDistribution = 0;
+	/**
+	 * Not stored in savegames. The list containing this offer sets it again when it inserts the loaded offers.
+	 */
+	private transient IListManageableListener listManageableListener;
 
 	MaterialOffer(ShortPoint2D position, EMaterialType materialType, IOffersCountListener countChangedListener, EOfferPriority priority, byte amount) {
 		this.position = position;
@@ -60,8 +67,10 @@ public class MaterialOffer implements Serializable, ILocatable, IPrioritizable<E
 	 * @return
 	 */
 	public void incrementAmount() {
+		boolean wasActive = isActive();
 		++amount;
 		countChangedListener.offersCountChanged(materialType, +1);
+		informListManageableListener(wasActive);
 	}
 
 	public byte getAmount() {
@@ -92,6 +101,17 @@ public class MaterialOffer implements Serializable, ILocatable, IPrioritizable<E
 		return amount <= 0;
 	}
 
+	@Override
+	public void setListManageableListener(IListManageableListener listener) {
+		this.listManageableListener = listener;
+	}
+
+	private void informListManageableListener(boolean wasActive) {
+		if (listManageableListener != null) {
+			listManageableListener.listManageableChanged(this, wasActive);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "MaterialOffer{" + "position=" + position + ", priority=" + priority + ", amount=" + amount + '}';
@@ -99,20 +119,26 @@ public class MaterialOffer implements Serializable, ILocatable, IPrioritizable<E
 
 	@Override
 	public void distributionAccepted() {
+		boolean wasActive = isActive();
 		inDistribution++;
 		countChangedListener.offersCountChanged(materialType, -1);
+		informListManageableListener(wasActive);
 	}
 
 	@Override
 	public void distributionAborted() {
+		boolean wasActive = isActive();
 		inDistribution--;
 		countChangedListener.offersCountChanged(materialType, +1);
+		informListManageableListener(wasActive);
 	}
 
 	@Override
 	public void offerTaken() {
+		boolean wasActive = isActive();
 		inDistribution--;
 		amount--;
+		informListManageableListener(wasActive);
 	}
 
 	@Override
@@ -17,6 +17,7 @@ package jsettlers.logic.map.grid.partition.manager.materials.offers;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.map.grid.partition.data.MaterialCounts;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IOfferEmptiedListener;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.list.PrioritizedPositionableList;
 
@@ -137,6 +138,12 @@ public final class OffersList implements Serializable {
 		}
 	}
 
+	public void moveOffersInAreaTo(OrderedArea area, final OffersList otherList) {
+		for (int materialTypeIndex = 0; materialTypeIndex < EMaterialType.NUMBER_OF_MATERIALS; materialTypeIndex++) {
+			offersLists[materialTypeIndex].moveObjectsInAreaTo(area, otherList.offersLists[materialTypeIndex], movedOffer -> movedOffer.changeOffersCountListener(otherList.materialCounts));
+		}
+	}
+
 	public void moveAll(OffersList otherList) {
 		for (int materialTypeIndex = 0; materialTypeIndex < EMaterialType.NUMBER_OF_MATERIALS; materialTypeIndex++) {
 			offersLists[materialTypeIndex].moveAll(otherList.offersLists[materialTypeIndex], movedOffer -> movedOffer.changeOffersCountListener(materialCounts));
@@ -21,4 +21,12 @@ public interface IListManageable {
 	boolean isActive();
 
 	boolean canBeRemoved();
+
+	/**
+	 * Sets the listener that needs to be informed when {@link #isActive()} or {@link #canBeRemoved()} changed.
+	 *
+	 * @param listener
+	 * 		The listener or null to remove the current listener.
+	 */
+	void setListManageableListener(IListManageableListener listener);
 }
@@ -14,56 +14,112 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition.manager.materials.offers.list;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
 
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
-import jsettlers.common.utils.MathUtils;
 import jsettlers.logic.map.grid.partition.manager.datastructures.PositionableList;
 
 /**
  * This is a data structure for storing and retrieving objects at given positions.<br>
  * It is also possible to find the nearest object around a given position.
+ * <p>
+ * The objects inform the list about changes of their state, so the number of active objects and the objects that can be removed are known without
+ * scanning the list. Objects that can be removed stay in the list until the next search, like they did when the list was scanned.
  *
  * @param <T>
  * @author Andreas Eberle
  */
-public class ManagingPositionableList<T extends ILocatable & IListManageable> extends PositionableList<T> {
+public class ManagingPositionableList<T extends ILocatable & IListManageable> extends PositionableList<T> implements IListManageableListener {
+	private static final long serialVersionUID = 5373491460834642792L;
+
+	private transient int activeObjects;
+	/**
+	 * Objects that could be removed when they have been added. Some of them may have been removed or revived since.
+	 */
+	private transient ArrayList<T> removableObjects = new ArrayList<>();
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		removableObjects = new ArrayList<>();
+	}
 
 	@Override
 	protected T getObjectCloseTo(ShortPoint2D position) {
-		int bestDistance = Integer.MAX_VALUE;
-		T currBest = null;
+		removeRemovableObjects();
+
+		if (activeObjects == 0) {
+			return null;
+		}
+		return getObjectCloseTo(position, object -> object.isActive()); // only use the active ones
+	}
+
+	public boolean hasNoActive() {
+		insertLoadedData();
 
-		for (Iterator<T> iterator = data.iterator(); iterator.hasNext(); ) {
-			T currEntry = iterator.next();
+		if (activeObjects == 0) {
+			removeRemovableObjects();
+			return true;
+		}
 
-			if (currEntry.canBeRemoved()) { // remove old entries no longer needed
-				iterator.remove();
+		if (!removableObjects.isEmpty()) { // remove old entries in front of the first active one
+			for (Iterator<T> iterator = iterator(); iterator.hasNext(); ) {
+				T datum = iterator.next();
 
-			} else if (currEntry.isActive()) { // only use the active ones
-				int currDist = MathUtils.squareHypot(position, currEntry.getPosition());
+				if (datum.canBeRemoved()) {
+					iterator.remove();
 
-				if (bestDistance > currDist) {
-					bestDistance = currDist;
-					currBest = currEntry;
+				} else if (datum.isActive()) {
+					break;
 				}
 			}
 		}
-		return currBest;
+		return false;
 	}
 
-	public boolean hasNoActive() {
-		for (Iterator<T> iterator = data.iterator(); iterator.hasNext(); ) {
-			T datum = iterator.next();
-
-			if (datum.canBeRemoved()) {
-				iterator.remove();
+	private void removeRemovableObjects() {
+		insertLoadedData();
 
-			} else if (datum.isActive()) {
-				return false;
+		for (T object : removableObjects) {
+			if (object.canBeRemoved()) {
+				remove(object);
 			}
 		}
-		return true;
+		removableObjects.clear();
+	}
+
+	@Override
+	protected void objectInserted(T object) {
+		object.setListManageableListener(this);
+
+		if (object.isActive()) {
+			activeObjects++;
+		}
+		if (object.canBeRemoved()) {
+			removableObjects.add(object);
+		}
+	}
+
+	@Override
+	protected void objectRemoved(T object) {
+		object.setListManageableListener(null);
+
+		if (object.isActive()) {
+			activeObjects--;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void listManageableChanged(IListManageable object, boolean wasActive) {
+		if (wasActive != object.isActive()) {
+			activeObjects += wasActive ? -1 : 1;
+		}
+		if (object.canBeRemoved()) {
+			removableObjects.add((T) object);
+		}
 	}
 }
@@ -19,6 +19,7 @@ import java.io.Serializable;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.MathUtils;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
 
 import java8.util.function.Consumer;
 
@@ -26,6 +27,8 @@ import java8.util.function.Consumer;
  * Created by Andreas Eberle on 23.08.2016.
  */
 public class PrioritizedPositionableList<P extends Enum, T extends ILocatable & IPrioritizable<P> & IListManageable> implements Serializable {
+	private static final long serialVersionUID = -5141288579664102607L;
+
 	private final ManagingPositionableList<T>[] lists;
 
 	@SuppressWarnings("unchecked")
@@ -69,6 +72,12 @@ public class PrioritizedPositionableList<P extends Enum, T extends ILocatable &
 		}
 	}
 
+	public void moveObjectsInAreaTo(OrderedArea area, PrioritizedPositionableList<P, T> otherList, Consumer<T> movedVisitor) {
+		for (int i = lists.length - 1; i >= 0; i--) {
+			lists[i].moveObjectsInAreaTo(area, otherList.lists[i], movedVisitor);
+		}
+	}
+
 	public void moveAll(PrioritizedPositionableList<P, T> otherList, Consumer<T> movedVisitor) {
 		for (int i = lists.length - 1; i >= 0; i--) {
 			lists[i].moveAll(otherList.lists[i], movedVisitor);
@@ -20,6 +20,7 @@ import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EPriority;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.collections.list.DoubleLinkedList;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
 
 /**
  * This class is an abstract priority queue for material requests. The possible priorities are specified in the {@link EPriority} enum.
@@ -136,6 +137,25 @@ public abstract class AbstractMaterialRequestPriorityQueue implements Serializab
 	 */
 	public abstract void moveObjectsOfPositionTo(ShortPoint2D position, AbstractMaterialRequestPriorityQueue newQueue);
 
+	/**
+	 * Removes any requests located in the given area from this queue and adds them to the given queue. The result is the same as calling
+	 * {@link #moveObjectsOfPositionTo(ShortPoint2D, AbstractMaterialRequestPriorityQueue)} for every position of the area in its order.
+	 * 
+	 * @param area
+	 *            The area whose requests will be moved to the given queue.
+	 * @param newQueue
+	 *            The queue that receives the objects removed from this queue.
+	 */
+	public abstract void moveObjectsInAreaTo(OrderedArea area, AbstractMaterialRequestPriorityQueue newQueue);
+
+	protected static void moveObjectsInAreaTo(OrderedArea area, DoubleLinkedList<MaterialRequestObject> queue, DoubleLinkedList<MaterialRequestObject> newQueue,
+			AbstractMaterialRequestPriorityQueue newRequestQueue) {
+		for (MaterialRequestObject request : area.removeObjects(queue.iterator())) {
+			newQueue.pushEnd(request);
+			request.requestQueue = newRequestQueue;
+		}
+	}
+
 	/**
 	 * Merges this queue into the given {@link AbstractMaterialRequestPriorityQueue}.
 	 * <p />
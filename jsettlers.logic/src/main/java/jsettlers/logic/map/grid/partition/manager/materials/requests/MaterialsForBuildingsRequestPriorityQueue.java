@@ -23,6 +23,7 @@ import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EPriority;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.collections.list.DoubleLinkedList;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
 import jsettlers.logic.map.grid.partition.manager.settings.MaterialDistributionSettings;
 
 /**
@@ -139,6 +140,19 @@ public final class MaterialsForBuildingsRequestPriorityQueue extends AbstractMat
 		}
 	}
 
+	@Override
+	public void moveObjectsInAreaTo(OrderedArea area, AbstractMaterialRequestPriorityQueue newAbstractQueue) {
+		assert newAbstractQueue instanceof MaterialsForBuildingsRequestPriorityQueue : "can't move positions between different types of queues.";
+
+		MaterialsForBuildingsRequestPriorityQueue newQueue = (MaterialsForBuildingsRequestPriorityQueue) newAbstractQueue;
+
+		for (int priorityIndex = 0; priorityIndex < queues.length; priorityIndex++) {
+			for (int queueIdx = 0; queueIdx < numberOfConfigurableBuildings; queueIdx++) {
+				moveObjectsInAreaTo(area, queues[priorityIndex][queueIdx], newQueue.queues[priorityIndex][queueIdx], newQueue);
+			}
+		}
+	}
+
 	@Override
 	public void mergeInto(AbstractMaterialRequestPriorityQueue newAbstractQueue) {
 		assert newAbstractQueue instanceof MaterialsForBuildingsRequestPriorityQueue : "can't move positions between different types of queues.";
@@ -21,6 +21,7 @@ import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EPriority;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.collections.list.DoubleLinkedList;
+import jsettlers.logic.map.grid.partition.manager.datastructures.OrderedArea;
 
 /**
  * This class is a simple priority queue for material requests. The possible priorities are specified in the {@link EPriority} enum.
@@ -62,6 +63,17 @@ public final class SimpleMaterialRequestPriorityQueue extends AbstractMaterialRe
 		}
 	}
 
+	@Override
+	public void moveObjectsInAreaTo(OrderedArea area, AbstractMaterialRequestPriorityQueue newAbstractQueue) {
+		assert newAbstractQueue instanceof SimpleMaterialRequestPriorityQueue : "can't move positions between diffrent types of queues.";
+
+		SimpleMaterialRequestPriorityQueue newQueue = (SimpleMaterialRequestPriorityQueue) newAbstractQueue;
+
+		for (int queueIdx = 0; queueIdx < queues.length; queueIdx++) {
+			moveObjectsInAreaTo(area, queues[queueIdx], newQueue.queues[queueIdx], newQueue);
+		}
+	}
+
 	@Override
 	public void mergeInto(AbstractMaterialRequestPriorityQueue newAbstractQueue) {
 		assert newAbstractQueue instanceof SimpleMaterialRequestPriorityQueue : "can't move positions between diffrent types of queues.";
@@ -42,25 +42,46 @@ public abstract class MapLoader implements IGameCreator, Comparable<MapLoader>,
 	public abstract MapFileHeader getFileHeader();
 
 	public static MapLoader getLoaderForListedMap(IListedMap listedMap) throws MapLoadException {
-		if ((checkExtention(listedMap.getFileName(), MapLoader.MAP_EXTENSION_ORIGINAL))
-				|| (checkExtention(listedMap.getFileName(), MapLoader.MAP_EXTENSION_ORIGINAL_MAP_EDITOR))) {
+		if (isOriginalMap(listedMap)) {
 			// - original Siedler 3 Map
 			return new OriginalMapLoader(listedMap);
 		} else {
 			// - Siedler 3 Remake Savegame or Map
-			MapFileHeader header = RemakeMapLoader.loadHeader(listedMap);
-
-			switch (header.getType()) {
-			case NORMAL:
-				return new FreshMapLoader(listedMap, header);
-			case SAVED_SINGLE:
-				return new SavegameLoader(listedMap, header);
-			default:
-				throw new MapLoadException("Unkown EMapType: " + header.getType());
-			}
+			return getLoaderForListedMap(listedMap, RemakeMapLoader.loadHeader(listedMap));
 		}
 	}
 
+	/**
+	 * Creates the loader for a listed map whose header is already known. The map file is not read.
+	 * 
+	 * @param listedMap
+	 *            The listed map.
+	 * @param header
+	 *            The header of the map as returned by {@link #getFileHeader()} of the loader created by {@link #getLoaderForListedMap(IListedMap)}.
+	 * @return The loader of the map.
+	 * @throws MapLoadException
+	 *             If the type of the map is unknown.
+	 */
+	public static MapLoader getLoaderForListedMap(IListedMap listedMap, MapFileHeader header) throws MapLoadException {
+		if (isOriginalMap(listedMap)) {
+			return new OriginalMapLoader(listedMap, header);
+		}
+
+		switch (header.getType()) {
+		case NORMAL:
+			return new FreshMapLoader(listedMap, header);
+		case SAVED_SINGLE:
+			return new SavegameLoader(listedMap, header);
+		default:
+			throw new MapLoadException("Unkown EMapType: " + header.getType());
+		}
+	}
+
+	private static boolean isOriginalMap(IListedMap listedMap) {
+		return checkExtention(listedMap.getFileName(), MapLoader.MAP_EXTENSION_ORIGINAL)
+				|| checkExtention(listedMap.getFileName(), MapLoader.MAP_EXTENSION_ORIGINAL_MAP_EDITOR);
+	}
+
 	public static boolean checkExtention(String filename, String Extention) {
 		if (filename == null)
 			return false;
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.loading.list;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jsettlers.logic.map.loading.newmap.MapFileHeader;
+
+/**
+ * This index stores the {@link MapFileHeader}s of map files in a file, so that the map list can be shown without opening every map. An entry is
+ * only used as long as the size and the modification time of its map file did not change.
+ */
+public class MapHeaderIndex {
+	public static final String DEFAULT_FILE_NAME = "mapheaders.index";
+
+	private static final int VERSION = 1;
+
+	private final File indexFile;
+	private final Map<String, IndexEntry> entries = new HashMap<>();
+	private boolean changed = false;
+
+	private static class IndexEntry {
+		final long size;
+		final long lastModified;
+		final MapFileHeader header;
+
+		IndexEntry(long size, long lastModified, MapFileHeader header) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.header = header;
+		}
+	}
+
+	/**
+	 * Creates a new index and reads the entries stored in the given file. If the file does not exist or cannot be read, the index starts empty.
+	 * 
+	 * @param indexFile
+	 *            The file the index is stored in.
+	 */
+	public MapHeaderIndex(File indexFile) {
+		this.indexFile = indexFile;
+
+		if (indexFile.isFile()) {
+			try {
+				load();
+			} catch (IOException e) {
+				System.err.println("Could not read map header index " + indexFile + ": " + e.getMessage());
+				entries.clear();
+			}
+		}
+	}
+
+	private void load() throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(indexFile))))) {
+			if (in.readInt() != VERSION) {
+				return;
+			}
+
+			int numberOfEntries = in.readInt();
+			for (int i = 0; i < numberOfEntries; i++) {
+				String path = in.readUTF();
+				long size = in.readLong();
+				long lastModified = in.readLong();
+				MapFileHeader header = MapFileHeader.readFromStream(in);
+				entries.put(path, new IndexEntry(size, lastModified, header));
+			}
+		}
+	}
+
+	/**
+	 * Gets the stored header of the given map file.
+	 * 
+	 * @param mapFile
+	 *            The map file.
+	 * @return The header or <code>null</code> if the file is not in the index or has changed since its header was stored.
+	 */
+	public synchronized MapFileHeader getHeader(File mapFile) {
+		IndexEntry entry = entries.get(mapFile.getAbsolutePath());
+		if (entry != null && entry.size == mapFile.length() && entry.lastModified == mapFile.lastModified()) {
+			return entry.header;
+		}
+		return null;
+	}
+
+	/**
+	 * Stores the header of the given map file. The size and the modification time of the file are stored with it.
+	 * 
+	 * @param mapFile
+	 *            The map file.
+	 * @param header
+	 *            The header read from the map file.
+	 */
+	public synchronized void putHeader(File mapFile, MapFileHeader header) {
+		if (header.getCreationDate() == null) {
+			return; // headers of old maps may not have a date and cannot be written
+		}
+
+		entries.put(mapFile.getAbsolutePath(), new IndexEntry(mapFile.length(), mapFile.lastModified(), header));
+		changed = true;
+	}
+
+	/**
+	 * Removes the entries of all map files that are not contained in the given collection.
+	 * 
+	 * @param mapFiles
+	 *            The map files that still exist.
+	 */
+	public synchronized void retainFiles(Collection<File> mapFiles) {
+		HashSet<String> paths = new HashSet<>();
+		for (File mapFile : mapFiles) {
+			paths.add(mapFile.getAbsolutePath());
+		}
+
+		Iterator<String> iterator = entries.keySet().iterator();
+		while (iterator.hasNext()) {
+			if (!paths.contains(iterator.next())) {
+				iterator.remove();
+				changed = true;
+			}
+		}
+	}
+
+	/**
+	 * Writes the index to its file if it has been changed since it was read or written the last time.
+	 */
+	public synchronized void save() {
+		if (!changed) {
+			return;
+		}
+
+		File tempFile = new File(indexFile.getPath() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile))))) {
+				out.writeInt(VERSION);
+				out.writeInt(entries.size());
+				for (Entry<String, IndexEntry> entry : entries.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeLong(entry.getValue().size);
+					out.writeLong(entry.getValue().lastModified);
+					entry.getValue().header.writeTo(out);
+				}
+			}
+
+			indexFile.delete();
+			if (!tempFile.renameTo(indexFile)) {
+				throw new IOException("Could not rename " + tempFile + " to " + indexFile);
+			}
+			changed = false;
+		} catch (IOException e) {
+			System.err.println("Could not write map header index " + indexFile + ": " + e.getMessage());
+		}
+	}
+}
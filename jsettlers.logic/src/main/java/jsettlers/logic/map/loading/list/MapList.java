@@ -21,6 +21,11 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import jsettlers.common.CommonConstants;
 import jsettlers.common.logging.MilliStopWatch;
@@ -29,6 +34,7 @@ import jsettlers.input.PlayerState;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.GameSerializer;
 import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.data.IMapData;
 import jsettlers.logic.map.loading.list.IMapLister.IMapListerCallable;
@@ -43,7 +49,10 @@ import jsettlers.logic.timer.RescheduleTimer;
  * <p>
  * It lists all available maps, and it can be used to add maps to the game.
  * <p>
- * TODO: load maps before they are needed, to decrease startup time.
+ * If a {@link MapHeaderIndex} is given, the maps found in it are listed immediately. The headers of all other maps are read in parallel by
+ * background threads. Their loaders are added to the lists in the order the maps have been found, informing the listeners of the lists for every
+ * map. The listeners are called on these background threads; user interfaces need to work on copies of the lists, see
+ * {@link ChangingList#copyItems()}.
  * 
  * @author michael
  * @author Andreas Eberle
@@ -69,54 +78,190 @@ public class MapList implements IMapListerCallable {
 	private final ChangingList<MapLoader> freshMaps = new ChangingList<>();
 	private final ChangingList<RemakeMapLoader> savedMaps = new ChangingList<>();
 
+	private final ThreadPoolExecutor savegameWriter = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+			runnable -> new Thread(runnable, "SavegameWriter"));
+	private volatile Future<?> lastSavegameWrite;
+
+	private final MapHeaderIndex headerIndex;
+	private final ThreadPoolExecutor headerReaders;
+	/**
+	 * The header reads of the current listing in the order the maps have been found. The first {@link #addedHeaderReads} of them have been added to
+	 * the lists.
+	 */
+	private final ArrayList<HeaderRead> headerReads = new ArrayList<>();
+	private int addedHeaderReads = 0;
+	private final ArrayList<File> listedFiles = new ArrayList<>();
+
 	private boolean fileListLoaded = false;
 
+	private static class HeaderRead {
+		final IListedMap map;
+		MapLoader loader;
+		boolean finished;
+
+		HeaderRead(IListedMap map) {
+			this.map = map;
+		}
+	}
+
 	public MapList(Collection<IMapLister> mapDirectories, IMapLister saveDirectory) {
+		this(mapDirectories, saveDirectory, null);
+	}
+
+	/**
+	 * Creates a new map list.
+	 * 
+	 * @param mapDirectories
+	 *            The listers of the maps.
+	 * @param saveDirectory
+	 *            The lister savegames are written to.
+	 * @param headerIndex
+	 *            The index used to list the maps without reading their headers or <code>null</code>.
+	 */
+	public MapList(Collection<IMapLister> mapDirectories, IMapLister saveDirectory, MapHeaderIndex headerIndex) {
 		this.mapDirectories = new ArrayList<>(mapDirectories);
 		this.saveDirectory = saveDirectory;
+		this.headerIndex = headerIndex;
+		savegameWriter.allowCoreThreadTimeOut(true);
+
+		int numberOfReaders = Runtime.getRuntime().availableProcessors();
+		headerReaders = new ThreadPoolExecutor(numberOfReaders, numberOfReaders, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "MapHeaderReader");
+			thread.setDaemon(true); // unfinished reads are not needed when the application exits
+			return thread;
+		});
+		headerReaders.allowCoreThreadTimeOut(true);
 	}
 
 	private void loadFileList() {
 		freshMaps.clear();
 		savedMaps.clear();
+		headerReads.clear();
+		addedHeaderReads = 0;
+		listedFiles.clear();
 
 		for (IMapLister dir : mapDirectories) {
 			dir.listMaps(this);
 		}
+
+		if (headerIndex != null) {
+			headerIndex.retainFiles(listedFiles);
+			if (headerReads.isEmpty()) {
+				headerReaders.execute(headerIndex::save);
+			}
+		}
 	}
 
 	@Override
 	public synchronized void foundMap(IListedMap map) {
-		MapLoader loader;
+		File file = getFile(map);
+		if (file != null) {
+			listedFiles.add(file);
+
+			MapFileHeader indexedHeader = headerIndex != null ? headerIndex.getHeader(file) : null;
+			if (indexedHeader != null) {
+				try {
+					addLoader(MapLoader.getLoaderForListedMap(map, indexedHeader));
+					return;
+				} catch (MapLoadException e) {
+					// read the header from the file
+				}
+			}
+		}
+
+		HeaderRead headerRead = new HeaderRead(map);
+		headerReads.add(headerRead);
+		headerReaders.execute(() -> readHeader(headerRead, file));
+	}
+
+	private static File getFile(IListedMap map) {
+		try {
+			return map.getFile();
+		} catch (UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	private void readHeader(HeaderRead headerRead, File file) {
+		MapLoader loader = null;
 
 		try {
-			loader = MapLoader.getLoaderForListedMap(map);
+			MapLoader readLoader = MapLoader.getLoaderForListedMap(headerRead.map);
+
+			// - if the map can't be load (e.g. caused by wrong format) the mapHead gets NULL! -> hide/ignore this map from user
+			if (readLoader != null && readLoader.getFileHeader() != null) {
+				if (file != null && headerIndex != null) {
+					headerIndex.putHeader(file, readLoader.getFileHeader());
+				}
+				loader = readLoader;
+			}
 		} catch (Exception e) {
-			System.err.println("Cought exception while loading header for " + map.getFileName());
+			System.err.println("Cought exception while loading header for " + headerRead.map.getFileName());
 			e.printStackTrace();
-			return;
+		} finally { // errors are passed on, but the read must be finished anyway to not block the waiting threads
+			finishHeaderRead(headerRead, loader);
 		}
+	}
 
-		MapFileHeader mapHead = loader.getFileHeader();
+	private synchronized void finishHeaderRead(HeaderRead headerRead, MapLoader loader) {
+		headerRead.loader = loader;
+		headerRead.finished = true;
 
-		// - if the map can't be load (e.g. caused by wrong format) the mapHead gets NULL! -> hide/ignore this map from user
-		if (mapHead != null) {
-			MapType type = loader.getFileHeader().getType();
+		// add all finished reads not waiting for an earlier one; reads of previous listings are not contained in headerReads anymore
+		while (addedHeaderReads < headerReads.size() && headerReads.get(addedHeaderReads).finished) {
+			MapLoader finishedLoader = headerReads.get(addedHeaderReads).loader;
+			if (finishedLoader != null) {
+				addLoader(finishedLoader);
+			}
+			addedHeaderReads++;
+		}
 
-			if ((type == MapType.SAVED_SINGLE)) {
-				savedMaps.add((RemakeMapLoader) loader);
-			} else {
-				freshMaps.add(loader);
+		if (addedHeaderReads == headerReads.size()) {
+			if (headerIndex != null) {
+				headerIndex.save();
 			}
+			notifyAll();
 		}
 	}
 
-	public synchronized ChangingList<RemakeMapLoader> getSavedMaps() {
-		if (!fileListLoaded) {
-			loadFileList();
-			fileListLoaded = true;
+	private void addLoader(MapLoader loader) {
+		MapType type = loader.getFileHeader().getType();
+
+		if ((type == MapType.SAVED_SINGLE)) {
+			savedMaps.add((RemakeMapLoader) loader);
+		} else {
+			freshMaps.add(loader);
+		}
+	}
+
+	/**
+	 * Waits until the headers of all maps of the current listing have been read and their loaders have been added to the lists.
+	 */
+	public synchronized void awaitHeaderReads() {
+		while (addedHeaderReads < headerReads.size()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Gets the saved maps. If savegames are currently written, this method waits for them to be finished and listed.
+	 * 
+	 * @return The list of saved maps.
+	 */
+	public ChangingList<RemakeMapLoader> getSavedMaps() {
+		awaitSavegameWrites();
+		synchronized (this) {
+			if (!fileListLoaded) {
+				loadFileList();
+				fileListLoaded = true;
+			}
+			return savedMaps;
 		}
-		return savedMaps;
 	}
 
 	public synchronized ChangingList<MapLoader> getFreshMaps() {
@@ -136,9 +281,7 @@ public class MapList implements IMapListerCallable {
 	 *         or null if no map with the given id has been found.
 	 */
 	public MapLoader getMapById(String id) {
-		ArrayList<MapLoader> maps = new ArrayList<>();
-		maps.addAll(getFreshMaps().getItems());
-		maps.addAll(getSavedMaps().getItems());
+		ArrayList<MapLoader> maps = getAllMaps();
 
 		for (MapLoader curr : maps) {
 			if (curr.getMapId().equals(id)) {
@@ -150,9 +293,7 @@ public class MapList implements IMapListerCallable {
 	}
 
 	public MapLoader getMapByName(String mapName) {
-		ArrayList<MapLoader> maps = new ArrayList<>();
-		maps.addAll(getFreshMaps().getItems());
-		maps.addAll(getSavedMaps().getItems());
+		ArrayList<MapLoader> maps = getAllMaps();
 
 		for (MapLoader curr : maps) {
 			if (curr.getMapName().equals(mapName)) {
@@ -162,6 +303,19 @@ public class MapList implements IMapListerCallable {
 		return null;
 	}
 
+	private ArrayList<MapLoader> getAllMaps() {
+		ChangingList<MapLoader> freshMaps = getFreshMaps();
+		ChangingList<RemakeMapLoader> savedMaps = getSavedMaps();
+		awaitHeaderReads();
+
+		ArrayList<MapLoader> maps = new ArrayList<>();
+		synchronized (this) {
+			maps.addAll(freshMaps.getItems());
+			maps.addAll(savedMaps.getItems());
+		}
+		return maps;
+	}
+
 	/**
 	 * saves a static map to the given directory.
 	 * 
@@ -190,19 +344,18 @@ public class MapList implements IMapListerCallable {
 	}
 
 	/**
-	 * Saves a map to disk. The map logic should be paused while calling this method.
+	 * Saves a map to disk. The map logic must not run while calling this method. The game state is captured in memory before this method
+	 * returns. Compressing and writing the savegame is done by a background thread, so the game can continue meanwhile.
 	 * 
 	 * @param playerStates
 	 * @param grid
 	 * @throws IOException
 	 */
-	public synchronized void saveMap(PlayerState[] playerStates, MapFileHeader header, MainGrid grid) throws IOException {
+	public void saveMap(PlayerState[] playerStates, MapFileHeader header, MainGrid grid) throws IOException {
 		MilliStopWatch watch = new MilliStopWatch();
-		OutputStream outStream = saveDirectory.getOutputStream(header);
-
-		header.writeTo(outStream);
+		SavegameBuffer savegame = new SavegameBuffer();
 
-		ObjectOutputStream oos = new ObjectOutputStream(outStream);
+		ObjectOutputStream oos = new ObjectOutputStream(savegame);
 		MatchConstants.serialize(oos);
 		oos.writeObject(playerStates);
 		GameSerializer gameSerializer = new GameSerializer();
@@ -210,9 +363,46 @@ public class MapList implements IMapListerCallable {
 		RescheduleTimer.saveTo(oos);
 
 		oos.close();
-		watch.stop("Writing savegame required");
+		watch.stop("Capturing savegame required");
 
-		loadFileList();
+		lastSavegameWrite = savegameWriter.submit(() -> writeSavegame(header, savegame));
+	}
+
+	private void writeSavegame(MapFileHeader header, SavegameBuffer savegame) {
+		try {
+			MilliStopWatch watch = new MilliStopWatch();
+			OutputStream outStream = saveDirectory.getOutputStream(header);
+			try {
+				header.writeTo(outStream);
+				savegame.writeTo(outStream);
+			} finally {
+				outStream.close();
+			}
+			watch.stop("Writing savegame required");
+		} catch (IOException e) {
+			e.printStackTrace(); // handled like failed saves in GuiTaskExecutor, the game continues
+		}
+
+		synchronized (this) {
+			loadFileList();
+			awaitHeaderReads();
+		}
+	}
+
+	/**
+	 * Waits until all savegames passed to {@link #saveMap(PlayerState[], MapFileHeader, MainGrid)} have been written.
+	 */
+	public void awaitSavegameWrites() {
+		Future<?> lastWrite = lastSavegameWrite;
+		if (lastWrite == null) {
+			return;
+		}
+
+		try {
+			lastWrite.get();
+		} catch (InterruptedException | ExecutionException e) {
+			e.printStackTrace();
+		}
 	}
 
 	public ArrayList<MapLoader> getSavedMultiplayerMaps() {
@@ -240,6 +430,7 @@ public class MapList implements IMapListerCallable {
 	public static class DefaultMapListFactory implements IMapListFactory {
 		protected ArrayList<IMapLister> directories = new ArrayList<>();
 		protected IMapLister saveDirectory = null;
+		protected File headerIndexFile = null;
 
 		public void addMapDirectory(String directory, boolean create) {
 			directories.add(new DirectoryMapLister(new File(directory), create));
@@ -256,13 +447,14 @@ public class MapList implements IMapListerCallable {
 			if (saveDirectory == null) {
 				throw new RuntimeException("Savegame directory not set.");
 			}
-			return new MapList(getMapListers(), saveDirectory);
+			return new MapList(getMapListers(), saveDirectory, headerIndexFile != null ? new MapHeaderIndex(headerIndexFile) : null);
 		}
 
 		public void addResourcesDirectory(File resources) {
 			addMapDirectory(new DirectoryMapLister(new File(resources, "maps"), true));
 			saveDirectory = new DirectoryMapLister(new File(resources, "save"), true);
 			addMapDirectory(saveDirectory);
+			headerIndexFile = new File(resources, MapHeaderIndex.DEFAULT_FILE_NAME);
 		}
 
 		protected IMapLister getSave() {
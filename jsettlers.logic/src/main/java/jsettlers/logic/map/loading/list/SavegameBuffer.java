@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.loading.list;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+
+/**
+ * In-memory {@link OutputStream} used to capture a savegame. The data is stored in fixed size blocks, so that growing the buffer never copies
+ * the data already written.
+ */
+final class SavegameBuffer extends OutputStream {
+	private static final int BLOCK_SIZE = 1024 * 1024;
+
+	private final ArrayList<byte[]> blocks = new ArrayList<>();
+	private byte[] currentBlock;
+	private int currentBlockSize = BLOCK_SIZE;
+
+	@Override
+	public void write(int b) {
+		if (currentBlockSize == BLOCK_SIZE) {
+			addBlock();
+		}
+		currentBlock[currentBlockSize++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] data, int offset, int length) {
+		while (length > 0) {
+			if (currentBlockSize == BLOCK_SIZE) {
+				addBlock();
+			}
+
+			int chunkLength = Math.min(length, BLOCK_SIZE - currentBlockSize);
+			System.arraycopy(data, offset, currentBlock, currentBlockSize, chunkLength);
+			currentBlockSize += chunkLength;
+			offset += chunkLength;
+			length -= chunkLength;
+		}
+	}
+
+	private void addBlock() {
+		currentBlock = new byte[BLOCK_SIZE];
+		currentBlockSize = 0;
+		blocks.add(currentBlock);
+	}
+
+	/**
+	 * Writes the captured data to the given stream.
+	 *
+	 * @param out
+	 * 		The stream to write to.
+	 * @throws IOException
+	 * 		If writing to the stream fails.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		for (byte[] block : blocks) {
+			out.write(block, 0, block == currentBlock ? currentBlockSize : BLOCK_SIZE);
+		}
+	}
+}
@@ -15,8 +15,16 @@
 package jsettlers.logic.map.loading.original;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.EnumMap;
@@ -31,19 +39,15 @@ import jsettlers.logic.map.loading.EMapStartResources;
 import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.map.loading.data.objects.BuildingMapDataObject;
 import jsettlers.logic.map.loading.data.objects.MapDataObject;
+import jsettlers.logic.map.loading.list.IListedMap;
 import jsettlers.logic.map.loading.original.data.EOriginalMapFilePartType;
 import jsettlers.logic.map.loading.original.data.EOriginalMapFileVersion;
 import jsettlers.logic.player.PlayerSetting;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.Charset;
-import java.util.Arrays;
-import java.util.EnumMap;
-import java.util.List;
-
 /**
+ * Reads original Settlers 3 map files. If possible, the file is mapped into memory instead of being copied to the heap. The file resources are
+ * decrypted on the fly while they are read, so only the requested parts of a resource are decrypted and nothing is written back to the buffer.
+ * 
  * @author Thomas Zeugner
  */
 class OriginalMapFileContentReader {
@@ -52,7 +56,6 @@ class OriginalMapFileContentReader {
 		public final int offset;
 		public final int size;
 		final int cryptKey;
-		private boolean hasBeenDecrypted = false;
 
 		MapResourceInfo(EOriginalMapFilePartType partType, int offset, int size, int cryptKey) {
 			this.partType = partType;
@@ -61,47 +64,105 @@ class OriginalMapFileContentReader {
 			this.cryptKey = cryptKey;
 		}
 
-		// - Decrypt a file resource
-		private boolean doDecrypt() throws MapLoadException {
+		// - Opens a reader decrypting this file resource from its start
+		private ResourceReader read() throws MapLoadException {
 			if (mapContent == null) {
 				throw new MapLoadException("OriginalMapFile-Warning: Unable to decrypt map file: no data loaded!");
 			}
 
-			// - already decrypted
-			if (hasBeenDecrypted || size <= 0) {
-				return true;
-			}
-
-			// - start of data
-			int pos = offset;
-
 			// - check if the file has enough data
-			if ((pos + size) >= mapContent.length) {
+			if (size > 0 && (offset + size) >= mapContent.limit()) {
 				throw new MapLoadException("Error: Unable to decrypt map file: out of data!");
 			}
 
-			// - init the key
-			int key = (cryptKey & 0xFF);
+			return new ResourceReader(this);
+		}
+	}
+
+	/**
+	 * Sequentially reads and decrypts a file resource. The key of every byte depends on all previous bytes of the resource, therefore skipped bytes
+	 * are decrypted, too, and going back restarts the decryption at the beginning of the resource.
+	 */
+	private class ResourceReader {
+		private final MapResourceInfo resource;
+		private final ByteBuffer content;
+		private int position;
+		private int key;
 
-			for (int i = size; i > 0; i--) {
+		ResourceReader(MapResourceInfo resource) {
+			this.resource = resource;
+			this.content = mapContent;
+			this.key = resource.cryptKey & 0xFF;
+		}
 
-				// - read one byte and uncrypt it
-				int byt = (mapContent[pos] ^ key);
+		// - position relative to the start of the resource
+		int getPosition() {
+			return position;
+		}
+
+		// - Read and decrypt UNSIGNED Byte
+		int readByte() {
+			// - read one byte and uncrypt it
+			int byt = (content.get(resource.offset + position) ^ key) & 0xFF;
+			position++;
 
-				// - calculate next Key
-				key = (key << 1) ^ byt;
+			// - calculate next Key
+			key = ((key << 1) ^ byt) & 0xFF;
+			return byt;
+		}
 
-				// - write Byte
-				mapContent[pos] = (byte) byt;
-				pos++;
+		// - Read Big-Ending 2 Byte Number
+		int readBEWord() {
+			return readByte() | (readByte() << 8);
+		}
+
+		// - Read Big-Ending INT
+		int readBEInt() {
+			return readByte() | (readByte() << 8) | (readByte() << 16) | (readByte() << 24);
+		}
+
+		void skip(int count) {
+			for (int i = 0; i < count; i++) {
+				readByte();
 			}
+		}
 
-			hasBeenDecrypted = true;
-			return true;
+		void seek(int newPosition) {
+			if (newPosition < position) {
+				position = 0;
+				key = resource.cryptKey & 0xFF;
+			}
+			skip(newPosition - position);
 		}
 
-		void resetDecryptedFlag() {
-			hasBeenDecrypted = false;
+		// - read a C-Style String (ends with the first \0)
+		String readCStr(int length) {
+			int remaining = content.limit() - resource.offset - position;
+			if (remaining <= length) {
+				// - the string exceeds the file: the remaining bytes are decrypted anyway to keep the key in step with the position
+				skip(remaining);
+				return "";
+			}
+
+			byte[] text = new byte[length];
+			for (int i = 0; i < length; i++) {
+				text[i] = (byte) readByte();
+			}
+
+			// - find \0 char in buffer
+			int i = 0;
+			for (; i < length; i++) {
+				if (text[i] == 0) {
+					break;
+				}
+			}
+
+			if (i == 0) {
+				return "";
+			}
+
+			// - substring + encoding
+			return new String(text, 0, i - 1, TEXT_CHARSET);
 		}
 	}
 
@@ -112,7 +173,7 @@ class OriginalMapFileContentReader {
 	private boolean isSinglePlayerMap = false;
 	private boolean hasBuildings = false;
 
-	private byte[] mapContent;
+	private ByteBuffer mapContent;
 	@SuppressWarnings("unused")
 	private EMapStartResources startResources = EMapStartResources.HIGH_GOODS;
 
@@ -130,12 +191,38 @@ class OriginalMapFileContentReader {
 	 */
 	private static final Charset TEXT_CHARSET = Charset.forName("ISO-8859-1");
 
-	OriginalMapFileContentReader(InputStream originalMapFile) throws IOException {
+	OriginalMapFileContentReader(IListedMap originalMapFile) throws IOException {
 		// - init players
 		mapData.setPlayerCount(1);
 
-		// - read File into buffer
-		mapContent = getBytesFromInputStream(originalMapFile);
+		mapContent = openMapContent(originalMapFile);
+	}
+
+	// - maps the file into memory; if the map is not a file, the whole stream is read into a buffer
+	private static ByteBuffer openMapContent(IListedMap originalMapFile) throws IOException {
+		File file = getFile(originalMapFile);
+		ByteBuffer content;
+
+		if (file != null) {
+			// - the mapping stays valid after the channel is closed
+			try (FileChannel channel = new FileInputStream(file).getChannel()) {
+				content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		} else {
+			try (InputStream inputStream = originalMapFile.getInputStream()) {
+				content = ByteBuffer.wrap(getBytesFromInputStream(inputStream));
+			}
+		}
+
+		return content.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static File getFile(IListedMap listedMap) {
+		try {
+			return listedMap.getFile();
+		} catch (UnsupportedOperationException e) {
+			return null;
+		}
 	}
 
 	// - reads the whole stream and returns it as BYTE-Array
@@ -155,74 +242,13 @@ class OriginalMapFileContentReader {
 		}
 	}
 
-	// - Read UNSIGNED Byte from Buffer
-	private int readByteFrom(int offset) {
-		if (mapContent == null)
-			return 0;
-		return mapContent[offset] & 0xFF;
-	}
-
 	// - Read Big-Ending INT from Buffer
 	private int readBEIntFrom(int offset) {
 		if (mapContent == null) {
 			return 0;
 		} else {
-			return (mapContent[offset] & 0xFF) |
-					((mapContent[offset + 1] & 0xFF) << 8) |
-					((mapContent[offset + 2] & 0xFF) << 16) |
-					((mapContent[offset + 3] & 0xFF) << 24);
-		}
-	}
-
-	// - Read Big-Ending 2 Byte Number from Buffer
-	private int readBEWordFrom(int offset) {
-		if (mapContent == null) {
-			return 0;
-		} else {
-			return (mapContent[offset] & 0xFF) |
-					((mapContent[offset + 1] & 0xFF) << 8);
-		}
-	}
-
-	// - read the Higher 4-Bit of the buffer
-	private int readHighNibbleFrom(int offset) {
-		if (mapContent == null) {
-			return 0;
-		} else {
-			return (mapContent[offset] >> 4) & 0x0F;
-		}
-	}
-
-	// - read the Lower 4-Bit of the buffer
-	private int readLowNibbleFrom(int offset) {
-		if (mapContent == null) {
-			return 0;
-		} else {
-			return (mapContent[offset]) & 0x0F;
-		}
-
-	}
-
-	// - read a C-Style String from Buffer (ends with the first \0)
-	private String readCStrFrom(int offset, int length) {
-		if (mapContent == null || mapContent.length <= offset + length) {
-			return "";
-		}
-
-		// - find \0 char in buffer
-		int i = 0;
-		for (; i < length; i++) {
-			if (mapContent[offset + i] == 0) {
-				break;
-			}
-		}
-
-		if (i == 0) {
-			return "";
+			return mapContent.getInt(offset);
 		}
-
-		// - substring + encoding
-		return new String(mapContent, offset, i - 1, TEXT_CHARSET);
 	}
 
 	// - returns a File Resources
@@ -238,17 +264,14 @@ class OriginalMapFileContentReader {
 		mapData.fileChecksum = fileChecksum;
 
 		// - make "count" a Multiple of four
-		int count = mapContent.length & 0xFFFFFFFC;
+		int count = mapContent.limit() & 0xFFFFFFFC;
 		int currentChecksum = 0;
 
 		// - Map Content starts at Byte 8
 		for (int i = 8; i < count; i += 4) {
 
 			// - read DWord
-			int currentInt = (mapContent[i] & 0xFF) |
-					((mapContent[i + 1] & 0xFF) << 8) |
-					((mapContent[i + 2] & 0xFF) << 16) |
-					((mapContent[i + 3] & 0xFF) << 24);
+			int currentInt = mapContent.getInt(i);
 
 			// - using: Logic Right-Shift-Operator: >>>
 			currentChecksum = ((currentChecksum >>> 31) | ((currentChecksum << 1) ^ currentInt));
@@ -269,7 +292,7 @@ class OriginalMapFileContentReader {
 		}
 
 		// - Data length
-		int dataLength = mapContent.length;
+		int dataLength = mapContent.limit();
 
 		// - start of map-content
 		int filePos = 8;
@@ -305,23 +328,51 @@ class OriginalMapFileContentReader {
 
 	// - freeing the internal File-Buffer
 	void freeBuffer() {
-		mapContent = null;
+		close();
 		mapData.freeBuffer();
 	}
 
-	// - to process a map File this class loads the whole file to memory. To save memory this File-Buffer is
-	// - closed after using/when done processing. If more data are requested from the File, the File-Biffer
-	// - is loaded again with this reOpen() function.
-	void reOpen(InputStream originalMapFile) throws IOException {
-		// - read File into buffer
-		mapContent = getBytesFromInputStream(originalMapFile);
+	// - releases the file content, but keeps the data read from it
+	void close() {
+		ByteBuffer content = mapContent;
+		mapContent = null;
 
-		// - reset Crypt Info
-		for (MapResourceInfo element : resources.values()) {
-			element.resetDecryptedFlag();
+		if (content instanceof MappedByteBuffer) {
+			unmap((MappedByteBuffer) content);
+		}
+	}
+
+	// - releases the mapping right away instead of when the buffer is garbage collected. The cleaner of direct buffers is not part of the API,
+	// - where it cannot be accessed (e.g. on Android), the mapping is left to the garbage collector.
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			try {
+				// - Java 9 and later
+				Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+				unsafeField.setAccessible(true);
+				invokeCleaner.invoke(unsafeField.get(null), buffer);
+			} catch (NoSuchMethodException e) {
+				// - Java 8
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// - the mapping is released by the garbage collector
 		}
 	}
 
+	// - to process a map File this class maps the file to memory. To release the mapping this buffer is freed after
+	// - using/when done processing. If more data are requested from the File, the file is mapped again with this
+	// - reOpen() function.
+	void reOpen(IListedMap originalMapFile) throws IOException {
+		close();
+		mapContent = openMapContent(originalMapFile);
+	}
+
 	void readBasicMapInformation() throws MapLoadException {
 		this.readBasicMapInformation(0, 0);
 	}
@@ -333,7 +384,7 @@ class OriginalMapFileContentReader {
 		hasBuildings = false;
 
 		// - safety checks
-		if (mapContent == null || mapContent.length < 100) {
+		if (mapContent == null || mapContent.limit() < 100) {
 			return;
 		}
 
@@ -361,16 +412,9 @@ class OriginalMapFileContentReader {
 			return;
 		}
 
-		// TODO: original map: the whole AREA-Block is decrypted but we only need the first 4 byte. Problem... maybe later we need the rest but only
-		// if this map is selected for playing AND there was no freeBuffer() and reOpen() call in between.
-		// - Decrypt this resource if necessary
-		filePart.doDecrypt();
-
-		// - file position of this part
-		int pos = filePart.offset;
-
+		// - only the first 4 bytes are decrypted, the landscape is not touched
 		// - read height and width (they are the same)
-		widthHeight = readBEIntFrom(pos);
+		widthHeight = filePart.read().readBEInt();
 	}
 
 	short[] getPreviewImage() {
@@ -395,24 +439,21 @@ class OriginalMapFileContentReader {
 			return outImg;
 		}
 
-		// - Decrypt this resource if necessary
-		filePart.doDecrypt();
-
-		// - file position
-		int pos = filePart.offset;
+		// - only this resource is decrypted, up to the last sampled pixel
+		ResourceReader reader = filePart.read();
 
 		// - height and width are the same
-		int widthAndHeight = readBEWordFrom(pos);
-		pos += 2;
+		int widthAndHeight = reader.readBEWord();
 		@SuppressWarnings("unused")
-		int unknown = readBEWordFrom(pos);
-		pos += 2;
+		int unknown = reader.readBEWord();
 
 		int scaleX = widthAndHeight / width;
 		int scaleY = widthAndHeight / height;
 
 		int outIndex = 0;
-		int offset = pos;
+		int offset = reader.getPosition();
+		int lastIndex = -1;
+		int colorValue = 0;
 
 		for (int y = 0; y < height; y++) {
 			int srcRow = offset + (scaleY * y) * widthAndHeight * 2;
@@ -421,7 +462,12 @@ class OriginalMapFileContentReader {
 
 				int inIndex = srcRow + (x * scaleX) * 2;
 
-				int colorValue = (mapContent[inIndex] & 0xFF) | ((mapContent[inIndex + 1] & 0xFF) << 8);
+				// - the same pixel is sampled again if the preview is smaller than the image
+				if (inIndex != lastIndex) {
+					reader.seek(inIndex);
+					colorValue = reader.readBEWord();
+					lastIndex = inIndex;
+				}
 
 				// - the Settlers Remake uses rgba4444 colors
 				outImg[outIndex] = (short) Color.convert565to4444(colorValue);
@@ -432,8 +478,8 @@ class OriginalMapFileContentReader {
 		return outImg;
 	}
 
-	private MapResourceInfo findAndDecryptFilePartSafe(EOriginalMapFilePartType partType) throws MapLoadException {
-		Optional<MapResourceInfo> filePart = findAndDecryptFilePart(partType);
+	private MapResourceInfo findFilePartSafe(EOriginalMapFilePartType partType) throws MapLoadException {
+		Optional<MapResourceInfo> filePart = findFilePart(partType);
 		if (filePart.isPresent()) {
 			return filePart.get();
 		} else {
@@ -441,17 +487,13 @@ class OriginalMapFileContentReader {
 		}
 	}
 
-	private Optional<MapResourceInfo> findAndDecryptFilePart(EOriginalMapFilePartType partType) throws MapLoadException {
+	private Optional<MapResourceInfo> findFilePart(EOriginalMapFilePartType partType) {
 		MapResourceInfo filePart = findResource(partType);
 
 		if ((filePart == null) || (filePart.size == 0)) {
 			return Optional.empty();
 		}
 
-		// Decrypt this resource if necessary
-		filePart.doDecrypt();
-
-		// Call consumer
 		return Optional.of(filePart);
 	}
 
@@ -460,12 +502,13 @@ class OriginalMapFileContentReader {
 			return mapQuestText;
 		}
 
-		return findAndDecryptFilePart(EOriginalMapFilePartType.QUEST_TEXT)
-				.map(filePart -> {
-					mapQuestText = readCStrFrom(filePart.offset, filePart.size);
-					return mapQuestText;
-				})
-				.orElse("");
+		Optional<MapResourceInfo> filePart = findFilePart(EOriginalMapFilePartType.QUEST_TEXT);
+		if (!filePart.isPresent()) {
+			return "";
+		}
+
+		mapQuestText = filePart.get().read().readCStr(filePart.get().size);
+		return mapQuestText;
 	}
 
 	private String readMapQuestTip() throws MapLoadException {
@@ -473,23 +516,22 @@ class OriginalMapFileContentReader {
 			return mapQuestTip;
 		}
 
-		return findAndDecryptFilePart(EOriginalMapFilePartType.QUEST_TIP).map(filePart -> {
-			mapQuestTip = readCStrFrom(filePart.offset, filePart.size);
-			return mapQuestTip;
-		}).orElse("");
+		Optional<MapResourceInfo> filePart = findFilePart(EOriginalMapFilePartType.QUEST_TIP);
+		if (!filePart.isPresent()) {
+			return "";
+		}
+
+		mapQuestTip = filePart.get().read().readCStr(filePart.get().size);
+		return mapQuestTip;
 	}
 
 	// - Read some common information from the map-file
 	private void readMapInfo() throws MapLoadException {
-		MapResourceInfo filePartOptional = findAndDecryptFilePartSafe(EOriginalMapFilePartType.MAP_INFO);
-
-		// - file position
-		int pos = filePartOptional.offset;
+		ResourceReader reader = findFilePartSafe(EOriginalMapFilePartType.MAP_INFO).read();
 
 		// ----------------------------------
 		// - read mapType (single / multiplayer map?)
-		int mapType = readBEIntFrom(pos);
-		pos += 4;
+		int mapType = reader.readBEInt();
 
 		if (mapType == 1) {
 			isSinglePlayerMap = true;
@@ -501,14 +543,13 @@ class OriginalMapFileContentReader {
 
 		// ----------------------------------
 		// - read Player count
-		int playerCount = readBEIntFrom(pos);
-		pos += 4;
+		int playerCount = reader.readBEInt();
 
 		mapData.setPlayerCount(playerCount);
 
 		// ----------------------------------
 		// - read start resources
-		int startResourcesValue = readBEIntFrom(pos);
+		int startResourcesValue = reader.readBEInt();
 		this.startResources = EMapStartResources.fromMapValue(startResourcesValue);
 	}
 
@@ -516,16 +557,14 @@ class OriginalMapFileContentReader {
 	void readBuildings() throws MapLoadException {
 		hasBuildings = false;
 
-		Optional<MapResourceInfo> filePartOptional = findAndDecryptFilePart(EOriginalMapFilePartType.BUILDINGS);
+		Optional<MapResourceInfo> filePartOptional = findFilePart(EOriginalMapFilePartType.BUILDINGS);
 
 		if (filePartOptional.isPresent()) {
 			MapResourceInfo filePart = filePartOptional.get();
-			// - file position
-			int pos = filePart.offset;
+			ResourceReader reader = filePart.read();
 
 			// - Number of buildings
-			int buildingsCount = readBEIntFrom(pos);
-			pos += 4;
+			int buildingsCount = reader.readBEInt();
 
 			// - safety check
 			if ((buildingsCount * 12 > filePart.size) || (buildingsCount < 0)) {
@@ -537,36 +576,34 @@ class OriginalMapFileContentReader {
 			// - read all Buildings
 			for (int i = 0; i < buildingsCount; i++) {
 
-				int party = readByteFrom(pos++); // - Party starts with 0
-				int buildingType = readByteFrom(pos++);
-				int posX = readBEWordFrom(pos);
-				pos += 2;
-				int posY = readBEWordFrom(pos);
-				pos += 2;
+				int party = reader.readByte(); // - Party starts with 0
+				int buildingType = reader.readByte();
+				int posX = reader.readBEWord();
+				int posY = reader.readBEWord();
 
-				pos++; // not used - maybe a filling byte to make the record 12 Byte (= 3 INTs) long or unknown?!
+				reader.skip(1); // not used - maybe a filling byte to make the record 12 Byte (= 3 INTs) long or unknown?!
 
 				// -----------
 				// - number of soldier in building is saved as 4-Bit (=Nibble):
-				int countSword1 = readHighNibbleFrom(pos);
-				int countSword2 = readLowNibbleFrom(pos);
-				pos++;
+				int soldiers = reader.readByte();
+				int countSword1 = highNibble(soldiers);
+				int countSword2 = lowNibble(soldiers);
 
-				int countArcher2 = readHighNibbleFrom(pos);
-				int countArcher3 = readLowNibbleFrom(pos);
-				pos++;
+				soldiers = reader.readByte();
+				int countArcher2 = highNibble(soldiers);
+				int countArcher3 = lowNibble(soldiers);
 
-				int countSword3 = readHighNibbleFrom(pos);
-				int countArcher1 = readLowNibbleFrom(pos);
-				pos++;
+				soldiers = reader.readByte();
+				int countSword3 = highNibble(soldiers);
+				int countArcher1 = lowNibble(soldiers);
 
-				int countSpear3 = readHighNibbleFrom(pos);
+				soldiers = reader.readByte();
+				int countSpear3 = highNibble(soldiers);
 				// low nibble is a not used count
-				pos++;
 
-				int countSpear1 = readHighNibbleFrom(pos);
-				int countSpear2 = readLowNibbleFrom(pos);
-				pos++;
+				soldiers = reader.readByte();
+				int countSpear1 = highNibble(soldiers);
+				int countSpear2 = lowNibble(soldiers);
 
 				// -------------
 				// - update data
@@ -577,16 +614,14 @@ class OriginalMapFileContentReader {
 
 	// - Read stacks from the map-file
 	void readStacks() throws MapLoadException {
-		Optional<MapResourceInfo> filePartOptional = findAndDecryptFilePart(EOriginalMapFilePartType.STACKS);
+		Optional<MapResourceInfo> filePartOptional = findFilePart(EOriginalMapFilePartType.STACKS);
 
 		if (filePartOptional.isPresent()) {
 			MapResourceInfo filePart = filePartOptional.get();
-			// - file position
-			int pos = filePart.offset;
+			ResourceReader reader = filePart.read();
 
 			// - Number of buildings
-			int stackCount = readBEIntFrom(pos);
-			pos += 4;
+			int stackCount = reader.readBEInt();
 
 			// - safety check
 			if ((stackCount * 8 > filePart.size) || (stackCount < 0)) {
@@ -596,15 +631,13 @@ class OriginalMapFileContentReader {
 			// - read all Stacks
 			for (int i = 0; i < stackCount; i++) {
 
-				int posX = readBEWordFrom(pos);
-				pos += 2;
-				int posY = readBEWordFrom(pos);
-				pos += 2;
+				int posX = reader.readBEWord();
+				int posY = reader.readBEWord();
 
-				int stackType = readByteFrom(pos++);
-				int count = readByteFrom(pos++);
+				int stackType = reader.readByte();
+				int count = reader.readByte();
 
-				pos += 2; // not used - maybe: padding to size of 8 (2 INTs)
+				reader.skip(2); // not used - maybe: padding to size of 8 (2 INTs)
 
 				// -------------
 				// - update data
@@ -615,16 +648,14 @@ class OriginalMapFileContentReader {
 
 	// - Read settlers from the map-file
 	void readSettlers() throws MapLoadException {
-		Optional<MapResourceInfo> filePartOptional = findAndDecryptFilePart(EOriginalMapFilePartType.SETTLERS);
+		Optional<MapResourceInfo> filePartOptional = findFilePart(EOriginalMapFilePartType.SETTLERS);
 
 		if (filePartOptional.isPresent()) {
 			MapResourceInfo filePart = filePartOptional.get();
-			// - file position
-			int pos = filePart.offset;
+			ResourceReader reader = filePart.read();
 
 			// - Number of buildings
-			int settlerCount = readBEIntFrom(pos);
-			pos += 4;
+			int settlerCount = reader.readBEInt();
 
 			// - safety check
 			if ((settlerCount * 6 > filePart.size) || (settlerCount < 0)) {
@@ -634,13 +665,11 @@ class OriginalMapFileContentReader {
 			// - read all Stacks
 			for (int i = 0; i < settlerCount; i++) {
 
-				int party = readByteFrom(pos++);
-				int settlerType = readByteFrom(pos++);
+				int party = reader.readByte();
+				int settlerType = reader.readByte();
 
-				int posX = readBEWordFrom(pos);
-				pos += 2;
-				int posY = readBEWordFrom(pos);
-				pos += 2;
+				int posX = reader.readBEWord();
+				int posY = reader.readBEWord();
 
 				// -------------
 				// - update data
@@ -651,41 +680,29 @@ class OriginalMapFileContentReader {
 
 	// - Read the Player Info
 	private void readPlayerInfo() throws MapLoadException {
-		MapResourceInfo filePart = findAndDecryptFilePartSafe(EOriginalMapFilePartType.PLAYER_INFO);
-
-		// - file position
-		int pos = filePart.offset;
+		ResourceReader reader = findFilePartSafe(EOriginalMapFilePartType.PLAYER_INFO).read();
 
 		for (int i = 0; i < mapData.getPlayerCount(); i++) {
 
-			int nation = readBEIntFrom(pos);
-			pos += 4;
-
-			int startX = readBEIntFrom(pos);
-			pos += 4;
+			int nation = reader.readBEInt();
+			int startX = reader.readBEInt();
+			int startY = reader.readBEInt();
 
-			int startY = readBEIntFrom(pos);
-			pos += 4;
-
-			String playerName = readCStrFrom(pos, 33);
-			pos += 33;
+			String playerName = reader.readCStr(33);
 
 			mapData.setPlayer(i, startX, startY, nation, playerName);
 		}
 	}
 
 	/**
-	 * Reads in the Map Data / Landscape and MapObjects like trees
+	 * Reads in the Map Data / Landscape and MapObjects like trees. The area is decrypted while it is passed to the map data, no decrypted copy of it
+	 * is kept.
 	 */
 	void readMapData() throws MapLoadException {
-		MapResourceInfo filePart = findAndDecryptFilePartSafe(EOriginalMapFilePartType.AREA);
-
-		// - file position
-		int pos = filePart.offset;
+		ResourceReader reader = findFilePartSafe(EOriginalMapFilePartType.AREA).read();
 
 		// - height and width are the same
-		int widthHeight = readBEIntFrom(pos);
-		pos += 4;
+		int widthHeight = reader.readBEInt();
 
 		// - init size of MapData
 		mapData.setWidthHeight(widthHeight);
@@ -694,17 +711,27 @@ class OriginalMapFileContentReader {
 		int dataCount = widthHeight * widthHeight;
 
 		for (int i = 0; i < dataCount; i++) {
-			mapData.setLandscapeHeight(i, readByteFrom(pos++));
-			mapData.setLandscape(i, readByteFrom(pos++));
-			mapData.setMapObject(i, readByteFrom(pos++));
-			readByteFrom(pos++); // - which Player is the owner of this position
-			mapData.setAccessible(i, mapContent[pos++]);
+			mapData.setLandscapeHeight(i, reader.readByte());
+			mapData.setLandscape(i, reader.readByte());
+			mapData.setMapObject(i, reader.readByte());
+			reader.readByte(); // - which Player is the owner of this position
+			mapData.setAccessible(i, (byte) reader.readByte());
 
-			mapData.setResources(i, readHighNibbleFrom(pos), readLowNibbleFrom(pos));
-			pos++;
+			int resources = reader.readByte();
+			mapData.setResources(i, highNibble(resources), lowNibble(resources));
 		}
 	}
 
+	// - the Higher 4-Bit of the byte
+	private static int highNibble(int value) {
+		return (value >> 4) & 0x0F;
+	}
+
+	// - the Lower 4-Bit of the byte
+	private static int lowNibble(int value) {
+		return value & 0x0F;
+	}
+
 	public void addStartTowerMaterialsAndSettlers(EMapStartResources startResources) {
 		addStartTowerMaterialsAndSettlers(startResources, null);
 	}
@@ -39,33 +39,68 @@ import jsettlers.logic.player.PlayerSetting;
  */
 public class OriginalMapLoader extends MapLoader {
 	private final IListedMap listedMap;
-	private final OriginalMapFileContentReader mapContent;
 	private final Date creationDate;
 	private final String fileName;
-	private Boolean isMapOK = false;
+	private OriginalMapFileContentReader mapContent;
 
 	public OriginalMapLoader(IListedMap listedMap) throws MapLoadException {
 		this.listedMap = listedMap;
 		fileName = listedMap.getFileName();
 		creationDate = getCreationDateFrom(listedMap);
 		try {
-			mapContent = new OriginalMapFileContentReader(listedMap.getInputStream());
+			mapContent = new OriginalMapFileContentReader(listedMap);
 		} catch (IOException e) {
 			throw new MapLoadException(e);
 		}
 
-		if (!CommonConstants.DISABLE_ORIGINAL_MAPS_CHECKSUM && !mapContent.isChecksumValid()) {
-			throw new MapLoadException("Checksum of original map (" + fileName + ") is not valid!");
+		try {
+			if (!CommonConstants.DISABLE_ORIGINAL_MAPS_CHECKSUM && !mapContent.isChecksumValid()) {
+				throw new MapLoadException("Checksum of original map (" + fileName + ") is not valid!");
+			}
+
+			// - read all important information from file
+			mapContent.loadMapResources();
+			mapContent.readBasicMapInformation(MapFileHeader.PREVIEW_IMAGE_SIZE, MapFileHeader.PREVIEW_IMAGE_SIZE);
+		} finally {
+			// - free the DataBuffer
+			mapContent.freeBuffer();
 		}
 
-		// - read all important information from file
-		mapContent.loadMapResources();
-		mapContent.readBasicMapInformation(MapFileHeader.PREVIEW_IMAGE_SIZE, MapFileHeader.PREVIEW_IMAGE_SIZE);
+		header = new MapFileHeader(
+				MapFileHeader.MapType.NORMAL,
+				getMapName(),
+				mapContent.getChecksum() + getMapName(),
+				getQuestText(),
+				(short) mapContent.widthHeight,
+				(short) mapContent.widthHeight,
+				(short) getMinPlayers(),
+				(short) mapContent.mapData.getPlayerCount(),
+				getCreationDate(),
+				mapContent.getPreviewImage());
+	}
 
-		// - free the DataBuffer
-		mapContent.freeBuffer();
+	/**
+	 * Creates a loader for an original map whose header is already known, e.g. from a {@link jsettlers.logic.map.loading.list.MapHeaderIndex}.
+	 * The map file is not read before the map is loaded.
+	 * 
+	 * @param listedMap
+	 *            The map file.
+	 * @param header
+	 *            The header created by {@link #getFileHeader()} for this file.
+	 */
+	public OriginalMapLoader(IListedMap listedMap, MapFileHeader header) {
+		this.listedMap = listedMap;
+		this.header = header;
+		fileName = listedMap.getFileName();
+		creationDate = header.getCreationDate();
+	}
 
-		isMapOK = true;
+	private String getQuestText() {
+		try {
+			return mapContent.readMapQuestText();
+		} catch (MapLoadException e) {
+			return "";
+		}
 	}
 
 	private Date getCreationDateFrom(IListedMap listedMap) {
@@ -79,22 +114,12 @@ public class OriginalMapLoader extends MapLoader {
 	// ---------------------------//
 	// -- Interface MapLoader --//
 	// -------------------------//
+	/**
+	 * The id of the map is stored as base map id in the header.
+	 */
 	@Override
 	public MapFileHeader getFileHeader() {
-		if (isMapOK) {
-			return new MapFileHeader(
-					MapFileHeader.MapType.NORMAL,
-					getMapName(),
-					getMapId(),
-					getDescription(),
-					(short) mapContent.widthHeight,
-					(short) mapContent.widthHeight,
-					(short) getMinPlayers(),
-					(short) getMaxPlayers(),
-					getCreationDate(),
-					getImage());
-		}
-		return null;
+		return header;
 	}
 
 	@Override
@@ -127,7 +152,7 @@ public class OriginalMapLoader extends MapLoader {
 
 	@Override
 	public int getMaxPlayers() {
-		return mapContent.mapData.getPlayerCount();
+		return header.getMaxPlayers();
 	}
 
 	@Override
@@ -137,21 +162,17 @@ public class OriginalMapLoader extends MapLoader {
 
 	@Override
 	public String getDescription() {
-		try {
-			return mapContent.readMapQuestText();
-		} catch (MapLoadException e) {
-			return "";
-		}
+		return header.getDescription();
 	}
 
 	@Override
 	public short[] getImage() {
-		return mapContent.getPreviewImage();
+		return header.getPreviewImage();
 	}
 
 	@Override
 	public String getMapId() {
-		return mapContent.getChecksum() + getMapName();
+		return header.getBaseMapId();
 	}
 
 	@Override
@@ -213,24 +234,33 @@ public class OriginalMapLoader extends MapLoader {
 	private void loadMapContent(EMapStartResources startResources, PlayerSetting[] playerSettings) throws MapLoadException {
 		try {
 			// - the map buffer of the class may is closed and need to reopen!
-			mapContent.reOpen(this.listedMap.getInputStream());
+			if (mapContent == null) {
+				mapContent = new OriginalMapFileContentReader(this.listedMap);
+			} else {
+				mapContent.reOpen(this.listedMap);
+			}
 		} catch (Exception e) {
 			throw new MapLoadException(e);
 		}
 
-		// - load all common map information
-		mapContent.loadMapResources();
-		mapContent.readBasicMapInformation();
-
-		// - read the landscape
-		mapContent.readMapData();
-		// - read Stacks
-		mapContent.readStacks();
-		// - read Settlers
-		mapContent.readSettlers();
-		// - read the buildings
-		mapContent.readBuildings();
-		// - add player resources
-		mapContent.addStartTowerMaterialsAndSettlers(startResources, playerSettings);
+		try {
+			// - load all common map information
+			mapContent.loadMapResources();
+			mapContent.readBasicMapInformation();
+
+			// - read the landscape
+			mapContent.readMapData();
+			// - read Stacks
+			mapContent.readStacks();
+			// - read Settlers
+			mapContent.readSettlers();
+			// - read the buildings
+			mapContent.readBuildings();
+			// - add player resources
+			mapContent.addStartTowerMaterialsAndSettlers(startResources, playerSettings);
+		} finally {
+			// - the map data has been read, the file is not needed anymore
+			mapContent.close();
+		}
 	}
 }
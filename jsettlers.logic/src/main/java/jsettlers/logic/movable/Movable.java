@@ -45,14 +45,16 @@ import jsettlers.logic.movable.interfaces.ILogicMovable;
 import jsettlers.logic.movable.strategies.FleeStrategy;
 import jsettlers.logic.movable.strategies.military.SoldierStrategy;
 import jsettlers.logic.player.Player;
+import jsettlers.logic.timer.IPreparableTimerable;
 import jsettlers.logic.timer.RescheduleTimer;
+import jsettlers.logic.timer.TimerableHandle;
 
 /**
  * Central Movable class of JSettlers.
  *
  * @author Andreas Eberle
  */
-public final class Movable implements ILogicMovable {
+public final class Movable implements ILogicMovable, IPreparableTimerable {
 	private static final int SHIP_PUSH_DISTANCE = 10;
 
 	private static final HashMap<Integer, ILogicMovable>      movablesByID = new HashMap<>();
@@ -62,6 +64,7 @@ public final class Movable implements ILogicMovable {
 	protected final AbstractMovableGrid grid;
 	private final   int                 id;
 	private final   Player              player;
+	private final   TimerableHandle     timerHandle;
 
 	private EMovableState state = EMovableState.DOING_NOTHING;
 
@@ -93,6 +96,8 @@ public final class Movable implements ILogicMovable {
 	private transient boolean selected    = false;
 	private transient boolean soundPlayed = false;
 
+	private transient PreparedPath preparedPath;
+
 	// the following data only for ship passengers
 	private ILogicMovable ferryToEnter = null;
 
@@ -106,7 +111,7 @@ public final class Movable implements ILogicMovable {
 
 		this.direction = EDirection.VALUES[MatchConstants.random().nextInt(EDirection.NUMBER_OF_DIRECTIONS)];
 
-		RescheduleTimer.add(this, Constants.MOVABLE_INTERRUPT_PERIOD);
+		this.timerHandle = RescheduleTimer.add(this, Constants.MOVABLE_INTERRUPT_PERIOD);
 
 		this.id = nextID++;
 		movablesByID.put(this.id, this);
@@ -165,26 +170,41 @@ public final class Movable implements ILogicMovable {
 		}
 	}
 
+	@Override
+	public void prepareTimerEvent() {
+		preparedPath = null;
+		if (state == EMovableState.DEAD || getRemainingAnimationTime() > 0) {
+			return;
+		}
+
+		ShortPoint2D target = null;
+		if (requestedTargetPosition != null && strategy.canBeControlledByPlayer()) {
+			target = requestedTargetPosition;
+		} else if (state == EMovableState.PATHING && path != null && path.hasNextStep() && grid.getMovableAt(path.nextX(), path.nextY()) == null
+				&& !grid.isValidNextPathPosition(this, path.getNextPos(), path.getTargetPosition())) {
+			target = path.getTargetPosition(); // the path is blocked => pathingAction() will search a new one
+		}
+
+		if (target != null) {
+			preparedPath = new PreparedPath(grid, this, target);
+		}
+	}
+
 	@Override
 	public int timerEvent() {
+		int delay = executeTimerEvent();
+		preparedPath = null;
+		return delay;
+	}
+
+	private int executeTimerEvent() {
 		if (state == EMovableState.DEAD) {
 			return -1;
 		}
 
-		switch (state) { // ensure animation is finished, if not, reschedule
-			case GOING_SINGLE_STEP:
-			case PLAYING_ACTION:
-			case TAKE:
-			case DROP:
-			case PATHING:
-			case WAITING:
-				int remainingAnimationTime = animationStartTime + animationDuration - MatchConstants.clock().getTime();
-				if (remainingAnimationTime > 0) {
-					return remainingAnimationTime;
-				}
-				break;
-			default:
-				break;
+		int remainingAnimationTime = getRemainingAnimationTime(); // ensure animation is finished, if not, reschedule
+		if (remainingAnimationTime > 0) {
+			return remainingAnimationTime;
 		}
 
 		switch (state) {
@@ -290,6 +310,31 @@ public final class Movable implements ILogicMovable {
 		return animationDuration;
 	}
 
+	private int getRemainingAnimationTime() {
+		switch (state) {
+			case GOING_SINGLE_STEP:
+			case PLAYING_ACTION:
+			case TAKE:
+			case DROP:
+			case PATHING:
+			case WAITING:
+				return animationStartTime + animationDuration - MatchConstants.clock().getTime();
+			default:
+				return 0;
+		}
+	}
+
+	private Path calculatePathTo(ShortPoint2D targetPos) {
+		PreparedPath prepared = preparedPath;
+		preparedPath = null;
+
+		if (prepared != null && prepared.isValidFor(grid, this, targetPos)) {
+			return prepared.getPath();
+		} else {
+			return grid.calculatePathTo(this, targetPos);
+		}
+	}
+
 	private void pathingAction() {
 		if (path == null || !path.hasNextStep() || ferryToEnter == null && !strategy.checkPathStepPreconditions(path.getTargetPosition(), path.getStep())) {
 			// if path is finished, or canceled by strategy return from here
@@ -310,7 +355,7 @@ public final class Movable implements ILogicMovable {
 			} else { // next position is invalid
 				movableAction = EMovableAction.NO_ACTION;
 				animationDuration = Constants.MOVABLE_INTERRUPT_PERIOD; // recheck shortly
-				Path newPath = grid.calculatePathTo(this, path.getTargetPosition()); // try to find a new path
+				Path newPath = calculatePathTo(path.getTargetPosition()); // try to find a new path
 
 				if (newPath == null) { // no path found
 					setState(EMovableState.DOING_NOTHING);
@@ -375,7 +420,7 @@ public final class Movable implements ILogicMovable {
 
 	@Override
 	public void leaveFerryAt(ShortPoint2D position) {
-		this.position = position;
+		changePosition(position);
 		setState(EMovableState.DOING_NOTHING);
 		requestedTargetPosition = null;
 		grid.enterPosition(position, this, true);
@@ -391,7 +436,7 @@ public final class Movable implements ILogicMovable {
 		playAnimation(EMovableAction.WALKING, movableType.getStepDurationMs());
 		grid.leavePosition(this.position, this);
 		grid.enterPosition(position, this, false);
-		this.position = position;
+		changePosition(position);
 		isRightstep = !isRightstep;
 	}
 
@@ -657,7 +702,7 @@ public final class Movable implements ILogicMovable {
 	final boolean goToPos(ShortPoint2D targetPos) {
 		assert state == EMovableState.DOING_NOTHING : "can't do goToPos() if state isn't DOING_NOTHING. curr state: " + state;
 
-		Path path = grid.calculatePathTo(this, targetPos);
+		Path path = calculatePathTo(targetPos);
 		if (path == null) {
 			if (ferryToEnter != null) {
 				enterFerry();
@@ -715,7 +760,13 @@ public final class Movable implements ILogicMovable {
 			grid.enterPosition(position, this, true);
 		}
 
+		changePosition(position);
+	}
+
+	private void changePosition(ShortPoint2D position) {
+		ShortPoint2D oldPosition = this.position;
 		this.position = position;
+		strategy.positionChanged(oldPosition);
 	}
 
 	final void setVisible(boolean visible) {
@@ -826,6 +877,7 @@ public final class Movable implements ILogicMovable {
 
 		this.state = EMovableState.DEAD;
 		this.selected = false;
+		timerHandle.cancel();
 
 		movablesByID.remove(this.getID());
 		allMovables.remove(this);
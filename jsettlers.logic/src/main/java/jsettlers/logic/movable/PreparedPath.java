@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.movable;
+
+import jsettlers.algorithms.path.Path;
+import jsettlers.common.movable.EMovableType;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.movable.interfaces.AbstractMovableGrid;
+
+/**
+ * A path that has been calculated in the parallel preparation phase of a {@link Movable}. It may only be used if neither the requester nor the
+ * grid changed in a way that could change the result of the path calculation.
+ */
+final class PreparedPath {
+	private final ShortPoint2D start;
+	private final ShortPoint2D target;
+	private final EMovableType movableType;
+	private final long pathfindingVersion;
+	private final Path path;
+
+	PreparedPath(AbstractMovableGrid grid, Movable requester, ShortPoint2D target) {
+		this.start = requester.getPosition();
+		this.target = target;
+		this.movableType = requester.getMovableType();
+		this.pathfindingVersion = grid.getPathfindingVersion();
+		this.path = grid.calculatePathConcurrently(requester, target);
+	}
+
+	boolean isValidFor(AbstractMovableGrid grid, Movable requester, ShortPoint2D target) {
+		return this.pathfindingVersion == grid.getPathfindingVersion()
+				&& this.movableType == requester.getMovableType()
+				&& this.start.equals(requester.getPosition())
+				&& this.target.equals(target);
+	}
+
+	Path getPath() {
+		return path;
+	}
+}
@@ -61,6 +61,17 @@ public abstract class AbstractMovableGrid extends AbstractStrategyGrid {
 
 	public abstract Path calculatePathTo(IPathCalculatable pathCalculatable, ShortPoint2D targetPos);
 
+	/**
+	 * Calculates the same path as {@link #calculatePathTo(IPathCalculatable, ShortPoint2D)}, but can be called by multiple threads at once as long as
+	 * the grid is not modified.
+	 */
+	public abstract Path calculatePathConcurrently(IPathCalculatable pathCalculatable, ShortPoint2D targetPos);
+
+	/**
+	 * @return A version number that changes whenever the result of a path calculation may change.
+	 */
+	public abstract long getPathfindingVersion();
+
 	public abstract Path searchDijkstra(IPathCalculatable pathCalculateable, short centerX, short centerY, short radius, ESearchType searchType);
 
 	public abstract Path searchInArea(IPathCalculatable pathCalculateable, short centerX, short centerY, short radius, ESearchType searchType);
@@ -23,6 +23,7 @@ import jsettlers.common.material.EMaterialType;
 import jsettlers.common.material.ESearchType;
 import jsettlers.common.movable.EDirection;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageable;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBearer;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBricklayer;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableDigger;
@@ -55,6 +56,16 @@ public abstract class AbstractStrategyGrid implements Serializable {
 
 	public abstract void removeJobless(IManageableBricklayer bricklayer);
 
+	/**
+	 * Informs the partition the jobless is registered at that its position changed.
+	 *
+	 * @param jobless
+	 * 		The jobless bearer, worker, digger or bricklayer that moved.
+	 * @param oldPosition
+	 * 		The position of the jobless before it moved.
+	 */
+	public abstract void joblessPositionChanged(IManageable jobless, ShortPoint2D oldPosition);
+
 	/**
 	 * Take a material from the stack at given position of given {@link EMaterialType}.
 	 *
@@ -308,6 +308,13 @@ public final class BearerMovableStrategy extends MovableStrategy implements IMan
 		state = EBearerState.DEAD_OBJECT;
 	}
 
+	@Override
+	protected void positionChanged(ShortPoint2D oldPosition) {
+		if (state == EBearerState.JOBLESS) {
+			super.getGrid().joblessPositionChanged(this, oldPosition);
+		}
+	}
+
 	@Override
 	protected void pathAborted(ShortPoint2D pathTarget) {
 		if (state != EBearerState.JOBLESS) {
@@ -116,6 +116,13 @@ public class BricklayerStrategy extends MovableStrategy implements IManageableBr
 		state = EBricklayerState.DEAD_OBJECT;
 	}
 
+	@Override
+	protected void positionChanged(ShortPoint2D oldPosition) {
+		if (state == EBricklayerState.JOBLESS) {
+			super.getGrid().joblessPositionChanged(this, oldPosition);
+		}
+	}
+
 	@Override
 	protected void pathAborted(ShortPoint2D pathTarget) {
 		if (constructionSite != null) {
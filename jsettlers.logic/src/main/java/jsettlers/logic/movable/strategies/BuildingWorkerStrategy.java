@@ -525,6 +525,13 @@ public final class BuildingWorkerStrategy extends MovableStrategy implements IMa
 		clearMark();
 	}
 
+	@Override
+	protected void positionChanged(ShortPoint2D oldPosition) {
+		if (isJobless()) {
+			super.getGrid().joblessPositionChanged(this, oldPosition);
+		}
+	}
+
 	@Override
 	protected void pathAborted(ShortPoint2D pathTarget) {
 		if (currentJob != null) {
@@ -181,6 +181,13 @@ public final class DiggerStrategy extends MovableStrategy implements IManageable
 		state = EDiggerState.DEAD_OBJECT;
 	}
 
+	@Override
+	protected void positionChanged(ShortPoint2D oldPosition) {
+		if (state == EDiggerState.JOBLESS) {
+			super.getGrid().joblessPositionChanged(this, oldPosition);
+		}
+	}
+
 	@Override
 	protected void pathAborted(ShortPoint2D pathTarget) {
 		if (requester != null) {
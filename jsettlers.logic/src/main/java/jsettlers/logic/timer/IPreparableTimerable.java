@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+/**
+ * An {@link IScheduledTimerable} that can prepare its next {@link #timerEvent()} concurrently.
+ * <p />
+ * If {@link jsettlers.logic.constants.MatchConstants#ENABLE_PARALLEL_TIMERABLE_PREPARATION} is enabled, the {@link RescheduleTimer} calls
+ * {@link #prepareTimerEvent()} of all timerables of a slot in parallel before it executes the slot serially.
+ */
+public interface IPreparableTimerable extends IScheduledTimerable {
+
+	/**
+	 * Prepares the next {@link #timerEvent()}. This method is called concurrently for many timerables and MUST NOT change any game state. Results
+	 * may only be used by {@link #timerEvent()} if they are still valid when it is called, so that the game runs exactly as without preparation.
+	 */
+	void prepareTimerEvent();
+}
@@ -20,27 +20,55 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 
+import jsettlers.common.metrics.Counter;
+import jsettlers.common.metrics.Histogram;
+import jsettlers.common.metrics.MetricsRegistry;
+import jsettlers.common.utils.collections.list.DoubleLinkedList;
 import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.network.client.interfaces.IGameClock;
 import jsettlers.network.synchronic.timer.INetworkTimerable;
 
+import static java8.util.stream.StreamSupport.parallelStream;
+
+/**
+ * Hierarchical timing wheel executing the {@link IScheduledTimerable}s of the game.
+ * <p />
+ * Level 0 has one slot per {@link #TIME_SLICE} tick, every higher level has slots covering a whole revolution of the level below. Timerables
+ * due in a higher level are cascaded down when the lower level starts a new revolution. As every slot is only filled from a single cascade
+ * followed by direct adds, the timerables of a tick are executed in the order they have been scheduled.
+ */
 public final class RescheduleTimer implements INetworkTimerable, Serializable {
-	private static final long serialVersionUID = -1962430988827211391L;
+	private static final long serialVersionUID = 5386357925137564035L;
 
-	private static final int FUTURE_TIME = 32000;
 	private static final short TIME_SLICE = 25; // ms
-	private static final int TIME_SLOTS = FUTURE_TIME / TIME_SLICE;
+
+	/**
+	 * Bit offsets of the levels in the tick number. Level 0 covers 256 ticks (6.4 s), the upper levels 64 slots each.
+	 */
+	private static final int[] LEVEL_SHIFTS = { 0, 8, 14, 20, 26, 32 };
+	private static final int LEVELS = LEVEL_SHIFTS.length - 1;
+
+	/**
+	 * Minimum number of timerables in a slot to prepare them in parallel. Below that, the overhead of the thread pool outweighs the gain.
+	 */
+	private static final int MIN_PARALLEL_PREPARATION_SLOT_SIZE = 16;
+
+	private static final Histogram slotDurations = MetricsRegistry.getInstance().histogram("logic.reschedule-timer.slot");
+	private static final Counter executedEvents = MetricsRegistry.getInstance().counter("logic.reschedule-timer.events");
 
 	private static RescheduleTimer uniIns;
 
-	@SuppressWarnings("unchecked")
-	private final ArrayList<IScheduledTimerable> timerables[] = new ArrayList[TIME_SLOTS];
-	private int currTimeSlot = 0;
+	private final DoubleLinkedList<TimerableHandle>[][] wheel;
+	private long currentTick = 0;
 
-	protected RescheduleTimer() {
-		for (int i = 0; i < TIME_SLOTS; i++) {
-			timerables[i] = new ArrayList<>();
+	private transient ArrayList<IPreparableTimerable> preparables;
+
+	@SuppressWarnings("unchecked")
+	RescheduleTimer() {
+		wheel = new DoubleLinkedList[LEVELS][];
+		for (int level = 0; level < LEVELS; level++) {
+			wheel[level] = DoubleLinkedList.getArray(1 << (LEVEL_SHIFTS[level + 1] - LEVEL_SHIFTS[level]));
 		}
 	}
 
@@ -62,25 +90,43 @@ public final class RescheduleTimer implements INetworkTimerable, Serializable {
 	 * 
 	 * @param t
 	 * @param delay
+	 * @return The handle to cancel or reschedule the timerable. The handle stays valid for all reschedulings requested by the return value of
+	 *         {@link IScheduledTimerable#timerEvent()}.
 	 */
-	public static void add(IScheduledTimerable t, int delay) {
-		get().addTimerable(t, delay);
+	public static TimerableHandle add(IScheduledTimerable t, int delay) {
+		TimerableHandle handle = new TimerableHandle(t);
+		get().schedule(handle, delay);
+		return handle;
 	}
 
-	private void addTimerable(IScheduledTimerable t, int delay) {
+	void schedule(TimerableHandle handle, int delay) {
 		if (delay <= 0) {
+			handle.dueTick = TimerableHandle.NOT_SCHEDULED;
 			return; // don't schedule if requested delay is negative or zero
 		}
 
 		int delaySlots = delay / TIME_SLICE;
 		delaySlots = delaySlots > 0 ? delaySlots : 1; // ensure at least one slot delay
 
-		assert delaySlots < TIME_SLOTS : "SCHEDULED TO FAR IN THE FUTURE! " + delay + "ms";
+		handle.dueTick = currentTick + delaySlots;
+		insert(handle);
+	}
 
-		timerables[(currTimeSlot + delaySlots) % TIME_SLOTS].add(t);
+	private void insert(TimerableHandle handle) {
+		long dueTick = handle.dueTick;
+
+		int level = 0;
+		while (level < LEVELS - 1 && (dueTick >>> LEVEL_SHIFTS[level + 1]) != (currentTick >>> LEVEL_SHIFTS[level + 1])) {
+			level++;
+		}
+
+		DoubleLinkedList<TimerableHandle>[] levelSlots = wheel[level];
+		DoubleLinkedList<TimerableHandle> slot = levelSlots[(int) (dueTick >>> LEVEL_SHIFTS[level]) & (levelSlots.length - 1)];
+		slot.pushEnd(handle);
+		handle.slot = slot;
 	}
 
-	private static synchronized RescheduleTimer get() {
+	static synchronized RescheduleTimer get() {
 		if (uniIns == null) {
 			uniIns = new RescheduleTimer();
 		}
@@ -89,21 +135,33 @@ public final class RescheduleTimer implements INetworkTimerable, Serializable {
 
 	@Override
 	public void timerEvent() {
-		ArrayList<IScheduledTimerable> queue = timerables[currTimeSlot];
+		long startTime = System.nanoTime();
+		DoubleLinkedList<TimerableHandle> slot = wheel[0][(int) currentTick & (wheel[0].length - 1)];
+		executedEvents.add(slot.size());
 
-		for (IScheduledTimerable curr : queue) {
+		if (MatchConstants.ENABLE_PARALLEL_TIMERABLE_PREPARATION && slot.size() >= MIN_PARALLEL_PREPARATION_SLOT_SIZE) {
+			prepareInParallel(slot);
+		}
+
+		while (!slot.isEmpty()) {
 			if (uniIns != this) { // fast stop when stopAndClear() is called.
 				return;
 			}
 
+			TimerableHandle curr = slot.popFront();
+			curr.slot = null;
+
 			try {
-				int delay = curr.timerEvent();
-				addTimerable(curr, delay);
+				int delay = curr.timerable.timerEvent();
+				if (curr.dueTick == currentTick && curr.slot == null) { // the handle has not been cancelled or rescheduled during the event
+					schedule(curr, delay);
+				}
 			} catch (Throwable t) {
 				System.err.println("RescheduleTimer catched: ");
 				t.printStackTrace();
+				curr.cancel();
 				try {
-					curr.kill();
+					curr.timerable.kill();
 				} catch (Throwable t2) {
 					System.err.println("RescheduleTimer had trouble killing bad timerable!");
 					t2.printStackTrace();
@@ -111,8 +169,66 @@ public final class RescheduleTimer implements INetworkTimerable, Serializable {
 			}
 		}
 
-		queue.clear();
-		currTimeSlot = (currTimeSlot + 1) % TIME_SLOTS;
+		currentTick++;
+		cascade();
+		slotDurations.recordSince(startTime);
+	}
+
+	/**
+	 * Lets all {@link IPreparableTimerable}s of the given slot prepare their events in parallel. The events themselves are executed afterwards
+	 * in the usual order on the calling thread.
+	 */
+	private void prepareInParallel(DoubleLinkedList<TimerableHandle> slot) {
+		if (preparables == null) {
+			preparables = new ArrayList<>();
+		}
+
+		for (TimerableHandle handle : slot) {
+			if (handle.timerable instanceof IPreparableTimerable) {
+				preparables.add((IPreparableTimerable) handle.timerable);
+			}
+		}
+
+		parallelStream(preparables).forEach(preparable -> {
+			try {
+				preparable.prepareTimerEvent();
+			} catch (Throwable t) { // a failed preparation is not used => the event will do the work itself
+				System.err.println("RescheduleTimer catched during preparation: ");
+				t.printStackTrace();
+			}
+		});
+
+		preparables.clear();
+	}
+
+	/**
+	 * Moves the timerables of the slots whose level starts a new revolution with the current tick down to the lower levels. Higher levels are
+	 * cascaded first, so their timerables end up before the ones of the lower level's slot.
+	 */
+	private void cascade() {
+		for (int level = LEVELS - 1; level > 0; level--) {
+			if ((currentTick & ((1L << LEVEL_SHIFTS[level]) - 1)) == 0) {
+				DoubleLinkedList<TimerableHandle>[] levelSlots = wheel[level];
+				DoubleLinkedList<TimerableHandle> slot = levelSlots[(int) (currentTick >>> LEVEL_SHIFTS[level]) & (levelSlots.length - 1)];
+
+				while (!slot.isEmpty()) {
+					TimerableHandle handle = slot.popFront();
+					insert(handle);
+				}
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+
+		for (DoubleLinkedList<TimerableHandle>[] levelSlots : wheel) {
+			for (DoubleLinkedList<TimerableHandle> slot : levelSlots) {
+				for (TimerableHandle handle : slot) {
+					handle.slot = slot;
+				}
+			}
+		}
 	}
 
 	public static void loadFrom(ObjectInputStream ois) throws MapLoadException {
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+import jsettlers.common.utils.collections.list.DoubleLinkedList;
+import jsettlers.common.utils.collections.list.DoubleLinkedListItem;
+
+/**
+ * Handle of an {@link IScheduledTimerable} scheduled in the {@link RescheduleTimer}. The handle is the list item stored in the timer's slots, so it is
+ * reused for every rescheduling of its timerable and can be cancelled or rescheduled in O(1).
+ */
+public final class TimerableHandle extends DoubleLinkedListItem<TimerableHandle> {
+	private static final long serialVersionUID = 2952420381580612838L;
+
+	static final long NOT_SCHEDULED = -1;
+
+	final IScheduledTimerable timerable;
+	long dueTick = NOT_SCHEDULED;
+
+	transient DoubleLinkedList<TimerableHandle> slot;
+
+	TimerableHandle(IScheduledTimerable timerable) {
+		this.timerable = timerable;
+	}
+
+	/**
+	 * Removes the timerable from the timer. If this is called while the timerable is executed, the delay returned by it is ignored.
+	 */
+	public void cancel() {
+		unlink();
+		dueTick = NOT_SCHEDULED;
+	}
+
+	/**
+	 * Moves the timerable to be executed in the given delay (in milliseconds) from now. If this is called while the timerable is executed, the delay
+	 * returned by it is ignored.
+	 *
+	 * @param delay
+	 *            The new delay. Values smaller or equal to zero cancel the scheduling.
+	 */
+	public void reschedule(int delay) {
+		cancel();
+		RescheduleTimer.get().schedule(this, delay);
+	}
+
+	/**
+	 * @return true if the timerable is waiting for its next execution.
+	 */
+	public boolean isScheduled() {
+		return slot != null;
+	}
+
+	public IScheduledTimerable getTimerable() {
+		return timerable;
+	}
+
+	void unlink() {
+		if (slot != null) {
+			slot.remove(this);
+			slot = null;
+		}
+	}
+}
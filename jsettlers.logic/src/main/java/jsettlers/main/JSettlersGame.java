@@ -16,6 +16,7 @@ package jsettlers.main;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
@@ -36,6 +37,7 @@ import jsettlers.common.menu.IMapInterfaceConnector;
 import jsettlers.common.menu.IStartedGame;
 import jsettlers.common.menu.IStartingGame;
 import jsettlers.common.menu.IStartingGameListener;
+import jsettlers.common.metrics.MetricsRegistry;
 import jsettlers.common.player.IInGamePlayer;
 import jsettlers.common.resources.ResourceManager;
 import jsettlers.common.statistics.IGameTimeProvider;
@@ -59,6 +61,8 @@ import jsettlers.logic.timer.RescheduleTimer;
 import jsettlers.main.replay.ReplayUtils;
 import jsettlers.network.client.OfflineNetworkConnector;
 import jsettlers.network.client.interfaces.INetworkConnector;
+import jsettlers.network.infrastructure.log.ConsoleLogger;
+import jsettlers.network.infrastructure.log.Logger;
 
 /**
  * This class can start a Thread that loads and sets up a game and wait's for its termination.
@@ -215,6 +219,10 @@ public class JSettlersGame {
 					// TODO: log that we do not have write access to resources.
 					System.out.println("Cannot write jsettlers.integration.replay file.");
 				}
+				MatchConstants.clock().setLogger(createClockLogger());
+				MatchConstants.clock().setRunDurationListener(MetricsRegistry.getInstance().histogram("network.timer.run")::record);
+				MetricsRegistry.getInstance().reset(); // the metrics of a previous game must not be counted for this one
+				startMetricsDump();
 
 				updateProgressListener(EProgressState.LOADING_MAP, 0.3f);
 
@@ -282,6 +290,7 @@ public class JSettlersGame {
 				e.printStackTrace();
 				reportFail(EGameError.UNKNOWN_ERROR, e);
 			} finally {
+				MetricsRegistry.getInstance().stopPeriodicDump();
 				shutdownFinished = true;
 				if (exitListener != null) {
 					exitListener.gameExited(this);
@@ -289,6 +298,22 @@ public class JSettlersGame {
 			}
 		}
 
+		private void startMetricsDump() {
+			if (CommonConstants.METRICS_FILE != null) {
+				try {
+					MetricsRegistry.getInstance().startPeriodicDump(new File(CommonConstants.METRICS_FILE), MetricsRegistry.DEFAULT_DUMP_PERIOD_MS);
+				} catch (IOException e) {
+					System.err.println("Could not write metrics to " + CommonConstants.METRICS_FILE + ": " + e.getMessage());
+				}
+			}
+		}
+
+		private Logger createClockLogger() {
+			ConsoleLogger logger = new ConsoleLogger("NetworkTimer"); // System.out has already been redirected by configureLogging()
+			logger.setDebugEnabled(CommonConstants.ENABLE_NETWORK_DEBUG_LOGGING);
+			return logger;
+		}
+
 		public AiExecutor getAiExecutor() {
 			return aiExecutor;
 		}
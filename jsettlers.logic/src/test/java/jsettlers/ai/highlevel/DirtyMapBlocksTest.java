@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+
+public class DirtyMapBlocksTest {
+	private final DirtyMapBlocks dirtyMapBlocks = new DirtyMapBlocks(100, 70, 5);
+	private final BitSet blocks = new BitSet();
+
+	@Test
+	public void testAllBlocksAreDirtyInitially() {
+		assertTrue(dirtyMapBlocks.takeDirtyBlocks(blocks));
+		assertEquals(7 * 5, blocks.cardinality());
+
+		assertFalse(dirtyMapBlocks.takeDirtyBlocks(blocks));
+		assertTrue(blocks.isEmpty());
+	}
+
+	@Test
+	public void testChangeMarksBlocksWithinDependencyRadius() {
+		dirtyMapBlocks.takeDirtyBlocks(blocks);
+
+		dirtyMapBlocks.mapChangedAt(24, 24);
+		assertFalse(dirtyMapBlocks.takeDirtyBlocks(blocks));
+		assertEquals(1, blocks.cardinality());
+		assertTrue(blocks.get(dirtyMapBlocks.getBlockIndex(24, 24)));
+
+		dirtyMapBlocks.mapChangedAt(30, 36);
+		assertFalse(dirtyMapBlocks.takeDirtyBlocks(blocks));
+		assertEquals(4, blocks.cardinality());
+		assertTrue(blocks.get(dirtyMapBlocks.getBlockIndex(25, 31)));
+		assertTrue(blocks.get(dirtyMapBlocks.getBlockIndex(35, 31)));
+		assertTrue(blocks.get(dirtyMapBlocks.getBlockIndex(25, 41)));
+		assertTrue(blocks.get(dirtyMapBlocks.getBlockIndex(35, 41)));
+	}
+
+	@Test
+	public void testChangesAtTheBorderStayInsideTheMap() {
+		dirtyMapBlocks.takeDirtyBlocks(blocks);
+
+		dirtyMapBlocks.mapChangedAt(99, 69);
+		dirtyMapBlocks.mapChangedAt(0, 0);
+		dirtyMapBlocks.takeDirtyBlocks(blocks);
+		int lastBlock = dirtyMapBlocks.getNumberOfBlocks() - 1;
+		assertEquals(3, blocks.cardinality());
+		assertTrue(blocks.get(0));
+		assertTrue(blocks.get(lastBlock - 1));
+		assertTrue(blocks.get(lastBlock));
+
+		assertEquals(96, dirtyMapBlocks.getBlockMinX(lastBlock));
+		assertEquals(64, dirtyMapBlocks.getBlockMinY(lastBlock));
+		assertEquals(100, dirtyMapBlocks.getBlockMaxX(lastBlock));
+		assertEquals(70, dirtyMapBlocks.getBlockMaxY(lastBlock));
+	}
+
+	@Test
+	public void testMapChangedMarksAllBlocks() {
+		dirtyMapBlocks.takeDirtyBlocks(blocks);
+
+		dirtyMapBlocks.mapChangedAt(50, 50);
+		dirtyMapBlocks.mapChanged();
+		assertTrue(dirtyMapBlocks.takeDirtyBlocks(blocks));
+		assertEquals(dirtyMapBlocks.getNumberOfBlocks(), blocks.cardinality());
+	}
+
+	@Test
+	public void testRemoveAllKeepsOrderOfPositions() {
+		AiPositions positions = new AiPositions();
+		for (int x = 0; x < 40; x += 3) {
+			positions.addNoCollission(x, 40 - x);
+		}
+		AiPositions expected = new AiPositions();
+		for (int x = 0; x < 40; x += 3) {
+			if (dirtyMapBlocks.getBlockIndex(x, 40 - x) != dirtyMapBlocks.getBlockIndex(20, 20)) {
+				expected.addNoCollission(x, 40 - x);
+			}
+		}
+
+		positions.removeAll((x, y) -> dirtyMapBlocks.getBlockIndex(x, y) == dirtyMapBlocks.getBlockIndex(20, 20));
+		assertEquals(expected, positions);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), positions.get(i));
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.borders;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.common.movable.EDirection;
+
+public class BordersThreadTest {
+	private static final short WIDTH = 60;
+	private static final short HEIGHT = 50;
+
+	private final TestGrid grid = new TestGrid();
+	private final BordersThread bordersThread = new BordersThread(grid, WIDTH, HEIGHT);
+
+	@After
+	public void tearDown() {
+		bordersThread.cancel();
+	}
+
+	@Test
+	public void testBordersOfWholeMap() throws InterruptedException {
+		Random random = new Random(3);
+		grid.fillRandomly(random);
+
+		bordersThread.start();
+		bordersThread.checkArea(0, 0, WIDTH, HEIGHT);
+		bordersThread.awaitCalculations();
+
+		assertBordersCorrect();
+		assertEquals(0, bordersThread.getNumberOfChangedPositions());
+	}
+
+	@Test
+	public void testRepeatedChangesAreCoalesced() throws InterruptedException {
+		bordersThread.checkPosition(10, 10);
+		bordersThread.checkPosition(10, 10);
+		bordersThread.checkPosition(11, 10);
+		assertEquals(2, bordersThread.getNumberOfChangedPositions());
+
+		bordersThread.checkArea(9, 9, (short) 4, (short) 4);
+		assertEquals(16, bordersThread.getNumberOfChangedPositions());
+
+		bordersThread.start();
+		bordersThread.awaitCalculations();
+		assertEquals(16, bordersThread.getLastBatchSize());
+	}
+
+	@Test
+	public void testChangedPlayersUpdateBorders() throws InterruptedException {
+		Random random = new Random(5);
+		grid.fillRandomly(random);
+		bordersThread.start();
+		bordersThread.checkArea(0, 0, WIDTH, HEIGHT);
+
+		for (int i = 0; i < 200; i++) {
+			int x = random.nextInt(WIDTH);
+			int y = random.nextInt(HEIGHT);
+			for (int dx = 0; dx < 5 && x + dx < WIDTH; dx++) {
+				grid.players[x + dx + y * WIDTH] = (byte) (random.nextInt(4) - 1);
+				bordersThread.checkPosition(x + dx, y);
+			}
+			if (i % 20 == 0) {
+				bordersThread.awaitCalculations();
+				assertBordersCorrect();
+			}
+		}
+
+		bordersThread.awaitCalculations();
+		assertBordersCorrect();
+	}
+
+	private void assertBordersCorrect() {
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				assertEquals("border at " + x + "," + y, grid.isExpectedBorder(x, y), grid.borders.get(x + y * WIDTH));
+			}
+		}
+	}
+
+	private static class TestGrid implements IBordersThreadGrid {
+		private final byte[] players = new byte[WIDTH * HEIGHT];
+		private final short[] blockedPartitions = new short[WIDTH * HEIGHT];
+		private final BitSet borders = new BitSet();
+
+		void fillRandomly(Random random) {
+			for (int i = 0; i < players.length; i++) {
+				players[i] = (byte) (random.nextInt(4) - 1);
+				blockedPartitions[i] = (short) (random.nextInt(10) == 0 ? 0 : 1);
+			}
+		}
+
+		boolean isExpectedBorder(int x, int y) {
+			byte player = getPlayerIdAt(x, y);
+			if (player < 0 || getBlockedPartition(x, y) <= 0) {
+				return false;
+			}
+			for (EDirection direction : EDirection.VALUES) {
+				int neighborX = direction.getNextTileX(x);
+				int neighborY = direction.getNextTileY(y);
+				if (isInBounds(neighborX, neighborY) && getBlockedPartition(neighborX, neighborY) > 0 && getPlayerIdAt(neighborX, neighborY) != player) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public byte getPlayerIdAt(int x, int y) {
+			return players[x + y * WIDTH];
+		}
+
+		@Override
+		public synchronized void setBorderAt(int x, int y, boolean isBorder) {
+			borders.set(x + y * WIDTH, isBorder);
+		}
+
+		@Override
+		public boolean isInBounds(int x, int y) {
+			return x >= 0 && y >= 0 && x < WIDTH && y < HEIGHT;
+		}
+
+		@Override
+		public short getBlockedPartition(int x, int y) {
+			return blockedPartitions[x + y * WIDTH];
+		}
+	}
+}
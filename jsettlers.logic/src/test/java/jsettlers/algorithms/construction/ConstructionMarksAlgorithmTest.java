@@ -26,6 +26,7 @@ import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.shapes.MapRectangle;
 import jsettlers.common.position.RelativePoint;
+import jsettlers.logic.map.grid.IMapChangedListener;
 
 /**
  * Test for class {@link NewConstructionMarksAlgorithm}.
@@ -60,6 +61,34 @@ public class ConstructionMarksAlgorithmTest {
 
 		// print(map, blocked, buildingSet);
 
+		assertMarks(map, buildingSet);
+	}
+
+	@Test
+	public void testChangedPositionsAreRecalculated() {
+		boolean[][] blocked = new boolean[20][25];
+		blocked[3][6] = true;
+
+		MapRectangle mapArea = new MapRectangle(-15, -15, 50, 50);
+		BuildingAreaBitSet buildingSet = new BuildingAreaBitSet(EBuildingType.TOWER.getBuildingArea());
+
+		TestMap map = new TestMap(blocked);
+		NewConstructionMarksAlgorithm algorithm = new NewConstructionMarksAlgorithm(map, (byte) 0);
+		algorithm.calculateConstructMarks(mapArea, EBuildingType.TOWER);
+		assertMarks(map, buildingSet);
+
+		map.setBlocked(12, 10, true);
+		map.setBlocked(6, 3, false);
+		algorithm.calculateConstructMarks(mapArea, EBuildingType.TOWER);
+		assertMarks(map, buildingSet);
+
+		algorithm.calculateConstructMarks(new MapRectangle(-10, -10, 20, 20), EBuildingType.TOWER);
+		map.setBlocked(20, 15, true);
+		algorithm.calculateConstructMarks(mapArea, EBuildingType.TOWER);
+		assertMarks(map, buildingSet);
+	}
+
+	private void assertMarks(TestMap map, BuildingAreaBitSet buildingSet) {
 		for (int y = 0; y < map.height; y++) {
 			for (int x = 0; x < map.width; x++) {
 				assertEquals(x + "|" + y, canCostructAt(map, x, y, buildingSet), map.marksSet[x + y * map.width] > 0);
@@ -130,6 +159,7 @@ public class ConstructionMarksAlgorithmTest {
 
 		int[] marksSet;
 		BitSet blockedSet;
+		IMapChangedListener mapChangedListener = IMapChangedListener.DEFAULT_IMPLEMENTATION;
 
 		public TestMap(boolean[][] blocked) {
 			height = (short) blocked.length;
@@ -145,6 +175,16 @@ public class ConstructionMarksAlgorithmTest {
 			}
 		}
 
+		void setBlocked(int x, int y, boolean blocked) {
+			blockedSet.set(x + y * width, blocked);
+			mapChangedListener.mapChangedAt(x, y);
+		}
+
+		@Override
+		public void addMapChangedListener(IMapChangedListener listener) {
+			mapChangedListener = listener;
+		}
+
 		@Override
 		public void setConstructMarking(int x, int y, boolean set, boolean binaryConstructionMarkValues, RelativePoint[] flattenPositions) {
 			if (isInBounds(x, y))
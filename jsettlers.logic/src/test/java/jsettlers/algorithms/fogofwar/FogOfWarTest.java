@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.fogofwar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.fogofwar.CachedViewCircle.CachedViewCircleIterator;
+import jsettlers.common.CommonConstants;
+import jsettlers.common.mapobject.IMapObject;
+import jsettlers.common.movable.IMovable;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+public class FogOfWarTest {
+	private static final short WIDTH = 150;
+	private static final short HEIGHT = 120;
+	private static final byte TEAM = 0;
+
+	private final TestGrid grid = new TestGrid();
+	private final FogOfWar fogOfWar = new FogOfWar(WIDTH, HEIGHT, new IPlayer.DummyPlayer(TEAM));
+
+	@Test
+	public void testIncrementalUpdatesMatchFullRebuild() {
+		Random random = new Random(3);
+		for (int i = 0; i < 15; i++) {
+			grid.buildings.add(new TestViewer(random, (byte) (i % 4 == 0 ? 1 : TEAM)));
+		}
+		List<TestViewer> movables = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			movables.add(new TestViewer(random, TEAM));
+		}
+		grid.movables.addAll(movables);
+
+		byte[][] expected = new byte[WIDTH][HEIGHT];
+		fogOfWar.setEnabled(true);
+
+		for (int tick = 0; tick < 40; tick++) {
+			for (TestViewer movable : movables) {
+				movable.move(random);
+			}
+			if (tick % 5 == 4) {
+				TestViewer removed = movables.remove(random.nextInt(movables.size()));
+				grid.movables.remove(removed);
+				TestViewer added = new TestViewer(random, TEAM);
+				movables.add(added);
+				grid.movables.add(added);
+				movables.get(random.nextInt(movables.size())).distance = (short) random.nextInt(20);
+			}
+
+			fogOfWar.updateSight(grid);
+			rebuildSight(expected);
+
+			assertSight(expected);
+		}
+	}
+
+	@Test
+	public void testSightIsDimmedAfterViewerLeaves() {
+		TestViewer viewer = new TestViewer(60, 60, (short) 5);
+		grid.movables.add(viewer);
+		fogOfWar.setEnabled(true);
+
+		fogOfWar.updateSight(grid);
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE, fogOfWar.getVisibleStatus(60, 60));
+
+		grid.movables.clear();
+		for (int i = 0; i < 10; i++) {
+			fogOfWar.updateSight(grid);
+		}
+		assertEquals(CommonConstants.FOG_OF_WAR_EXPLORED, fogOfWar.getVisibleStatus(60, 60));
+		assertEquals(0, fogOfWar.getVisibleStatus(10, 10));
+	}
+
+	@Test
+	public void testChangeFeedReportsChangedTiles() {
+		grid.buildings.add(new TestViewer(30, 30, (short) 5));
+		fogOfWar.setEnabled(true);
+		int versionBefore = fogOfWar.getVersion();
+
+		fogOfWar.updateSight(grid);
+		int version = fogOfWar.getVersion();
+		assertTrue(version > versionBefore);
+		assertEquals(version, fogOfWar.getTileVersion(30, 30));
+		assertEquals(versionBefore, fogOfWar.getTileVersion(120, 100));
+
+		fogOfWar.updateSight(grid);
+		assertEquals(version, fogOfWar.getVersion());
+	}
+
+	@Test
+	public void testSerializationKeepsSight() throws IOException, ClassNotFoundException {
+		grid.buildings.add(new TestViewer(30, 40, (short) 8));
+		fogOfWar.setEnabled(true);
+		fogOfWar.updateSight(grid);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+			oos.writeObject(fogOfWar);
+		}
+		FogOfWar loaded;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			loaded = (FogOfWar) ois.readObject();
+		}
+
+		for (int x = 0; x < WIDTH; x++) {
+			for (int y = 0; y < HEIGHT; y++) {
+				assertEquals(fogOfWar.getVisibleStatus(x, y), loaded.getVisibleStatus(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testSavegameWithColumnArrayCanBeLoaded() throws IOException, ClassNotFoundException {
+		LegacyFogOfWar legacy = new LegacyFogOfWar();
+		legacy.sight[30][40] = CommonConstants.FOG_OF_WAR_VISIBLE;
+		legacy.sight[149][1] = CommonConstants.FOG_OF_WAR_EXPLORED;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+			oos.writeObject(legacy);
+		}
+		byte[] stream = replaceClassName(bytes.toByteArray(), LegacyFogOfWar.class.getName(), FogOfWar.class.getName());
+
+		FogOfWar loaded;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(stream))) {
+			loaded = (FogOfWar) ois.readObject();
+		}
+
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE, loaded.getVisibleStatus(30, 40));
+		assertEquals(CommonConstants.FOG_OF_WAR_EXPLORED, loaded.getVisibleStatus(149, 1));
+		assertEquals(0, loaded.getVisibleStatus(40, 30));
+	}
+
+	private static byte[] replaceClassName(byte[] stream, String oldName, String newName) throws IOException {
+		byte[] oldBytes = utf(oldName);
+		byte[] newBytes = utf(newName);
+		for (int i = 0; i + oldBytes.length <= stream.length; i++) {
+			if (Arrays.equals(Arrays.copyOfRange(stream, i, i + oldBytes.length), oldBytes)) {
+				ByteArrayOutputStream result = new ByteArrayOutputStream();
+				result.write(stream, 0, i);
+				result.write(newBytes);
+				result.write(stream, i + oldBytes.length, stream.length - i - oldBytes.length);
+				return result.toByteArray();
+			}
+		}
+		throw new AssertionError("class name not found");
+	}
+
+	private static byte[] utf(String string) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeUTF(string);
+		}
+		return bytes.toByteArray();
+	}
+
+	private void assertSight(byte[][] expected) {
+		byte[][] actual = new byte[WIDTH][HEIGHT];
+		for (int x = 0; x < WIDTH; x++) {
+			for (int y = 0; y < HEIGHT; y++) {
+				actual[x][y] = fogOfWar.getVisibleStatus(x, y);
+			}
+		}
+		for (int x = 0; x < WIDTH; x++) {
+			assertArrayEquals(expected[x], actual[x]);
+		}
+	}
+
+	/**
+	 * Full rebuild of the sight as it was done before the fog of war was updated incrementally.
+	 */
+	private void rebuildSight(byte[][] sight) {
+		for (int x = 0; x < WIDTH; x++) {
+			for (int y = 0; y < HEIGHT; y++) {
+				if (sight[x][y] >= CommonConstants.FOG_OF_WAR_EXPLORED) {
+					sight[x][y] = (byte) Math.max(sight[x][y] - 10, CommonConstants.FOG_OF_WAR_EXPLORED);
+				}
+			}
+		}
+		drawViewers(sight, grid.buildings);
+		drawViewers(sight, grid.movables);
+	}
+
+	private static void drawViewers(byte[][] sight, Iterable<TestViewer> viewers) {
+		for (TestViewer viewer : viewers) {
+			if (viewer.getPlayer().getTeamId() != TEAM || viewer.distance <= 0) {
+				continue;
+			}
+			CachedViewCircle circle = new CachedViewCircle(Math.min(viewer.distance + FogOfWar.PADDING, 64));
+			CachedViewCircleIterator iterator = circle.iterator(viewer.x, viewer.y);
+			while (iterator.hasNext()) {
+				int x = iterator.getCurrX();
+				int y = iterator.getCurrY();
+				if (x >= 0 && x < WIDTH && y > 0 && y < HEIGHT && sight[x][y] < CommonConstants.FOG_OF_WAR_VISIBLE) {
+					sight[x][y] = (byte) Math.max(sight[x][y], iterator.getCurrSight());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Serialized form of the {@link FogOfWar} before the sight was stored in a ByteGrid.
+	 */
+	private static class LegacyFogOfWar implements Serializable {
+		private static final long serialVersionUID = 1877994785778678510L;
+
+		private final byte team = TEAM;
+		private final short width = WIDTH;
+		private final short height = HEIGHT;
+		private final byte[][] sight = new byte[WIDTH][HEIGHT];
+	}
+
+	private static class TestGrid implements IFogOfWarGrid {
+		private final ConcurrentLinkedQueue<TestViewer> buildings = new ConcurrentLinkedQueue<>();
+		private final ConcurrentLinkedQueue<TestViewer> movables = new ConcurrentLinkedQueue<>();
+
+		@Override
+		public IMovable getMovableAt(short x, short y) {
+			return null;
+		}
+
+		@Override
+		public IMapObject getMapObjectsAt(short x, short y) {
+			return null;
+		}
+
+		@Override
+		public ConcurrentLinkedQueue<TestViewer> getMovableViewDistancables() {
+			return movables;
+		}
+
+		@Override
+		public ConcurrentLinkedQueue<TestViewer> getBuildingViewDistancables() {
+			return buildings;
+		}
+	}
+
+	private static class TestViewer implements IViewDistancable {
+		private final IPlayer player;
+		private int x;
+		private int y;
+		private short distance;
+
+		TestViewer(int x, int y, short distance) {
+			this.player = new IPlayer.DummyPlayer(TEAM);
+			this.x = x;
+			this.y = y;
+			this.distance = distance;
+		}
+
+		TestViewer(Random random, byte team) {
+			this.player = new IPlayer.DummyPlayer(team);
+			this.x = random.nextInt(WIDTH);
+			this.y = random.nextInt(HEIGHT);
+			this.distance = (short) (1 + random.nextInt(15));
+		}
+
+		void move(Random random) {
+			x = Math.max(0, Math.min(WIDTH - 1, x + random.nextInt(5) - 2));
+			y = Math.max(0, Math.min(HEIGHT - 1, y + random.nextInt(5) - 2));
+		}
+
+		@Override
+		public short getViewDistance() {
+			return distance;
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return new ShortPoint2D(x, y);
+		}
+
+		@Override
+		public IPlayer getPlayer() {
+			return player;
+		}
+	}
+}
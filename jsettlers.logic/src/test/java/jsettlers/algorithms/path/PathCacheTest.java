@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.CachingAStar;
+import jsettlers.algorithms.path.astar.DummyEmptyAStarMap;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+public class PathCacheTest {
+	private static final short WIDTH = 100;
+	private static final short HEIGHT = 100;
+
+	private final DummyEmptyAStarMap map = new DummyEmptyAStarMap(WIDTH, HEIGHT);
+	private final BucketQueueAStar aStar = new BucketQueueAStar(map, WIDTH, HEIGHT);
+
+	@Test
+	public void testHitsReturnIndependentCopies() {
+		PathCache cache = new PathCache(10, WIDTH, HEIGHT);
+		Path path = aStar.findPath(getPathable(10, 10, false), new ShortPoint2D(20, 15));
+		cache.put(getPathable(10, 10, false), 10, 10, 20, 15, (short) 1, path);
+		path.goToNextStep();
+
+		Path first = cache.get(getPathable(10, 10, false), 10, 10, 20, 15, (short) 1);
+		Path second = cache.get(getPathable(10, 10, false), 10, 10, 20, 15, (short) 1);
+
+		assertNotNull(first);
+		assertNotSame(first, second);
+		assertEquals(path.toString(), first.toString());
+		assertEquals(-1, first.getStep());
+		first.goToNextStep();
+		assertEquals(-1, second.getStep());
+
+		assertNull(cache.get(getPathable(10, 10, false), 10, 10, 20, 15, (short) 2));
+		assertNull(cache.get(getPathable(10, 10, true), 10, 10, 20, 15, (short) 1));
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedPathsAreEvicted() {
+		PathCache cache = new PathCache(2, WIDTH, HEIGHT);
+		put(cache, 10, 10, 20, 10);
+		put(cache, 10, 11, 20, 11);
+		cache.get(getPathable(10, 10, false), 10, 10, 20, 10, (short) 1);
+		put(cache, 10, 12, 20, 12);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertNotNull(cache.get(getPathable(10, 10, false), 10, 10, 20, 10, (short) 1));
+		assertNull(cache.get(getPathable(10, 11, false), 10, 11, 20, 11, (short) 1));
+	}
+
+	@Test
+	public void testInvalidationIsLimitedToSearchedArea() {
+		PathCache cache = new PathCache(10, WIDTH, HEIGHT);
+		put(cache, 10, 10, 20, 10);
+
+		cache.invalidate(15, 30);
+		cache.invalidate(40, 10);
+		assertEquals(1, cache.size());
+
+		cache.invalidate(15, 11);
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.getInvalidations());
+	}
+
+	@Test
+	public void testPlayerGroundInvalidationOnlyAffectsRequestersNeedingIt() {
+		PathCache cache = new PathCache(10, WIDTH, HEIGHT);
+		put(cache, 10, 10, 20, 10);
+		Path path = aStar.findPath(getPathable(10, 10, true), new ShortPoint2D(20, 10));
+		cache.put(getPathable(10, 10, true), 10, 10, 20, 10, (short) 1, path);
+
+		cache.invalidatePlayerGround(15, 10);
+
+		assertEquals(1, cache.size());
+		assertNotNull(cache.get(getPathable(10, 10, false), 10, 10, 20, 10, (short) 1));
+	}
+
+	@Test
+	public void testCachedPathsEqualCalculatedPaths() {
+		PathCache cache = new PathCache(50, WIDTH, HEIGHT);
+		CachingAStar cachingAStar = new CachingAStar(cache, new BucketQueueAStar(map, WIDTH, HEIGHT), map, WIDTH, HEIGHT);
+		Random random = new Random(3);
+
+		for (int i = 0; i < 3000; i++) {
+			int x = random.nextInt(WIDTH);
+			int y = random.nextInt(HEIGHT);
+			map.setBlocked(x, y, random.nextInt(4) == 0);
+			cache.invalidate(x, y);
+
+			int sx = 40 + random.nextInt(10);
+			int sy = 40 + random.nextInt(10);
+			int tx = 20 + random.nextInt(60);
+			int ty = 20 + random.nextInt(60);
+			IPathCalculatable requester = getPathable(sx, sy, false);
+			if (map.isBlocked(requester, sx, sy)) {
+				continue;
+			}
+
+			Path expected = aStar.findPath(requester, new ShortPoint2D(tx, ty));
+			Path actual = cachingAStar.findPath(requester, new ShortPoint2D(tx, ty));
+			assertEquals(String.valueOf(expected), String.valueOf(actual));
+		}
+		assertTrue(cache.getHits() > 0);
+	}
+
+	private void put(PathCache cache, int sx, int sy, int tx, int ty) {
+		Path path = aStar.findPath(getPathable(sx, sy, false), new ShortPoint2D(tx, ty));
+		cache.put(getPathable(sx, sy, false), sx, sy, tx, ty, (short) 1, path);
+	}
+
+	private static IPathCalculatable getPathable(final int x, final int y, final boolean needsPlayersGround) {
+		return new IPathCalculatable() {
+			@Override
+			public ShortPoint2D getPosition() {
+				return new ShortPoint2D(x, y);
+			}
+
+			@Override
+			public IPlayer getPlayer() {
+				return new IPlayer.DummyPlayer();
+			}
+
+			@Override
+			public boolean needsPlayersGround() {
+				return needsPlayersGround;
+			}
+
+			@Override
+			public boolean isShip() {
+				return false;
+			}
+		};
+	}
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.common.Color;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.grid.MainGridDataAccessor;
+import jsettlers.logic.map.grid.flags.FlagsGrid;
+import jsettlers.logic.map.grid.landscape.LandscapeGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Compares the expanded nodes and the latency of the {@link HierarchicalAStar} with the ones of the {@link BucketQueueAStar} for long paths on the
+ * shipped maps.
+ */
+public class HierarchicalAStarSpeedTest {
+	private static final int NUMBER_OF_PATHS = 500;
+
+	@Test
+	public void testMountainlake() throws MapLoadException {
+		compareOnMap(MapUtils.getMountainlake());
+	}
+
+	@Test
+	public void testSpezialSumpf() throws MapLoadException {
+		compareOnMap(MapUtils.getSpezialSumpf());
+	}
+
+	private void compareOnMap(MapLoader mapLoader) throws MapLoadException {
+		MatchConstants.init(new NetworkTimer(true), 0);
+		MainGrid grid = mapLoader.loadMainGrid(null).getMainGrid();
+		MainGridDataAccessor gridAccessor = new MainGridDataAccessor(grid);
+		short width = gridAccessor.getWidth();
+		short height = gridAccessor.getHeight();
+		FlagsGrid flagsGrid = gridAccessor.getFlagsGrid();
+		LandscapeGrid landscapeGrid = gridAccessor.getLandscapeGrid();
+
+		IAStarPathMap map = new GridPathMap(flagsGrid, landscapeGrid);
+		BucketQueueAStar aStar = new BucketQueueAStar(map, width, height);
+		ClusterGraph clusterGraph = new ClusterGraph(flagsGrid, width, height);
+		HierarchicalAStar hierarchicalAStar = new HierarchicalAStar(map, clusterGraph, width, height);
+
+		long buildStart = System.nanoTime();
+		clusterGraph.update();
+		System.out.println("Building the cluster graph with " + clusterGraph.getNumberOfNodes() + " nodes needed " + (System.nanoTime() - buildStart) / 1000
+				+ " µs");
+
+		measure(flagsGrid, aStar, hierarchicalAStar, width, height); // warm up
+		measure(flagsGrid, aStar, hierarchicalAStar, width, height);
+	}
+
+	private void measure(FlagsGrid flagsGrid, BucketQueueAStar aStar, HierarchicalAStar hierarchicalAStar, short width, short height) {
+		Random random = new Random(1);
+		long aStarNodes = 0;
+		long aStarNanos = 0;
+		long hierarchicalNodes = 0;
+		long hierarchicalNanos = 0;
+		long aStarLength = 0;
+		long hierarchicalLength = 0;
+		int paths = 0;
+
+		while (paths < NUMBER_OF_PATHS) {
+			int sx = random.nextInt(width);
+			int sy = random.nextInt(height);
+			int tx = random.nextInt(width);
+			int ty = random.nextInt(height);
+			if (flagsGrid.isBlocked(sx, sy) || ShortPoint2D.getOnGridDist(tx - sx, ty - sy) < HierarchicalAStar.MIN_HIERARCHICAL_DISTANCE) {
+				continue;
+			}
+			IPathCalculatable requester = getPathable(sx, sy);
+			ShortPoint2D target = new ShortPoint2D(tx, ty);
+
+			long start = System.nanoTime();
+			Path aStarPath = aStar.findPath(requester, target);
+			aStarNanos += System.nanoTime() - start;
+			aStarNodes += aStar.getExpandedNodes();
+
+			start = System.nanoTime();
+			Path hierarchicalPath = hierarchicalAStar.findPath(requester, target);
+			hierarchicalNanos += System.nanoTime() - start;
+			hierarchicalNodes += hierarchicalAStar.getExpandedNodes();
+
+			if (aStarPath != null && hierarchicalPath != null) {
+				aStarLength += aStarPath.getLength();
+				hierarchicalLength += hierarchicalPath.getLength();
+			}
+			paths++;
+		}
+
+		System.out.println("A*:  " + aStarNodes / paths + " expanded nodes and " + aStarNanos / paths / 1000 + " µs per path, total length "
+				+ aStarLength);
+		System.out.println("HPA*: " + hierarchicalNodes / paths + " expanded nodes and " + hierarchicalNanos / paths / 1000 + " µs per path, total length "
+				+ hierarchicalLength);
+	}
+
+	private static IPathCalculatable getPathable(final int x, final int y) {
+		return new IPathCalculatable() {
+			@Override
+			public ShortPoint2D getPosition() {
+				return new ShortPoint2D(x, y);
+			}
+
+			@Override
+			public IPlayer getPlayer() {
+				return new IPlayer.DummyPlayer();
+			}
+
+			@Override
+			public boolean needsPlayersGround() {
+				return false;
+			}
+
+			@Override
+			public boolean isShip() {
+				return false;
+			}
+		};
+	}
+
+	private static class GridPathMap implements IAStarPathMap {
+		private final FlagsGrid flagsGrid;
+		private final LandscapeGrid landscapeGrid;
+
+		GridPathMap(FlagsGrid flagsGrid, LandscapeGrid landscapeGrid) {
+			this.flagsGrid = flagsGrid;
+			this.landscapeGrid = landscapeGrid;
+		}
+
+		@Override
+		public boolean isBlocked(IPathCalculatable requester, int x, int y) {
+			return flagsGrid.isBlocked(x, y);
+		}
+
+		@Override
+		public float getCost(int sx, int sy, int tx, int ty) {
+			return 1;
+		}
+
+		@Override
+		public void markAsOpen(int x, int y) {
+		}
+
+		@Override
+		public void markAsClosed(int x, int y) {
+		}
+
+		@Override
+		public void setDebugColor(int x, int y, Color color) {
+		}
+
+		@Override
+		public short getBlockedPartition(int x, int y) {
+			return landscapeGrid.getBlockedPartitionAt(x, y);
+		}
+	}
+}
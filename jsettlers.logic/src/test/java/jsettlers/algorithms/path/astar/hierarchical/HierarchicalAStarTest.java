@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.DummyEmptyAStarMap;
+import jsettlers.common.movable.EDirection;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+public class HierarchicalAStarTest {
+	private static final short WIDTH = 200;
+	private static final short HEIGHT = 150;
+
+	private final DummyEmptyAStarMap map = new DummyEmptyAStarMap(WIDTH, HEIGHT);
+	private final boolean[][] blocked = new boolean[WIDTH][HEIGHT];
+	private final ClusterGraph clusterGraph = new ClusterGraph((x, y) -> blocked[x][y], WIDTH, HEIGHT);
+	private final HierarchicalAStar hierarchicalAStar = new HierarchicalAStar(map, clusterGraph, WIDTH, HEIGHT);
+	private final BucketQueueAStar aStar = new BucketQueueAStar(map, WIDTH, HEIGHT);
+
+	@Test
+	public void testPathOnEmptyMapIsCloseToShortest() {
+		Path path = hierarchicalAStar.findPath(getPathable(10, 10), new ShortPoint2D(180, 140));
+
+		assertValidPath(10, 10, 180, 140, path);
+		assertCloseToShortest(ShortPoint2D.getOnGridDist(170, 130), path);
+	}
+
+	@Test
+	public void testShortPathsUseAStar() {
+		Path path = hierarchicalAStar.findPath(getPathable(10, 10), new ShortPoint2D(20, 12));
+
+		assertValidPath(10, 10, 20, 12, path);
+		assertEquals(aStar.findPath(getPathable(10, 10), new ShortPoint2D(20, 12)).getLength(), path.getLength());
+	}
+
+	@Test
+	public void testFindsPathsWheneverAStarDoes() {
+		Random random = new Random(42);
+		for (int i = 0; i < 2500; i++) {
+			setBlocked(random.nextInt(WIDTH), random.nextInt(HEIGHT), true);
+		}
+		for (int i = 0; i < 6; i++) { // some long walls with small gaps
+			int x = 20 + random.nextInt(WIDTH - 40);
+			for (int y = 0; y < HEIGHT; y++) {
+				setBlocked(x, y, y % 37 != 0);
+			}
+		}
+
+		for (int i = 0; i < 300; i++) {
+			int sx = random.nextInt(WIDTH);
+			int sy = random.nextInt(HEIGHT);
+			int tx = random.nextInt(WIDTH);
+			int ty = random.nextInt(HEIGHT);
+			if (blocked[sx][sy] || (sx == tx && sy == ty)) {
+				continue;
+			}
+
+			Path expected = aStar.findPath(getPathable(sx, sy), new ShortPoint2D(tx, ty));
+			Path actual = hierarchicalAStar.findPath(getPathable(sx, sy), new ShortPoint2D(tx, ty));
+
+			if (expected == null) {
+				assertNull(actual);
+			} else {
+				assertValidPath(sx, sy, tx, ty, actual);
+				assertTrue(actual.getLength() >= expected.getLength());
+			}
+		}
+	}
+
+	@Test
+	public void testBlockingChangesAreApplied() {
+		assertNotNull(hierarchicalAStar.findPath(getPathable(10, 70), new ShortPoint2D(190, 70)));
+
+		for (int y = 0; y < HEIGHT; y++) {
+			setBlocked(100, y, y != 120);
+		}
+		Path path = hierarchicalAStar.findPath(getPathable(10, 70), new ShortPoint2D(190, 70));
+		assertValidPath(10, 70, 190, 70, path);
+
+		setBlocked(100, 120, true);
+		assertNull(hierarchicalAStar.findPath(getPathable(10, 70), new ShortPoint2D(190, 70)));
+
+		for (int y = 0; y < HEIGHT; y++) {
+			setBlocked(100, y, false);
+		}
+		path = hierarchicalAStar.findPath(getPathable(10, 70), new ShortPoint2D(190, 70));
+		assertValidPath(10, 70, 190, 70, path);
+		assertCloseToShortest(180, path);
+	}
+
+	@Test
+	public void testEntrancesBlockedForTheRequesterAreNotUsed() {
+		for (int y = 0; y < HEIGHT; y++) { // a wall on both sides of a cluster border with gaps at 30 and 120
+			setBlocked(95, y, y != 30 && y != 120);
+			setBlocked(96, y, y != 30 && y != 120);
+		}
+		map.setBlocked(96, 120, true); // only blocked for the requester, e.g. because it needs its player's ground
+
+		Path path = hierarchicalAStar.findPath(getPathable(10, 120), new ShortPoint2D(190, 120));
+		assertValidPath(10, 120, 190, 120, path);
+
+		map.setBlocked(96, 30, true);
+		assertNull(hierarchicalAStar.findPath(getPathable(10, 120), new ShortPoint2D(190, 120)));
+	}
+
+	private static void assertCloseToShortest(int shortestLength, Path path) {
+		assertTrue(path.getLength() >= shortestLength);
+		assertTrue(path.getLength() <= shortestLength * 1.1f);
+	}
+
+	private void setBlocked(int x, int y, boolean newBlocked) {
+		blocked[x][y] = newBlocked;
+		map.setBlocked(x, y, newBlocked);
+		clusterGraph.markDirty(x, y);
+	}
+
+	private void assertValidPath(int sx, int sy, int tx, int ty, Path path) {
+		assertNotNull(path);
+		int x = sx;
+		int y = sy;
+		while (path.hasNextStep()) {
+			int nextX = path.nextX();
+			int nextY = path.nextY();
+			assertNotNull("no step from " + x + "|" + y + " to " + nextX + "|" + nextY, EDirection.getDirection(nextX - x, nextY - y));
+			assertFalse(map.isBlocked(null, nextX, nextY));
+			x = nextX;
+			y = nextY;
+			path.goToNextStep();
+		}
+		assertEquals(tx, x);
+		assertEquals(ty, y);
+	}
+
+	private static IPathCalculatable getPathable(final int x, final int y) {
+		return new IPathCalculatable() {
+			@Override
+			public ShortPoint2D getPosition() {
+				return new ShortPoint2D(x, y);
+			}
+
+			@Override
+			public IPlayer getPlayer() {
+				return new IPlayer.DummyPlayer();
+			}
+
+			@Override
+			public boolean needsPlayersGround() {
+				return false;
+			}
+
+			@Override
+			public boolean isShip() {
+				return false;
+			}
+		};
+	}
+}
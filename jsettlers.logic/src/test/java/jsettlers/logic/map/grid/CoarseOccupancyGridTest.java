@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CoarseOccupancyGridTest {
+	private final CoarseOccupancyGrid grid = new CoarseOccupancyGrid(30, 20);
+
+	@Test
+	public void testGroupsOfTiles() {
+		grid.increment(3, 4, 2);
+		grid.increment(5, 1, 2);
+		grid.increment(29, 19, 31);
+
+		assertEquals(1 << 2, grid.getGroupsAt(0, 0));
+		assertEquals(1 << 2, grid.getGroupsAt(7, 7));
+		assertEquals(0, grid.getGroupsAt(8, 7));
+		assertEquals(1 << 31, grid.getGroupsAt(24, 16));
+
+		grid.decrement(3, 4, 2);
+		assertEquals(1 << 2, grid.getGroupsAt(0, 0));
+		grid.decrement(5, 1, 2);
+		assertEquals(0, grid.getGroupsAt(0, 0));
+	}
+
+	@Test
+	public void testGroupsInArea() {
+		grid.increment(10, 10, 0);
+		grid.increment(20, 3, 1);
+
+		assertEquals(0b11, grid.getGroupsInArea(-5, -5, 100, 100));
+		assertEquals(0b01, grid.getGroupsInArea(8, 8, 15, 15));
+		assertEquals(0b01, grid.getGroupsInArea(15, 15, 15, 15));
+		assertEquals(0b10, grid.getGroupsInArea(16, 0, 29, 7));
+		assertEquals(0, grid.getGroupsInArea(0, 16, 29, 19));
+		assertEquals(0, grid.getGroupsInArea(-10, -10, -1, -1));
+	}
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import jsettlers.common.mapobject.EMapObjectType;
+import jsettlers.logic.objects.StandardMapObject;
+import jsettlers.testutils.TestUtils;
+
+public class ObjectsGridTest {
+	private final ObjectsGrid grid = new ObjectsGrid((short) 20, (short) 20);
+
+	@Test
+	public void testAddAndRemoveObjects() {
+		AbstractHexMapObject stone = new StandardMapObject(EMapObjectType.STONE, false, null);
+		AbstractHexMapObject first = new StandardMapObject(EMapObjectType.WAVES, false, null);
+		AbstractHexMapObject second = new StandardMapObject(EMapObjectType.WAVES, false, null);
+		grid.addMapObjectAt(5, 6, stone);
+		grid.addMapObjectAt(5, 6, first);
+		grid.addMapObjectAt(5, 6, second);
+
+		assertSame(first, grid.getMapObjectAt(5, 6, EMapObjectType.WAVES));
+		assertTrue(grid.hasMapObjectType(5, 6, EMapObjectType.TREE_ADULT, EMapObjectType.STONE));
+		assertFalse(grid.hasMapObjectType(6, 5, EMapObjectType.STONE));
+		assertNull(grid.getMapObjectAt(5, 6, EMapObjectType.TREE_ADULT));
+
+		assertTrue(grid.removeMapObject(5, 6, first));
+		assertFalse(grid.removeMapObject(5, 6, first));
+		assertSame(second, grid.getMapObjectAt(5, 6, EMapObjectType.WAVES));
+
+		assertTrue(grid.removeMapObject(5, 6, second));
+		assertFalse(grid.hasMapObjectType(5, 6, EMapObjectType.WAVES));
+		assertSame(stone, grid.getObjectsAt(5, 6));
+
+		grid.addMapObjectAt(5, 6, first);
+		grid.removeMapObjectTypes(5, 6, EnumSet.of(EMapObjectType.STONE, EMapObjectType.WAVES));
+		assertFalse(grid.hasMapObjectType(5, 6, EMapObjectType.STONE, EMapObjectType.WAVES));
+		assertNull(grid.getObjectsAt(5, 6));
+	}
+
+	@Test
+	public void testChangedObjectTypes() {
+		GrowingTestObject tree = new GrowingTestObject();
+		grid.addMapObjectAt(3, 4, tree);
+		assertTrue(grid.hasMapObjectType(3, 4, EMapObjectType.TREE_GROWING));
+		assertFalse(grid.hasCuttableObject(3, 4, EMapObjectType.TREE_ADULT));
+
+		tree.type = EMapObjectType.TREE_ADULT;
+		grid.mapObjectChangedAt(3, 4);
+		assertFalse(grid.hasMapObjectType(3, 4, EMapObjectType.TREE_GROWING));
+		assertTrue(grid.hasCuttableObject(3, 4, EMapObjectType.TREE_ADULT));
+		assertSame(tree, grid.getMapObjectAt(3, 4, EMapObjectType.TREE_ADULT));
+	}
+
+	@Test
+	public void testObjectTypesAreRestoredAfterSerialization() throws IOException, ClassNotFoundException {
+		grid.addMapObjectAt(1, 2, new StandardMapObject(EMapObjectType.STONE, false, null));
+		grid.addMapObjectAt(1, 2, new StandardMapObject(EMapObjectType.CONSTRUCTION_MARK, false, null));
+		grid.addMapObjectAt(1, 2, new StandardMapObject(EMapObjectType.WAVES, false, null));
+
+		ObjectsGrid deserialized = TestUtils.serializeAndDeserialize(grid);
+
+		assertTrue(deserialized.hasMapObjectType(1, 2, EMapObjectType.STONE));
+		assertFalse(deserialized.hasMapObjectType(1, 2, EMapObjectType.CONSTRUCTION_MARK));
+		assertEquals(EMapObjectType.WAVES, deserialized.getObjectsAt(1, 2).getNextObject().getObjectType());
+	}
+
+	@Test
+	public void testAttackableTowersAreFoundInArea() {
+		AbstractHexMapObject tower = new StandardMapObject(EMapObjectType.ATTACKABLE_TOWER, false, null);
+		grid.addMapObjectAt(12, 3, new StandardMapObject(EMapObjectType.STONE, false, null));
+		assertFalse(grid.hasAttackableTowersInArea(0, 0, 19, 19));
+
+		grid.addMapObjectAt(12, 3, tower);
+		assertTrue(grid.hasAttackableTowersInArea(10, 0, 19, 5));
+		assertTrue(grid.hasAttackableTowersNear(8, 7));
+		assertFalse(grid.hasAttackableTowersInArea(0, 8, 19, 19));
+		assertFalse(grid.hasAttackableTowersNear(7, 3));
+
+		grid.removeMapObjectTypes(12, 3, EnumSet.of(EMapObjectType.ATTACKABLE_TOWER));
+		assertFalse(grid.hasAttackableTowersInArea(0, 0, 19, 19));
+		assertTrue(grid.hasMapObjectType(12, 3, EMapObjectType.STONE));
+	}
+
+	private static class GrowingTestObject extends AbstractHexMapObject {
+		private static final long serialVersionUID = 1L;
+
+		private EMapObjectType type = EMapObjectType.TREE_GROWING;
+
+		@Override
+		public EMapObjectType getObjectType() {
+			return type;
+		}
+
+		@Override
+		public float getStateProgress() {
+			return 0;
+		}
+
+		@Override
+		public boolean cutOff() {
+			return false;
+		}
+
+		@Override
+		public boolean canBeCut() {
+			return type == EMapObjectType.TREE_ADULT;
+		}
+	}
+}
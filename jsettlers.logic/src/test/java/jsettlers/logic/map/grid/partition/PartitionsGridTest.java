@@ -203,6 +203,45 @@ public class PartitionsGridTest {
 		assertOfferAt(materialPos, EMaterialType.STONE, 2);
 	}
 
+	@Test
+	public void testDividedPartitionTakesOverItsOffers() {
+		addTower(0, 50, 100, 40);
+		addTower(0, 100, 100, 40);
+		addTower(0, 150, 100, 40);
+		ShortPoint2D leftPos = new ShortPoint2D(40, 100);
+		ShortPoint2D rightPos = new ShortPoint2D(160, 100);
+		grid.getPartitionAt(leftPos.x, leftPos.y).addOffer(leftPos, EMaterialType.STONE, EOfferPriority.NORMAL);
+		grid.getPartitionAt(rightPos.x, rightPos.y).addOffer(rightPos, EMaterialType.PLANK, EOfferPriority.NORMAL);
+		int numberOfElements = grid.getPartitionAt(leftPos.x, leftPos.y).getNumberOfElements();
+
+		changePlayerOfTower(100, 100, 1);
+
+		Partition left = grid.getPartitionAt(leftPos.x, leftPos.y);
+		Partition right = grid.getPartitionAt(rightPos.x, rightPos.y);
+		Partition middle = grid.getPartitionAt(100, 100);
+		assertTrue(left != right);
+		assertEquals(numberOfElements, left.getNumberOfElements() + right.getNumberOfElements() + middle.getNumberOfElements());
+		assertOfferAt(leftPos, EMaterialType.STONE, 1);
+		assertOfferAt(rightPos, EMaterialType.PLANK, 1);
+		assertNull(left.getMaterialOfferAt(rightPos, EMaterialType.PLANK, EOfferPriority.NORMAL));
+		assertNull(right.getMaterialOfferAt(leftPos, EMaterialType.STONE, EOfferPriority.NORMAL));
+	}
+
+	@Test
+	public void testEnemyTowerAtTheBorderDoesNotDividePartition() {
+		addTower(0, 100, 100, 40);
+		addTower(0, 100, 140, 20);
+		removeTower(100, 140); // the area outside of the first tower is no longer enforced
+		short partition = grid.getPartitionIdAt(100, 100);
+
+		addTower(1, 100, 150, 15); // takes a bite out of the border
+
+		assertTrue(grid.getPartitionIdAt(100, 150) != partition);
+		assertEquals(partition, grid.getPartitionIdAt(81, 140)); // left of the bite
+		assertEquals(partition, grid.getPartitionIdAt(120, 145)); // right of the bite
+		assertEquals(partition, grid.getPartitionIdAt(100, 100));
+	}
+
 	@Test
 	public void testTakeOverCloseTower() {
 		addTower(0, 50, 100, 40);
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.partition.manager.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.common.position.ILocatable;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.MathUtils;
+import jsettlers.testutils.TestUtils;
+
+public class PositionableListTest {
+	private static final int MAP_SIZE = 200;
+
+	@Test
+	public void testTiesAreBrokenByInsertionOrder() {
+		PositionableList<TestLocatable> list = new PositionableList<>();
+		TestLocatable first = new TestLocatable(10, 12);
+		TestLocatable second = new TestLocatable(12, 10);
+		list.insert(first);
+		list.insert(second);
+		for (int i = 0; i < 30; i++) {
+			list.insert(new TestLocatable(150 + i, 150));
+		}
+
+		assertSame(first, list.removeObjectNextTo(new ShortPoint2D(11, 11)));
+		assertSame(second, list.removeObjectNextTo(new ShortPoint2D(11, 11)));
+	}
+
+	@Test
+	public void testObjectsAtPosition() {
+		PositionableList<TestLocatable> list = new PositionableList<>();
+		TestLocatable first = new TestLocatable(20, 20);
+		TestLocatable second = new TestLocatable(20, 20);
+		list.insert(new TestLocatable(21, 20));
+		list.insert(first);
+		list.insert(second);
+
+		assertSame(first, list.getObjectAt(new ShortPoint2D(20, 20)));
+		assertNull(list.getObjectAt(new ShortPoint2D(19, 20)));
+
+		PositionableList<TestLocatable> otherList = new PositionableList<>();
+		List<TestLocatable> moved = new ArrayList<>();
+		list.moveObjectsAtPositionTo(new ShortPoint2D(20, 20), otherList, moved::add);
+
+		assertEquals(2, moved.size());
+		assertSame(first, moved.get(0));
+		assertSame(second, moved.get(1));
+		assertEquals(1, list.size());
+		assertSame(first, otherList.removeObjectAt(new ShortPoint2D(20, 20)));
+		assertSame(second, otherList.removeObjectAt(new ShortPoint2D(20, 20)));
+		assertTrue(otherList.isEmpty());
+	}
+
+	@Test
+	public void testMovedObjectsAreFound() {
+		PositionableList<TestLocatable> list = new PositionableList<>();
+		TestLocatable moving = new TestLocatable(5, 5);
+		list.insert(moving);
+		for (int i = 0; i < 30; i++) {
+			list.insert(new TestLocatable(100 + i, 100));
+		}
+
+		moving.position = new ShortPoint2D(180, 180);
+		assertTrue(list.positionChanged(moving));
+		assertFalse(list.positionChanged(new TestLocatable(1, 1)));
+
+		assertSame(moving, list.getObjectAt(new ShortPoint2D(180, 180)));
+		assertSame(moving, list.removeObjectNextTo(new ShortPoint2D(190, 190)));
+	}
+
+	@Test
+	public void testUntrackedObjectsAreFound() {
+		PositionableList<TestLocatable> list = new PositionableList<>();
+		TestLocatable untracked = new TestLocatable(5, 5);
+		list.insert(untracked);
+		for (int i = 0; i < 30; i++) {
+			list.insert(new TestLocatable(100 + i, 100));
+		}
+
+		list.stopPositionTracking(untracked);
+		untracked.position = new ShortPoint2D(180, 180);
+
+		assertSame(untracked, list.getObjectAt(new ShortPoint2D(180, 180)));
+		assertSame(untracked, list.removeObjectNextTo(new ShortPoint2D(190, 190)));
+	}
+
+	@Test
+	public void testLoadedObjectsAreTrackedAgainAfterMoving() throws IOException, ClassNotFoundException {
+		PositionableList<TestLocatable> list = new PositionableList<>();
+		for (int i = 0; i < 30; i++) {
+			list.insert(new TestLocatable(100 + i, 100));
+		}
+		list.insert(new TestLocatable(5, 5));
+
+		list = TestUtils.serializeAndDeserialize(list);
+		TestLocatable loaded = list.getObjectAt(new ShortPoint2D(5, 5));
+
+		loaded.position = new ShortPoint2D(60, 60); // positions of loaded objects are read on every lookup
+		assertSame(loaded, list.getObjectAt(new ShortPoint2D(60, 60)));
+
+		loaded.position = new ShortPoint2D(180, 180);
+		assertTrue(list.positionChanged(loaded));
+		assertSame(loaded, list.getObjectAt(new ShortPoint2D(180, 180)));
+		assertSame(loaded, list.removeObjectNextTo(new ShortPoint2D(190, 190)));
+	}
+
+	@Test
+	public void testRandomOperationsMatchLinearSearch() throws IOException, ClassNotFoundException {
+		Random random = new Random(42);
+		PositionableList<TestLocatable> list = new PositionableList<>();
+		List<TestLocatable> expected = new ArrayList<>();
+
+		for (int i = 0; i < 5000; i++) {
+			int operation = random.nextInt(10);
+			if (operation < 4 || expected.isEmpty()) {
+				TestLocatable object = new TestLocatable(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+				list.insert(object);
+				expected.add(object);
+			} else if (operation < 7) {
+				TestLocatable object = expected.get(random.nextInt(expected.size()));
+				object.position = new ShortPoint2D(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+				list.positionChanged(object);
+			} else if (operation < 9) {
+				ShortPoint2D position = new ShortPoint2D(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+				TestLocatable closest = removeClosest(expected, position);
+				assertSame(closest, list.removeObjectNextTo(position));
+			} else {
+				TestLocatable object = expected.get(random.nextInt(expected.size()));
+				ShortPoint2D position = object.getPosition();
+				assertSame(removeAt(expected, position), list.removeObjectAt(position));
+			}
+			assertEquals(expected.size(), list.size());
+		}
+
+		list = TestUtils.serializeAndDeserialize(list);
+		expected = TestUtils.serializeAndDeserialize(expected);
+		assertEquals(expected.toString(), list.toString());
+
+		while (!expected.isEmpty()) {
+			ShortPoint2D position = new ShortPoint2D(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+			assertEquals(removeClosest(expected, position).toString(), list.removeObjectNextTo(position).toString());
+		}
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void testMoveObjectsInAreaMatchesMovingEachPosition() {
+		Random random = new Random(3);
+		PositionableList<TestLocatable> list = new PositionableList<>();
+		PositionableList<TestLocatable> expectedList = new PositionableList<>();
+		for (int i = 0; i < 500; i++) {
+			TestLocatable object = new TestLocatable(random.nextInt(30), random.nextInt(30));
+			list.insert(object);
+			expectedList.insert(object);
+			if (random.nextInt(10) == 0) {
+				list.stopPositionTracking(object);
+				expectedList.stopPositionTracking(object);
+			}
+		}
+
+		List<ShortPoint2D> positions = new ArrayList<>();
+		for (int x = 5; x < 20; x++) {
+			for (int y = 5; y < 20; y++) {
+				positions.add(new ShortPoint2D(x, y));
+			}
+		}
+		Collections.shuffle(positions, random);
+
+		PositionableList<TestLocatable> newList = new PositionableList<>();
+		PositionableList<TestLocatable> expectedNewList = new PositionableList<>();
+		List<TestLocatable> moved = new ArrayList<>();
+		List<TestLocatable> expectedMoved = new ArrayList<>();
+		list.moveObjectsInAreaTo(new OrderedArea(positions), newList, moved::add);
+		for (ShortPoint2D position : positions) {
+			expectedList.moveObjectsAtPositionTo(position, expectedNewList, expectedMoved::add);
+		}
+
+		assertEquals(expectedMoved, moved);
+		assertEquals(expectedList.toString(), list.toString());
+		assertEquals(expectedNewList.toString(), newList.toString());
+	}
+
+	private static TestLocatable removeClosest(List<TestLocatable> objects, ShortPoint2D position) {
+		int bestDistance = Integer.MAX_VALUE;
+		TestLocatable best = null;
+		for (TestLocatable object : objects) {
+			int distance = MathUtils.squareHypot(position, object.getPosition());
+			if (distance < bestDistance) {
+				bestDistance = distance;
+				best = object;
+			}
+		}
+		objects.remove(best);
+		return best;
+	}
+
+	private static TestLocatable removeAt(List<TestLocatable> objects, ShortPoint2D position) {
+		for (Iterator<TestLocatable> iterator = objects.iterator(); iterator.hasNext(); ) {
+			TestLocatable object = iterator.next();
+			if (object.getPosition().equals(position)) {
+				iterator.remove();
+				return object;
+			}
+		}
+		return null;
+	}
+
+	private static class TestLocatable implements ILocatable, Serializable {
+		private static final long serialVersionUID = 1L;
+		private static int nextId = 0;
+
+		private final int id = nextId++;
+		private ShortPoint2D position;
+
+		TestLocatable(int x, int y) {
+			this.position = new ShortPoint2D(x, y);
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return position;
+		}
+
+		@Override
+		public String toString() {
+			return id + "@" + position;
+		}
+	}
+}
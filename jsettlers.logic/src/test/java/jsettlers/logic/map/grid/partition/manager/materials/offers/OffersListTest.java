@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.partition.manager.materials.offers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.common.material.EMaterialType;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.MathUtils;
+import jsettlers.testutils.TestUtils;
+
+public class OffersListTest {
+	private static final int MAP_SIZE = 150;
+	private static final EMaterialType[] MATERIALS = { EMaterialType.PLANK, EMaterialType.STONE };
+
+	private final OffersList offersList = new OffersList(null);
+
+	@Test
+	public void testTakenOffersAreRemovedBySearch() {
+		offersList.addOffer(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL);
+		offersList.addOffer(pos(30, 30), EMaterialType.PLANK, EOfferPriority.NORMAL);
+
+		MaterialOffer offer = offersList.getOfferCloseTo(EMaterialType.PLANK, EOfferPriority.LOWEST, pos(12, 12));
+		assertSame(offersList.getOfferObjectAt(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL), offer);
+		offer.distributionAccepted();
+		assertEquals(pos(30, 30), offersList.getOfferCloseTo(EMaterialType.PLANK, EOfferPriority.LOWEST, pos(12, 12)).getPosition());
+
+		offer.offerTaken();
+		assertSame(offer, offersList.getOfferObjectAt(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL));
+		assertFalse(offersList.isEmpty(EMaterialType.PLANK, EOfferPriority.LOWEST));
+
+		offersList.getOfferCloseTo(EMaterialType.PLANK, EOfferPriority.LOWEST, pos(12, 12));
+		assertNull(offersList.getOfferObjectAt(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL));
+	}
+
+	@Test
+	public void testIsEmptyFollowsDistribution() {
+		offersList.addOffer(pos(10, 10), EMaterialType.PLANK, EOfferPriority.LOW);
+		assertFalse(offersList.isEmpty(EMaterialType.PLANK, EOfferPriority.LOW));
+		assertTrue(offersList.isEmpty(EMaterialType.PLANK, EOfferPriority.NORMAL));
+
+		MaterialOffer offer = offersList.getOfferCloseTo(EMaterialType.PLANK, EOfferPriority.LOW, pos(0, 0));
+		offer.distributionAccepted();
+		assertTrue(offersList.isEmpty(EMaterialType.PLANK, EOfferPriority.LOW));
+
+		offer.distributionAborted();
+		assertFalse(offersList.isEmpty(EMaterialType.PLANK, EOfferPriority.LOW));
+
+		offersList.updateOfferPriority(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL);
+		assertFalse(offersList.isEmpty(EMaterialType.PLANK, EOfferPriority.NORMAL));
+
+		offer.distributionAccepted();
+		offer.offerTaken();
+		assertTrue(offersList.isEmpty(EMaterialType.PLANK, EOfferPriority.LOW));
+		assertNull(offersList.getOfferObjectAt(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL));
+	}
+
+	@Test
+	public void testStateIsKeptAfterSerialization() throws IOException, ClassNotFoundException {
+		offersList.addOffer(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL);
+		offersList.addOffer(pos(40, 10), EMaterialType.PLANK, EOfferPriority.NORMAL);
+		offersList.getOfferCloseTo(EMaterialType.PLANK, EOfferPriority.LOWEST, pos(10, 10)).distributionAccepted();
+
+		OffersList deserialized = TestUtils.serializeAndDeserialize(offersList);
+		MaterialOffer offer = deserialized.getOfferObjectAt(pos(40, 10), EMaterialType.PLANK, EOfferPriority.NORMAL);
+		assertSame(offer, deserialized.getOfferCloseTo(EMaterialType.PLANK, EOfferPriority.LOWEST, pos(10, 10)));
+
+		offer.distributionAccepted();
+		assertTrue(deserialized.isEmpty(EMaterialType.PLANK, EOfferPriority.LOWEST));
+	}
+
+	@Test
+	public void testOffersChangedBeforeFirstUseAfterSerialization() throws IOException, ClassNotFoundException {
+		offersList.addOffer(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL);
+
+		MaterialOffer storedOffer = offersList.getOfferObjectAt(pos(10, 10), EMaterialType.PLANK, EOfferPriority.NORMAL);
+		Object[] deserialized = TestUtils.serializeAndDeserialize(new Object[] { offersList, storedOffer });
+		OffersList deserializedList = (OffersList) deserialized[0];
+		MaterialOffer offer = (MaterialOffer) deserialized[1];
+
+		offer.distributionAccepted(); // the list has not inserted the loaded offers yet
+		assertTrue(deserializedList.isEmpty(EMaterialType.PLANK, EOfferPriority.LOWEST));
+
+		offer.distributionAborted();
+		assertFalse(deserializedList.isEmpty(EMaterialType.PLANK, EOfferPriority.LOWEST));
+	}
+
+	@Test
+	public void testRandomDistributionMatchesLinearSearch() {
+		Random random = new Random(7);
+		OffersList otherList = new OffersList(null);
+		List<List<MaterialOffer>> offersOfMaterials = new ArrayList<>();
+		for (int i = 0; i < MATERIALS.length; i++) {
+			offersOfMaterials.add(new ArrayList<>());
+		}
+		List<MaterialOffer> inDistribution = new ArrayList<>();
+
+		for (int i = 0; i < 10000; i++) {
+			int materialIndex = random.nextInt(MATERIALS.length);
+			EMaterialType material = MATERIALS[materialIndex];
+			List<MaterialOffer> offers = offersOfMaterials.get(materialIndex);
+			EOfferPriority priority = EOfferPriority.VALUES[random.nextInt(EOfferPriority.NUMBER_OF_PRIORITIES)];
+			ShortPoint2D position = pos(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+			int operation = random.nextInt(20);
+
+			if (operation < 6) {
+				offersList.addOffer(position, material, priority);
+				MaterialOffer offer = offersList.getOfferObjectAt(position, material, priority);
+				if (!offers.contains(offer)) {
+					offers.add(offer);
+				}
+
+			} else if (operation < 12) {
+				assertEquals(getClosestDistance(offers, priority, position) == Integer.MAX_VALUE, offersList.isEmpty(material, priority));
+
+				MaterialOffer offer = offersList.getOfferCloseTo(material, priority, position);
+				if (offer == null) {
+					assertEquals(Integer.MAX_VALUE, getClosestDistance(offers, priority, position));
+				} else {
+					assertTrue(offer.isActive());
+					assertEquals(getClosestDistance(offers, priority, position), MathUtils.squareHypot(position, offer.getPosition()));
+					offer.distributionAccepted();
+					inDistribution.add(offer);
+				}
+
+			} else if (operation < 16 && !inDistribution.isEmpty()) {
+				inDistribution.remove(random.nextInt(inDistribution.size())).offerTaken();
+
+			} else if (operation < 18 && !inDistribution.isEmpty()) {
+				inDistribution.remove(random.nextInt(inDistribution.size())).distributionAborted();
+
+			} else if (operation < 19 && !offers.isEmpty()) {
+				MaterialOffer offer = offers.get(random.nextInt(offers.size()));
+				offersList.updateOfferPriority(offer.getPosition(), material, priority);
+
+			} else {
+				offersList.moveOffersAtPositionTo(position, otherList);
+				otherList.moveOffersAtPositionTo(position, offersList);
+			}
+		}
+
+		otherList.moveAll(offersList);
+		for (int materialIndex = 0; materialIndex < MATERIALS.length; materialIndex++) {
+			EMaterialType material = MATERIALS[materialIndex];
+			int closestDistance = getClosestDistance(offersOfMaterials.get(materialIndex), EOfferPriority.LOWEST, pos(0, 0));
+
+			assertTrue(offersList.isEmpty(material, EOfferPriority.LOWEST));
+			assertEquals(closestDistance == Integer.MAX_VALUE, otherList.isEmpty(material, EOfferPriority.LOWEST));
+
+			MaterialOffer offer = otherList.getOfferCloseTo(material, EOfferPriority.LOWEST, pos(0, 0));
+			if (offer != null) {
+				assertEquals(closestDistance, MathUtils.squareHypot(pos(0, 0), offer.getPosition()));
+				assertSame(offer, otherList.getOfferObjectAt(offer.getPosition(), material, offer.getPriority()));
+			}
+		}
+	}
+
+	private static int getClosestDistance(List<MaterialOffer> offers, EOfferPriority minimumPriority, ShortPoint2D position) {
+		int bestDistance = Integer.MAX_VALUE;
+		for (MaterialOffer offer : offers) {
+			if (offer.isActive() && offer.getPriority().ordinal() >= minimumPriority.ordinal()) {
+				bestDistance = Math.min(bestDistance, MathUtils.squareHypot(position, offer.getPosition()));
+			}
+		}
+		return bestDistance;
+	}
+
+	private static ShortPoint2D pos(int x, int y) {
+		return new ShortPoint2D(x, y);
+	}
+}
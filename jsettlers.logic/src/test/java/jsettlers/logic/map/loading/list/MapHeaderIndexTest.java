@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.loading.list;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jsettlers.logic.map.loading.newmap.MapFileHeader;
+import jsettlers.logic.map.loading.newmap.MapFileHeader.MapType;
+
+public class MapHeaderIndexTest {
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	static MapFileHeader createHeader(String name) {
+		short[] previewImage = new short[MapFileHeader.PREVIEW_IMAGE_SIZE * MapFileHeader.PREVIEW_IMAGE_SIZE];
+		previewImage[7] = 42;
+		return new MapFileHeader(MapType.NORMAL, name, "base", "description of " + name, (short) 100, (short) 120, (short) 1, (short) 3,
+				new Date(123456789L), previewImage);
+	}
+
+	static File writeMapFile(File file, MapFileHeader header) throws IOException {
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			header.writeTo(out);
+			out.write(new byte[] { 1, 2, 3 });
+		}
+		return file;
+	}
+
+	@Test
+	public void testHeadersAreRestoredFromTheIndexFile() throws IOException {
+		File mapFile = writeMapFile(folder.newFile("test.rmap"), createHeader("test"));
+		File indexFile = new File(folder.getRoot(), MapHeaderIndex.DEFAULT_FILE_NAME);
+
+		MapHeaderIndex index = new MapHeaderIndex(indexFile);
+		assertNull(index.getHeader(mapFile));
+		index.putHeader(mapFile, createHeader("test"));
+		index.save();
+
+		MapFileHeader header = new MapHeaderIndex(indexFile).getHeader(mapFile);
+		assertNotNull(header);
+		assertEquals("test", header.getName());
+		assertEquals("description of test", header.getDescription());
+		assertEquals("base", header.getBaseMapId());
+		assertEquals(3, header.getMaxPlayers());
+		assertEquals(120, header.getHeight());
+		assertEquals(123456789L, header.getCreationDate().getTime());
+		assertArrayEquals(createHeader("test").getPreviewImage(), header.getPreviewImage());
+	}
+
+	@Test
+	public void testChangedFilesAreNotServed() throws IOException {
+		File mapFile = writeMapFile(folder.newFile("test.rmap"), createHeader("test"));
+		MapHeaderIndex index = new MapHeaderIndex(new File(folder.getRoot(), MapHeaderIndex.DEFAULT_FILE_NAME));
+		index.putHeader(mapFile, createHeader("test"));
+
+		try (FileOutputStream out = new FileOutputStream(mapFile, true)) {
+			out.write(4);
+		}
+		assertNull(index.getHeader(mapFile));
+	}
+
+	@Test
+	public void testRemovedFilesAreDropped() throws IOException {
+		File mapFile = writeMapFile(folder.newFile("test.rmap"), createHeader("test"));
+		File otherMapFile = writeMapFile(folder.newFile("other.rmap"), createHeader("other"));
+		File indexFile = new File(folder.getRoot(), MapHeaderIndex.DEFAULT_FILE_NAME);
+
+		MapHeaderIndex index = new MapHeaderIndex(indexFile);
+		index.putHeader(mapFile, createHeader("test"));
+		index.putHeader(otherMapFile, createHeader("other"));
+		index.retainFiles(Collections.singletonList(otherMapFile));
+		index.save();
+
+		MapHeaderIndex restoredIndex = new MapHeaderIndex(indexFile);
+		assertNull(restoredIndex.getHeader(mapFile));
+		assertEquals("other", restoredIndex.getHeader(otherMapFile).getName());
+	}
+
+	@Test
+	public void testBrokenIndexFileIsIgnored() throws IOException {
+		File indexFile = folder.newFile(MapHeaderIndex.DEFAULT_FILE_NAME);
+		try (FileOutputStream out = new FileOutputStream(indexFile)) {
+			out.write(new byte[] { 1, 2, 3, 4 });
+		}
+
+		File mapFile = writeMapFile(folder.newFile("test.rmap"), createHeader("test"));
+		assertNull(new MapHeaderIndex(indexFile).getHeader(mapFile));
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.loading.list;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jsettlers.logic.map.loading.MapLoader;
+
+public class MapListTest {
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testMapsAreListedInOrderWhenHeadersAreRead() throws IOException {
+		File mapsDirectory = folder.newFolder("maps");
+		List<String> expectedNames = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			MapHeaderIndexTest.writeMapFile(new File(mapsDirectory, "map" + i + MapLoader.MAP_EXTENSION), MapHeaderIndexTest.createHeader("map" + i));
+		}
+
+		MapList mapList = createMapList(mapsDirectory, null);
+		List<MapLoader> listedMaps = mapList.getFreshMaps().getItems();
+		mapList.awaitHeaderReads();
+
+		DirectoryMapLister lister = new DirectoryMapLister(mapsDirectory, false);
+		lister.listMaps(map -> expectedNames.add(map.getFileName().replace(MapLoader.MAP_EXTENSION, "")));
+		assertEquals(expectedNames, getNames(listedMaps));
+	}
+
+	@Test
+	public void testIndexedMapsAreListedImmediately() throws IOException {
+		File mapsDirectory = folder.newFolder("maps");
+		MapHeaderIndexTest.writeMapFile(new File(mapsDirectory, "first" + MapLoader.MAP_EXTENSION), MapHeaderIndexTest.createHeader("first"));
+		File indexFile = new File(folder.getRoot(), MapHeaderIndex.DEFAULT_FILE_NAME);
+
+		MapList mapList = createMapList(mapsDirectory, new MapHeaderIndex(indexFile));
+		assertNotNull(mapList.getMapByName("first"));
+
+		MapHeaderIndexTest.writeMapFile(new File(mapsDirectory, "second" + MapLoader.MAP_EXTENSION), MapHeaderIndexTest.createHeader("second"));
+		MapList newMapList = createMapList(mapsDirectory, new MapHeaderIndex(indexFile));
+		List<MapLoader> listedMaps = newMapList.getFreshMaps().getItems();
+		assertEquals("first", listedMaps.get(0).getMapName()); // listed without waiting for the header reads
+
+		newMapList.awaitHeaderReads();
+		assertEquals(2, listedMaps.size());
+		assertSame(listedMaps.get(1), newMapList.getMapByName("second"));
+	}
+
+	private MapList createMapList(File mapsDirectory, MapHeaderIndex headerIndex) throws IOException {
+		DirectoryMapLister saveDirectory = new DirectoryMapLister(folder.newFolder(), false);
+		return new MapList(Collections.singletonList(new DirectoryMapLister(mapsDirectory, false)), saveDirectory, headerIndex);
+	}
+
+	private static List<String> getNames(List<MapLoader> maps) {
+		List<String> names = new ArrayList<>();
+		for (MapLoader map : maps) {
+			names.add(map.getMapName());
+		}
+		return names;
+	}
+}
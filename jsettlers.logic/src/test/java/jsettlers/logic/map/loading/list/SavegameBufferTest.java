@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.loading.list;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SavegameBufferTest {
+
+	@Test
+	public void testWritesAcrossBlocksAreKept() throws IOException {
+		Random random = new Random(3);
+		SavegameBuffer buffer = new SavegameBuffer();
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+		while (expected.size() < 3 * 1024 * 1024) {
+			if (random.nextBoolean()) {
+				int value = random.nextInt(256);
+				buffer.write(value);
+				expected.write(value);
+			} else {
+				byte[] data = new byte[random.nextInt(300000)];
+				random.nextBytes(data);
+				int offset = random.nextInt(data.length + 1);
+				buffer.write(data, offset, data.length - offset);
+				expected.write(data, offset, data.length - offset);
+			}
+		}
+
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		buffer.writeTo(actual);
+		assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+	}
+
+	@Test
+	public void testEmptyBuffer() throws IOException {
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		new SavegameBuffer().writeTo(actual);
+		assertArrayEquals(new byte[0], actual.toByteArray());
+	}
+}
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.loading.original;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jsettlers.common.Color;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.loading.EMapStartResources;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.list.DirectoryMapLister.ListedMapFile;
+import jsettlers.logic.map.loading.list.IListedMap;
+import jsettlers.logic.map.loading.original.data.EOriginalMapFilePartType;
+import jsettlers.logic.map.loading.original.data.EOriginalMapFileVersion;
+
+public class OriginalMapFileContentReaderTest {
+	private static final int WIDTH_HEIGHT = 20;
+	private static final int PREVIEW_SOURCE_SIZE = 32;
+	private static final int PREVIEW_SIZE = 16;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testMappedFileIsDecrypted() throws IOException, MapLoadException {
+		OriginalMapFileContentReader reader = new OriginalMapFileContentReader(new ListedMapFile(writeMapFile(createMap())));
+
+		assertTrue(reader.isChecksumValid());
+		reader.loadMapResources();
+		reader.readBasicMapInformation(PREVIEW_SIZE, PREVIEW_SIZE);
+
+		assertEquals(WIDTH_HEIGHT, reader.widthHeight);
+		assertEquals(2, reader.mapData.getPlayerCount());
+		assertEquals(new ShortPoint2D(3, 4), reader.mapData.getStartPoint(0));
+		assertEquals(new ShortPoint2D(13, 14), reader.mapData.getStartPoint(1));
+		assertArrayEquals(createExpectedPreview(), reader.getPreviewImage());
+
+		reader.readMapData();
+		assertHeights(reader.mapData);
+	}
+
+	@Test
+	public void testStreamedMapIsReadLikeMappedFile() throws IOException, MapLoadException {
+		OriginalMapFileContentReader reader = new OriginalMapFileContentReader(new StreamedMap(createMap()));
+
+		assertTrue(reader.isChecksumValid());
+		reader.loadMapResources();
+		reader.readBasicMapInformation(PREVIEW_SIZE, PREVIEW_SIZE);
+		assertEquals(WIDTH_HEIGHT, reader.widthHeight);
+		assertArrayEquals(createExpectedPreview(), reader.getPreviewImage());
+
+		reader.readMapData();
+		assertHeights(reader.mapData);
+	}
+
+	@Test
+	public void testMapIsReadAgainAfterBufferHasBeenFreed() throws IOException, MapLoadException {
+		IListedMap listedMap = new ListedMapFile(writeMapFile(createMap()));
+		OriginalMapFileContentReader reader = new OriginalMapFileContentReader(listedMap);
+		reader.loadMapResources();
+		reader.readBasicMapInformation(PREVIEW_SIZE, PREVIEW_SIZE);
+		reader.freeBuffer();
+
+		reader.reOpen(listedMap);
+		reader.loadMapResources();
+		reader.readBasicMapInformation();
+		reader.readMapData();
+
+		assertEquals(WIDTH_HEIGHT, reader.widthHeight);
+		assertHeights(reader.mapData);
+	}
+
+	@Test
+	public void testDataIsKeptWhenMappedFileIsClosed() throws IOException, MapLoadException {
+		IListedMap listedMap = new ListedMapFile(writeMapFile(createMap()));
+		OriginalMapFileContentReader reader = new OriginalMapFileContentReader(listedMap);
+		reader.loadMapResources();
+		reader.readBasicMapInformation();
+		reader.readMapData();
+		reader.close();
+		reader.close();
+
+		assertHeights(reader.mapData);
+
+		reader.reOpen(listedMap);
+		assertTrue(reader.isChecksumValid());
+		reader.close();
+	}
+
+	@Test
+	public void testPlayerNameExceedingTheFileIsEmpty() throws IOException, MapLoadException {
+		byte[] map = createMap();
+		ByteBuffer truncatedMap = ByteBuffer.allocate(map.length + 68).order(ByteOrder.LITTLE_ENDIAN);
+		truncatedMap.put(map, 0, map.length - 8); // without the end of file
+
+		// - replaces the player information by one ending in the name of the second player
+		ByteBuffer playerInfo = createPart(45 + 12 + 3);
+		playerInfo.putInt(0).putInt(3).putInt(4).put(new byte[33]);
+		playerInfo.putInt(1).putInt(13).putInt(14).put("Pla".getBytes(StandardCharsets.ISO_8859_1));
+		putPart(truncatedMap, EOriginalMapFilePartType.PLAYER_INFO, playerInfo);
+		truncatedMap.putInt(0).putInt(0); // end of file
+
+		OriginalMapFileContentReader reader = new OriginalMapFileContentReader(new ListedMapFile(writeMapFile(truncatedMap.array())));
+		reader.loadMapResources();
+		reader.readBasicMapInformation();
+
+		assertEquals(new ShortPoint2D(13, 14), reader.mapData.getStartPoint(1));
+		assertEquals(WIDTH_HEIGHT, reader.widthHeight);
+		reader.close();
+	}
+
+	@Test
+	public void testChangedContentInvalidatesChecksum() throws IOException {
+		byte[] map = createMap();
+		map[map.length - 20] ^= 0x10;
+
+		assertFalse(new OriginalMapFileContentReader(new StreamedMap(map)).isChecksumValid());
+	}
+
+	private File writeMapFile(byte[] map) throws IOException {
+		File file = folder.newFile("test.map");
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(map);
+		}
+		return file;
+	}
+
+	private static void assertHeights(OriginalMapFileContent mapData) {
+		for (int y = 0; y < WIDTH_HEIGHT; y++) {
+			for (int x = 0; x < WIDTH_HEIGHT; x++) {
+				assertEquals(Math.round(getHeight(x, y) * 127f / 225f), mapData.getLandscapeHeight(x, y));
+			}
+		}
+	}
+
+	private static int getHeight(int x, int y) {
+		return (x * 3 + y * 7) % 226;
+	}
+
+	private static int getPreviewColor(int x, int y) {
+		return (x * 2011 + y * 97) & 0xFFFF;
+	}
+
+	private static short[] createExpectedPreview() {
+		int scale = PREVIEW_SOURCE_SIZE / PREVIEW_SIZE;
+		short[] preview = new short[PREVIEW_SIZE * PREVIEW_SIZE];
+		for (int y = 0; y < PREVIEW_SIZE; y++) {
+			for (int x = 0; x < PREVIEW_SIZE; x++) {
+				preview[y * PREVIEW_SIZE + x] = (short) Color.convert565to4444(getPreviewColor(x * scale, y * scale));
+			}
+		}
+		return preview;
+	}
+
+	/**
+	 * Creates an encrypted original map file with two players, a landscape and a preview.
+	 */
+	static byte[] createMap() {
+		ByteBuffer map = ByteBuffer.allocate(100000).order(ByteOrder.LITTLE_ENDIAN);
+		map.putInt(0); // checksum
+		map.putInt(EOriginalMapFileVersion.DEFAULT.value);
+
+		ByteBuffer mapInfo = createPart(12);
+		mapInfo.putInt(0).putInt(2).putInt(EMapStartResources.HIGH_GOODS.value);
+		putPart(map, EOriginalMapFilePartType.MAP_INFO, mapInfo);
+
+		ByteBuffer playerInfo = createPart(2 * 45);
+		playerInfo.putInt(0).putInt(3).putInt(4).put(new byte[33]);
+		playerInfo.putInt(1).putInt(13).putInt(14).put(new byte[33]);
+		putPart(map, EOriginalMapFilePartType.PLAYER_INFO, playerInfo);
+
+		ByteBuffer preview = createPart(4 + PREVIEW_SOURCE_SIZE * PREVIEW_SOURCE_SIZE * 2);
+		preview.putShort((short) PREVIEW_SOURCE_SIZE).putShort((short) 0);
+		for (int y = 0; y < PREVIEW_SOURCE_SIZE; y++) {
+			for (int x = 0; x < PREVIEW_SOURCE_SIZE; x++) {
+				preview.putShort((short) getPreviewColor(x, y));
+			}
+		}
+		putPart(map, EOriginalMapFilePartType.PREVIEW, preview);
+
+		ByteBuffer area = createPart(4 + WIDTH_HEIGHT * WIDTH_HEIGHT * 6);
+		area.putInt(WIDTH_HEIGHT);
+		for (int y = 0; y < WIDTH_HEIGHT; y++) {
+			for (int x = 0; x < WIDTH_HEIGHT; x++) {
+				area.put((byte) getHeight(x, y)).put(new byte[5]);
+			}
+		}
+		putPart(map, EOriginalMapFilePartType.AREA, area);
+
+		map.putInt(0).putInt(0); // end of file
+
+		// - checksum over all DWords after the header
+		int checksum = 0;
+		for (int i = 8; i < map.position(); i += 4) {
+			checksum = (checksum >>> 31) | ((checksum << 1) ^ map.getInt(i));
+		}
+		map.putInt(0, checksum);
+
+		byte[] result = new byte[map.position()];
+		map.rewind();
+		map.get(result);
+		return result;
+	}
+
+	private static ByteBuffer createPart(int size) {
+		// - parts are padded to whole DWords
+		return ByteBuffer.allocate((size + 3) & ~3).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static void putPart(ByteBuffer map, EOriginalMapFilePartType type, ByteBuffer data) {
+		map.putInt(type.value);
+		map.putInt(data.capacity() + 8);
+
+		int key = type.value;
+		for (int i = 0; i < data.capacity(); i++) {
+			int value = data.get(i) & 0xFF;
+			map.put((byte) (value ^ key));
+			key = ((key << 1) ^ value) & 0xFF;
+		}
+	}
+
+	private static class StreamedMap implements IListedMap {
+		private final byte[] map;
+
+		StreamedMap(byte[] map) {
+			this.map = map;
+		}
+
+		@Override
+		public String getFileName() {
+			return "test.map";
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(map);
+		}
+
+		@Override
+		public void delete() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isCompressed() {
+			return false;
+		}
+
+		@Override
+		public File getFile() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
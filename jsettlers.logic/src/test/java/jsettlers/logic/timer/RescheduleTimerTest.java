@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RescheduleTimerTest {
+	private static final int TIME_SLICE = 25;
+
+	private final List<String> executions = new ArrayList<>();
+	private int tick;
+
+	@Before
+	@After
+	public void clearTimer() {
+		RescheduleTimer.stopAndClear();
+	}
+
+	@Test
+	public void testExecutionInSchedulingOrder() {
+		RescheduleTimer.add(new RecordingTimerable("a"), 100);
+		RescheduleTimer.add(new RecordingTimerable("b"), 100);
+		RescheduleTimer.add(new RecordingTimerable("c"), 50);
+		RescheduleTimer.add(new RecordingTimerable("d"), 10);
+
+		runTicks(5);
+
+		assertEquals(list("d@1", "c@2", "a@4", "b@4"), executions);
+	}
+
+	@Test
+	public void testDelaysBeyondFirstLevel() {
+		RescheduleTimer.add(new RecordingTimerable("minute"), 60 * 1000);
+		RescheduleTimer.add(new RecordingTimerable("hour"), 60 * 60 * 1000);
+
+		runTicks(60 * 60 * 1000 / TIME_SLICE + 1);
+
+		assertEquals(list("minute@2400", "hour@144000"), executions);
+	}
+
+	@Test
+	public void testCascadedTimerablesKeepSchedulingOrder() {
+		RescheduleTimer.add(new RecordingTimerable("early"), 300 * TIME_SLICE); // lands in level 1
+		runTicks(266);
+		RescheduleTimer.add(new RecordingTimerable("late"), 34 * TIME_SLICE); // lands directly in level 0 for the same tick
+
+		runTicks(40);
+
+		assertEquals(list("early@300", "late@300"), executions);
+	}
+
+	@Test
+	public void testCancel() {
+		TimerableHandle handle = RescheduleTimer.add(new RecordingTimerable("cancelled"), 100);
+		RescheduleTimer.add(new RecordingTimerable("kept"), 100);
+		assertTrue(handle.isScheduled());
+
+		handle.cancel();
+		assertFalse(handle.isScheduled());
+
+		runTicks(10);
+		assertEquals(list("kept@4"), executions);
+	}
+
+	@Test
+	public void testCancelDuringOwnExecutionIgnoresReturnedDelay() {
+		SelfCancellingTimerable timerable = new SelfCancellingTimerable();
+		timerable.handle = RescheduleTimer.add(timerable, 100);
+
+		runTicks(20);
+		assertEquals(list("self@4"), executions);
+		assertFalse(timerable.handle.isScheduled());
+	}
+
+	@Test
+	public void testReschedule() {
+		TimerableHandle handle = RescheduleTimer.add(new RecordingTimerable("moved"), 1000);
+		RescheduleTimer.add(new RecordingTimerable("other"), 100);
+
+		runTicks(2);
+		handle.reschedule(50);
+
+		runTicks(50);
+		assertEquals(list("other@4", "moved@4"), executions);
+	}
+
+	@Test
+	public void testRandomSchedulingMatchesFlatQueue() {
+		Random random = new Random(42);
+		TreeMap<Integer, List<String>> expectedSlots = new TreeMap<>();
+		List<String> expected = new ArrayList<>();
+
+		for (int i = 0; i < 500; i++) {
+			int delay = random.nextInt(20 * 60 * 1000);
+			RescheduleTimer.add(new RecordingTimerable("t" + i), delay);
+			if (delay > 0) {
+				int dueTick = Math.max(1, delay / TIME_SLICE);
+				expectedSlots.computeIfAbsent(dueTick, key -> new ArrayList<>()).add("t" + i + "@" + dueTick);
+			}
+		}
+		for (List<String> slot : expectedSlots.values()) {
+			expected.addAll(slot);
+		}
+
+		runTicks(20 * 60 * 1000 / TIME_SLICE + 1);
+
+		assertEquals(expected, executions);
+	}
+
+	private void runTicks(int ticks) {
+		for (int i = 0; i < ticks; i++) {
+			RescheduleTimer.get().timerEvent();
+			tick++;
+		}
+	}
+
+	private static List<String> list(String... values) {
+		List<String> list = new ArrayList<>();
+		for (String value : values) {
+			list.add(value);
+		}
+		return list;
+	}
+
+	private class RecordingTimerable implements IScheduledTimerable {
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+
+		RecordingTimerable(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public int timerEvent() {
+			executions.add(name + "@" + tick);
+			return -1;
+		}
+
+		@Override
+		public void kill() {
+		}
+	}
+
+	private class SelfCancellingTimerable implements IScheduledTimerable {
+		private static final long serialVersionUID = 1L;
+
+		private TimerableHandle handle;
+
+		@Override
+		public int timerEvent() {
+			executions.add("self@" + tick);
+			handle.cancel();
+			return 100;
+		}
+
+		@Override
+		public void kill() {
+		}
+	}
+}
@@ -76,6 +76,8 @@ public class SwingManagedJSettlers {
 		CommonConstants.ACTIVATE_ALL_PLAYERS = SettingsManager.getInstance().isActivateAllPlayers();
 		CommonConstants.ENABLE_CONSOLE_LOGGING = SettingsManager.getInstance().useConsoleOutput();
 		CommonConstants.DISABLE_ORIGINAL_MAPS = SettingsManager.getInstance().areOriginalMapsDisabled();
+		CommonConstants.METRICS_FILE = SettingsManager.getInstance().getMetricsFile().orElse(null);
+		CommonConstants.ENABLE_NETWORK_DEBUG_LOGGING = SettingsManager.getInstance().isNetworkDebugLogging();
 		AbstractLabels.setPreferredLocale(SettingsManager.getInstance().getLocale());
 	}
 
@@ -138,6 +140,7 @@ public class SwingManagedJSettlers {
 		}).orElse(null);
 
 		int targetGameTime = SettingsManager.getInstance().getTargetTimeMinutes().orElse(0);
+		boolean maxSpeed = SettingsManager.getInstance().isMaxSpeed();
 
 		String mapFile = SettingsManager.getInstance().getMapFile();
 		if (mapFile != null || loadableReplayFile != null) {
@@ -157,14 +160,17 @@ public class SwingManagedJSettlers {
 			}
 			settlersFrame.showStartingGamePanel(game);
 
-			if (targetGameTime > 0) {
+			if (targetGameTime > 0 || maxSpeed) {
 				while (!game.isStartupFinished()) {
 					try {
 						Thread.sleep(100L);
 					} catch (InterruptedException e) {
 					}
 				}
-				MatchConstants.clock().fastForwardTo(targetGameTime * 60 * 1000);
+				if (targetGameTime > 0) {
+					MatchConstants.clock().fastForwardTo(targetGameTime * 60 * 1000);
+				}
+				MatchConstants.clock().setMaxSpeed(maxSpeed);
 			}
 		}
 	}
@@ -76,12 +76,15 @@ public class MainMenuPanel extends SplitedBackgroundPanel {
 	public MainMenuPanel(JSettlersFrame settlersFrame, IMultiplayerConnector multiPlayerConnector) {
 		this.settlersFrame = settlersFrame;
 
-		OpenPanel openSinglePlayerPanel = new OpenPanel(MapList.getDefaultList().getFreshMaps().getItems(), settlersFrame::showNewSinglePlayerGameMenu);
+		OpenPanel openSinglePlayerPanel = new OpenPanel(Collections.emptyList(), settlersFrame::showNewSinglePlayerGameMenu);
 		OpenPanel openSaveGamePanel = new OpenPanel(MapList.getDefaultList().getSavedMaps(), this::loadSavegame);
-		OpenPanel newMultiPlayerGamePanel = new OpenPanel(MapList.getDefaultList().getFreshMaps().getItems(), this::showNewMultiplayerGamePanel);
+		OpenPanel newMultiPlayerGamePanel = new OpenPanel(Collections.emptyList(), this::showNewMultiplayerGamePanel);
 		joinMultiPlayerGamePanel = new OpenPanel(Collections.emptyList(), this::showJoinMultiplayerGamePanel);
 		SettingsMenuPanel settingsPanel = new SettingsMenuPanel(this);
 
+		// maps missing in the map header index are added to the fresh maps later
+		OpenPanel.showChangingMaps(MapList.getDefaultList().getFreshMaps(), openSinglePlayerPanel, newMultiPlayerGamePanel);
+
 		registerMenu("main-panel-new-single-player-game-button", e -> setCenter("main-panel-new-single-player-game-button", openSinglePlayerPanel));
 		registerMenu("start-loadgame", e -> setCenter("start-loadgame", openSaveGamePanel));
 		registerMenu("settings-title", e -> {
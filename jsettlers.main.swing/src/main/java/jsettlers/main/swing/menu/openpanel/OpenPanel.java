@@ -18,6 +18,7 @@ import java.awt.BorderLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
@@ -30,6 +31,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JToggleButton;
 import javax.swing.ListCellRenderer;
+import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 
@@ -84,10 +86,8 @@ public class OpenPanel extends JPanel {
 	 *            Gets called when an entry is double clicked, can be <code>null</code>
 	 */
 	public OpenPanel(final ChangingList<? extends MapLoader> maps, IMapSelectedListener mapSelectedListener) {
-		this(maps.getItems(), mapSelectedListener);
-		maps.setListener(changedLister -> {
-			setMapLoaders(changedLister.getItems());
-		});
+		this(Collections.emptyList(), mapSelectedListener);
+		showChangingMaps(maps, this);
 	}
 
 	/**
@@ -170,6 +170,34 @@ public class OpenPanel extends JPanel {
 	public void setMapLoaders(final List<? extends MapLoader> maps) {
 		setMapLoadersWithoutSearchChanged(maps);
 		searchChanged();
+
+		if (mapList.isSelectionEmpty() && !listModelFiltered.isEmpty()) {
+			mapList.setSelectedIndex(0);
+		}
+	}
+
+	/**
+	 * Shows the maps of the given list in the given panels and updates them when the list changes. The list may be changed by other threads, the
+	 * panels are always updated with copies on the event dispatch thread. Must be called on the event dispatch thread.
+	 * 
+	 * @param maps
+	 *            The changing maps.
+	 * @param panels
+	 *            The panels showing the maps.
+	 */
+	public static void showChangingMaps(ChangingList<? extends MapLoader> maps, OpenPanel... panels) {
+		List<? extends MapLoader> currentMaps = maps.setListenerAndCopyItems(changedList -> {
+			List<? extends MapLoader> changedMaps = changedList.copyItems();
+			SwingUtilities.invokeLater(() -> {
+				for (OpenPanel panel : panels) {
+					panel.setMapLoaders(changedMaps);
+				}
+			});
+		});
+
+		for (OpenPanel panel : panels) {
+			panel.setMapLoaders(currentMaps);
+		}
 	}
 
 	private void setMapLoadersWithoutSearchChanged(final List<? extends MapLoader> maps) {
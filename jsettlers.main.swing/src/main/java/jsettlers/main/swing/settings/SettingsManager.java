@@ -63,7 +63,10 @@ public class SettingsManager implements ISoundSettingsProvider {
 	private static final String SETTING_RANDOM = "random";
 	private static final String SETTING_REPLAY_FILE = "replay-file";
 	private static final String SETTING_TARGET_TIME = "target-time";
+	private static final String SETTING_MAX_SPEED = "max-speed";
 	private static final String SETTING_MAPS = "maps";
+	private static final String SETTING_METRICS_FILE = "metrics-file";
+	private static final String SETTING_NETWORK_DEBUG_LOGGING = "network-debug-logging";
 
 	private static SettingsManager manager;
 
@@ -273,10 +276,22 @@ public class SettingsManager implements ISoundSettingsProvider {
 		return getAsOptional(SETTING_TARGET_TIME).map(Integer::valueOf);
 	}
 
+	public boolean isMaxSpeed() {
+		return getOptional(SETTING_MAX_SPEED);
+	}
+
 	public String getAdditionalMapsDirectory() {
 		return get(SETTING_MAPS);
 	}
 
+	public Optional<String> getMetricsFile() {
+		return getAsOptional(SETTING_METRICS_FILE);
+	}
+
+	public boolean isNetworkDebugLogging() {
+		return getOptional(SETTING_NETWORK_DEBUG_LOGGING);
+	}
+
 	public void setUserName(String userName) {
 		set(SETTING_USERNAME, userName);
 	}
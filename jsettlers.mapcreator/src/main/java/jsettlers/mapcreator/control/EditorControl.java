@@ -339,6 +339,7 @@ public class EditorControl extends EditorControlBase implements IMapInterfaceLis
 		displayPanel = null;
 		redrawTimer.cancel();
 		validator.dispose();
+		undoRedo.dispose();
 		window.dispose();
 	}
 
@@ -14,10 +14,9 @@
  *******************************************************************************/
 package jsettlers.mapcreator.control;
 
-import java.util.LinkedList;
-
 import jsettlers.mapcreator.data.MapData;
 import jsettlers.mapcreator.data.MapDataDelta;
+import jsettlers.mapcreator.data.MapDataDeltaStack;
 import jsettlers.mapcreator.main.window.EditorFrame;
 
 /**
@@ -29,19 +28,14 @@ import jsettlers.mapcreator.main.window.EditorFrame;
 public class UndoRedoHandler {
 
 	/**
-	 * Max undo counts, The data is not compressed, limit max undo count to not run out of memory
-	 */
-	private static final int MAX_UNDO = 100;
-
-	/**
-	 * Undo stack
+	 * Undo stack, the deltas are compressed and limited by their size, not by their count
 	 */
-	private final LinkedList<MapDataDelta> undoDeltas = new LinkedList<>();
+	private final MapDataDeltaStack undoDeltas = new MapDataDeltaStack();
 
 	/**
 	 * Redo stack
 	 */
-	private final LinkedList<MapDataDelta> redoDeltas = new LinkedList<>();
+	private final MapDataDeltaStack redoDeltas = new MapDataDeltaStack();
 
 	/**
 	 * Flag to indicate changes since last save
@@ -75,12 +69,11 @@ public class UndoRedoHandler {
 	 * Undo the last action, if possible
 	 */
 	public void undo() {
-		if (!undoDeltas.isEmpty()) {
-			MapDataDelta delta = undoDeltas.pollLast();
-
+		MapDataDelta delta = undoDeltas.pop();
+		if (delta != null) {
 			MapDataDelta inverse = data.apply(delta);
 
-			redoDeltas.addLast(inverse);
+			redoDeltas.push(inverse);
 		}
 		updateMenuAndToolbar();
 
@@ -91,12 +84,11 @@ public class UndoRedoHandler {
 	 * Redo the last action, if possible
 	 */
 	public void redo() {
-		if (!redoDeltas.isEmpty()) {
-			MapDataDelta delta = redoDeltas.pollLast();
-
+		MapDataDelta delta = redoDeltas.pop();
+		if (delta != null) {
 			MapDataDelta inverse = data.apply(delta);
 
-			undoDeltas.addLast(inverse);
+			undoDeltas.push(inverse);
 		}
 
 		updateMenuAndToolbar();
@@ -111,10 +103,7 @@ public class UndoRedoHandler {
 		MapDataDelta delta = data.getUndoDelta();
 		data.resetUndoDelta();
 
-		if (undoDeltas.size() >= MAX_UNDO) {
-			undoDeltas.removeFirst();
-		}
-		undoDeltas.add(delta);
+		undoDeltas.push(delta);
 		redoDeltas.clear();
 
 		updateMenuAndToolbar();
@@ -149,4 +138,12 @@ public class UndoRedoHandler {
 	public void setSaved() {
 		changedSinceLastSave = false;
 	}
+
+	/**
+	 * Drops the undo / redo history and deletes its temporary files
+	 */
+	public void dispose() {
+		undoDeltas.close();
+		redoDeltas.close();
+	}
 }
@@ -14,6 +14,15 @@
  *******************************************************************************/
 package jsettlers.mapcreator.data;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.landscape.EResourceType;
 import jsettlers.common.position.ShortPoint2D;
@@ -31,6 +40,11 @@ public class MapDataDelta {
 	private ObjectRemover removeObjects = null;
 	private ResourceChanger changeResources = null;
 
+	/**
+	 * The height, landscape and resource changes in compressed form or <code>null</code> if they are not packed.
+	 */
+	byte[] packedChanges = null;
+
 	public MapDataDelta() {
 	}
 
@@ -165,4 +179,159 @@ public class MapDataDelta {
 		startPoints.next = item;
 	}
 
+	/**
+	 * Compresses the height, landscape and resource changes of this delta. For every position only the change applied last is kept. The positions
+	 * are stored as runs along the rows, followed by their values.
+	 * <p />
+	 * The delta has to be unpacked with {@link #unpack()} before it is applied.
+	 */
+	synchronized void pack() {
+		if (packedChanges != null) {
+			return;
+		}
+
+		PackedChangesWriter heights = new PackedChangesWriter();
+		for (HeightChange c = heightChanges; c != null; c = c.next) {
+			heights.add(c.x, c.y, c.height);
+		}
+		PackedChangesWriter landscapes = new PackedChangesWriter();
+		for (LandscapeChange c = landscapeChanges; c != null; c = c.next) {
+			landscapes.add(c.x, c.y, c.landscape == null ? 0 : c.landscape.ordinal() + 1);
+		}
+		PackedChangesWriter resources = new PackedChangesWriter();
+		for (ResourceChanger c = changeResources; c != null; c = c.next) {
+			resources.add(c.x, c.y, ((c.type == null ? 0 : c.type.ordinal() + 1) << 8) | (c.amount & 0xFF));
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+			heights.writeTo(out, false);
+			landscapes.writeTo(out, false);
+			resources.writeTo(out, true);
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // not thrown by in memory streams
+		}
+
+		packedChanges = bytes.toByteArray();
+		heightChanges = null;
+		landscapeChanges = null;
+		changeResources = null;
+	}
+
+	/**
+	 * Restores the changes compressed by {@link #pack()}.
+	 */
+	synchronized void unpack() {
+		if (packedChanges == null) {
+			return;
+		}
+
+		try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(packedChanges)))) {
+			readPackedChanges(in, false, (x, y, value) -> addHeightChange(x, y, (byte) value));
+			readPackedChanges(in, false, (x, y, value) -> addLandscapeChange(x, y, value == 0 ? null : ELandscapeType.VALUES[value - 1]));
+			readPackedChanges(in, true, (x, y, value) -> changeResource(x, y, (value >> 8) == 0 ? null : EResourceType.VALUES[(value >> 8) - 1],
+					(byte) value));
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // not thrown by in memory streams
+		}
+
+		packedChanges = null;
+	}
+
+	/**
+	 * Counts the changes of objects and start points, which are not packed.
+	 */
+	synchronized int countObjectChanges() {
+		int count = 0;
+		for (ObjectAdder c = addObjects; c != null; c = c.next) {
+			count++;
+		}
+		for (ObjectRemover c = removeObjects; c != null; c = c.next) {
+			count++;
+		}
+		for (StartPointSetter c = startPoints.next; c != null; c = c.next) {
+			count++;
+		}
+		return count;
+	}
+
+	private interface IPackedChangeReceiver {
+		void change(int x, int y, int value);
+	}
+
+	private static void readPackedChanges(DataInputStream in, boolean wideValues, IPackedChangeReceiver receiver) throws IOException {
+		int count = in.readInt();
+		while (count > 0) {
+			int y = in.readUnsignedShort();
+			int x = in.readUnsignedShort();
+			int length = in.readUnsignedShort();
+
+			for (int i = 0; i < length; i++) {
+				receiver.change(x + i, y, wideValues ? in.readUnsignedShort() : in.readUnsignedByte());
+			}
+			count -= length;
+		}
+	}
+
+	/**
+	 * Collects the changes of one type in the order they are applied and writes the last change of every position.
+	 */
+	private static class PackedChangesWriter {
+		/**
+		 * position in the upper and index of the change in the lower 32 bits, so sorting keeps the order of changes of the same position
+		 */
+		private long[] keys = new long[16];
+		private int[] values = new int[16];
+		private int count = 0;
+
+		void add(short x, short y, int value) {
+			if (count == keys.length) {
+				keys = Arrays.copyOf(keys, count * 2);
+				values = Arrays.copyOf(values, count * 2);
+			}
+			keys[count] = ((long) ((y << 16) | x) << 32) | count;
+			values[count] = value;
+			count++;
+		}
+
+		void writeTo(DataOutputStream out, boolean wideValues) throws IOException {
+			Arrays.sort(keys, 0, count);
+
+			// - keep the change applied last for every position
+			int[] positions = new int[count];
+			int[] lastValues = new int[count];
+			int positionsCount = 0;
+			for (int i = 0; i < count; i++) {
+				int position = (int) (keys[i] >>> 32);
+				if (i + 1 < count && (int) (keys[i + 1] >>> 32) == position) {
+					continue;
+				}
+				positions[positionsCount] = position;
+				lastValues[positionsCount] = values[(int) keys[i]];
+				positionsCount++;
+			}
+
+			out.writeInt(positionsCount);
+			int runStart = 0;
+			while (runStart < positionsCount) {
+				int runEnd = runStart + 1;
+				while (runEnd < positionsCount && positions[runEnd] == positions[runEnd - 1] + 1
+						&& (positions[runEnd] >>> 16) == (positions[runStart] >>> 16)) {
+					runEnd++;
+				}
+
+				out.writeShort(positions[runStart] >>> 16);
+				out.writeShort(positions[runStart] & 0xFFFF);
+				out.writeShort(runEnd - runStart);
+				for (int i = runStart; i < runEnd; i++) {
+					if (wideValues) {
+						out.writeShort(lastValues[i]);
+					} else {
+						out.writeByte(lastValues[i]);
+					}
+				}
+				runStart = runEnd;
+			}
+		}
+	}
 }
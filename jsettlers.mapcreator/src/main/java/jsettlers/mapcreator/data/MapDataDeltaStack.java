@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.mapcreator.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+
+/**
+ * A stack of {@link MapDataDelta}s that is limited by the memory the deltas use instead of their count.
+ * <p />
+ * The height, landscape and resource changes of pushed deltas are packed. If the packed deltas use more than the memory limit, the oldest ones are
+ * moved to a temporary file. If that file gets bigger than the file limit, the oldest deltas are dropped.
+ */
+public class MapDataDeltaStack {
+	/**
+	 * Estimated size of a delta object without its changes.
+	 */
+	private static final int DELTA_OVERHEAD = 64;
+	/**
+	 * Estimated size of an object or start point change, which are not packed.
+	 */
+	private static final int OBJECT_CHANGE_SIZE = 48;
+
+	public static final long DEFAULT_MEMORY_LIMIT = 16 * 1024 * 1024;
+	public static final long DEFAULT_FILE_LIMIT = 512 * 1024 * 1024;
+
+	private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+	private final long memoryLimit;
+	private final long fileLimit;
+
+	/**
+	 * The oldest deltas, whose packed changes are stored in the file.
+	 */
+	private final ArrayDeque<Entry> fileEntries = new ArrayDeque<>();
+	/**
+	 * The newest deltas, kept in memory completely.
+	 */
+	private final ArrayDeque<Entry> memoryEntries = new ArrayDeque<>();
+	private long memorySize = 0;
+
+	private File file = null;
+	private RandomAccessFile fileAccess = null;
+	/**
+	 * The packed changes of the file entries are stored between these offsets.
+	 */
+	private long fileStart = 0;
+	private long fileEnd = 0;
+
+	public MapDataDeltaStack() {
+		this(DEFAULT_MEMORY_LIMIT, DEFAULT_FILE_LIMIT);
+	}
+
+	public MapDataDeltaStack(long memoryLimit, long fileLimit) {
+		this.memoryLimit = memoryLimit;
+		this.fileLimit = fileLimit;
+	}
+
+	/**
+	 * Adds a delta on top of the stack. The delta must not be used until it is taken again with {@link #pop()}.
+	 * 
+	 * @param delta
+	 *            The delta to add.
+	 */
+	public void push(MapDataDelta delta) {
+		delta.pack();
+
+		Entry entry = new Entry(delta);
+		memoryEntries.addLast(entry);
+		memorySize += entry.getMemorySize();
+
+		limitSize();
+	}
+
+	/**
+	 * Takes the delta on top of the stack.
+	 * 
+	 * @return The delta pushed last or <code>null</code> if the stack is empty or the delta could not be read.
+	 */
+	public MapDataDelta pop() {
+		Entry entry = memoryEntries.pollLast();
+		if (entry != null) {
+			memorySize -= entry.getMemorySize();
+		} else {
+			entry = fileEntries.pollLast();
+			if (entry == null) {
+				return null;
+			}
+			memorySize -= entry.getMemorySize();
+
+			try {
+				entry.delta.packedChanges = readFromFile(entry.fileOffset, entry.packedSize);
+				fileEnd = entry.fileOffset;
+			} catch (IOException e) {
+				e.printStackTrace();
+				clearFile();
+				return null;
+			}
+		}
+
+		entry.delta.unpack();
+		return entry.delta;
+	}
+
+	public boolean isEmpty() {
+		return memoryEntries.isEmpty() && fileEntries.isEmpty();
+	}
+
+	public int size() {
+		return memoryEntries.size() + fileEntries.size();
+	}
+
+	/**
+	 * Removes all deltas.
+	 */
+	public void clear() {
+		memoryEntries.clear();
+		clearFile();
+		memorySize = 0;
+	}
+
+	/**
+	 * Removes all deltas and deletes the temporary file.
+	 */
+	public void close() {
+		clear();
+
+		if (fileAccess != null) {
+			try {
+				fileAccess.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			fileAccess = null;
+		}
+		if (file != null) {
+			file.delete();
+			file = null;
+		}
+	}
+
+	private void limitSize() {
+		while (memorySize > memoryLimit && !memoryEntries.isEmpty()) {
+			Entry entry = memoryEntries.pollFirst();
+			memorySize -= entry.getMemorySize();
+
+			try {
+				writeToFile(entry);
+			} catch (IOException e) {
+				e.printStackTrace();
+				// older deltas can not be applied without this one
+				clearFile();
+				continue;
+			}
+			memorySize += entry.getMemorySize();
+		}
+
+		while (!fileEntries.isEmpty() && (memorySize > memoryLimit || fileEnd - fileStart > fileLimit)) {
+			Entry dropped = fileEntries.pollFirst();
+			memorySize -= dropped.getMemorySize();
+
+			Entry oldest = fileEntries.peekFirst();
+			fileStart = oldest == null ? fileEnd : oldest.fileOffset;
+		}
+
+		if (fileEntries.isEmpty()) {
+			fileStart = 0;
+			fileEnd = 0;
+		} else if (fileStart > fileEnd - fileStart) {
+			try {
+				compactFile();
+			} catch (IOException e) {
+				e.printStackTrace();
+				clearFile();
+			}
+		}
+	}
+
+	private void writeToFile(Entry entry) throws IOException {
+		if (fileAccess == null) {
+			file = File.createTempFile("jsettlers-undo", ".tmp");
+			file.deleteOnExit();
+			fileAccess = new RandomAccessFile(file, "rw");
+		}
+
+		byte[] packedChanges = entry.delta.packedChanges;
+		fileAccess.seek(fileEnd);
+		fileAccess.write(packedChanges);
+
+		entry.fileOffset = fileEnd;
+		entry.packedSize = packedChanges.length;
+		entry.delta.packedChanges = null;
+		fileEnd += packedChanges.length;
+		fileEntries.addLast(entry);
+	}
+
+	private byte[] readFromFile(long offset, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		fileAccess.seek(offset);
+		fileAccess.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Moves the packed changes of the file entries to the start of the file, so the space of dropped deltas is reused.
+	 */
+	private void compactFile() throws IOException {
+		byte[] buffer = new byte[COPY_BUFFER_SIZE];
+		for (long position = fileStart; position < fileEnd; position += buffer.length) {
+			int length = (int) Math.min(buffer.length, fileEnd - position);
+			fileAccess.seek(position);
+			fileAccess.readFully(buffer, 0, length);
+			fileAccess.seek(position - fileStart);
+			fileAccess.write(buffer, 0, length);
+		}
+
+		for (Entry entry : fileEntries) {
+			entry.fileOffset -= fileStart;
+		}
+		fileEnd -= fileStart;
+		fileStart = 0;
+		fileAccess.setLength(fileEnd);
+	}
+
+	private void clearFile() {
+		for (Entry entry : fileEntries) {
+			memorySize -= entry.getMemorySize();
+		}
+		fileEntries.clear();
+		fileStart = 0;
+		fileEnd = 0;
+	}
+
+	private static class Entry {
+		final MapDataDelta delta;
+		/**
+		 * The memory used by the parts of the delta that are not packed.
+		 */
+		final int residentSize;
+		int packedSize;
+		long fileOffset;
+
+		Entry(MapDataDelta delta) {
+			this.delta = delta;
+			this.residentSize = DELTA_OVERHEAD + delta.countObjectChanges() * OBJECT_CHANGE_SIZE;
+		}
+
+		long getMemorySize() {
+			return delta.packedChanges == null ? residentSize : residentSize + delta.packedChanges.length;
+		}
+	}
+}
@@ -30,6 +30,7 @@ import javax.swing.JScrollPane;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 
+import jsettlers.common.utils.collections.ChangingList;
 import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.list.MapList;
 import jsettlers.mapcreator.main.window.search.SearchTextField;
@@ -51,7 +52,7 @@ public class OpenPanel extends JPanel {
 	/**
 	 * List with all maps
 	 */
-	protected List<MapLoader> maps = MapList.getDefaultList().getFreshMaps().getItems();
+	protected List<MapLoader> maps = getFreshMaps();
 
 	/**
 	 * Unfiltered map list
@@ -68,6 +69,13 @@ public class OpenPanel extends JPanel {
 	 */
 	private SearchTextField txtSearch;
 
+	private static List<MapLoader> getFreshMaps() {
+		MapList mapList = MapList.getDefaultList();
+		ChangingList<MapLoader> freshMaps = mapList.getFreshMaps();
+		mapList.awaitHeaderReads();
+		return freshMaps.copyItems();
+	}
+
 	/**
 	 * Constructor
 	 * 
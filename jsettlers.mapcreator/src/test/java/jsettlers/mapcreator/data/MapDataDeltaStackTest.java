@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.mapcreator.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class MapDataDeltaStackTest {
+	private static final int CHANGES = 500;
+	private static final int DELTAS = 10;
+
+	private MapDataDeltaStack stack;
+
+	@After
+	public void closeStack() {
+		stack.close();
+	}
+
+	@Test
+	public void testDeltasMovedToFileArePoppedUnchanged() {
+		stack = new MapDataDeltaStack(3 * getPackedSize(), Long.MAX_VALUE);
+		MapDataDelta[] deltas = pushDeltas(0, DELTAS);
+
+		assertEquals(DELTAS, stack.size());
+		assertNull(deltas[0].packedChanges); // moved to the file
+		assertNotNull(deltas[DELTAS - 1].packedChanges); // kept in memory
+
+		assertPopped(deltas, 0);
+	}
+
+	@Test
+	public void testDeltasPushedAfterPoppingFromFileArePoppedUnchanged() {
+		stack = new MapDataDeltaStack(3 * getPackedSize(), Long.MAX_VALUE);
+		MapDataDelta[] deltas = pushDeltas(0, DELTAS);
+		for (int i = DELTAS - 1; i >= DELTAS / 2; i--) {
+			assertPoppedUnchanged(deltas[i], i);
+		}
+
+		MapDataDelta[] newDeltas = pushDeltas(DELTAS / 2, DELTAS);
+		System.arraycopy(newDeltas, DELTAS / 2, deltas, DELTAS / 2, DELTAS / 2);
+		assertPopped(deltas, 0);
+	}
+
+	@Test
+	public void testOldestDeltasAreDroppedAboveFileLimit() {
+		long packedSize = getPackedSize();
+		stack = new MapDataDeltaStack(3 * packedSize, 3 * packedSize);
+		MapDataDelta[] deltas = pushDeltas(0, DELTAS);
+
+		int kept = stack.size();
+		assertTrue(kept > 3 && kept < DELTAS);
+
+		assertPopped(deltas, DELTAS - kept);
+	}
+
+	private static long getPackedSize() {
+		MapDataDelta delta = MapDataDeltaTest.createRandomDelta(0, CHANGES);
+		delta.pack();
+		return delta.packedChanges.length;
+	}
+
+	/**
+	 * Pushes random deltas created with the seeds from start to end (exclusive).
+	 * 
+	 * @return The pushed deltas at the index of their seed.
+	 */
+	private MapDataDelta[] pushDeltas(int start, int end) {
+		MapDataDelta[] deltas = new MapDataDelta[end];
+		for (int i = start; i < end; i++) {
+			deltas[i] = MapDataDeltaTest.createRandomDelta(i, CHANGES);
+			stack.push(deltas[i]);
+		}
+		return deltas;
+	}
+
+	/**
+	 * Pops all deltas and checks that they are the given deltas from the last down to the given index.
+	 */
+	private void assertPopped(MapDataDelta[] deltas, int oldestIndex) {
+		for (int i = deltas.length - 1; i >= oldestIndex; i--) {
+			assertPoppedUnchanged(deltas[i], i);
+		}
+		assertTrue(stack.isEmpty());
+		assertNull(stack.pop());
+	}
+
+	private void assertPoppedUnchanged(MapDataDelta pushed, int seed) {
+		MapDataDelta popped = stack.pop();
+		assertSame(pushed, popped);
+		assertNull(popped.packedChanges);
+		MapDataDeltaTest.assertAppliedEqually(MapDataDeltaTest.createRandomDelta(seed, CHANGES), popped);
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.mapcreator.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.common.landscape.ELandscapeType;
+import jsettlers.common.landscape.EResourceType;
+
+public class MapDataDeltaTest {
+	static final int MAP_SIZE = 50;
+
+	@Test
+	public void testPackedDeltaIsAppliedLikeUnpackedDelta() {
+		MapDataDelta delta = createDelta();
+		delta.pack();
+		assertNotNull(delta.packedChanges);
+		assertNull(delta.getHeightChanges());
+		delta.unpack();
+		assertNull(delta.packedChanges);
+
+		assertAppliedEqually(createDelta(), delta);
+	}
+
+	@Test
+	public void testRandomPackedDeltasAreAppliedLikeUnpackedDeltas() {
+		for (int seed = 0; seed < 20; seed++) {
+			MapDataDelta delta = createRandomDelta(seed, 500);
+			delta.pack();
+			delta.unpack();
+
+			assertAppliedEqually(createRandomDelta(seed, 500), delta);
+		}
+	}
+
+	/**
+	 * Creates a delta changing positions several times, in runs along a row, at the end of a row and at the edges of the map.
+	 */
+	private static MapDataDelta createDelta() {
+		MapDataDelta delta = new MapDataDelta();
+		delta.addHeightChange(3, 3, (byte) 10);
+		delta.addHeightChange(3, 3, (byte) 20);
+		delta.addHeightChange(4, 3, (byte) 30);
+		delta.addHeightChange(3, 3, (byte) 40);
+		delta.addHeightChange(5, 3, (byte) 50);
+		delta.addHeightChange(MAP_SIZE - 1, 3, (byte) 60);
+		delta.addHeightChange(0, 4, (byte) 70);
+		delta.addHeightChange(MAP_SIZE - 1, MAP_SIZE - 1, Byte.MAX_VALUE);
+
+		delta.addLandscapeChange(7, 8, ELandscapeType.WATER1);
+		delta.addLandscapeChange(7, 8, ELandscapeType.DESERT);
+		delta.addLandscapeChange(8, 8, null);
+		delta.addLandscapeChange(0, 0, ELandscapeType.MOUNTAIN);
+
+		delta.changeResource(10, 10, EResourceType.COAL, (byte) 5);
+		delta.changeResource(11, 10, null, (byte) 0);
+		delta.changeResource(10, 10, EResourceType.GOLDORE, (byte) -1);
+		return delta;
+	}
+
+	/**
+	 * Creates a delta with the given number of random changes of every type.
+	 */
+	static MapDataDelta createRandomDelta(long seed, int changes) {
+		Random random = new Random(seed);
+		MapDataDelta delta = new MapDataDelta();
+		for (int i = 0; i < changes; i++) {
+			delta.addHeightChange(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE), (byte) random.nextInt(Byte.MAX_VALUE + 1));
+
+			ELandscapeType landscape = ELandscapeType.VALUES[random.nextInt(ELandscapeType.VALUES.length)];
+			delta.addLandscapeChange(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE), landscape);
+
+			EResourceType resource = EResourceType.VALUES[random.nextInt(EResourceType.VALUES.length)];
+			delta.changeResource(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE), resource, (byte) random.nextInt(256));
+		}
+		return delta;
+	}
+
+	/**
+	 * Applies both deltas to new maps and checks that the maps are the same afterwards.
+	 */
+	static void assertAppliedEqually(MapDataDelta expected, MapDataDelta actual) {
+		MapData expectedMap = createMapData();
+		expectedMap.apply(expected);
+		MapData actualMap = createMapData();
+		actualMap.apply(actual);
+
+		for (short x = 0; x < MAP_SIZE; x++) {
+			for (short y = 0; y < MAP_SIZE; y++) {
+				assertEquals(expectedMap.getLandscapeHeight(x, y), actualMap.getLandscapeHeight(x, y));
+				assertEquals(expectedMap.getLandscape(x, y), actualMap.getLandscape(x, y));
+				assertEquals(expectedMap.getResourceType(x, y), actualMap.getResourceType(x, y));
+				assertEquals(expectedMap.getResourceAmount(x, y), actualMap.getResourceAmount(x, y));
+			}
+		}
+	}
+
+	private static MapData createMapData() {
+		MapData mapData = new MapData(MAP_SIZE, MAP_SIZE, 1, ELandscapeType.GRASS);
+		mapData.setListener((x, y) -> {
+		});
+		return mapData;
+	}
+}
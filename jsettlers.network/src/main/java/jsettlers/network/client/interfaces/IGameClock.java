@@ -18,7 +18,9 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
+import jsettlers.network.infrastructure.log.Logger;
 import jsettlers.network.synchronic.timer.INetworkTimerable;
+import jsettlers.network.synchronic.timer.IRunDurationListener;
 import jsettlers.network.synchronic.timer.ITaskExecutor;
 
 /**
@@ -45,6 +47,21 @@ public interface IGameClock extends IPausingSupplier {
 
 	void fastForward();
 
+	/**
+	 * Enables or disables playing the game as fast as possible. The locksteps are still honoured.
+	 * 
+	 * @param maxSpeed
+	 *            true to play as fast as possible.
+	 */
+	void setMaxSpeed(boolean maxSpeed);
+
+	boolean isMaxSpeed();
+
+	/**
+	 * @return The game time passed per real time, measured over the last second of playing.
+	 */
+	float getAchievedSpeed();
+
 	void remove(INetworkTimerable timerable);
 
 	void schedule(INetworkTimerable timerable, short delay);
@@ -60,6 +77,23 @@ public interface IGameClock extends IPausingSupplier {
 	 */
 	void setReplayLogStream(DataOutputStream replayFileStream);
 
+	/**
+	 * Sets the {@link Logger} receiving the messages of this clock. The executed and scheduled task packets are only logged if the logger has
+	 * debug messages enabled.
+	 * 
+	 * @param logger
+	 *            The new logger.
+	 */
+	void setLogger(Logger logger);
+
+	/**
+	 * Sets the listener that is informed about the duration of every run of this clock.
+	 * 
+	 * @param runDurationListener
+	 *            The listener or null to remove the listener.
+	 */
+	void setRunDurationListener(IRunDurationListener runDurationListener);
+
 	/**
 	 * Saves the remaining tasks to the given stream.
 	 * 
@@ -81,15 +81,33 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 	}
 
 	public Channel(Logger logger, ISocket socket) throws IOException {
+		this(logger, socket, new DataOutputStream(socket.getOutputStream()), new DataInputStream(socket.getInputStream()));
+	}
+
+	/**
+	 * Creates a new Channel reading from and writing to the given streams. If the streams are <code>null</code>, the channel does not start a
+	 * receiving thread. Subclasses passing <code>null</code> transfer the data themselves and therefore need to override {@link #start()} and
+	 * {@link #sendPacket(ENetworkKey, Packet)}. They hand received packets to {@link #receivePacket(ENetworkKey, int, DataInputStream)}.
+	 * 
+	 * @param logger
+	 *            The logger of this channel.
+	 * @param socket
+	 *            The socket used for communication.
+	 * @param outStream
+	 *            The stream packets are written to or <code>null</code>.
+	 * @param inStream
+	 *            The stream packets are read from or <code>null</code>.
+	 */
+	protected Channel(Logger logger, ISocket socket, DataOutputStream outStream, DataInputStream inStream) {
 		this.logger = new SwitchableLogger(logger);
 		this.socket = socket;
-		outStream = new DataOutputStream(socket.getOutputStream());
-		inStream = new DataInputStream(socket.getInputStream());
+		this.outStream = outStream;
+		this.inStream = inStream;
 
 		pingPacketListener = new PingPacketListener(this.logger, this);
 		registerListener(pingPacketListener);
 
-		thread = new Thread(this, "ChannelForSocket_" + socket);
+		thread = inStream != null ? new Thread(this, "ChannelForSocket_" + socket) : null;
 	}
 
 	/**
@@ -104,7 +122,9 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 	 */
 	public void start() {
 		started = true;
-		thread.start();
+		if (thread != null) {
+			thread.start();
+		}
 	}
 
 	public synchronized void sendPacket(ENetworkKey key, Packet packet) {
@@ -157,26 +177,7 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 				int length = inStream.readInt();
 
 				DataInputStream bufferIn = readBytesToBuffer(inStream, length);
-
-				IChannelListener listener = listenerRegistry.get(key);
-
-				if (listener != null) {
-					try {
-						listener.receive(key, length, bufferIn);
-						if (bufferIn.available() > 0) {
-							logger.warn("Deserialization did not read all bytes of input: " + key + " " + length + " " + bufferIn.available());
-						}
-					} catch (Exception e) { // ignore exceptions thrown in receive
-						e.printStackTrace();
-					}
-				} else {
-					logger.warn("NO LISTENER FOUND for key: " + key + "   (" + socket + ")");
-
-					if (key != NetworkConstants.ENetworkKey.REJECT_PACKET) { // prevent endless loop
-						sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
-								new RejectPacket(NetworkConstants.ENetworkMessage.NO_LISTENER_FOUND, key));
-					}
-				}
+				receivePacket(key, length, bufferIn);
 
 			} catch (Exception e) {
 				try {
@@ -187,7 +188,46 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 		}
 
 		close(); // release the resources
+		channelShutDown();
+	}
+
+	/**
+	 * Hands a received packet to the {@link IChannelListener} registered for its key. If there is no such listener, a {@link RejectPacket} is sent
+	 * back.
+	 * 
+	 * @param key
+	 *            The key of the packet.
+	 * @param length
+	 *            The length of the packet's data.
+	 * @param bufferIn
+	 *            A stream containing exactly the data of the packet.
+	 */
+	protected final void receivePacket(ENetworkKey key, int length, DataInputStream bufferIn) {
+		IChannelListener listener = listenerRegistry.get(key);
+
+		if (listener != null) {
+			try {
+				listener.receive(key, length, bufferIn);
+				if (bufferIn.available() > 0) {
+					logger.warn("Deserialization did not read all bytes of input: " + key + " " + length + " " + bufferIn.available());
+				}
+			} catch (Exception e) { // ignore exceptions thrown in receive
+				e.printStackTrace();
+			}
+		} else {
+			logger.warn("NO LISTENER FOUND for key: " + key + "   (" + socket + ")");
+
+			if (key != NetworkConstants.ENetworkKey.REJECT_PACKET) { // prevent endless loop
+				sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
+						new RejectPacket(NetworkConstants.ENetworkMessage.NO_LISTENER_FOUND, key));
+			}
+		}
+	}
 
+	/**
+	 * Informs the {@link IChannelClosedListener} that this channel has been shut down. Must be called once after the channel stopped receiving.
+	 */
+	protected final void channelShutDown() {
 		if (channelClosedListener != null) {
 			channelClosedListener.channelClosed();
 		}
@@ -214,14 +254,16 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 	 * Closes this {@link Channel} and releases the contained {@link Socket} and the stream resources.
 	 */
 	public void close() {
-		try {
-			inStream.close();
-		} catch (IOException e1) {
-		}
+		if (inStream != null) {
+			try {
+				inStream.close();
+			} catch (IOException e1) {
+			}
 
-		try {
-			outStream.close();
-		} catch (IOException e1) {
+			try {
+				outStream.close();
+			} catch (IOException e1) {
+			}
 		}
 
 		try {
@@ -229,7 +271,9 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 		} catch (IOException e) {
 		}
 
-		thread.interrupt();
+		if (thread != null) {
+			thread.interrupt();
+		}
 	}
 
 	/**
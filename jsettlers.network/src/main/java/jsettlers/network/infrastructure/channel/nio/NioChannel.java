@@ -0,0 +1,361 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.channel.socket.nio.NioSocketAdapter;
+import jsettlers.network.infrastructure.log.Logger;
+
+/**
+ * {@link Channel} implementation on a non-blocking {@link SocketChannel}. Instead of using own threads, the channel is served by a
+ * {@link NioSelectorThread} of a {@link NioSelectorPool}. The packets are framed exactly like the ones of {@link Channel}, so both
+ * implementations can talk to each other.
+ * <p />
+ * Sent packets are appended to pooled direct buffers that are written by the selector thread. Packets sent while a write is pending are coalesced
+ * into one write. If the partner does not read fast enough and too many bytes are pending, {@link #sendPacket(ENetworkKey, Packet)} blocks until
+ * the data has been written. Selector threads are never blocked, as they would wait for each other. Packets sent from them are queued and the
+ * channel is closed if its partner falls too far behind.
+ */
+public class NioChannel extends Channel {
+	private static final int PACKET_HEADER_LENGTH = 5; // key byte and length int
+	private static final int MAX_PENDING_SEND_BYTES = 1024 * 1024;
+	private static final int MAX_QUEUED_SEND_BYTES = 16 * MAX_PENDING_SEND_BYTES;
+	private static final int INITIAL_RECEIVE_BUFFER_SIZE = 16 * 1024;
+
+	private final SocketChannel socketChannel;
+	private final NioSelectorThread selectorThread;
+	private final DirectBufferPool bufferPool;
+
+	private final PacketOutputStream serializationBuffer = new PacketOutputStream();
+	private final DataOutputStream serializationOutStream = new DataOutputStream(serializationBuffer);
+
+	private final ArrayDeque<ByteBuffer> sendBuffers = new ArrayDeque<>(); // synchronized by itself
+	private ByteBuffer[] writtenBuffers = new ByteBuffer[4];
+	private int pendingSendBytes = 0;
+	private boolean flushScheduled = false;
+
+	// only accessed by the selector thread
+	private ByteBuffer receiveBuffer = ByteBuffer.allocate(INITIAL_RECEIVE_BUFFER_SIZE);
+	private final PacketInputStream packetInStream = new PacketInputStream();
+	private final DataInputStream packetDataInStream = new DataInputStream(packetInStream);
+	private SelectionKey selectionKey;
+	private boolean shutDown = false;
+
+	/**
+	 * Creates a new {@link NioChannel} for the given socket.
+	 * 
+	 * @param logger
+	 *            The logger of this channel.
+	 * @param socketChannel
+	 *            A connected socket. It is switched to non-blocking mode.
+	 * @param selectorPool
+	 *            The pool whose threads serve this channel.
+	 * @throws IOException
+	 *             If the socket cannot be switched to non-blocking mode.
+	 */
+	public NioChannel(Logger logger, SocketChannel socketChannel, NioSelectorPool selectorPool) throws IOException {
+		super(logger, new NioSocketAdapter(socketChannel), null, null);
+		this.socketChannel = socketChannel;
+		this.selectorThread = selectorPool.nextSelectorThread();
+		this.bufferPool = selectorPool.getBufferPool();
+	}
+
+	/**
+	 * Starts the message receiving of this {@link NioChannel}.
+	 * <p />
+	 * NOTE: This method may only be called once!
+	 */
+	@Override
+	public void start() {
+		super.start();
+		selectorThread.execute(this::register);
+	}
+
+	private void register() {
+		try {
+			selectionKey = selectorThread.register(socketChannel, this);
+			flushSendBuffers();
+		} catch (IOException e) {
+			close();
+		}
+	}
+
+	@Override
+	public void sendPacket(ENetworkKey key, Packet packet) {
+		if (isClosed()) {
+			return;
+		}
+
+		if (NioSelectorThread.isSelectorThread()) {
+			if (isSendQueueOverflowing()) {
+				close(); // the partner does not read and a selector thread must not wait for it
+				return;
+			}
+		} else {
+			awaitSendCapacity();
+		}
+
+		try {
+			serializeAndEnqueue(key, packet);
+		} catch (IOException e) {
+		}
+	}
+
+	private boolean isSendQueueOverflowing() {
+		synchronized (sendBuffers) {
+			return pendingSendBytes > MAX_QUEUED_SEND_BYTES;
+		}
+	}
+
+	private void awaitSendCapacity() {
+		synchronized (sendBuffers) {
+			while (pendingSendBytes > MAX_PENDING_SEND_BYTES && !isClosed()) {
+				try {
+					sendBuffers.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private synchronized void serializeAndEnqueue(ENetworkKey key, Packet packet) throws IOException {
+		serializationBuffer.reset();
+		key.writeTo(serializationOutStream);
+		serializationOutStream.writeInt(0); // placeholder for the length
+		packet.serialize(serializationOutStream);
+		serializationOutStream.flush();
+		serializationBuffer.writeLength();
+
+		boolean scheduleFlush;
+		synchronized (sendBuffers) {
+			if (isClosed()) {
+				return;
+			}
+
+			serializationBuffer.appendTo(sendBuffers, bufferPool);
+			pendingSendBytes += serializationBuffer.size();
+
+			scheduleFlush = !flushScheduled;
+			flushScheduled = true;
+		}
+
+		if (scheduleFlush) {
+			selectorThread.execute(this::flushSendBuffers);
+		}
+	}
+
+	/**
+	 * Writes as much of the pending data as the socket accepts. Registers for write readiness if data remains. May only be called on the selector
+	 * thread.
+	 */
+	void flushSendBuffers() {
+		synchronized (sendBuffers) {
+			if (sendBuffers.isEmpty()) {
+				flushScheduled = false;
+				return;
+			}
+
+			try {
+				writeSendBuffers();
+			} catch (IOException e) {
+				close();
+				return;
+			}
+
+			boolean completed = sendBuffers.isEmpty();
+			flushScheduled = !completed;
+			sendBuffers.notifyAll();
+
+			try {
+				if (selectionKey != null && selectionKey.isValid()) {
+					selectionKey.interestOps(completed ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				}
+			} catch (CancelledKeyException e) { // the channel has been closed concurrently
+				close();
+			}
+		}
+	}
+
+	private void writeSendBuffers() throws IOException {
+		int numberOfBuffers = sendBuffers.size();
+		if (writtenBuffers.length < numberOfBuffers) {
+			writtenBuffers = new ByteBuffer[Math.max(numberOfBuffers, 2 * writtenBuffers.length)];
+		}
+		sendBuffers.toArray(writtenBuffers);
+
+		for (int i = 0; i < numberOfBuffers; i++) {
+			writtenBuffers[i].flip();
+		}
+		pendingSendBytes -= socketChannel.write(writtenBuffers, 0, numberOfBuffers);
+
+		for (int i = 0; i < numberOfBuffers; i++) {
+			ByteBuffer buffer = writtenBuffers[i];
+			writtenBuffers[i] = null;
+
+			if (buffer.hasRemaining()) {
+				buffer.compact();
+			} else {
+				sendBuffers.pollFirst();
+				bufferPool.release(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Reads the available data from the socket and dispatches all completely received packets. May only be called on the selector thread.
+	 * 
+	 * @param readBuffer
+	 *            The direct buffer of the selector thread used for reading.
+	 */
+	void receive(ByteBuffer readBuffer) {
+		try {
+			readBuffer.clear();
+			if (socketChannel.read(readBuffer) < 0) {
+				close();
+				return;
+			}
+
+			readBuffer.flip();
+			if (receiveBuffer.remaining() < readBuffer.remaining()) {
+				growReceiveBuffer(receiveBuffer.position() + readBuffer.remaining());
+			}
+			receiveBuffer.put(readBuffer);
+
+			dispatchReceivedPackets();
+		} catch (IOException e) {
+			close();
+		}
+	}
+
+	private void dispatchReceivedPackets() throws IOException {
+		receiveBuffer.flip();
+
+		while (receiveBuffer.remaining() >= PACKET_HEADER_LENGTH && !isClosed()) {
+			int start = receiveBuffer.position();
+			int length = receiveBuffer.getInt(start + 1);
+			if (length < 0) {
+				throw new IOException("Received invalid packet length: " + length);
+			}
+			if (receiveBuffer.remaining() < PACKET_HEADER_LENGTH + length) {
+				break;
+			}
+
+			packetInStream.setData(receiveBuffer.array(), start, PACKET_HEADER_LENGTH + length);
+			ENetworkKey key = ENetworkKey.readFrom(packetDataInStream);
+			packetDataInStream.readInt();
+			receivePacket(key, length, packetDataInStream);
+
+			receiveBuffer.position(start + PACKET_HEADER_LENGTH + length);
+		}
+
+		receiveBuffer.compact();
+	}
+
+	private void growReceiveBuffer(int minimumCapacity) {
+		ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(minimumCapacity, 2 * receiveBuffer.capacity()));
+		receiveBuffer.flip();
+		newBuffer.put(receiveBuffer);
+		receiveBuffer = newBuffer;
+	}
+
+	@Override
+	public void close() {
+		super.close();
+
+		synchronized (sendBuffers) {
+			sendBuffers.notifyAll();
+		}
+
+		if (isStarted()) {
+			selectorThread.execute(this::shutDown);
+		}
+	}
+
+	private void shutDown() {
+		if (shutDown) {
+			return;
+		}
+		shutDown = true;
+
+		synchronized (sendBuffers) {
+			for (ByteBuffer buffer : sendBuffers) {
+				bufferPool.release(buffer);
+			}
+			sendBuffers.clear();
+			pendingSendBytes = 0;
+		}
+
+		channelShutDown();
+	}
+
+	/**
+	 * {@link ByteArrayOutputStream} giving access to its buffer to avoid copying the serialized packets.
+	 */
+	private static class PacketOutputStream extends ByteArrayOutputStream {
+		void writeLength() {
+			int length = count - PACKET_HEADER_LENGTH;
+			buf[1] = (byte) (length >>> 24);
+			buf[2] = (byte) (length >>> 16);
+			buf[3] = (byte) (length >>> 8);
+			buf[4] = (byte) length;
+		}
+
+		void appendTo(ArrayDeque<ByteBuffer> buffers, DirectBufferPool bufferPool) {
+			int offset = 0;
+			while (offset < count) {
+				ByteBuffer buffer = buffers.peekLast();
+				if (buffer == null || !buffer.hasRemaining()) {
+					buffer = bufferPool.acquire();
+					buffers.addLast(buffer);
+				}
+
+				int chunkLength = Math.min(buffer.remaining(), count - offset);
+				buffer.put(buf, offset, chunkLength);
+				offset += chunkLength;
+			}
+		}
+	}
+
+	/**
+	 * {@link ByteArrayInputStream} that can be pointed to new data, so that no stream needs to be allocated per received packet.
+	 */
+	private static class PacketInputStream extends ByteArrayInputStream {
+		PacketInputStream() {
+			super(new byte[0]);
+		}
+
+		void setData(byte[] data, int offset, int length) {
+			buf = data;
+			pos = offset;
+			count = offset + length;
+			mark = offset;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.IOException;
+
+/**
+ * A fixed number of {@link NioSelectorThread}s serving the {@link NioChannel}s created with this pool. New channels are distributed round robin
+ * over the threads.
+ */
+public class NioSelectorPool {
+	private static final int BUFFER_SIZE = 16 * 1024;
+	private static final int MAX_POOLED_BUFFERS = 256;
+
+	private final DirectBufferPool bufferPool = new DirectBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+	private final NioSelectorThread[] selectorThreads;
+
+	private int nextSelectorThread = 0;
+
+	public NioSelectorPool(String name, int numberOfThreads) throws IOException {
+		selectorThreads = new NioSelectorThread[numberOfThreads];
+		for (int i = 0; i < numberOfThreads; i++) {
+			selectorThreads[i] = new NioSelectorThread(name + "_" + i, bufferPool);
+		}
+	}
+
+	public void start() {
+		for (NioSelectorThread selectorThread : selectorThreads) {
+			selectorThread.start();
+		}
+	}
+
+	/**
+	 * Stops all selector threads. The channels still open are closed.
+	 */
+	public void shutdown() {
+		for (NioSelectorThread selectorThread : selectorThreads) {
+			selectorThread.shutdown();
+		}
+	}
+
+	synchronized NioSelectorThread nextSelectorThread() {
+		NioSelectorThread selectorThread = selectorThreads[nextSelectorThread];
+		nextSelectorThread = (nextSelectorThread + 1) % selectorThreads.length;
+		return selectorThread;
+	}
+
+	DirectBufferPool getBufferPool() {
+		return bufferPool;
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Thread multiplexing the sockets of many {@link NioChannel}s with one {@link Selector}. All reads and the dispatching of received packets of a
+ * channel happen on the selector thread it has been assigned to.
+ */
+final class NioSelectorThread extends Thread {
+	private final Selector selector;
+	private final ByteBuffer readBuffer;
+	private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean canceled = false;
+
+	NioSelectorThread(String name, DirectBufferPool bufferPool) throws IOException {
+		super(name);
+		this.selector = Selector.open();
+		this.readBuffer = bufferPool.acquire();
+		setDaemon(true);
+	}
+
+	@Override
+	public void run() {
+		while (!canceled) {
+			try {
+				selector.select();
+				runTasks();
+
+				Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+				while (selectedKeys.hasNext()) {
+					SelectionKey key = selectedKeys.next();
+					selectedKeys.remove();
+
+					handleSelectedKey(key);
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		for (SelectionKey key : selector.keys()) {
+			((NioChannel) key.attachment()).close();
+		}
+		runTasks();
+
+		try {
+			selector.close();
+		} catch (IOException e) {
+		}
+	}
+
+	/**
+	 * Serves the channel of the given key. Errors only close this channel, so the other channels of this thread are still served.
+	 */
+	private void handleSelectedKey(SelectionKey key) {
+		NioChannel channel = (NioChannel) key.attachment();
+		try {
+			if (!key.isValid()) {
+				channel.close();
+				return;
+			}
+			if (key.isWritable()) {
+				channel.flushSendBuffers();
+			}
+			if (key.isValid() && key.isReadable()) {
+				channel.receive(readBuffer);
+			}
+		} catch (CancelledKeyException e) {
+			channel.close();
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			channel.close();
+		}
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null) {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Runs the given task on this selector thread.
+	 * 
+	 * @param task
+	 *            The task to be run.
+	 */
+	void execute(Runnable task) {
+		tasks.offer(task);
+		selector.wakeup();
+	}
+
+	/**
+	 * Registers the given socket for reading. May only be called on this thread.
+	 */
+	SelectionKey register(SocketChannel socketChannel, NioChannel channel) throws ClosedChannelException {
+		return socketChannel.register(selector, SelectionKey.OP_READ, channel);
+	}
+
+	static boolean isSelectorThread() {
+		return Thread.currentThread() instanceof NioSelectorThread;
+	}
+
+	void shutdown() {
+		canceled = true;
+		selector.wakeup();
+	}
+}
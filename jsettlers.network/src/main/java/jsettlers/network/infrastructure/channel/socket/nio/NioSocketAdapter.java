@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.socket.nio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.SocketChannel;
+
+import jsettlers.network.infrastructure.channel.socket.ISocket;
+
+/**
+ * {@link ISocket} wrapping a non-blocking {@link SocketChannel}. As the channel is non-blocking, it does not offer streams. The data is transferred
+ * by a {@link jsettlers.network.infrastructure.channel.nio.NioChannel}.
+ */
+public class NioSocketAdapter implements ISocket {
+
+	private final SocketChannel socketChannel;
+
+	public NioSocketAdapter(SocketChannel socketChannel) throws IOException {
+		this.socketChannel = socketChannel;
+		socketChannel.configureBlocking(false);
+	}
+
+	public SocketChannel getSocketChannel() {
+		return socketChannel;
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		throw new IOException("Non-blocking sockets do not support streams.");
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		throw new IOException("Non-blocking sockets do not support streams.");
+	}
+
+	@Override
+	public boolean isClosed() {
+		return !socketChannel.isOpen();
+	}
+
+	@Override
+	public void close() throws IOException {
+		socketChannel.close();
+	}
+
+	@Override
+	public String toString() {
+		return socketChannel.toString();
+	}
+}
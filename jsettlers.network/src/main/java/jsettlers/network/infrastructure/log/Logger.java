@@ -40,4 +40,17 @@ public abstract class Logger {
 	public abstract void warn(String msg);
 
 	public abstract void info(String msg);
+
+	/**
+	 * Logs a message that is only of interest when debugging, e.g. a message per received packet.
+	 * 
+	 * @param msg
+	 *            Message to be logged. It is dropped if {@link #isDebugEnabled()} returns false.
+	 */
+	public abstract void debug(String msg);
+
+	/**
+	 * @return true if debug messages are logged. Callers should check this before building expensive debug messages.
+	 */
+	public abstract boolean isDebugEnabled();
 }
@@ -34,6 +34,8 @@ public class StreamLogger extends Logger {
 	private final String loggerId;
 	private final PrintStream outStream;
 
+	private volatile boolean debugEnabled = false;
+
 	public StreamLogger(String loggerId, PrintStream outStream) {
 		this.loggerId = loggerId;
 		this.outStream = outStream;
@@ -77,4 +79,26 @@ public class StreamLogger extends Logger {
 	public void info(String msg) {
 		println("INFO: " + msg);
 	}
+
+	@Override
+	public void debug(String msg) {
+		if (debugEnabled) {
+			println("DEBUG: " + msg);
+		}
+	}
+
+	@Override
+	public boolean isDebugEnabled() {
+		return debugEnabled;
+	}
+
+	/**
+	 * Enables or disables the output of debug messages. Debug messages are disabled by default.
+	 * 
+	 * @param debugEnabled
+	 *            true if debug messages should be written.
+	 */
+	public void setDebugEnabled(boolean debugEnabled) {
+		this.debugEnabled = debugEnabled;
+	}
 }
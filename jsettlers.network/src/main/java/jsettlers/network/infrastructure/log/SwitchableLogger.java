@@ -50,4 +50,14 @@ public class SwitchableLogger extends Logger {
 	public void info(String msg) {
 		this.logger.info(msg);
 	}
+
+	@Override
+	public void debug(String msg) {
+		this.logger.debug(msg);
+	}
+
+	@Override
+	public boolean isDebugEnabled() {
+		return this.logger.isDebugEnabled();
+	}
 }
@@ -15,13 +15,15 @@
 package jsettlers.network.server;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.infrastructure.channel.Channel;
-import jsettlers.network.infrastructure.channel.socket.ISocketFactory;
+import jsettlers.network.infrastructure.channel.nio.NioChannel;
+import jsettlers.network.infrastructure.channel.nio.NioSelectorPool;
 import jsettlers.network.infrastructure.log.Logger;
 import jsettlers.network.infrastructure.log.LoggerManager;
 import jsettlers.network.server.db.IDBFacade;
@@ -37,8 +39,10 @@ import jsettlers.network.server.lan.LanServerBroadcastThread;
 public final class GameServerThread extends Thread {
 
 	private static final Logger LOGGER = LoggerManager.ROOT_LOGGER;
+	private static final int NUMBER_OF_SELECTOR_THREADS = 2;
 
-	private final ServerSocket serverSocket;
+	private final ServerSocketChannel serverSocket;
+	private final NioSelectorPool selectorPool;
 	private final ServerManager manager;
 	private final LanServerBroadcastThread lanBroadcastThread;
 
@@ -47,7 +51,9 @@ public final class GameServerThread extends Thread {
 
 	public GameServerThread(boolean lan) throws IOException {
 		super("GameServer");
-		this.serverSocket = new ServerSocket(NetworkConstants.Server.SERVER_PORT);
+		this.serverSocket = ServerSocketChannel.open();
+		this.serverSocket.bind(new InetSocketAddress(NetworkConstants.Server.SERVER_PORT));
+		this.selectorPool = new NioSelectorPool("GameServerSelector", NUMBER_OF_SELECTOR_THREADS);
 		this.manager = new ServerManager(new InMemoryDB());
 
 		this.setDaemon(true);
@@ -66,14 +72,14 @@ public final class GameServerThread extends Thread {
 		System.out.println("Server up and running!");
 		while (!canceled) {
 			try {
-				Socket clientSocket = serverSocket.accept();
+				SocketChannel clientSocket = serverSocket.accept();
 
-				Channel clientChannel = new Channel(LOGGER, ISocketFactory.DEFAULT_FACTORY.generateSocket(clientSocket));
+				Channel clientChannel = new NioChannel(LOGGER, clientSocket, selectorPool);
 				manager.identifyNewChannel(clientChannel);
 				clientChannel.start();
 
 				LOGGER.log("accepted new client (" + ++counter + "): " + clientSocket);
-			} catch (SocketException e) {
+			} catch (ClosedChannelException e) {
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -115,6 +121,7 @@ public final class GameServerThread extends Thread {
 	@Override
 	public synchronized void start() {
 		super.start();
+		selectorPool.start();
 		manager.start();
 	}
 
@@ -129,6 +136,7 @@ public final class GameServerThread extends Thread {
 			lanBroadcastThread.shutdown();
 
 		manager.shutdown();
+		selectorPool.shutdown();
 	}
 
 	public boolean isLanBroadcasterAlive() {
@@ -18,49 +18,73 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.client.INetworkClientClock;
 import jsettlers.network.client.task.packets.SyncTasksPacket;
 import jsettlers.network.client.task.packets.TaskPacket;
-
-import java8.util.Comparators;
+import jsettlers.network.infrastructure.log.ConsoleLogger;
+import jsettlers.network.infrastructure.log.Logger;
+import jsettlers.network.infrastructure.log.SwitchableLogger;
 
 /**
  * This is a basic game timer. All synchronous actions must be based on this clock. The {@link NetworkTimer} also triggers the execution of synchronous tasks in the network game.
+ * <p />
+ * Normally, the timer is driven by a {@link Timer} every {@value #TIME_SLICE} ms. In the max speed mode, a dedicated thread advances the clock as fast
+ * as the timerables can be executed. The locksteps are honoured in both modes.
+ * <p />
+ * The received {@link SyncTasksPacket}s are kept in a lock free queue ordered by their lockstep, so the network thread never blocks the timer. The
+ * timerables are only modified by the executing thread, schedule and remove requests are handed over with concurrent queues.
  *
  * @author Andreas Eberle
  *
  */
 public final class NetworkTimer extends TimerTask implements INetworkClientClock {
 	public static final short TIME_SLICE = 50;
-	private static final Comparator<SyncTasksPacket> tasksByTimeComparator = Comparators.comparingInt(SyncTasksPacket::getLockstepNumber);
+	private static final long SPEED_MEASUREMENT_PERIOD = 1000L * 1000 * 1000; // ns
 
 	private final Timer timer;
 	private final Object lockstepLock = new Object();
+	private final Object maxSpeedLock = new Object();
+	private final Object replayLogLock = new Object();
+	private final SwitchableLogger logger = new SwitchableLogger(new ConsoleLogger("NetworkTimer"));
+	private volatile IRunDurationListener runDurationListener;
 
 	private final List<ScheduledTimerable> timerables = new ArrayList<>();
-	private final List<ScheduledTimerable> newTimerables = new LinkedList<>();
-	private final List<INetworkTimerable> timerablesToBeRemoved = new LinkedList<>();
+	private final Map<INetworkTimerable, ScheduledTimerable> timerablesIndex = new IdentityHashMap<>();
+	private final ConcurrentLinkedQueue<ScheduledTimerable> newTimerables = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<INetworkTimerable> timerablesToBeRemoved = new ConcurrentLinkedQueue<>();
 
-	private final LinkedList<SyncTasksPacket> tasks = new LinkedList<>();
+	/**
+	 * The scheduled {@link SyncTasksPacket}s ordered by the key created with {@link #getTasksKey(int)}.
+	 */
+	private final ConcurrentSkipListMap<Long, SyncTasksPacket> tasks = new ConcurrentSkipListMap<>();
+	private final AtomicInteger tasksSequence = new AtomicInteger();
 
-	private int time = 0;
+	private volatile int time = 0;
 	private int maxAllowedLockstep = -1;
 
-	private boolean isPausing;
-	private int pauseTime;
+	private volatile boolean isPausing;
+	private volatile int pauseTime;
 	private float speedFactor = 1.0f;
 	private float progress = 0.0f;
 
+	private volatile Thread maxSpeedThread;
+	private boolean stopped = false;
+
+	private long speedMeasurementStart = System.nanoTime();
+	private int speedMeasurementGameTime = 0;
+	private volatile float achievedSpeed = 1.0f;
+
 	private boolean scheduled = false;
 
 	private ITaskExecutor taskExecutor;
@@ -91,6 +115,15 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 		setPausing(true);
 		timer.cancel();
 
+		synchronized (maxSpeedLock) {
+			stopped = true;
+			Thread thread = maxSpeedThread;
+			maxSpeedThread = null;
+			if (thread != null) {
+				thread.interrupt(); // it may wait for a lockstep that will never come
+			}
+		}
+
 		closeReplayLogStreamIfNeeded();
 	}
 
@@ -98,6 +131,10 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	public void run() {
 		if (!isPausing) {
 			if (pauseTime <= 0) { // this is used for synchronizing the network clients
+				if (maxSpeedThread != null) {
+					return; // the max speed thread executes the runs
+				}
+
 				progress += speedFactor;
 
 				while (progress >= 1) {
@@ -118,32 +155,35 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 			// check if the lockstep is allowed
 			synchronized (lockstepLock) {
 				while (lockstep > maxAllowedLockstep) {
-					System.out.println("WAITING for lockstep!");
-					lockstepLock.wait();
+					if (logger.isDebugEnabled()) {
+						logger.debug("WAITING for " + getLockstepText(lockstep));
+					}
+					try {
+						lockstepLock.wait();
+					} catch (InterruptedException e) { // the timer has been stopped
+						time -= TIME_SLICE;
+						return;
+					}
 				}
 			}
+			long startTime = System.nanoTime(); // the time waited for the lockstep is not part of the run
 
-			SyncTasksPacket tasksPacket;
-			synchronized (tasks) {
-				tasksPacket = tasks.peekFirst();
-			}
-
-			while (tasksPacket != null && tasksPacket.getLockstepNumber() <= lockstep) {
+			Map.Entry<Long, SyncTasksPacket> tasksEntry;
+			while ((tasksEntry = tasks.firstEntry()) != null && tasksEntry.getValue().getLockstepNumber() <= lockstep) {
+				SyncTasksPacket tasksPacket = tasksEntry.getValue();
 				assert tasksPacket.getLockstepNumber() == lockstep : "FOUND TasksPacket FOR older lockstep!";
 
-				System.out.println("Executing SyncTaskPacket(" + tasksPacket + ") in " + getLockstepText(lockstep));
+				if (logger.isDebugEnabled()) {
+					logger.debug("Executing SyncTaskPacket(" + tasksPacket + ") in " + getLockstepText(lockstep));
+				}
 
 				try {
 					executeTasksPacket(tasksPacket);
 				} catch (Throwable t) {
-					System.err.println("Error during execution of scheduled task:");
-					t.printStackTrace();
-				}
-
-				synchronized (tasks) {// remove the executed tasksPacket and retrieve the next one to check it.
-					tasks.pollFirst();
-					tasksPacket = tasks.peekFirst();
+					logger.warn("Error during execution of scheduled task:");
+					logger.error(t);
 				}
+				tasks.remove(tasksEntry.getKey()); // only this thread removes packets, so the executed packet is still the first one
 			}
 
 			addNewTimerables();
@@ -152,9 +192,37 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 			for (ScheduledTimerable curr : timerables) {
 				curr.checkExecution(TIME_SLICE);
 			}
+			IRunDurationListener runDurationListener = this.runDurationListener;
+			if (runDurationListener != null) {
+				runDurationListener.runFinished(System.nanoTime() - startTime);
+			}
+			measureSpeed();
 		} catch (Throwable t) {
-			System.err.println("WARNING: Networking Timer catched Throwable!!!");
-			t.printStackTrace();
+			logger.warn("Networking Timer catched Throwable!!!");
+			logger.error(t);
+		}
+	}
+
+	private void measureSpeed() {
+		long now = System.nanoTime();
+		if (now - speedMeasurementStart >= SPEED_MEASUREMENT_PERIOD) {
+			achievedSpeed = (time - speedMeasurementGameTime) * 1000000f / (now - speedMeasurementStart);
+			speedMeasurementStart = now;
+			speedMeasurementGameTime = time;
+		}
+	}
+
+	private void runAtMaxSpeed() {
+		Thread currentThread = Thread.currentThread();
+		while (maxSpeedThread == currentThread) {
+			if (isPausing || pauseTime > 0) { // the pause time is counted down by the timer
+				try {
+					Thread.sleep(TIME_SLICE);
+				} catch (InterruptedException e) {
+				}
+			} else {
+				executeRun();
+			}
 		}
 	}
 
@@ -164,29 +232,46 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 				taskExecutor.executeTask(currTask);
 			}
 		} else {
-			System.err.println("couldn't exeucte task, due to missing taskExecutor!");
+			logger.warn("couldn't exeucte task, due to missing taskExecutor!");
 		}
 	}
 
 	private void addNewTimerables() {
-		synchronized (newTimerables) {
-			timerables.addAll(newTimerables);
-			newTimerables.clear();
+		ScheduledTimerable newTimerable;
+		while ((newTimerable = newTimerables.poll()) != null) {
+			timerables.add(newTimerable);
+			if (!timerablesIndex.containsKey(newTimerable.getTimerable())) {
+				timerablesIndex.put(newTimerable.getTimerable(), newTimerable);
+			}
 		}
 	}
 
 	private void handleRemovedTimerables() {
-		synchronized (timerablesToBeRemoved) {
-			for (INetworkTimerable currToBeRemoved : timerablesToBeRemoved) {
-				for (Iterator<ScheduledTimerable> iter = timerables.iterator(); iter.hasNext();) {
-					if (iter.next().getTimerable() == currToBeRemoved) {
-						iter.remove();
-						break;
+		boolean removed = false;
+
+		INetworkTimerable toBeRemoved;
+		while ((toBeRemoved = timerablesToBeRemoved.poll()) != null) {
+			ScheduledTimerable scheduledTimerable = timerablesIndex.remove(toBeRemoved);
+			if (scheduledTimerable != null) {
+				scheduledTimerable.markRemoved();
+				removed = true;
+			} else {
+				logger.warn("tried to remove a object from timer that's not registered!");
+			}
+		}
+
+		if (removed) { // compact the timerables once, keeping the order of execution
+			int newSize = 0;
+			for (int i = 0; i < timerables.size(); i++) {
+				ScheduledTimerable curr = timerables.get(i);
+				if (!curr.isRemoved()) {
+					timerables.set(newSize++, curr);
+					if (!timerablesIndex.containsKey(curr.getTimerable())) { // the same timerable may have been scheduled twice
+						timerablesIndex.put(curr.getTimerable(), curr);
 					}
 				}
-				System.err.println("tried to remove a object from timer that's not registered!");
 			}
-			timerablesToBeRemoved.clear();
+			timerables.subList(newSize, timerables.size()).clear();
 		}
 	}
 
@@ -201,9 +286,7 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	 */
 	@Override
 	public void schedule(INetworkTimerable timerable, short period) {
-		synchronized (newTimerables) {
-			newTimerables.add(new ScheduledTimerable(timerable, period));
-		}
+		newTimerables.add(new ScheduledTimerable(timerable, period));
 	}
 
 	/**
@@ -213,9 +296,7 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	 */
 	@Override
 	public void remove(INetworkTimerable timerable) {
-		synchronized (timerablesToBeRemoved) {
-			timerablesToBeRemoved.add(timerable);
-		}
+		timerablesToBeRemoved.add(timerable);
 	}
 
 	/**
@@ -237,7 +318,7 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	public synchronized void fastForwardTo(int targetGameTime) {
 		this.setPausing(true);
 
-		System.out.println("Playing game forward to game time: " + targetGameTime);
+		logger.info("Playing game forward to game time: " + targetGameTime);
 
 		while (time < targetGameTime) {
 			executeRun();
@@ -264,7 +345,7 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	@Override
 	public void pauseClockFor(int timeDelta) {
 		this.pauseTime = timeDelta;
-		System.err.println("pausing for " + timeDelta + " ms");
+		logger.info("pausing for " + timeDelta + " ms");
 	}
 
 	@Override
@@ -277,6 +358,41 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 		this.speedFactor *= factor;
 	}
 
+	/**
+	 * Enables or disables the max speed mode. In this mode, a dedicated thread advances the clock as fast as possible instead of the timer.
+	 * 
+	 * @param maxSpeed
+	 *            true to play as fast as possible.
+	 */
+	@Override
+	public void setMaxSpeed(boolean maxSpeed) {
+		synchronized (maxSpeedLock) {
+			if (stopped || maxSpeed == (maxSpeedThread != null)) {
+				return;
+			}
+
+			if (maxSpeed) {
+				Thread thread = new Thread(this::runAtMaxSpeed, "NetworkTimerMaxSpeed");
+				thread.setDaemon(true);
+				maxSpeedThread = thread;
+				thread.start();
+			} else {
+				maxSpeedThread = null; // the thread stops after its current run
+				logger.info("Max speed stopped, achieved speed: " + achievedSpeed);
+			}
+		}
+	}
+
+	@Override
+	public boolean isMaxSpeed() {
+		return maxSpeedThread != null;
+	}
+
+	@Override
+	public float getAchievedSpeed() {
+		return achievedSpeed;
+	}
+
 	@Override
 	public void setTaskExecutor(ITaskExecutor taskExecutor) {
 		this.taskExecutor = taskExecutor;
@@ -289,12 +405,11 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 						+ maxAllowedLockstep + " new: " + tasksPacket.getLockstepNumber();
 
 		if (!tasksPacket.getTasks().isEmpty()) {
-			synchronized (tasks) {
-				System.out.println("Scheduled SyncTasksPacket(" + tasksPacket + " for " + getLockstepText(tasksPacket.getLockstepNumber()));
-				tasks.addLast(tasksPacket);
-				Collections.sort(tasks, tasksByTimeComparator);
-				saveReplayIfNeeded(tasksPacket);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Scheduled SyncTasksPacket(" + tasksPacket + " for " + getLockstepText(tasksPacket.getLockstepNumber()));
 			}
+			tasks.put(getTasksKey(tasksPacket.getLockstepNumber()), tasksPacket);
+			saveReplayIfNeeded(tasksPacket);
 		}
 		maxAllowedLockstep = Math.max(maxAllowedLockstep, tasksPacket.getLockstepNumber());
 
@@ -303,13 +418,23 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 		}
 	}
 
+	/**
+	 * Creates the key of a {@link SyncTasksPacket} in {@link #tasks}. Packets are ordered by their lockstep and packets of the same lockstep keep the
+	 * order they have been scheduled in.
+	 */
+	private long getTasksKey(int lockstep) {
+		return ((long) lockstep << 32) | (tasksSequence.getAndIncrement() & 0xffffffffL);
+	}
+
 	private void saveReplayIfNeeded(SyncTasksPacket tasksPacket) {
-		if (replayLogStream != null) {
-			try {
-				tasksPacket.serialize(replayLogStream);
-				replayLogStream.flush();
-			} catch (IOException e) {
-				e.printStackTrace();
+		synchronized (replayLogLock) {
+			if (replayLogStream != null) {
+				try {
+					tasksPacket.serialize(replayLogStream);
+					replayLogStream.flush();
+				} catch (IOException e) {
+					logger.error(e);
+				}
 			}
 		}
 	}
@@ -331,7 +456,9 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 		}
 
 		if (replayFileStream != null) {
-			replayLogStream = replayFileStream;
+			synchronized (replayLogLock) {
+				replayLogStream = replayFileStream;
+			}
 		} else {
 			closeReplayLogStreamIfNeeded();
 		}
@@ -339,21 +466,23 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 
 	@Override
 	public synchronized void saveRemainingTasks(DataOutputStream dos) throws IOException {
-		for (SyncTasksPacket task : tasks) {
+		for (SyncTasksPacket task : tasks.values()) {
 			task.serialize(dos);
 		}
 		dos.flush();
 	}
 
 	private void closeReplayLogStreamIfNeeded() {
-		if (replayLogStream != null) {
-			try {
-				replayLogStream.flush();
-				replayLogStream.close();
-			} catch (IOException e) {
-				e.printStackTrace();
-			} finally {
-				replayLogStream = null;
+		synchronized (replayLogLock) {
+			if (replayLogStream != null) {
+				try {
+					replayLogStream.flush();
+					replayLogStream.close();
+				} catch (IOException e) {
+					logger.error(e);
+				} finally {
+					replayLogStream = null;
+				}
 			}
 		}
 	}
@@ -369,19 +498,29 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 		} catch (IOException e1) { // something went wrong, or the stream was empty
 			try {
 				if (dataInputStream.read() == -1) {
-					System.out.println("Successfully loaded jsettlers.integration.replay file.");
+					logger.info("Successfully loaded jsettlers.integration.replay file.");
 				} else {
-					System.out.println("Error loading jsettlers.integration.replay file.");
-					e1.printStackTrace();
+					logger.warn("Error loading jsettlers.integration.replay file.");
+					logger.error(e1);
 				}
 			} catch (IOException e2) {
-				System.out.println("Error loading jsettlers.integration.replay file.");
-				e1.printStackTrace();
-				e2.printStackTrace();
+				logger.warn("Error loading jsettlers.integration.replay file.");
+				logger.error(e1);
+				logger.error(e2);
 			}
 		}
 	}
 
+	@Override
+	public void setLogger(Logger logger) {
+		this.logger.setLogger(logger);
+	}
+
+	@Override
+	public void setRunDurationListener(IRunDurationListener runDurationListener) {
+		this.runDurationListener = runDurationListener;
+	}
+
 	private String getLockstepText(int lockstep) {
 		int time = lockstep * NetworkConstants.Client.LOCKSTEP_PERIOD;
 		int hours = time / (1000 * 60 * 60);
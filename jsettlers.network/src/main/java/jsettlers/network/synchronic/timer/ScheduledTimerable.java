@@ -25,6 +25,7 @@ public final class ScheduledTimerable {
 	private final INetworkTimerable timerable;
 	private final short delay;
 	private short currDelay;
+	private boolean removed;
 
 	public ScheduledTimerable(INetworkTimerable timerable, short delay) {
 		this.timerable = timerable;
@@ -36,6 +37,14 @@ public final class ScheduledTimerable {
 		return timerable;
 	}
 
+	void markRemoved() {
+		removed = true;
+	}
+
+	boolean isRemoved() {
+		return removed;
+	}
+
 	/**
 	 * Checks if this task needs to be executed. (Is able to execute tasks serveral times if needed
 	 * 
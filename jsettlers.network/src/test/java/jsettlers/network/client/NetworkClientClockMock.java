@@ -21,7 +21,9 @@ import java.util.LinkedList;
 
 import jsettlers.network.client.task.packets.SyncTasksPacket;
 import jsettlers.network.client.task.packets.TaskPacket;
+import jsettlers.network.infrastructure.log.Logger;
 import jsettlers.network.synchronic.timer.INetworkTimerable;
+import jsettlers.network.synchronic.timer.IRunDurationListener;
 import jsettlers.network.synchronic.timer.ITaskExecutor;
 
 /**
@@ -102,6 +104,21 @@ public class NetworkClientClockMock implements INetworkClientClock {
 		throw new UnsupportedOperationException("not mocked");
 	}
 
+	@Override
+	public void setMaxSpeed(boolean maxSpeed) {
+		throw new UnsupportedOperationException("not mocked");
+	}
+
+	@Override
+	public boolean isMaxSpeed() {
+		throw new UnsupportedOperationException("not mocked");
+	}
+
+	@Override
+	public float getAchievedSpeed() {
+		throw new UnsupportedOperationException("not mocked");
+	}
+
 	@Override
 	public void remove(INetworkTimerable timerable) {
 		throw new UnsupportedOperationException("not mocked");
@@ -141,6 +158,14 @@ public class NetworkClientClockMock implements INetworkClientClock {
 	public void setReplayLogStream(DataOutputStream replayFileStream) {
 	}
 
+	@Override
+	public void setLogger(Logger logger) {
+	}
+
+	@Override
+	public void setRunDurationListener(IRunDurationListener runDurationListener) {
+	}
+
 	@Override
 	public void loadReplayLogFromStream(DataInputStream dataInputStream) {
 	}
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.GenericDeserializer;
+import jsettlers.network.infrastructure.channel.TestPacket;
+import jsettlers.network.infrastructure.channel.listeners.BufferingPacketListener;
+import jsettlers.network.infrastructure.channel.packet.EmptyPacket;
+import jsettlers.network.infrastructure.channel.reject.RejectPacket;
+import jsettlers.network.infrastructure.channel.socket.standard.JavaSocketAdapter;
+import jsettlers.network.infrastructure.log.ConsoleLogger;
+
+/**
+ * Test for class {@link NioChannel}.
+ */
+public class NioChannelTest {
+	private NioSelectorPool selectorPool;
+	private ServerSocketChannel serverSocket;
+	private final List<Channel> channels = new ArrayList<>();
+
+	@Before
+	public void setUp() throws IOException {
+		selectorPool = new NioSelectorPool("TestSelector", 2);
+		selectorPool.start();
+
+		serverSocket = ServerSocketChannel.open();
+		serverSocket.bind(new InetSocketAddress("127.0.0.1", 0));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (Channel channel : channels) {
+			channel.close();
+		}
+		serverSocket.close();
+		selectorPool.shutdown();
+	}
+
+	@Test
+	public void testConnection() throws Exception {
+		Channel[] pair = createNioChannels();
+
+		BufferingPacketListener<TestPacket> listener1 = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, TestPacket.DEFAULT_DESERIALIZER);
+		BufferingPacketListener<TestPacket> listener2 = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, TestPacket.DEFAULT_DESERIALIZER);
+		pair[0].registerListener(listener1);
+		pair[1].registerListener(listener2);
+
+		TestPacket testPacket = new TestPacket("dlkfjs", -23423);
+		pair[0].sendPacket(ENetworkKey.TEST_PACKET, testPacket);
+		pair[1].sendPacket(ENetworkKey.TEST_PACKET, testPacket);
+
+		Thread.sleep(80L);
+
+		assertReceived(listener1, testPacket);
+		assertReceived(listener2, testPacket);
+	}
+
+	@Test
+	public void testManyLargePacketsKeepOrder() throws Exception {
+		Channel[] pair = createNioChannels();
+
+		BufferingPacketListener<TestPacket> listener = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, TestPacket.DEFAULT_DESERIALIZER);
+		pair[1].registerListener(listener);
+
+		final int NUMBER_OF_PACKETS = 500;
+		List<TestPacket> sentPackets = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_PACKETS; i++) {
+			TestPacket packet = new TestPacket(createString(i * 97 % 40000), i);
+			sentPackets.add(packet);
+			pair[0].sendPacket(ENetworkKey.TEST_PACKET, packet);
+		}
+
+		List<TestPacket> receivedPackets = new ArrayList<>();
+		for (int i = 0; i < 100 && receivedPackets.size() < NUMBER_OF_PACKETS; i++) {
+			Thread.sleep(20L);
+			receivedPackets.addAll(listener.popBufferedPackets());
+		}
+
+		assertEquals(sentPackets, receivedPackets);
+	}
+
+	@Test
+	public void testInteroperabilityWithBlockingChannel() throws Exception {
+		SocketChannel clientSocket = SocketChannel.open(serverSocket.getLocalAddress());
+		Channel blockingChannel = start(new Channel(new JavaSocketAdapter(serverSocket.accept().socket())));
+		Channel nioChannel = start(new NioChannel(new ConsoleLogger("nio"), clientSocket, selectorPool));
+
+		BufferingPacketListener<TestPacket> blockingListener = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, TestPacket.DEFAULT_DESERIALIZER);
+		BufferingPacketListener<TestPacket> nioListener = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, TestPacket.DEFAULT_DESERIALIZER);
+		blockingChannel.registerListener(blockingListener);
+		nioChannel.registerListener(nioListener);
+
+		TestPacket largePacket = new TestPacket(createString(50000), 17);
+		blockingChannel.sendPacket(ENetworkKey.TEST_PACKET, largePacket);
+		nioChannel.sendPacket(ENetworkKey.TEST_PACKET, largePacket);
+		nioChannel.initPinging();
+
+		Thread.sleep(100L);
+
+		assertReceived(blockingListener, largePacket);
+		assertReceived(nioListener, largePacket);
+		assertTrue(System.currentTimeMillis() - nioChannel.getRoundTripTime().getLastUpdated() < 100);
+	}
+
+	@Test
+	public void testRejectSendingForUnlistenedPackets() throws Exception {
+		Channel[] pair = createNioChannels();
+
+		BufferingPacketListener<RejectPacket> rejectListener = new BufferingPacketListener<>(NetworkConstants.ENetworkKey.REJECT_PACKET,
+				new GenericDeserializer<>(RejectPacket.class));
+		pair[0].registerListener(rejectListener);
+
+		pair[0].sendPacket(ENetworkKey.TEST_PACKET, new EmptyPacket());
+
+		Thread.sleep(50L);
+		List<RejectPacket> rejects = rejectListener.popBufferedPackets();
+		assertEquals(1, rejects.size());
+		assertEquals(ENetworkKey.TEST_PACKET, rejects.get(0).getRejectedKey());
+	}
+
+	@Test
+	public void testCloseOtherSide() throws Exception {
+		Channel[] pair = createNioChannels();
+		final int[] closed = new int[2];
+		pair[0].setChannelClosedListener(() -> closed[0]++);
+		pair[1].setChannelClosedListener(() -> closed[1]++);
+
+		pair[1].close();
+		assertTrue(pair[1].isClosed());
+
+		Thread.sleep(50L);
+		assertTrue(pair[0].isClosed());
+
+		pair[0].close();
+		pair[1].close();
+		Thread.sleep(50L);
+		assertEquals(1, closed[0]);
+		assertEquals(1, closed[1]);
+
+		pair[0].sendPacket(ENetworkKey.TEST_PACKET, new TestPacket(1)); // sending on a closed channel is ignored
+	}
+
+	@Test
+	public void testSendingBlocksWhilePartnerDoesNotRead() throws Exception {
+		SocketChannel clientSocket = SocketChannel.open(serverSocket.getLocalAddress());
+		Socket notReadingSocket = serverSocket.accept().socket();
+		Channel nioChannel = start(new NioChannel(new ConsoleLogger("nio"), clientSocket, selectorPool));
+
+		final TestPacket largePacket = new TestPacket(createString(30000), 3);
+		final int[] sentPackets = new int[1];
+		Thread senderThread = new Thread(() -> {
+			for (int i = 0; i < 1000; i++) {
+				nioChannel.sendPacket(ENetworkKey.TEST_PACKET, largePacket);
+				sentPackets[0]++;
+			}
+		});
+		senderThread.start();
+
+		Thread.sleep(300L);
+		assertTrue(senderThread.isAlive());
+
+		nioChannel.close();
+		senderThread.join(1000L);
+		assertFalse(senderThread.isAlive());
+		notReadingSocket.close();
+	}
+
+	@Test
+	public void testSelectorThreadIsNotBlockedBySendingToNotReadingPartner() throws Exception {
+		SocketChannel clientSocket = SocketChannel.open(serverSocket.getLocalAddress());
+		Socket notReadingSocket = serverSocket.accept().socket();
+		Channel slowChannel = start(new NioChannel(new ConsoleLogger("slow"), clientSocket, selectorPool));
+		Channel[] pair = createNioChannels();
+
+		final TestPacket largePacket = new TestPacket(createString(30000), 3);
+		BufferingPacketListener<TestPacket> forwardingListener = new BufferingPacketListener<TestPacket>(ENetworkKey.TEST_PACKET,
+				TestPacket.DEFAULT_DESERIALIZER) {
+			@Override
+			protected void receivePacket(ENetworkKey key, TestPacket packet) throws IOException {
+				super.receivePacket(key, packet);
+				for (int i = 0; i < 1000; i++) { // called on a selector thread
+					slowChannel.sendPacket(ENetworkKey.TEST_PACKET, largePacket);
+				}
+			}
+		};
+		pair[1].registerListener(forwardingListener);
+
+		TestPacket testPacket = new TestPacket("forward", 1);
+		pair[0].sendPacket(ENetworkKey.TEST_PACKET, testPacket);
+		Thread.sleep(300L);
+		assertReceived(forwardingListener, testPacket);
+		assertTrue(slowChannel.isClosed());
+
+		pair[0].sendPacket(ENetworkKey.TEST_PACKET, testPacket);
+		Thread.sleep(100L);
+		assertReceived(forwardingListener, testPacket);
+		notReadingSocket.close();
+	}
+
+	private Channel[] createNioChannels() throws IOException {
+		SocketChannel clientSocket = SocketChannel.open(serverSocket.getLocalAddress());
+		SocketChannel acceptedSocket = serverSocket.accept();
+
+		Channel[] pair = new Channel[2];
+		pair[0] = start(new NioChannel(new ConsoleLogger("client"), clientSocket, selectorPool));
+		pair[1] = start(new NioChannel(new ConsoleLogger("server"), acceptedSocket, selectorPool));
+		return pair;
+	}
+
+	private Channel start(Channel channel) {
+		channels.add(channel);
+		channel.start();
+		return channel;
+	}
+
+	private static void assertReceived(BufferingPacketListener<TestPacket> listener, TestPacket expected) {
+		List<TestPacket> packets = listener.popBufferedPackets();
+		assertEquals(1, packets.size());
+		assertEquals(expected, packets.get(0));
+	}
+
+	private static String createString(int length) {
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + i % 26));
+		}
+		return builder.toString();
+	}
+}
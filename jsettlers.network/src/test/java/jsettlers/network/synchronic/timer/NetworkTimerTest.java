@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.synchronic.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.client.task.TestTaskPacket;
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+import jsettlers.network.infrastructure.log.Logger;
+
+public class NetworkTimerTest {
+	private static final long TIMEOUT = 5000;
+
+	private NetworkTimer timer;
+
+	@After
+	public void tearDown() {
+		timer.stopExecution();
+	}
+
+	@Test
+	public void testMaxSpeedIsFasterThanRealTime() throws InterruptedException {
+		timer = new NetworkTimer(true);
+		CountingTimerable timerable = new CountingTimerable();
+		timer.schedule(timerable, NetworkTimer.TIME_SLICE);
+
+		long start = System.currentTimeMillis();
+		timer.setMaxSpeed(true);
+		assertTrue(timer.isMaxSpeed());
+		waitForGameTime(60 * 1000);
+		long duration = System.currentTimeMillis() - start;
+
+		timer.setMaxSpeed(false);
+		assertFalse(timer.isMaxSpeed());
+		assertTrue("took " + duration + " ms", duration < 60 * 1000 / 10);
+		assertTrue(timerable.count >= 60 * 1000 / NetworkTimer.TIME_SLICE - 1);
+	}
+
+	@Test
+	public void testMaxSpeedHonoursAllowedLockstep() throws InterruptedException {
+		timer = new NetworkTimer();
+		timer.setMaxSpeed(true);
+
+		Thread.sleep(100);
+		assertEquals(NetworkTimer.TIME_SLICE, timer.getTime()); // waiting for the first lockstep
+
+		for (int lockstep = 0; lockstep <= 3; lockstep++) {
+			timer.scheduleSyncTasksPacket(new SyncTasksPacket(lockstep, Collections.<TaskPacket> emptyList()));
+		}
+		waitForGameTime(4 * NetworkConstants.Client.LOCKSTEP_PERIOD);
+		Thread.sleep(100);
+		assertEquals(4 * NetworkConstants.Client.LOCKSTEP_PERIOD, timer.getTime()); // waiting for lockstep 4
+	}
+
+	@Test
+	public void testMaxSpeedPausesWithTheGame() throws InterruptedException {
+		timer = new NetworkTimer(true);
+		timer.setPausing(true);
+		timer.setMaxSpeed(true);
+
+		Thread.sleep(100);
+		assertEquals(0, timer.getTime());
+
+		timer.setPausing(false);
+		waitForGameTime(10 * 1000);
+	}
+
+	@Test
+	public void testTasksAreExecutedInLockstepOrder() {
+		timer = new NetworkTimer(true);
+		timer.setLogger(new RecordingLogger());
+		List<TaskPacket> executedTasks = new ArrayList<>();
+		timer.setTaskExecutor(executedTasks::add);
+
+		timer.scheduleSyncTasksPacket(new SyncTasksPacket(3, Arrays.<TaskPacket> asList(task(4), task(5))));
+		timer.scheduleSyncTasksPacket(new SyncTasksPacket(1, Collections.<TaskPacket> singletonList(task(1))));
+		timer.scheduleSyncTasksPacket(new SyncTasksPacket(3, Collections.<TaskPacket> singletonList(task(6))));
+		timer.scheduleSyncTasksPacket(new SyncTasksPacket(2, Arrays.<TaskPacket> asList(task(2), task(3))));
+
+		timer.fastForwardTo(2 * NetworkConstants.Client.LOCKSTEP_PERIOD);
+		assertEquals(Arrays.asList(task(1), task(2), task(3)), executedTasks);
+
+		timer.fastForwardTo(4 * NetworkConstants.Client.LOCKSTEP_PERIOD);
+		assertEquals(Arrays.asList(task(1), task(2), task(3), task(4), task(5), task(6)), executedTasks);
+	}
+
+	@Test
+	public void testRemovedTimerablesKeepTheOrderOfTheOthers() {
+		timer = new NetworkTimer(true);
+		RecordingLogger logger = new RecordingLogger();
+		timer.setLogger(logger);
+		List<String> events = new ArrayList<>();
+		INetworkTimerable first = () -> events.add("first");
+		INetworkTimerable second = () -> events.add("second");
+		INetworkTimerable third = () -> events.add("third");
+		timer.schedule(first, NetworkTimer.TIME_SLICE);
+		timer.schedule(second, NetworkTimer.TIME_SLICE);
+		timer.schedule(third, NetworkTimer.TIME_SLICE);
+
+		timer.fastForwardTo(NetworkTimer.TIME_SLICE);
+		assertEquals(Arrays.asList("first", "second", "third"), events);
+
+		events.clear();
+		timer.remove(second);
+		timer.schedule(second, NetworkTimer.TIME_SLICE);
+		timer.fastForwardTo(2 * NetworkTimer.TIME_SLICE);
+		assertEquals(Arrays.asList("first", "third", "second"), events);
+		assertEquals(0, logger.warnings);
+
+		events.clear();
+		timer.remove(first);
+		timer.remove(first);
+		timer.fastForwardTo(3 * NetworkTimer.TIME_SLICE);
+		assertEquals(Arrays.asList("third", "second"), events);
+		assertEquals(1, logger.warnings);
+	}
+
+	@Test
+	public void testPacketsAreOnlyLoggedWithDebugEnabled() {
+		timer = new NetworkTimer(true);
+		RecordingLogger logger = new RecordingLogger();
+		timer.setLogger(logger);
+		timer.setTaskExecutor(task -> {
+		});
+
+		timer.scheduleSyncTasksPacket(new SyncTasksPacket(1, Collections.<TaskPacket> singletonList(task(1))));
+		timer.fastForwardTo(2 * NetworkConstants.Client.LOCKSTEP_PERIOD);
+		assertEquals(0, logger.debugMessages);
+
+		logger.debugEnabled = true;
+		timer.scheduleSyncTasksPacket(new SyncTasksPacket(3, Collections.<TaskPacket> singletonList(task(2))));
+		timer.fastForwardTo(4 * NetworkConstants.Client.LOCKSTEP_PERIOD);
+		assertEquals(2, logger.debugMessages); // scheduled and executed
+	}
+
+	@Test
+	public void testRunDurationsAreReported() {
+		timer = new NetworkTimer(true);
+		List<Long> durations = new ArrayList<>();
+		timer.setRunDurationListener(durations::add);
+
+		timer.fastForwardTo(3 * NetworkTimer.TIME_SLICE);
+		assertEquals(3, durations.size());
+		for (long duration : durations) {
+			assertTrue(duration >= 0);
+		}
+
+		timer.setRunDurationListener(null);
+		timer.fastForwardTo(4 * NetworkTimer.TIME_SLICE);
+		assertEquals(3, durations.size());
+	}
+
+	private static TaskPacket task(int id) {
+		return new TestTaskPacket(null, id, (byte) 0);
+	}
+
+	private void waitForGameTime(int gameTime) throws InterruptedException {
+		long start = System.currentTimeMillis();
+		while (timer.getTime() < gameTime) {
+			assertTrue("game time did not advance: " + timer.getTime(), System.currentTimeMillis() - start < TIMEOUT);
+			Thread.sleep(1);
+		}
+	}
+
+	private static class RecordingLogger extends Logger {
+		private int warnings;
+		private int debugMessages;
+		private boolean debugEnabled;
+
+		@Override
+		public void error(Throwable e) {
+			throw new AssertionError(e);
+		}
+
+		@Override
+		public void log(String msg) {
+		}
+
+		@Override
+		public void warn(String msg) {
+			warnings++;
+		}
+
+		@Override
+		public void info(String msg) {
+		}
+
+		@Override
+		public void debug(String msg) {
+			assertTrue(debugEnabled);
+			debugMessages++;
+		}
+
+		@Override
+		public boolean isDebugEnabled() {
+			return debugEnabled;
+		}
+	}
+
+	private static class CountingTimerable implements INetworkTimerable {
+		private int count;
+
+		@Override
+		public void timerEvent() {
+			count++;
+		}
+	}
+}
@@ -17,6 +17,7 @@ package jsettlers;
 import jsettlers.common.CommonConstants;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.partition.IPartitionData;
@@ -83,6 +84,11 @@ public class GraphicsGridAdapter implements IGraphicsGrid {
 		return CommonConstants.FOG_OF_WAR_VISIBLE;
 	}
 
+	@Override
+	public IFogOfWarChangeFeed getFogOfWarChangeFeed() {
+		return null;
+	}
+
 	@Override
 	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 	}
@@ -24,6 +24,7 @@ import jsettlers.common.Color;
 import jsettlers.common.CommonConstants;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.partition.IPartitionData;
@@ -207,6 +208,11 @@ public class LandmarksThreadTester {
 			return CommonConstants.FOG_OF_WAR_VISIBLE;
 		}
 
+		@Override
+		public IFogOfWarChangeFeed getFogOfWarChangeFeed() {
+			return null;
+		}
+
 		@Override
 		public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 		}
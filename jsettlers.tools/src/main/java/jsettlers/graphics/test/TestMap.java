@@ -18,6 +18,7 @@ import jsettlers.common.CommonConstants;
 import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.partition.IPartitionData;
@@ -498,6 +499,11 @@ public class TestMap implements IGraphicsGrid {
 		return CommonConstants.FOG_OF_WAR_VISIBLE;
 	}
 
+	@Override
+	public IFogOfWarChangeFeed getFogOfWarChangeFeed() {
+		return null;
+	}
+
 	@Override
 	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 	}
@@ -24,6 +24,7 @@ import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.logging.MilliStopWatch;
 import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.partition.IPartitionData;
@@ -178,6 +179,11 @@ public class PartitionsGridTestingWnd {
 				return CommonConstants.FOG_OF_WAR_VISIBLE;
 			}
 
+			@Override
+			public IFogOfWarChangeFeed getFogOfWarChangeFeed() {
+				return null;
+			}
+
 			@Override
 			public byte getPlayerIdAt(int x, int y) {
 				return grid.getPlayerIdAt(x, y);
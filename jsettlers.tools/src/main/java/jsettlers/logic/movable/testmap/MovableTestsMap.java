@@ -25,6 +25,7 @@ import jsettlers.common.CommonConstants;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.landscape.EResourceType;
 import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IFogOfWarChangeFeed;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.partition.IPartitionData;
@@ -36,6 +37,7 @@ import jsettlers.common.movable.EDirection;
 import jsettlers.common.movable.IMovable;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageable;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBearer;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBricklayer;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableDigger;
@@ -126,6 +128,11 @@ public class MovableTestsMap implements IGraphicsGrid, IAStarPathMap {
 		return CommonConstants.FOG_OF_WAR_VISIBLE;
 	}
 
+	@Override
+	public IFogOfWarChangeFeed getFogOfWarChangeFeed() {
+		return null;
+	}
+
 	@Override
 	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 	}
@@ -160,6 +167,16 @@ public class MovableTestsMap implements IGraphicsGrid, IAStarPathMap {
 			return aStar.findPath(pathRequester, targetPos);
 		}
 
+		@Override
+		public Path calculatePathConcurrently(IPathCalculatable pathRequester, ShortPoint2D targetPos) {
+			return new BucketQueueAStar(MovableTestsMap.this, width, height).findPath(pathRequester, targetPos);
+		}
+
+		@Override
+		public long getPathfindingVersion() {
+			return 0; // nothing is ever blocked on this map
+		}
+
 		@Override
 		public void addJobless(IManageableBearer bearer) {
 			if (!materials.isEmpty()) {
@@ -330,6 +347,10 @@ public class MovableTestsMap implements IGraphicsGrid, IAStarPathMap {
 		public void addJobless(IManageableBricklayer bricklayer) {
 		}
 
+		@Override
+		public void joblessPositionChanged(IManageable jobless, ShortPoint2D oldPosition) {
+		}
+
 		@Override
 		public void changeHeightTowards(int x, int y, byte targetHeight) {
 		}